@@ -49,6 +49,44 @@ application {
     applicationDefaultJvmArgs = listOf("-Dio.ktor.development=$isDevelopment") // JVM arguments for the environment
 }
 
+// Benchmark Argon2 on this host and recommend the password hashing cost (e.g., ./gradlew calibrateArgon2 -PtargetMs=100)
+tasks.register<JavaExec>("calibrateArgon2") {
+    group = "application"
+    description = "Recommends Argon2 settings that hash a password within the target time on this host."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.unrecorded.database.util.Argon2Calibrator")
+    args = listOf(
+        project.findProperty("targetMs")?.toString() ?: "100",
+        project.findProperty("parallelism")?.toString() ?: "4",
+        project.findProperty("samples")?.toString() ?: "5"
+    )
+}
+
+// Compare the plain and read-only transaction modes on the list queries (e.g., ./gradlew benchmarkReadOnly -Prows=5000)
+tasks.register<JavaExec>("benchmarkReadOnly") {
+    group = "application"
+    description = "Measures time, CPU and allocations of the list queries with and without read-only transactions."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.unrecorded.database.util.ReadOnlyBenchmark")
+    args = listOf(
+        project.findProperty("rows")?.toString() ?: "5000",
+        project.findProperty("samples")?.toString() ?: "20"
+    )
+}
+
+// Compare the former SHA-256 entity hash with MiscUtils.hash (e.g., ./gradlew benchmarkEntityHash -Pmessages=10000)
+tasks.register<JavaExec>("benchmarkEntityHash") {
+    group = "application"
+    description = "Measures time, CPU and allocations of hashing loaded messages with the former and the current hash."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.unrecorded.database.util.EntityHashBenchmark")
+    args = listOf(
+        project.findProperty("messages")?.toString() ?: "10000",
+        project.findProperty("contentBytes")?.toString() ?: "1024",
+        project.findProperty("samples")?.toString() ?: "20"
+    )
+}
+
 // Configure Maven Central as the repository for dependencies
 repositories {
     mavenCentral() // Use Maven Central repository to fetch dependencies
@@ -61,6 +99,7 @@ dependencies {
     implementation("io.ktor:ktor-server-status-pages:$ktorVersion") // Ktor status pages feature for error handling
     implementation("io.ktor:ktor-network-tls-jvm:$ktorVersion") // Network TLS support for secure connections
     implementation("io.ktor:ktor-server-netty:$ktorVersion") // Netty engine for Ktor
+    implementation("io.ktor:ktor-server-websockets:$ktorVersion") // WebSocket support for real-time message push
 
     // Configuration and content negotiation
     implementation("io.ktor:ktor-server-config-yaml:$ktorVersion") // Support for YAML-based configuration
@@ -73,8 +73,9 @@ import org.hibernate.cfg.Configuration;
  * <h2>Lifecycle Management:</h2>
  * <p>To ensure proper resource management:</p>
  * <ul>
- *   <li>The {@code buildSessionFactory} method is invoked during the class's initialization 
- *       to configure and initialize the {@link SessionFactory} instance.</li>
+ *   <li>The {@code buildSessionFactory} method is invoked on the first call to {@link #getSessionFactory()}
+ *       to configure and initialize the {@link SessionFactory} instance. Other static helpers, such as
+ *       {@link #getConnectionPoolSize(int)}, never trigger it.</li>
  *   <li>The {@code shutdown} method should be explicitly called during application shutdown to
  *       close the {@link SessionFactory} and release resources.</li>
  * </ul>
@@ -94,10 +95,11 @@ import org.hibernate.cfg.Configuration;
 public class DBA {
 
     /**
-     * A singleton instance of the {@link SessionFactory} used throughout the application.
+     * Holds the singleton instance of the {@link SessionFactory} used throughout the application.
      *
-     * <p>The {@link SessionFactory} is created during the initialization of the `DBA` class
-     * by invoking the {@link #buildSessionFactory()} method.
+     * <p>The {@link SessionFactory} is created when this holder class is initialized, which the JVM does on the
+     * first call to {@link #getSessionFactory()}, by invoking the {@link #buildSessionFactory()} method.
+     * Class initialization is thread-safe, so the factory is built exactly once without explicit locking.
      * All database sessions are expected to originate from this single 
      * instance to ensure consistency and resource efficiency.</p>
      *
@@ -105,7 +107,9 @@ public class DBA {
      * file, which specifies parameters such as the database connection URL, user credentials, dialect,
      * and annotated entity classes.</p>
      */
-    private static final SessionFactory sessionFactory = buildSessionFactory();
+    private static final class SessionFactoryHolder {
+        private static final SessionFactory INSTANCE = buildSessionFactory();
+    }
 
     /**
      * Initializes and returns a new {@link SessionFactory} instance.
@@ -167,10 +171,37 @@ public class DBA {
      *       and closed when no longer needed.</li>
      * </ul>
      *
-     * @return The singleton {@link SessionFactory} instance, initialized during class loading.
+     * @return The singleton {@link SessionFactory} instance, initialized on the first call.
+     * @throws ExceptionInInitializerError If the {@link SessionFactory} cannot be built.
      */
     public static SessionFactory getSessionFactory() {
-        return sessionFactory;
+        return SessionFactoryHolder.INSTANCE;
+    }
+
+    /**
+     * Reads the maximum size of the c3p0 connection pool declared in `hibernate.cfg.xml`.
+     *
+     * <p>The value is taken straight from the configuration file, so calling this method does not
+     * build the {@link SessionFactory} or open any database connection.
+     * It lets components that must not outgrow the pool (e.g., worker pools executing repository calls)
+     * size themselves against the same limit as Hibernate.</p>
+     *
+     * <h3>Usage:</h3>
+     * <pre>{@code
+     * int poolSize = DBA.getConnectionPoolSize(50); // 50 with the shipped configuration
+     * }</pre>
+     *
+     * @param fallback The value returned if the property is missing or not a positive number.
+     * @return The configured `hibernate.c3p0.max_size`, or {@code fallback} if it cannot be determined.
+     */
+    public static int getConnectionPoolSize(int fallback) {
+        try {
+            String maxSize = new Configuration().configure().getProperty("hibernate.c3p0.max_size");
+            int size = maxSize == null ? fallback : Integer.parseInt(maxSize.trim());
+            return size > 0 ? size : fallback;
+        } catch (Exception ex) {
+            return fallback;
+        }
     }
 
     /**
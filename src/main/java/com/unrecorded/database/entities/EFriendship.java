@@ -130,13 +130,14 @@ public class EFriendship {
     }
 
     /**
-     * Computes the hash code value for this object based on its primary key and status.
+     * Computes the hash code value for this object based on its primary key only,
+     * so it remains stable when the status changes.
      *
      * @return An integer representing the hash code.
      */
     @Override
     public int hashCode() {
-        return MiscUtils.hash(id, status);
+        return MiscUtils.hash(id);
     }
 
     /**
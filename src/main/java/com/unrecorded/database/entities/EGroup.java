@@ -151,13 +151,13 @@ public class EGroup {
     }
 
     /**
-     * Computes a hash code for this EGroup instance based on its fields.
+     * Computes a hash code for this EGroup instance based on its identifier.
      *
      * @return An integer representing the computed hash code.
      */
     @Override
     public int hashCode() {
-        return MiscUtils.hash(id, name, ownerId);
+        return MiscUtils.hash(id);
     }
 
     /**
@@ -130,13 +130,14 @@ public class EGroupMember {
     }
 
     /**
-     * Evaluates the hash code of this EGroupMember, based on its ID and role properties.
+     * Evaluates the hash code of this EGroupMember, based on its ID only,
+     * so it remains stable when the role changes.
      *
      * @return An integer representing the hash code.
      */
     @Override
     public int hashCode() {
-        return MiscUtils.hash(id, role);
+        return MiscUtils.hash(id);
     }
 
     /**
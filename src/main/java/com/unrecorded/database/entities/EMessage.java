@@ -16,11 +16,15 @@
 
 package com.unrecorded.database.entities;
 
+import com.unrecorded.database.util.ConversationKey;
 import com.unrecorded.database.util.MiscUtils;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.CreationTimestamp;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,13 +46,15 @@ import java.util.UUID;
  *   an optional recipient (`recipient_id`) or group (`group_id`).</li>
  *   <li>Soft deletion is managed via the `deleted_sender` and `deleted_recipient` fields, enabling soft deletion tracking for audit purposes.</li>
  *   <li>Messages are associated with group conversations when the `is_group` flag is set to {@code true}.</li>
+ *   <li>Direct messages carry a `conversation_id` derived from the unordered sender/recipient pair
+ *   (see {@link ConversationKey}), so a conversation is looked up through one indexed equality predicate.</li>
  * </ul>
  *
  * <p><b>Note:</b>
  * The schema enforces constraints to ensure either a recipient or group is set for each message, but not both.</p>
  *
  * @author Sergiu Chirap
- * @version 1.2
+ * @version 1.4
  * @see com.unrecorded.database.repositories.MessagePSQL MessagePSQL
  * @since PREVIEW
  */
@@ -58,9 +64,11 @@ public class EMessage {
 
     /**
      * Represents the unique identifier for a message within the system.
-     * <p>This is generated by the database.</p>
+     * <p>Generated by Hibernate when the message is persisted, so that inserts need no round trip to read it back
+     * and can be grouped into JDBC batches.</p>
      */
     @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "message_id", updatable = false, nullable = false)
     @Nullable
     private UUID id = null;
@@ -104,6 +112,14 @@ public class EMessage {
     @Nullable
     private UUID groupId;
 
+    /**
+     * Represents the canonical identifier of the direct conversation the message belongs to.
+     * <p>Derived from the sender and recipient through {@link ConversationKey}; null for group messages.</p>
+     */
+    @Column(name = "conversation_id")
+    @Nullable
+    private UUID conversationId;
+
     /**
      * Indicates whether the message is part of a group conversation.
      * <p>Defaults to false.</p>>
@@ -120,8 +136,9 @@ public class EMessage {
 
     /**
      * Stores the timestamp of when the message was created or last modified.
-     * <p>Managed by database.</p>
+     * <p>Set when the message is persisted.</p>
      */
+    @CreationTimestamp
     @Column(name = "timestamp", nullable = false, columnDefinition = "TIMESTAMPTZ")
     @NotNull
     private ZonedDateTime timestamp;
@@ -154,6 +171,7 @@ public class EMessage {
         this.groupId = groupId;
         this.isGroup = isGroup;
         this.contentEncrypted = contentEncrypted;
+        refreshConversationId();
     }
 
     /**
@@ -181,6 +199,7 @@ public class EMessage {
      */
     public void setSender(@Nullable UUID senderId) {
         this.senderId = senderId;
+        refreshConversationId();
     }
 
     /**
@@ -217,6 +236,7 @@ public class EMessage {
      */
     public void setRecipientId(@Nullable UUID recipientId) {
         this.recipientId = recipientId;
+        refreshConversationId();
     }
 
     /**
@@ -271,6 +291,26 @@ public class EMessage {
      */
     public void setGroup(boolean group) {
         isGroup = group;
+        refreshConversationId();
+    }
+
+    /**
+     * Retrieves the canonical identifier of the direct conversation.
+     *
+     * @return The {@code UUID} of the conversation (null if it is a group message).
+     */
+    public @Nullable UUID getConversationId() {
+        return conversationId;
+    }
+
+    /**
+     * Recomputes the conversation identifier from the sender and recipient.
+     * Group messages have none; a direct message that lost a participant keeps its previous key,
+     * just like the database keeps {@code conversation_id} when a user is deleted.
+     */
+    private void refreshConversationId() {
+        if (isGroup) conversationId = null;
+        else if (senderId != null && recipientId != null) conversationId = ConversationKey.of(senderId, recipientId);
     }
 
     /**
@@ -330,13 +370,14 @@ public class EMessage {
     }
 
     /**
-     * Computes the hash code for this object using its significant attributes.
+     * Computes the hash code for this object using its identifier only.
+     * The encrypted content is deliberately left out, since it can be arbitrarily large.
      *
      * @return An integer representing the hash code of this object.
      */
     @Override
     public int hashCode() {
-        return MiscUtils.hash(id, senderId, deletedSender, recipientId, deletedRecipient, groupId, isGroup, contentEncrypted, timestamp, isDeleted);
+        return MiscUtils.hash(id);
     }
 
     /**
@@ -94,6 +94,14 @@ public class ENotification {
     @NotNull
     private ZonedDateTime timestamp;
 
+    /**
+     * Represents the number of notifications merged into this one.
+     * <p>It is {@code 1} for a plain notification and grows each time a coalescing write merges a further
+     * notification of the same type into it.</p>
+     */
+    @Column(name = "coalesced_count", nullable = false)
+    private int coalescedCount = 1;
+
     /**
      * Default constructor required by JPA.
      */
@@ -207,6 +215,15 @@ public class ENotification {
         return timestamp;
     }
 
+    /**
+     * Retrieves the number of notifications merged into this one.
+     *
+     * @return {@code 1} for a plain notification, or the size of the merged burst.
+     */
+    public int getCoalescedCount() {
+        return coalescedCount;
+    }
+
     /**
      * Checks if this object is equal to the specified object.
      *
@@ -221,22 +238,22 @@ public class ENotification {
     }
 
     /**
-     * Generates a hash code for this object using its identifier and properties.
+     * Generates a hash code for this object using its identifier.
      *
-     * @return An integer hash code value based on the object's id and properties.
+     * @return An integer hash code value based on the object's id.
      */
     @Override
     public int hashCode() {
-        return MiscUtils.hash(id, userId, type, content, isRead, timestamp);
+        return MiscUtils.hash(id);
     }
 
     /**
-     * Returns a string representation of the Notification entity, including notification ID, user ID, type, content, read status, and timestamp.
+     * Returns a string representation of the Notification entity, including notification ID, user ID, type, content, read status, timestamp, and coalesced count.
      *
      * @return A formatted string containing the notification ID, user ID, type, content, read status, and timestamp associated with this Notification.
      */
     @Override
     public String toString() {
-        return String.format("// HibernateORM Entity 'Notification':\n Id: %s\n User ID: %s\n Type: %s\n Content: %s\n Read: %b\n Timestamp: %s //\n", id, userId, type, content, isRead, timestamp);
+        return String.format("// HibernateORM Entity 'Notification':\n Id: %s\n User ID: %s\n Type: %s\n Content: %s\n Read: %b\n Timestamp: %s\n Coalesced: %d //\n", id, userId, type, content, isRead, timestamp, coalescedCount);
     }
 }
\ No newline at end of file
@@ -120,7 +120,7 @@ public class EReaction {
      */
     @Override
     public int hashCode() {
-        return id.hashCode();
+        return MiscUtils.hash(id);
     }
 
     /**
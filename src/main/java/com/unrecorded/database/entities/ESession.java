@@ -17,6 +17,7 @@
 package com.unrecorded.database.entities;
 
 import com.unrecorded.database.util.MiscUtils;
+import com.unrecorded.database.util.TokenDigest;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -45,6 +46,7 @@ import java.util.UUID;
  *   <li>Each session is uniquely associated with a user (`user_id`) in the system.</li>
  *   <li>The session relationship is enforced via a foreign key constraint at the database level.</li>
  *   <li>Tokens (`token`) are assigned to uniquely identify a validated user session.</li>
+ *   <li>Each token is looked up through its SHA-256 digest (`token_hash`), which is kept in sync with the token.</li>
  * </ul>
  *
  * <h2>Key Features:</h2>
@@ -90,6 +92,16 @@ public class ESession {
     @NotNull
     private String token;
 
+    /**
+     * Represents the SHA-256 digest of the token.
+     * <p>Derived from {@link #token} whenever it is set and backed by a unique index, so sessions are looked up by
+     * this fixed-width key instead of the token text.</p>
+     *
+     * @see TokenDigest
+     */
+    @Column(name = "token_hash", nullable = false)
+    private byte @NotNull [] tokenHash;
+
     /**
      * Represents the expiration time of the session.
      * <p>Once this timestamp is reached, the session is considered invalid.</p>
@@ -114,6 +126,7 @@ public class ESession {
     public ESession(@NotNull UUID userId, @NotNull String token, @NotNull ZonedDateTime expiresAt) {
         this.userId = userId;
         this.token = token;
+        this.tokenHash = TokenDigest.of(token);
         this.expiresAt = expiresAt;
     }
 
@@ -160,6 +173,16 @@ public class ESession {
      */
     public void setToken(@NotNull String token) {
         this.token = token;
+        this.tokenHash = TokenDigest.of(token);
+    }
+
+    /**
+     * Retrieves the SHA-256 digest of the session token.
+     *
+     * @return The 32-byte digest of the token.
+     */
+    public byte @NotNull [] getTokenHash() {
+        return tokenHash;
     }
 
     /**
@@ -194,13 +217,13 @@ public class ESession {
     }
 
     /**
-     * Generates a hash code for this object using its identifier and properties.
+     * Generates a hash code for this object using its identifier.
      *
-     * @return An integer hash code value based on the object's id and properties.
+     * @return An integer hash code value based on the object's id.
      */
     @Override
     public int hashCode() {
-        return MiscUtils.hash(id, userId, token, expiresAt);
+        return MiscUtils.hash(id);
     }
 
     /**
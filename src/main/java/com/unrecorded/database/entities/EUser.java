@@ -56,9 +56,11 @@ public class EUser {
 
     /**
      * Represents the unique identifier for a user.
-     * <p>This ID is automatically generated by the database and is immutable post-creation.</p>
+     * <p>Generated by Hibernate when the user is persisted, so registration needs no round trip to read it back.
+     * It is immutable post-creation.</p>
      */
     @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "user_id", updatable = false, nullable = false)
     @Nullable
     private UUID id;
@@ -268,13 +270,13 @@ public class EUser {
     }
 
     /**
-     * Computes the hash code for this object using its significant attributes.
+     * Computes the hash code for this object using its identifier only.
      *
      * @return An integer representing the hash code of this object.
      */
     @Override
     public int hashCode() {
-        return MiscUtils.hash(id, username, passHash, email, publicKey, privateKey);
+        return MiscUtils.hash(id);
     }
 
     /**
@@ -0,0 +1,104 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.repositories;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The outcome of a single item of a batch operation.
+ *
+ * <p>Batch operations never fail as a whole because of one bad item. Instead, they report one outcome per item,
+ * identified by a key that is meaningful to the caller (e.g., the position of the item in the request, or the
+ * identifier of the affected row).</p>
+ *
+ * <h2>Statuses:</h2>
+ * <ul>
+ *   <li>{@link Status#APPLIED}: The item was written.</li>
+ *   <li>{@link Status#SKIPPED}: The item was valid but had nothing to change (e.g., it already existed).</li>
+ *   <li>{@link Status#REJECTED}: The item failed validation and was never sent to the database.</li>
+ *   <li>{@link Status#FAILED}: The database refused the item (e.g., a foreign key violation).</li>
+ * </ul>
+ *
+ * @param key    Identifies the item within the batch.
+ * @param status What happened to the item.
+ * @param detail Additional information, such as the identifier of a created row or the reason of a failure.
+ * @param <K>    The type of the key.
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @since 0.5
+ */
+public record BatchOutcome<K>(@NotNull K key, @NotNull Status status, @Nullable String detail) {
+
+    /**
+     * The possible outcomes of a batch item.
+     */
+    public enum Status {
+        APPLIED,
+        SKIPPED,
+        REJECTED,
+        FAILED
+    }
+
+    /**
+     * Creates an {@link Status#APPLIED} outcome.
+     *
+     * @param key    Identifies the item within the batch.
+     * @param detail Additional information, or {@code null}.
+     * @param <K>    The type of the key.
+     * @return The outcome.
+     */
+    public static <K> @NotNull BatchOutcome<K> applied(@NotNull K key, @Nullable String detail) {
+        return new BatchOutcome<>(key, Status.APPLIED, detail);
+    }
+
+    /**
+     * Creates a {@link Status#SKIPPED} outcome.
+     *
+     * @param key    Identifies the item within the batch.
+     * @param detail The reason the item was skipped, or {@code null}.
+     * @param <K>    The type of the key.
+     * @return The outcome.
+     */
+    public static <K> @NotNull BatchOutcome<K> skipped(@NotNull K key, @Nullable String detail) {
+        return new BatchOutcome<>(key, Status.SKIPPED, detail);
+    }
+
+    /**
+     * Creates a {@link Status#REJECTED} outcome.
+     *
+     * @param key    Identifies the item within the batch.
+     * @param detail The validation error.
+     * @param <K>    The type of the key.
+     * @return The outcome.
+     */
+    public static <K> @NotNull BatchOutcome<K> rejected(@NotNull K key, @Nullable String detail) {
+        return new BatchOutcome<>(key, Status.REJECTED, detail);
+    }
+
+    /**
+     * Creates a {@link Status#FAILED} outcome.
+     *
+     * @param key    Identifies the item within the batch.
+     * @param detail The database error.
+     * @param <K>    The type of the key.
+     * @return The outcome.
+     */
+    public static <K> @NotNull BatchOutcome<K> failed(@NotNull K key, @Nullable String detail) {
+        return new BatchOutcome<>(key, Status.FAILED, detail);
+    }
+}
@@ -25,6 +25,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -118,26 +119,28 @@ public class FriendshipPSQL implements IFriendshipRepo {
     /**
      * Updates the status of an existing friendship.
      *
-     * <p>The method ensures that the friendship exists before updating and validates the new status.</p>
+     * <p>The method validates the new status and writes it with a single targeted {@code UPDATE}. A friendship
+     * that does not exist is detected from the affected row count rather than a prior lookup, and nothing is written.</p>
      *
      * @param userId1   The UUID of the first user in the friendship.
      * @param userId2   The UUID of the second user in the friendship.
      * @param newStatus The new status for the friendship.
-     * @throws IllegalArgumentException If the status is invalid or friendship does not exist.
+     * @return The number of updated rows, {@code 0} if the friendship does not exist.
+     * @throws IllegalArgumentException If the user IDs or the status are invalid.
      * @throws DataAccessException      If there is an issue with the database update.
      */
-    public void updateFriendshipStatus(@NotNull UUID userId1, @NotNull UUID userId2, @NotNull String newStatus) throws IllegalArgumentException, DataAccessException {
+    public int updateFriendshipStatus(@NotNull UUID userId1, @NotNull UUID userId2, @NotNull String newStatus) throws IllegalArgumentException, DataAccessException {
         FieldValidator.userLinkConstraints(userId1, userId2);
         FieldValidator.friendStatusConstraints(newStatus);
         LoggerUtil.logInfo("Updating friendship status between userId1: " + userId1 + " and userId2: " + userId2);
-        HibernateUtil.executeTransaction(true, session -> {
-            EFriendship friendship = getFriendship(userId1, userId2);
-            if (friendship == null) throw new IllegalArgumentException("Friendship does not exist.");
-            friendship.setStatus(newStatus);
-            session.merge(friendship);
-            LoggerUtil.logInfo("Successfully updated friendship status between " + userId1 + " and " + userId2 + " to " + newStatus);
-            return null;
-        });
+        int updated = HibernateUtil.executeUpdate(
+                "UPDATE EFriendship SET status = :status WHERE id.userId1 = :userId1 AND id.userId2 = :userId2",
+                Map.of("status", newStatus, "userId1", userId1, "userId2", userId2),
+                EFriendship.class, new EFriendship.FriendshipId(userId1, userId2)
+        );
+        if (updated > 0) LoggerUtil.logInfo("Successfully updated friendship status between " + userId1 + " and " + userId2 + " to " + newStatus);
+        else LoggerUtil.logWarn("Friendship not found between " + userId1 + " and " + userId2);
+        return updated;
     }
 
     /**
@@ -16,8 +16,10 @@
 
 package com.unrecorded.database.repositories;
 
+import com.unrecorded.database.entities.EGroup;
 import com.unrecorded.database.entities.EGroupMember;
 import com.unrecorded.database.exceptions.DataAccessException;
+import com.unrecorded.database.services.GroupMembershipIndex;
 import com.unrecorded.database.util.FieldValidator;
 import com.unrecorded.database.util.HibernateUtil;
 import com.unrecorded.database.util.LoggerUtil;
@@ -27,7 +29,13 @@ import jakarta.persistence.criteria.Root;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -43,6 +51,9 @@ import java.util.UUID;
  *   <li>Retrieving group members or user membership details.</li>
  *   <li>Updating membership roles and other properties.</li>
  *   <li>Deleting memberships from the database.</li>
+ *   <li>Adding or removing thousands of members at once, with one statement and one outcome per user.</li>
+ *   <li>Answering membership and role checks from a {@link GroupMembershipIndex}, kept in sync with every
+ *   change made through this class.</li>
  * </ul>
  *
  * <p><b>Note:</b> All database-related exceptions are wrapped in {@link DataAccessException}
@@ -56,6 +67,49 @@ import java.util.UUID;
  */
 public class GroupMemberPSQL implements IGroupMemberRepo {
 
+    /**
+     * Adds every existing user among {@code :ids} to {@code :groupId}, skipping current members, and returns the added IDs.
+     */
+    private static final String INSERT_MEMBERS_SQL = """
+            INSERT INTO unrecorded.group_members (group_id, user_id, role)
+            SELECT :groupId, user_id, :role
+            FROM unrecorded.users
+            WHERE user_id = ANY(:ids)
+            ON CONFLICT DO NOTHING
+            RETURNING user_id""";
+
+    /**
+     * Returns the users among {@code :ids} that are members of {@code :groupId}.
+     */
+    private static final String SELECT_MEMBERS_SQL = "SELECT user_id FROM unrecorded.group_members WHERE group_id = :groupId AND user_id = ANY(:ids)";
+
+    /**
+     * Removes the users among {@code :ids} from {@code :groupId} and returns the removed IDs.
+     */
+    private static final String DELETE_MEMBERS_SQL = "DELETE FROM unrecorded.group_members WHERE group_id = :groupId AND user_id = ANY(:ids) RETURNING user_id";
+
+    /**
+     * Answers membership checks from memory, or {@code null} to query the database.
+     */
+    private final @Nullable GroupMembershipIndex membershipIndex;
+
+    /**
+     * Creates a repository that answers membership checks from the database.
+     */
+    public GroupMemberPSQL() {
+        this(null);
+    }
+
+    /**
+     * Creates a repository that answers membership checks from a {@link GroupMembershipIndex} and reports each
+     * committed change to it.
+     *
+     * @param membershipIndex The membership index, or {@code null} to query the database.
+     */
+    public GroupMemberPSQL(@Nullable GroupMembershipIndex membershipIndex) {
+        this.membershipIndex = membershipIndex;
+    }
+
     /**
      * Adds a new membership for a user in a group with the specified role.
      *
@@ -76,6 +130,7 @@ public class GroupMemberPSQL implements IGroupMemberRepo {
             LoggerUtil.logInfo("Successfully added user: " + userId + " to group: {} with role: {}", groupId.toString(), role);
             return null;
         });
+        if (membershipIndex != null) membershipIndex.memberAdded(groupId, userId, role);
     }
 
     /**
@@ -88,7 +143,7 @@ public class GroupMemberPSQL implements IGroupMemberRepo {
      */
     public @Nullable List<EGroupMember> getMembersByGroupId(@NotNull UUID groupId) throws DataAccessException {
         LoggerUtil.logInfo("Fetching members of groupId: {}", groupId.toString());
-        return HibernateUtil.executeTransaction(false, session -> {
+        return HibernateUtil.executeReadOnly(session -> {
             CriteriaBuilder builder = session.getCriteriaBuilder();
             CriteriaQuery<EGroupMember> query = builder.createQuery(EGroupMember.class);
             Root<EGroupMember> root = query.from(EGroupMember.class);
@@ -109,7 +164,7 @@ public class GroupMemberPSQL implements IGroupMemberRepo {
      */
     public @Nullable List<EGroupMember> getGroupsByUserId(@NotNull UUID userId) throws DataAccessException {
         LoggerUtil.logInfo("Fetching groups for userId: {}", userId.toString());
-        return HibernateUtil.executeTransaction(false, session -> {
+        return HibernateUtil.executeReadOnly(session -> {
             CriteriaBuilder builder = session.getCriteriaBuilder();
             CriteriaQuery<EGroupMember> query = builder.createQuery(EGroupMember.class);
             Root<EGroupMember> root = query.from(EGroupMember.class);
@@ -123,27 +178,31 @@ public class GroupMemberPSQL implements IGroupMemberRepo {
     /**
      * Updates the role of a user in a specific group.
      *
+     * <p>The role is written with a single targeted {@code UPDATE}; a missing membership is detected from the
+     * affected row count rather than a prior lookup, and nothing is written.</p>
+     *
      * @param groupId The ID of the group.
      * @param userId  The ID of the user.
      * @param newRole The new role to assign.
+     * @return The number of updated rows, {@code 0} if the user is not a member of the group.
      * @throws IllegalArgumentException If validation fails for the new role.
-     * @throws DataAccessException      If a database issue occurs during the update, or if the membership record is not found.
+     * @throws DataAccessException      If a database issue occurs during the update.
      */
-    public void updateMemberRole(@NotNull UUID groupId, @NotNull UUID userId, @NotNull String newRole) throws IllegalArgumentException, DataAccessException {
+    public int updateMemberRole(@NotNull UUID groupId, @NotNull UUID userId, @NotNull String newRole) throws IllegalArgumentException, DataAccessException {
         FieldValidator.groupRoleConstraints(newRole);
         LoggerUtil.logInfo("Updating role for user: " + userId + " in group: {}. New role: {}", groupId.toString(), newRole);
-        HibernateUtil.executeTransaction(true, session -> {
-            EGroupMember groupMember = session.get(EGroupMember.class, new EGroupMember.GroupMemberId(groupId, userId));
-            if (groupMember != null) {
-                groupMember.setRole(newRole);
-                session.merge(groupMember);
-                LoggerUtil.logInfo("Successfully updated role of user: {} in group: {}", userId.toString(), groupId.toString());
-            } else {
-                LoggerUtil.logWarn("Membership not found for user: " + userId + " in group: {}" + groupId);
-                throw new IllegalArgumentException("Membership not found.");
-            }
-            return null;
-        });
+        int updated = HibernateUtil.executeUpdate(
+                "UPDATE EGroupMember SET role = :role WHERE id.groupId = :groupId AND id.userId = :userId",
+                Map.of("role", newRole, "groupId", groupId, "userId", userId),
+                EGroupMember.class, new EGroupMember.GroupMemberId(groupId, userId)
+        );
+        if (updated == 0) {
+            LoggerUtil.logWarn("Membership not found for user: " + userId + " in group: " + groupId);
+            return updated;
+        }
+        if (membershipIndex != null) membershipIndex.roleChanged(groupId, userId, newRole);
+        LoggerUtil.logInfo("Successfully updated role of user: {} in group: {}", userId.toString(), groupId.toString());
+        return updated;
     }
 
     /**
@@ -163,5 +222,176 @@ public class GroupMemberPSQL implements IGroupMemberRepo {
             } else LoggerUtil.logWarn("No membership record found for user: " + userId + " in group: " + groupId);
             return null;
         });
+        if (membershipIndex != null) membershipIndex.memberRemoved(groupId, userId);
+    }
+
+    /**
+     * Adds many users to a group with the same role, reporting one outcome per user.
+     *
+     * <p>All users are added by a single {@code INSERT ... SELECT ... ON CONFLICT DO NOTHING RETURNING}, with the IDs
+     * bound as one array parameter. Onboarding a large group therefore costs one transaction and two statements
+     * instead of one transaction per member.</p>
+     *
+     * <h3>Outcomes:</h3>
+     * <ul>
+     *   <li>{@code APPLIED}: The user was added.</li>
+     *   <li>{@code SKIPPED}: The user was already a member, or appears earlier in the list.</li>
+     *   <li>{@code FAILED}: The user does not exist.</li>
+     * </ul>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * List<BatchOutcome<UUID>> outcomes = groupMemberRepo.addMembersToGroup(groupId, userIds, "member");
+     * }</pre>
+     *
+     * @param groupId The unique ID of the group.
+     * @param userIds The IDs of the users to add, at most {@link FieldValidator#MAX_BULK_SIZE}.
+     * @param role    The role assigned to every added user.
+     * @return One outcome per entry of {@code userIds}, in the same order and keyed by the user ID.
+     * @throws IllegalArgumentException If the group does not exist, the role is invalid or the list size is out of range.
+     * @throws DataAccessException      If a database issue occurs while adding the members.
+     */
+    public @NotNull List<BatchOutcome<UUID>> addMembersToGroup(@NotNull UUID groupId, @NotNull List<UUID> userIds, @NotNull String role) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.bulkConstraints(userIds.size());
+        FieldValidator.groupRoleConstraints(role);
+        LoggerUtil.logInfo("Adding {} users to group: {}", String.valueOf(userIds.size()), groupId.toString());
+        Map<UUID, Boolean> members = insertMembers(groupId, new LinkedHashSet<>(userIds).toArray(UUID[]::new), role);
+
+        int added = 0;
+        Set<UUID> seen = new HashSet<>();
+        List<BatchOutcome<UUID>> outcomes = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            Boolean inserted = members.get(userId);
+            if (!seen.add(userId)) outcomes.add(BatchOutcome.skipped(userId, "Duplicate user ID."));
+            else if (inserted == null) outcomes.add(BatchOutcome.failed(userId, "User does not exist."));
+            else if (inserted) {
+                added++;
+                outcomes.add(BatchOutcome.applied(userId, role));
+                if (membershipIndex != null) membershipIndex.memberAdded(groupId, userId, role);
+            } else outcomes.add(BatchOutcome.skipped(userId, "Already a member of the group."));
+        }
+        LoggerUtil.logInfo("Added {} users to group: {}", String.valueOf(added), groupId.toString());
+        return outcomes;
+    }
+
+    /**
+     * Removes many users from a group, reporting one outcome per user.
+     *
+     * <p>All memberships are deleted by a single {@code DELETE ... WHERE user_id = ANY(:ids) RETURNING}, so the
+     * removed users are known without a prior lookup.</p>
+     *
+     * <h3>Outcomes:</h3>
+     * <ul>
+     *   <li>{@code APPLIED}: The user was removed.</li>
+     *   <li>{@code SKIPPED}: The user was not a member, or appears earlier in the list.</li>
+     * </ul>
+     *
+     * @param groupId The unique ID of the group.
+     * @param userIds The IDs of the users to remove, at most {@link FieldValidator#MAX_BULK_SIZE}.
+     * @return One outcome per entry of {@code userIds}, in the same order and keyed by the user ID.
+     * @throws IllegalArgumentException If the list size is out of range.
+     * @throws DataAccessException      If a database issue occurs while removing the members.
+     */
+    public @NotNull List<BatchOutcome<UUID>> removeMembersFromGroup(@NotNull UUID groupId, @NotNull List<UUID> userIds) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.bulkConstraints(userIds.size());
+        LoggerUtil.logInfo("Removing {} users from group: {}", String.valueOf(userIds.size()), groupId.toString());
+        Set<UUID> removed = deleteMembers(groupId, new LinkedHashSet<>(userIds).toArray(UUID[]::new));
+
+        Set<UUID> seen = new HashSet<>();
+        List<BatchOutcome<UUID>> outcomes = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            if (!seen.add(userId)) outcomes.add(BatchOutcome.skipped(userId, "Duplicate user ID."));
+            else if (removed.contains(userId)) {
+                outcomes.add(BatchOutcome.applied(userId, null));
+                if (membershipIndex != null) membershipIndex.memberRemoved(groupId, userId);
+            } else outcomes.add(BatchOutcome.skipped(userId, "Not a member of the group."));
+        }
+        LoggerUtil.logInfo("Removed {} users from group: {}", String.valueOf(removed.size()), groupId.toString());
+        return outcomes;
+    }
+
+    /**
+     * Inserts the memberships of a bulk add in a single transaction, after checking that the group exists.
+     *
+     * <p>Package-private so that tests can replace the database round trip.</p>
+     *
+     * @param groupId The unique ID of the group.
+     * @param ids     The distinct IDs of the users to add.
+     * @param role    The role assigned to every added user.
+     * @return {@code true} for each added user and {@code false} for each user that already was a member; users that
+     * do not exist are absent.
+     * @throws IllegalArgumentException If the group does not exist.
+     * @throws DataAccessException      If a database issue occurs while adding the members.
+     */
+    @NotNull Map<UUID, Boolean> insertMembers(@NotNull UUID groupId, @NotNull UUID[] ids, @NotNull String role) throws IllegalArgumentException, DataAccessException {
+        return HibernateUtil.executeTransaction(true, session -> {
+            if (session.find(EGroup.class, groupId) == null) {
+                LoggerUtil.logWarn("Group not found for group ID: " + groupId);
+                throw new IllegalArgumentException("Group does not exist.");
+            }
+            Map<UUID, Boolean> members = new HashMap<>();
+            for (UUID userId : session.createNativeQuery(INSERT_MEMBERS_SQL, UUID.class)
+                    .setParameter("groupId", groupId)
+                    .setParameter("role", role)
+                    .setParameter("ids", ids, UUID[].class)
+                    .list()) members.put(userId, true);
+            if (members.size() < ids.length) {
+                for (UUID userId : session.createNativeQuery(SELECT_MEMBERS_SQL, UUID.class)
+                        .setParameter("groupId", groupId)
+                        .setParameter("ids", ids, UUID[].class)
+                        .list()) members.putIfAbsent(userId, false);
+            }
+            return members;
+        });
+    }
+
+    /**
+     * Deletes the memberships of a bulk remove in a single transaction.
+     *
+     * <p>Package-private so that tests can replace the database round trip.</p>
+     *
+     * @param groupId The unique ID of the group.
+     * @param ids     The distinct IDs of the users to remove.
+     * @return The IDs of the users that were removed.
+     * @throws DataAccessException If a database issue occurs while removing the members.
+     */
+    @NotNull Set<UUID> deleteMembers(@NotNull UUID groupId, @NotNull UUID[] ids) throws DataAccessException {
+        return HibernateUtil.executeTransaction(true, session -> new HashSet<>(session.createNativeQuery(DELETE_MEMBERS_SQL, UUID.class)
+                .setParameter("groupId", groupId)
+                .setParameter("ids", ids, UUID[].class)
+                .list()));
+    }
+
+    /**
+     * Checks whether a user is a member of a group.
+     *
+     * <p>Served from the {@link GroupMembershipIndex} when one is configured; otherwise a primary key lookup.</p>
+     *
+     * @param groupId The ID of the group.
+     * @param userId  The ID of the user.
+     * @return {@code true} if the user is a member of the group.
+     * @throws DataAccessException If a database issue occurs during the check.
+     */
+    public boolean isMember(@NotNull UUID groupId, @NotNull UUID userId) throws DataAccessException {
+        if (membershipIndex != null) return membershipIndex.isMember(groupId, userId);
+        return getMemberRole(groupId, userId) != null;
+    }
+
+    /**
+     * Retrieves the role of a user in a group.
+     *
+     * <p>Served from the {@link GroupMembershipIndex} when one is configured; otherwise a primary key lookup.</p>
+     *
+     * @param groupId The ID of the group.
+     * @param userId  The ID of the user.
+     * @return The role of the user, or {@code null} if the user is not a member of the group.
+     * @throws DataAccessException If a database issue occurs during the lookup.
+     */
+    public @Nullable String getMemberRole(@NotNull UUID groupId, @NotNull UUID userId) throws DataAccessException {
+        if (membershipIndex != null) return membershipIndex.roleOf(groupId, userId);
+        return HibernateUtil.executeReadOnly(session -> {
+            EGroupMember groupMember = session.get(EGroupMember.class, new EGroupMember.GroupMemberId(groupId, userId));
+            return groupMember == null ? null : groupMember.getRole();
+        });
     }
 }
\ No newline at end of file
@@ -19,13 +19,16 @@ package com.unrecorded.database.repositories;
 import com.unrecorded.database.entities.EGroup;
 import com.unrecorded.database.entities.EGroupMember;
 import com.unrecorded.database.exceptions.DataAccessException;
+import com.unrecorded.database.services.GroupMembershipIndex;
 import com.unrecorded.database.util.FieldValidator;
 import com.unrecorded.database.util.HibernateUtil;
 import com.unrecorded.database.util.LoggerUtil;
+import jakarta.persistence.LockModeType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -59,6 +62,30 @@ import java.util.UUID;
  */
 public class GroupPSQL implements IGroupRepo {
 
+    /**
+     * The membership index to notify when a group is deleted, or {@code null} if there is none.
+     */
+    private final @Nullable GroupMembershipIndex membershipIndex;
+
+    /**
+     * Creates a repository without a membership index.
+     */
+    public GroupPSQL() {
+        this(null);
+    }
+
+    /**
+     * Creates a repository that keeps a {@link GroupMembershipIndex} in step with deleted groups.
+     *
+     * <p>The index only serves read-side authorization. Writes that depend on a membership, such as an ownership
+     * transfer, check it in their own transaction.</p>
+     *
+     * @param membershipIndex The membership index shared with {@link GroupMemberPSQL}, or {@code null} if there is none.
+     */
+    public GroupPSQL(@Nullable GroupMembershipIndex membershipIndex) {
+        this.membershipIndex = membershipIndex;
+    }
+
     /**
      * Creates a new group in the database.
      *
@@ -134,35 +161,32 @@ public class GroupPSQL implements IGroupRepo {
     /**
      * Updates the name of an existing group.
      *
-     * <p>This method validates the new name and updates the `name` field of the corresponding
-     * {@link EGroup} entity, ensuring database and business logic compliance.</p>
+     * <p>This method validates the new name and writes the `name` column of the corresponding
+     * {@link EGroup} row with a single targeted {@code UPDATE}, without loading the group first.</p>
      *
      * @param groupId The UUID of the group to be updated.
      * @param name    The new name to assign to the group.
+     * @return The number of updated rows, {@code 0} if no group has the given ID.
      * @throws IllegalArgumentException If the provided name fails validation.
      * @throws DataAccessException      If an error occurs while updating the database.
      * @see FieldValidator#groupNameConstraints(String)
      */
     @Override
-    public void updateGroupName(@NotNull UUID groupId, @NotNull String name) throws IllegalArgumentException, DataAccessException {
+    public int updateGroupName(@NotNull UUID groupId, @NotNull String name) throws IllegalArgumentException, DataAccessException {
         FieldValidator.groupNameConstraints(name);
         LoggerUtil.logInfo("Updating group name for group: {}", groupId.toString());
-        HibernateUtil.executeTransaction(true, session -> {
-            EGroup group = session.find(EGroup.class, groupId);
-            if (group != null) {
-                group.setName(name);
-                session.merge(group);
-                LoggerUtil.logInfo("Group name updated successfully for group {}: {}", groupId.toString(), group.toString());
-            } else LoggerUtil.logWarn("Group not found or inactive for group: " + groupId);
-            return null;
-        });
+        int updated = HibernateUtil.executeUpdate("UPDATE EGroup SET name = :name WHERE id = :groupId", Map.of("name", name, "groupId", groupId), EGroup.class, groupId);
+        if (updated > 0) LoggerUtil.logInfo("Group name updated successfully for group {}: {}", groupId.toString(), name);
+        else LoggerUtil.logWarn("Group not found or inactive for group: " + groupId);
+        return updated;
     }
 
     /**
      * Deletes a group from the database.
      *
      * <p>This method uses "soft delete" logic, marking the group as inactive rather than removing it
-     * entirely from the database for auditability.</p>
+     * entirely from the database for auditability. The group is dropped from the {@link GroupMembershipIndex}, so
+     * its memberships are no longer answered from memory.</p>
      *
      * @param groupId The UUID of the group to be deleted.
      * @throws DataAccessException If an error occurs while updating the database.
@@ -178,6 +202,7 @@ public class GroupPSQL implements IGroupRepo {
             } else LoggerUtil.logWarn("Group not found or already inactive for group: " + groupId);
             return null;
         });
+        if (membershipIndex != null) membershipIndex.invalidate(groupId);
     }
 
     /**
@@ -189,7 +214,9 @@ public class GroupPSQL implements IGroupRepo {
      * <h3>Steps:</h3>
      * <ol>
      *   <li>Validate the provided group ID and user ID for the new owner.</li>
-     *   <li>Check if the new owner is listed as a member of the group via the {@link EGroupMember} table.</li>
+     *   <li>Check if the new owner is listed as a member of the group in the {@link EGroupMember} table, in the same
+     *   transaction and with a shared lock on the membership, so it cannot be removed before the transfer commits.
+     *   The {@link GroupMembershipIndex} is deliberately not consulted, since it may lag behind the database.</li>
      *   <li>Update the `ownerId` field of the group if all checks pass.</li>
      * </ol>
      *
@@ -207,9 +234,7 @@ public class GroupPSQL implements IGroupRepo {
                 LoggerUtil.logWarn("Group not found for group ID: " + groupId);
                 throw new IllegalArgumentException("Group does not exist.");
             }
-            EGroupMember.GroupMemberId newOwnerKey = new EGroupMember.GroupMemberId(groupId, newOwnerId);
-            EGroupMember newOwnerMembership = session.find(EGroupMember.class, newOwnerKey);
-            if (newOwnerMembership == null) {
+            if (session.find(EGroupMember.class, new EGroupMember.GroupMemberId(groupId, newOwnerId), LockModeType.PESSIMISTIC_READ) == null) {
                 LoggerUtil.logWarn("User ID: " + newOwnerId + " is not a member of group ID: " + groupId);
                 throw new IllegalArgumentException("The new owner must be a member of the group.");
             }
@@ -58,9 +58,10 @@ public interface IFriendshipRepo {
      * @param userId1   The UUID of the first user.
      * @param userId2   The UUID of the second user.
      * @param newStatus The new status to be set.
+     * @return The number of updated rows, {@code 0} if the friendship does not exist.
      * @throws DataAccessException If there is an issue with the database update.
      */
-    void updateFriendshipStatus(@NotNull UUID userId1, @NotNull UUID userId2, @NotNull String newStatus) throws DataAccessException;
+    int updateFriendshipStatus(@NotNull UUID userId1, @NotNull UUID userId2, @NotNull String newStatus) throws DataAccessException;
 
     /**
      * Deletes a friendship from the database by its composite key.
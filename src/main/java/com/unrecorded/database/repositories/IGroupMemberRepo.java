@@ -39,6 +39,7 @@ import java.util.UUID;
  *   <li>Adding and removing members from groups.</li>
  *   <li>Fetching group members or user memberships.</li>
  *   <li>Updating roles within group memberships.</li>
+ *   <li>Adding and removing many members at once.</li>
  *   <li>Thread-safe operations for multithreaded usage.</li>
  * </ul>
  *
@@ -93,10 +94,11 @@ public interface IGroupMemberRepo {
      * @param groupId The unique identifier (UUID) of the group.
      * @param userId The unique identifier (UUID) of the user.
      * @param newRole The new role to assign to the user within the group.
+     * @return The number of updated rows, {@code 0} if the user is not a member of the group.
      * @throws IllegalArgumentException If validation fails for the new role.
-     * @throws DataAccessException If an issue occurs while updating the membership or if the record does not exist.
+     * @throws DataAccessException If an issue occurs while updating the membership.
      */
-    void updateMemberRole(@NotNull UUID groupId, @NotNull UUID userId, @NotNull String newRole) throws IllegalArgumentException, DataAccessException;
+    int updateMemberRole(@NotNull UUID groupId, @NotNull UUID userId, @NotNull String newRole) throws IllegalArgumentException, DataAccessException;
 
     /**
      * Removes a user's membership from a specific group.
@@ -108,4 +110,51 @@ public interface IGroupMemberRepo {
      * @throws DataAccessException If an issue occurs while removing the membership or if the record does not exist.
      */
     void removeMemberFromGroup(@NotNull UUID groupId, @NotNull UUID userId) throws DataAccessException;
+
+    /**
+     * Checks whether a user is a member of a group.
+     *
+     * <p>This is the check behind group authorization, so implementations should answer it cheaply.</p>
+     *
+     * @param groupId The unique identifier (UUID) of the group.
+     * @param userId The unique identifier (UUID) of the user.
+     * @return {@code true} if the user is a member of the group.
+     * @throws DataAccessException If an issue occurs during the check.
+     */
+    boolean isMember(@NotNull UUID groupId, @NotNull UUID userId) throws DataAccessException;
+
+    /**
+     * Retrieves the role of a user in a group.
+     *
+     * @param groupId The unique identifier (UUID) of the group.
+     * @param userId The unique identifier (UUID) of the user.
+     * @return The role of the user, or {@code null} if the user is not a member of the group.
+     * @throws DataAccessException If an issue occurs during the lookup.
+     */
+    @Nullable String getMemberRole(@NotNull UUID groupId, @NotNull UUID userId) throws DataAccessException;
+
+    /**
+     * Adds many users to a group with the same role in a single statement.
+     *
+     * <p>Users that are already members are skipped rather than failing the whole request.</p>
+     *
+     * @param groupId The unique identifier (UUID) of the group.
+     * @param userIds The unique identifiers (UUIDs) of the users to add.
+     * @param role The role assigned to every added user.
+     * @return One {@link BatchOutcome} per entry of {@code userIds}, in the same order and keyed by the user ID.
+     * @throws IllegalArgumentException If the group does not exist, the role is invalid or too many users are given.
+     * @throws DataAccessException If an issue occurs while adding the members.
+     */
+    @NotNull List<BatchOutcome<UUID>> addMembersToGroup(@NotNull UUID groupId, @NotNull List<UUID> userIds, @NotNull String role) throws IllegalArgumentException, DataAccessException;
+
+    /**
+     * Removes many users from a group in a single statement.
+     *
+     * @param groupId The unique identifier (UUID) of the group.
+     * @param userIds The unique identifiers (UUIDs) of the users to remove.
+     * @return One {@link BatchOutcome} per entry of {@code userIds}, in the same order and keyed by the user ID.
+     * @throws IllegalArgumentException If too many users are given.
+     * @throws DataAccessException If an issue occurs while removing the members.
+     */
+    @NotNull List<BatchOutcome<UUID>> removeMembersFromGroup(@NotNull UUID groupId, @NotNull List<UUID> userIds) throws IllegalArgumentException, DataAccessException;
 }
\ No newline at end of file
@@ -90,16 +90,16 @@ public interface IGroupRepo {
      * <h3>Steps:</h3>
      * <ol>
      *     <li>Validate the new group name.</li>
-     *     <li>Locate the group via {@code groupId} and modify its {@code name}.</li>
-     *     <li>Persist the changes into the database.</li>
+     *     <li>Write the new {@code name} to the group identified by {@code groupId} in a single update.</li>
      * </ol>
      *
      * @param groupId The unique identifier (UUID) of the group to update.
      * @param newName The new name for the group. Must conform to validation rules.
+     * @return The number of updated rows, {@code 0} if no group has the given ID.
      * @throws IllegalArgumentException If the new name is invalid or empty.
      * @throws DataAccessException      If an issue occurs during database modifications.
      */
-    void updateGroupName(@NotNull UUID groupId, @NotNull String newName) throws IllegalArgumentException, DataAccessException;
+    int updateGroupName(@NotNull UUID groupId, @NotNull String newName) throws IllegalArgumentException, DataAccessException;
 
     /**
      * Deletes a group from the database.
@@ -21,8 +21,10 @@ import com.unrecorded.database.exceptions.DataAccessException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * This interface defines the contract for database operations related to the {@link EMessage} entity.
@@ -32,7 +34,10 @@ import java.util.UUID;
  * <h2>Features:</h2>
  * <ul>
  *   <li>Supports creation of a group and direct messages with appropriate validation.</li>
+ *   <li>Creates messages in batches with per-item outcomes, for bursts such as reconnect floods.</li>
  *   <li>Retrieves messages by unique identifiers, sender-recipient pairs, or groups.</li>
+ *   <li>Pages through conversation histories with keyset cursors, at a cost independent of the history length.</li>
+ *   <li>Streams complete conversation histories row by row, in constant memory, for exports and device restores.</li>
  *   <li>Allows message content updates and provides message deletion functionality.</li>
  * </ul>
  *
@@ -41,7 +46,7 @@ import java.util.UUID;
  * errors encapsulated in {@link DataAccessException}.</p>
  *
  * @author Sergiu Chirap
- * @version 2.0
+ * @version 2.2
  * @see EMessage
  * @since PREVIEW
  */
@@ -63,6 +68,19 @@ public interface IMessageRepo {
      */
     void createMessage(@NotNull UUID senderId, @Nullable UUID recipientId, @Nullable UUID groupId, boolean isGroup, @NotNull String contentEncrypted) throws IllegalArgumentException, DataAccessException;
 
+    /**
+     * Creates a batch of messages in as few database round trips as possible.
+     *
+     * <p>Each draft is validated like in {@link #createMessage(UUID, UUID, UUID, boolean, String)}. Invalid drafts
+     * and drafts refused by the database are reported individually instead of failing the whole batch.</p>
+     *
+     * @param drafts The messages to create, at most {@link com.unrecorded.database.util.FieldValidator#MAX_BATCH_SIZE}.
+     * @return One outcome per draft, keyed by its index in {@code drafts}, in the same order.
+     * @throws IllegalArgumentException If the batch is empty or too large.
+     * @throws DataAccessException      If an error occurs that cannot be attributed to individual drafts.
+     */
+    @NotNull List<BatchOutcome<Integer>> createMessages(@NotNull List<MessageDraft> drafts) throws IllegalArgumentException, DataAccessException;
+
     /**
      * Retrieves a message from the database using its unique identifier.
      *
@@ -75,6 +93,15 @@ public interface IMessageRepo {
      */
     @Nullable EMessage getMessageById(@NotNull UUID messageId) throws DataAccessException;
 
+    /**
+     * Retrieves several messages by their unique identifiers in a single query.
+     *
+     * @param messageIds The identifiers of the messages to retrieve.
+     * @return The messages found, in no particular order; identifiers without a message are ignored.
+     * @throws DataAccessException If an error occurs during the query operation.
+     */
+    @NotNull List<EMessage> getMessagesByIds(@NotNull Collection<UUID> messageIds) throws DataAccessException;
+
     /**
      * Retrieves all direct messages exchanged between two users.
      *
@@ -104,19 +131,80 @@ public interface IMessageRepo {
      */
     @Nullable List<EMessage> getAllMessagesForGroup(@NotNull UUID groupId) throws DataAccessException;
 
+    /**
+     * Retrieves one page of the direct message history between two users.
+     *
+     * <p>The page is anchored on a {@link KeysetCursor} {@code (timestamp, messageId)}: with {@code before} it holds
+     * the messages immediately older than the cursor, with {@code after} the messages immediately newer than it, and
+     * with neither the most recent messages. Items are always returned in chronological order (oldest first).</p>
+     *
+     * @param userId1 The UUID of one participant. Must not be {@code null}.
+     * @param userId2 The UUID of the other participant. Must not be {@code null}.
+     * @param before  Return messages strictly older than this cursor, or {@code null}.
+     * @param after   Return messages strictly newer than this cursor, or {@code null}.
+     * @param limit   The maximum number of messages in the page.
+     * @return The requested page, never {@code null}.
+     * @throws IllegalArgumentException If the user IDs are invalid, both cursors are set, or the limit is out of range.
+     * @throws DataAccessException      If an error occurs during the query operation.
+     */
+    @NotNull KeysetPage<EMessage> getMessagesBetweenUsers(@NotNull UUID userId1, @NotNull UUID userId2, @Nullable KeysetCursor before, @Nullable KeysetCursor after, int limit) throws IllegalArgumentException, DataAccessException;
+
+    /**
+     * Retrieves one page of the message history of a group.
+     *
+     * <p>Pagination works exactly like in {@link #getMessagesBetweenUsers(UUID, UUID, KeysetCursor, KeysetCursor, int)}.</p>
+     *
+     * @param groupId The unique identifier of the group. Must not be {@code null}.
+     * @param before  Return messages strictly older than this cursor, or {@code null}.
+     * @param after   Return messages strictly newer than this cursor, or {@code null}.
+     * @param limit   The maximum number of messages in the page.
+     * @return The requested page, never {@code null}.
+     * @throws IllegalArgumentException If both cursors are set or the limit is out of range.
+     * @throws DataAccessException      If an error occurs during the query operation.
+     */
+    @NotNull KeysetPage<EMessage> getMessagesForGroup(@NotNull UUID groupId, @Nullable KeysetCursor before, @Nullable KeysetCursor after, int limit) throws IllegalArgumentException, DataAccessException;
+
+    /**
+     * Streams the whole direct message history between two users, oldest first.
+     *
+     * <p>Messages are handed to {@code sink} one at a time while the query is still being read, and are detached
+     * from the persistence context shortly after, so memory use does not depend on the length of the history.
+     * The sink runs inside the database transaction and should therefore not block for long.</p>
+     *
+     * @param userId1 The UUID of one participant. Must not be {@code null}.
+     * @param userId2 The UUID of the other participant. Must not be {@code null}.
+     * @param sink    Receives each message in chronological order.
+     * @return The number of messages streamed.
+     * @throws IllegalArgumentException If the user IDs are invalid.
+     * @throws DataAccessException      If an error occurs during the query operation.
+     */
+    long streamMessagesBetweenUsers(@NotNull UUID userId1, @NotNull UUID userId2, @NotNull Consumer<EMessage> sink) throws IllegalArgumentException, DataAccessException;
+
+    /**
+     * Streams the whole message history of a group, oldest first.
+     *
+     * <p>Streaming works exactly like in {@link #streamMessagesBetweenUsers(UUID, UUID, Consumer)}.</p>
+     *
+     * @param groupId The unique identifier of the group. Must not be {@code null}.
+     * @param sink    Receives each message in chronological order.
+     * @return The number of messages streamed.
+     * @throws DataAccessException If an error occurs during the query operation.
+     */
+    long streamMessagesForGroup(@NotNull UUID groupId, @NotNull Consumer<EMessage> sink) throws DataAccessException;
+
     /**
      * Updates the content of a specific message in the database.
      *
      * <p>This method modifies the encrypted content of the {@link EMessage} identified by its
      * {@code messageId}.
-     * If the message does not exist, an exception is thrown.</p>
+     * If the message does not exist, nothing is written.</p>
      *
      * @param messageId           The unique identifier of the message to be updated. Must not be {@code null}.
      * @param newContentEncrypted The updated encrypted content of the message. Must not be {@code null}.
-     * @throws IllegalArgumentException If the {@code messageId} is invalid or the message does not exist.
-     * @throws DataAccessException      If an error occurs during the update operation.
+     * @return The number of updated rows, {@code 0} if no message has the given ID.
+     * @throws DataAccessException If an error occurs during the update operation.
      */
-    void updateMessageContent(@NotNull UUID messageId, @NotNull String newContentEncrypted) throws IllegalArgumentException, DataAccessException;
+    int updateMessageContent(@NotNull UUID messageId, @NotNull String newContentEncrypted) throws DataAccessException;
 
     /**
      * Deletes a message permanently from the database.
@@ -137,8 +225,8 @@ public interface IMessageRepo {
      * The message remains in the database for audit or recovery purposes.</p>
      *
      * @param messageId The unique identifier of the message to be marked as deleted. Must not be {@code null}.
-     * @throws IllegalArgumentException If the {@code messageId} is invalid or the message does not exist.
-     * @throws DataAccessException      If an error occurs during the update operation.
+     * @return The number of updated rows, {@code 0} if no message has the given ID.
+     * @throws DataAccessException If an error occurs during the update operation.
      */
-    void markAsDeleted(@NotNull UUID messageId) throws IllegalArgumentException, DataAccessException;
+    int markAsDeleted(@NotNull UUID messageId) throws DataAccessException;
 }
\ No newline at end of file
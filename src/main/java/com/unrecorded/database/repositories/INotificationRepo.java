@@ -40,6 +40,8 @@ import java.util.UUID;
  * <ul>
  *   <li>CRUD operations for managing notification data in the database.</li>
  *   <li>Support for querying notifications by user ID, timestamp, and read status.</li>
+ *   <li>Keyset-paginated notification feeds, at a cost independent of how many notifications a user has.</li>
+ *   <li>Bulk operations that mark or delete many notifications with a single statement.</li>
  *   <li>Thread-safe operation for use in multithreaded environments.</li>
  * </ul>
  *
@@ -52,7 +54,9 @@ public interface INotificationRepo {
     /**
      * Creates a new notification in the database.
      *
-     * <p>This method validates input fields and persists the {@link ENotification} entity in the database.</p>
+     * <p>This method validates input fields and persists the {@link ENotification} entity in the database.
+     * Implementations configured to coalesce may instead merge an unread notification into a recent unread one of
+     * the same user and type, raising its {@link ENotification#getCoalescedCount() coalesced count}.</p>
      *
      * @param userId The ID of the user receiving the notification.
      * @param type The type/category of the notification, such as "INFO", "ALERT", or "WARNING".
@@ -64,6 +68,34 @@ public interface INotificationRepo {
      */
     void createNotification(@NotNull UUID userId, @NotNull String type, @NotNull String content, boolean isRead, @NotNull ZonedDateTime timestamp) throws IllegalArgumentException, DataAccessException;
 
+    /**
+     * Creates the same unread notification for every member of a group with a single statement.
+     *
+     * <p>The members are resolved by the database, so the call costs one round-trip regardless of the group size.</p>
+     *
+     * @param groupId   The ID of the group whose members receive the notification.
+     * @param type      The type/category of the notification, such as "INFO", "ALERT", or "WARNING".
+     * @param content   The content/message of the notification.
+     * @param timestamp The timestamp of the notifications.
+     * @return The number of notifications created, {@code 0} if the group has no members.
+     * @throws IllegalArgumentException If the type is invalid.
+     * @throws DataAccessException      If an error occurs while persisting the notifications.
+     */
+    int notifyGroupMembers(@NotNull UUID groupId, @NotNull String type, @NotNull String content, @NotNull ZonedDateTime timestamp) throws IllegalArgumentException, DataAccessException;
+
+    /**
+     * Creates the same unread notification for each of the given users with a single statement.
+     *
+     * @param userIds   The IDs of the recipients, at most {@link com.unrecorded.database.util.FieldValidator#MAX_BULK_SIZE}.
+     * @param type      The type/category of the notification, such as "INFO", "ALERT", or "WARNING".
+     * @param content   The content/message of the notification.
+     * @param timestamp The timestamp of the notifications.
+     * @return The number of notifications created. Duplicate and unknown user IDs are skipped.
+     * @throws IllegalArgumentException If the list is empty or too large, or the type is invalid.
+     * @throws DataAccessException      If an error occurs while persisting the notifications.
+     */
+    int notifyUsers(@NotNull List<UUID> userIds, @NotNull String type, @NotNull String content, @NotNull ZonedDateTime timestamp) throws IllegalArgumentException, DataAccessException;
+
     /**
      * Retrieves a notification by its unique identifier.
      *
@@ -91,14 +123,63 @@ public interface INotificationRepo {
      */
     @Nullable List<ENotification> getUnreadNotificationsByUserId(@NotNull UUID userId) throws DataAccessException;
 
+    /**
+     * Retrieves one page of the notification feed of a user, newest first.
+     *
+     * <p>The page is anchored on a {@link KeysetCursor} {@code (timestamp, notificationId)}: with {@code before} it
+     * holds the notifications immediately older than the cursor, without it the most recent ones. To load the next
+     * page, pass the cursor of the last (oldest) notification of the current one.</p>
+     *
+     * @param userId     The unique ID of the user.
+     * @param unreadOnly Whether to list unread notifications only.
+     * @param before     Return notifications strictly older than this cursor, or {@code null}.
+     * @param limit      The maximum number of notifications in the page.
+     * @return The requested page, never {@code null}.
+     * @throws IllegalArgumentException If the limit is out of range.
+     * @throws DataAccessException      If an error occurs while querying the database.
+     */
+    @NotNull KeysetPage<ENotification> getNotificationFeed(@NotNull UUID userId, boolean unreadOnly, @Nullable KeysetCursor before, int limit) throws IllegalArgumentException, DataAccessException;
+
+    /**
+     * Retrieves the number of unread notifications of a user.
+     *
+     * <p>Implementations read a counter maintained alongside the notifications instead of counting them, so the
+     * cost does not depend on how many notifications the user has.</p>
+     *
+     * @param userId The unique ID of the user.
+     * @return The number of unread notifications, {@code 0} if the user has none.
+     * @throws DataAccessException If an error occurs while querying the database.
+     */
+    int getUnreadCount(@NotNull UUID userId) throws DataAccessException;
+
     /**
      * Updates the read status of a notification.
      *
      * @param notificationId The unique ID of the notification to update.
      * @param isRead The new read status (true if read, false otherwise).
+     * @return The number of updated rows, {@code 0} if no notification has the given ID.
      * @throws DataAccessException If an error occurs while updating the notification in the database.
      */
-    void updateNotificationReadStatus(@NotNull UUID notificationId, boolean isRead) throws DataAccessException;
+    int updateNotificationReadStatus(@NotNull UUID notificationId, boolean isRead) throws DataAccessException;
+
+    /**
+     * Marks every unread notification of a user as read with a single statement.
+     *
+     * @param userId The unique ID of the user.
+     * @return The number of notifications that were unread and are now read.
+     * @throws DataAccessException If an error occurs while updating the notifications.
+     */
+    int markAllAsRead(@NotNull UUID userId) throws DataAccessException;
+
+    /**
+     * Marks the given notifications as read with a single statement.
+     *
+     * @param notificationIds The IDs of the notifications, at most {@link com.unrecorded.database.util.FieldValidator#MAX_BULK_SIZE}.
+     * @return The number of notifications that were unread and are now read. Unknown and already read IDs are skipped.
+     * @throws IllegalArgumentException If the list is empty or too large.
+     * @throws DataAccessException      If an error occurs while updating the notifications.
+     */
+    int markAsRead(@NotNull List<UUID> notificationIds) throws IllegalArgumentException, DataAccessException;
 
     /**
      * Deletes a notification by its unique identifier.
@@ -108,11 +189,22 @@ public interface INotificationRepo {
      */
     void deleteNotification(@NotNull UUID notificationId) throws DataAccessException;
 
+    /**
+     * Deletes the given notifications with a single statement.
+     *
+     * @param notificationIds The IDs of the notifications, at most {@link com.unrecorded.database.util.FieldValidator#MAX_BULK_SIZE}.
+     * @return The number of deleted notifications. Unknown IDs are skipped.
+     * @throws IllegalArgumentException If the list is empty or too large.
+     * @throws DataAccessException      If an error occurs while deleting the notifications.
+     */
+    int deleteNotifications(@NotNull List<UUID> notificationIds) throws IllegalArgumentException, DataAccessException;
+
     /**
      * Deletes all notifications for a specific user.
      *
      * @param userId The unique ID of the user whose notifications will be deleted.
+     * @return The number of deleted notifications.
      * @throws DataAccessException If an error occurs while deleting the notifications.
      */
-    void deleteNotificationsByUserId(@NotNull UUID userId) throws DataAccessException;
+    int deleteNotificationsByUserId(@NotNull UUID userId) throws DataAccessException;
 }
\ No newline at end of file
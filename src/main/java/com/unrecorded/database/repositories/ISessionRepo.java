@@ -82,6 +82,9 @@ public interface ISessionRepo {
     /**
      * Retrieves a session using its token.
      *
+     * <p>Implementations look the session up by a fixed-width digest of the token rather than the token text,
+     * so the lookup stays logarithmic in the number of sessions.</p>
+     *
      * @param token The token associated with the session.
      * @return The {@link ESession} entity corresponding to the token, or {@code null} if not found.
      * @throws DataAccessException If an issue occurs during the lookup process.
@@ -99,9 +102,14 @@ public interface ISessionRepo {
     /**
      * Deletes all expired sessions based on the provided current timestamp.
      *
+     * <p>Implementations delete in batches of at most {@code batchSize} rows, each committed on its own, so neither
+     * the heap nor the row locks grow with the number of expired sessions.</p>
+     *
      * @param currentTime The current time used to check for expired sessions.
-     * @return {@code true} if any sessions were deleted, or {@code false} otherwise.
-     * @throws DataAccessException If an issue occurs while deleting expired sessions.
+     * @param batchSize   The maximum number of sessions deleted per transaction.
+     * @return The number of sessions deleted.
+     * @throws IllegalArgumentException If the batch size is not positive.
+     * @throws DataAccessException      If an issue occurs while deleting expired sessions.
      */
-    boolean deleteExpiredSessions(@NotNull ZonedDateTime currentTime) throws DataAccessException;
+    long deleteExpiredSessions(@NotNull ZonedDateTime currentTime, int batchSize) throws IllegalArgumentException, DataAccessException;
 }
\ No newline at end of file
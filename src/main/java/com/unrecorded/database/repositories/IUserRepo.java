@@ -38,7 +38,7 @@ import java.util.UUID;
  * <ul>
  *   <li>CRUD operations for managing user data in the database.</li>
  *   <li>Validation of inputs such as usernames, email addresses, and encryption keys.</li>
- *   <li>Support for secure password verification.</li>
+ *   <li>Support for secure password verification, with the hashing left to the caller.</li>
  *   <li>Thread-safe operation for use in multithreaded environments.</li>
  * </ul>
  *
@@ -51,25 +51,25 @@ public interface IUserRepo {
     /**
      * Creates a new user in the database.
      *
-     * <p>This method validates input fields, hashes the provided password with secure salt,
-     * and persists the {@link EUser} entity in the database.</p>
+     * <p>This method validates input fields and persists the {@link EUser} entity in the database. The password
+     * is hashed by the caller beforehand, so no connection is held while Argon2 runs.</p>
      *
      * <h3>Steps:</h3>
      * <ol>
      *   <li>Validate the {@code username} and {@code email} fields.</li>
-     *   <li>Hash the plaintext password with a cryptographically secure salt.</li>
      *   <li>Create and persist the {@link EUser} entity.</li>
      * </ol>
      *
      * @param username The username for the new user. Must be unique and conform to validation rules.
-     * @param password The plaintext password for the new user. It will be salted and hashed before being stored.
+     * @param passwordHash The encoded Argon2id hash of the password of the new user.
+     * @param salt The salt the password was hashed with.
      * @param email The email address for the new user. Must be valid and unique.
      * @param publicKey The RSA public key associated with the user.
      * @param privateKeyEncrypted The encrypted private RSA key of the user.
      * @throws IllegalArgumentException If validation fails for any parameter.
      * @throws DataAccessException If an error occurs while persisting, the user in the database.
      */
-    void createUser(@NotNull String username, @NotNull String password, @NotNull String email,
+    void createUser(@NotNull String username, @NotNull String passwordHash, byte @NotNull [] salt, @NotNull String email,
                     @NotNull String publicKey, @NotNull String privateKeyEncrypted) throws IllegalArgumentException, DataAccessException;
 
     /**
@@ -113,10 +113,11 @@ public interface IUserRepo {
      *
      * @param userId The unique identifier (UUID) of the user to update.
      * @param username The new username to assign. It must pass validation checks.
+     * @return The number of updated rows, {@code 0} if no user has the given ID.
      * @throws IllegalArgumentException If the {@code username} is invalid.
      * @throws DataAccessException If there is an issue updating the database.
      */
-    void updateUsername(@NotNull UUID userId, @NotNull String username) throws IllegalArgumentException, DataAccessException;
+    int updateUsername(@NotNull UUID userId, @NotNull String username) throws IllegalArgumentException, DataAccessException;
 
     /**
      * Updates the email address of the specified user.
@@ -125,23 +126,25 @@ public interface IUserRepo {
      *
      * @param userId The unique identifier (UUID) of the user to update.
      * @param email The new email address to assign. Must pass validation checks.
+     * @return The number of updated rows, {@code 0} if no user has the given ID.
      * @throws IllegalArgumentException If the {@code email} is invalid.
      * @throws DataAccessException If there is an issue updating the database.
      */
-    void updateEmail(@NotNull UUID userId, @NotNull String email) throws IllegalArgumentException, DataAccessException;
+    int updateEmail(@NotNull UUID userId, @NotNull String email) throws IllegalArgumentException, DataAccessException;
 
     /**
      * Updates the password of a user identified by their unique user ID.
      *
-     * <p>This method retrieves the user's current salt from the database, hashes
-     * the new password with it, and updates the user's password hash field with the resulting value.</p>
+     * <p>The new password is validated and hashed with a fresh salt by the caller beforehand, so no connection
+     * is held while Argon2 runs.</p>
      *
-     * @param userId  The UUID of the user whose password is to be updated.
-     * @param newPassword The new plaintext password to be set.
-     * @throws IllegalArgumentException If the {@code newPassword} fails validation (e.g., too shorts, too weak).
-     * @throws DataAccessException      If any database-related issue occurs during the update operation.
+     * @param userId          The UUID of the user whose password is to be updated.
+     * @param newPasswordHash The encoded Argon2id hash of the new password.
+     * @param newSalt         The salt the new password was hashed with.
+     * @return The number of updated rows, {@code 0} if no user has the given ID.
+     * @throws DataAccessException If any database-related issue occurs during the update operation.
      */
-    void changePassword(@NotNull UUID userId, @NotNull String newPassword) throws IllegalArgumentException, DataAccessException;
+    int changePassword(@NotNull UUID userId, @NotNull String newPasswordHash, byte @NotNull [] newSalt) throws DataAccessException;
     
     /**
      * Updates the RSA public and private keys of the specified user.
@@ -149,9 +152,10 @@ public interface IUserRepo {
      * @param userId The unique identifier (UUID) of the user to update.
      * @param newPublicKey The new RSA public key to save.
      * @param newPrivateKeyEncrypted The new encrypted private RSA key to save.
+     * @return The number of updated rows, {@code 0} if no user has the given ID.
      * @throws DataAccessException If an issue occurs while updating the database.
      */
-    void updateKeys(@NotNull UUID userId, @NotNull String newPublicKey, @NotNull String newPrivateKeyEncrypted) throws DataAccessException;
+    int updateKeys(@NotNull UUID userId, @NotNull String newPublicKey, @NotNull String newPrivateKeyEncrypted) throws DataAccessException;
 
     /**
      * Deletes a user from the database by their unique identifier.
@@ -162,16 +166,27 @@ public interface IUserRepo {
     void deleteUser(@NotNull UUID userId) throws DataAccessException;
 
     /**
-     * Verifies if the provided password matches the stored, securely hashed password of the user.
+     * Reads the password hash and salt of a user, without loading the rest of the account.
      *
-     * <p>The method retrieves the user's stored password hash and salt, then
-     * hashes the provided password with the same salt for comparison.</p>
+     * @param username The username of the user.
+     * @return The credentials of the user, or {@code null} if no user has this username.
+     * @throws IllegalArgumentException If the username fails validation.
+     * @throws DataAccessException If there is an issue accessing the database.
+     */
+    @Nullable UserCredentials getCredentialsByUsername(@NotNull String username) throws IllegalArgumentException, DataAccessException;
+
+    /**
+     * Replaces a password hash that was just verified, unless the password was changed in the meantime.
+     *
+     * <p>Used to upgrade hashes created with an outdated Argon2 cost after a successful login. The caller loads
+     * the credentials with {@link #getCredentialsByUsername(String)}, verifies and rehashes the password without
+     * holding a connection, then calls this method.</p>
      *
-     * @param username The username of the user whose password needs to be verified.
-     * @param password The plaintext password to verify.
-     * @return {@code true} if the password matches the stored hash, or {@code false} otherwise.
-     * @throws IllegalArgumentException If the username or password fails validation.
+     * @param credentials     The credentials that were verified.
+     * @param newPasswordHash The encoded Argon2id hash computed with the current cost.
+     * @param newSalt         The salt the new hash was computed with.
+     * @return The number of updated rows, {@code 0} if the user no longer exists or their hash has changed.
      * @throws DataAccessException If there is an issue accessing the database.
      */
-    boolean verifyPassword(@NotNull String username, @NotNull String password) throws IllegalArgumentException, DataAccessException;
+    int upgradePasswordHash(@NotNull UserCredentials credentials, @NotNull String newPasswordHash, byte @NotNull [] newSalt) throws DataAccessException;
 }
\ No newline at end of file
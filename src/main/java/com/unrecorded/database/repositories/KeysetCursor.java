@@ -0,0 +1,93 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.repositories;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Identifies a position in a timeline ordered by {@code (timestamp, id)}.
+ *
+ * <p><b>Purpose:</b> Keyset pagination reads a page relative to the last row the client has seen instead of
+ * skipping a number of rows. The pair {@code (timestamp, id)} is unique, so it orders rows completely even when
+ * several share the same timestamp, and PostgreSQL can seek straight to it through a composite index.
+ * The cost of fetching a page therefore stays the same no matter how deep into the timeline it is.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li>Encodes to an opaque, URL-safe token for use in query parameters.</li>
+ *   <li>Decodes tokens back, rejecting malformed input with an {@link IllegalArgumentException}.</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * KeysetCursor cursor = new KeysetCursor(message.getTimestamp(), message.getId());
+ * String token = cursor.encode();
+ * KeysetCursor decoded = KeysetCursor.decode(token);
+ * }</pre>
+ *
+ * @param timestamp The timestamp of the row the cursor points at.
+ * @param id        The identifier of the row the cursor points at, used as a tiebreaker.
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see KeysetPage
+ * @since 0.5
+ */
+public record KeysetCursor(@NotNull ZonedDateTime timestamp, @NotNull UUID id) {
+
+    /**
+     * Separates the timestamp from the identifier inside the encoded token.
+     */
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Encodes the cursor into an opaque, URL-safe token.
+     *
+     * @return The Base64url-encoded token.
+     */
+    public @NotNull String encode() {
+        String raw = timestamp.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The encoded cursor.
+     * @return The decoded cursor, with its timestamp expressed in UTC.
+     * @throws IllegalArgumentException If the token is not a valid cursor.
+     */
+    public static @NotNull KeysetCursor decode(@NotNull String token) throws IllegalArgumentException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) throw new IllegalArgumentException("Invalid cursor: " + token);
+            Instant instant = Instant.parse(raw.substring(0, separator));
+            UUID id = UUID.fromString(raw.substring(separator + 1));
+            return new KeysetCursor(ZonedDateTime.ofInstant(instant, ZoneOffset.UTC), id);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
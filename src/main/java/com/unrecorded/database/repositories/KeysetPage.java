@@ -0,0 +1,48 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.repositories;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A single page of a keyset-paginated query.
+ *
+ * <p>The items are ordered as documented by the repository method producing the page. {@code hasMore} tells
+ * whether further rows exist in the direction the page was read: older rows for a {@code before} cursor or the
+ * latest page, newer rows for an {@code after} cursor.</p>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * KeysetPage<EMessage> page = messageRepo.getMessagesForGroup(groupId, null, null, 50);
+ * if (page.hasMore()) {
+ *     EMessage oldest = page.items().get(0);
+ *     KeysetCursor next = new KeysetCursor(oldest.getTimestamp(), oldest.getId());
+ * }
+ * }</pre>
+ *
+ * @param items   The rows of the page.
+ * @param hasMore Whether more rows exist beyond this page, in the direction it was read.
+ * @param <T>     The type of the rows.
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see KeysetCursor
+ * @since 0.5
+ */
+public record KeysetPage<T>(@NotNull List<T> items, boolean hasMore) {
+}
@@ -0,0 +1,47 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.repositories;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * The input of one message in a batch insert.
+ *
+ * <p>Carries the same fields as {@link IMessageRepo#createMessage(UUID, UUID, UUID, boolean, String)} and is
+ * validated by the same rules, item by item, so a single invalid draft never rejects the whole batch.</p>
+ *
+ * @param senderId         The UUID of the sender.
+ * @param recipientId      The UUID of the recipient, or {@code null} for group messages.
+ * @param groupId          The UUID of the group, or {@code null} for direct messages.
+ * @param isGroup          Whether the message is sent to a group.
+ * @param contentEncrypted The encrypted content of the message.
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see IMessageRepo#createMessages(java.util.List)
+ * @since 0.5
+ */
+public record MessageDraft(
+        @NotNull UUID senderId,
+        @Nullable UUID recipientId,
+        @Nullable UUID groupId,
+        boolean isGroup,
+        @NotNull String contentEncrypted
+) {
+}
@@ -18,14 +18,24 @@ package com.unrecorded.database.repositories;
 
 import com.unrecorded.database.entities.EMessage;
 import com.unrecorded.database.exceptions.DataAccessException;
+import com.unrecorded.database.util.ConversationKey;
 import com.unrecorded.database.util.FieldValidator;
 import com.unrecorded.database.util.HibernateUtil;
 import com.unrecorded.database.util.LoggerUtil;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * This class manages operations related to messages, including creation, retrieval, updating, and deletion.
@@ -39,6 +49,7 @@ import java.util.UUID;
  * <ul>
  *   <li>Field validation to ensure compliance with business rules and database constraints.</li>
  *   <li>Efficient retrieval and manipulation of message data using Hibernate queries.</li>
+ *   <li>Keyset pagination over conversation histories through row-value comparisons on {@code (timestamp, id)}.</li>
  *   <li>Logging of operations and diagnostics for traceability and debugging.</li>
  * </ul>
  *
@@ -59,6 +70,21 @@ import java.util.UUID;
  */
 public class MessagePSQL implements IMessageRepo {
 
+    /**
+     * The number of rows fetched per round trip while streaming a history.
+     *
+     * <p>Large enough to amortize network latency, small enough to keep the driver's buffer in the low megabytes.</p>
+     */
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    /**
+     * The number of inserts sent per JDBC batch by {@link #createMessages(List)}.
+     *
+     * <p>Must match {@code hibernate.jdbc.batch_size} in {@code hibernate.cfg.xml}: the session is flushed and
+     * cleared at this interval, so each flush emits exactly one full batch.</p>
+     */
+    private static final int INSERT_BATCH_SIZE = 50;
+
     /**
      * Creates and saves a new message in the database.
      *
@@ -89,24 +115,81 @@ public class MessagePSQL implements IMessageRepo {
             boolean isGroup,
             @NotNull String contentEncrypted
     ) throws IllegalArgumentException, DataAccessException {
-        FieldValidator.userLinkConstraints(senderId, recipientId);
+        MessageDraft draft = new MessageDraft(senderId, recipientId, groupId, isGroup, contentEncrypted);
         LoggerUtil.logInfo("Creating a new message from senderId: {}", senderId.toString());
-        if (!isGroup && recipientId == null) {
-            throw new IllegalArgumentException("Direct messages must have a recipient.");
-        }
-        if (isGroup && groupId == null) {
-            throw new IllegalArgumentException("Group messages must include a group ID.");
-        }
+        validate(draft);
         HibernateUtil.executeTransaction(true, session -> {
-            EMessage message = new EMessage(senderId, recipientId, groupId, isGroup, contentEncrypted);
-            assert message.getId() != null;
-            LoggerUtil.logDebug("Prepared message entity for persistence: {}", message.getId().toString());
+            EMessage message = toEntity(draft);
             session.persist(message);
-            LoggerUtil.logInfo("Message created successfully with senderId: {}", senderId.toString());
+            LoggerUtil.logInfo("Message created successfully with ID: {}", String.valueOf(message.getId()));
             return null;
         });
     }
 
+    /**
+     * Creates a batch of messages, reporting one outcome per draft.
+     *
+     * <p>All valid drafts are persisted within a single transaction. Hibernate groups the inserts into JDBC batches
+     * of {@value #INSERT_BATCH_SIZE} statements (see {@code hibernate.jdbc.batch_size}), and the PostgreSQL driver
+     * rewrites each batch into one multi-row {@code INSERT} ({@code reWriteBatchedInserts}). A burst of messages
+     * therefore costs one transaction and a handful of round trips instead of one of each per message.</p>
+     *
+     * <h3>Steps:</h3>
+     * <ol>
+     *   <li>Validate the batch size and each draft; invalid drafts are reported as {@code REJECTED}.</li>
+     *   <li>Persist the remaining drafts in one transaction, flushing and clearing the session every batch.</li>
+     *   <li>If the database refuses the transaction (e.g., a draft references a missing user), retry the drafts one
+     *   by one so that only the offending ones are reported as {@code FAILED}.</li>
+     * </ol>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * List<BatchOutcome<Integer>> outcomes = messageRepo.createMessages(List.of(
+     *         new MessageDraft(senderId, recipientId, null, false, "EncryptedHello"),
+     *         new MessageDraft(senderId, null, groupId, true, "EncryptedHi")));
+     * }</pre>
+     *
+     * @param drafts The messages to create, at most {@link FieldValidator#MAX_BATCH_SIZE}.
+     * @return One outcome per draft, keyed by its index in {@code drafts}. Applied outcomes carry the new message ID
+     * as their detail, the others the reason of the rejection or failure.
+     * @throws IllegalArgumentException If the batch is empty or too large.
+     * @throws DataAccessException      If the per-draft retry itself cannot reach the database.
+     */
+    @Override
+    public @NotNull List<BatchOutcome<Integer>> createMessages(@NotNull List<MessageDraft> drafts) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.batchConstraints(drafts.size());
+        LoggerUtil.logInfo("Creating a batch of {} messages.", String.valueOf(drafts.size()));
+
+        List<BatchOutcome<Integer>> outcomes = new ArrayList<>(Collections.nCopies(drafts.size(), null));
+        List<Integer> accepted = new ArrayList<>(drafts.size());
+        for (int i = 0; i < drafts.size(); i++) {
+            try {
+                validate(drafts.get(i));
+                accepted.add(i);
+            } catch (IllegalArgumentException e) {
+                outcomes.set(i, BatchOutcome.rejected(i, e.getMessage()));
+            }
+        }
+        if (accepted.isEmpty()) return outcomes;
+
+        try {
+            List<MessageDraft> valid = new ArrayList<>(accepted.size());
+            for (int index : accepted) valid.add(drafts.get(index));
+            List<UUID> ids = insertBatch(valid);
+            for (int i = 0; i < accepted.size(); i++) {
+                int index = accepted.get(i);
+                outcomes.set(index, BatchOutcome.applied(index, String.valueOf(ids.get(i))));
+            }
+            LoggerUtil.logInfo("Batch of {} messages created successfully.", String.valueOf(accepted.size()));
+        } catch (DataAccessException e) {
+            LoggerUtil.logWarn("Batch insert failed, retrying " + accepted.size() + " messages individually: " + e.getMessage());
+            for (int index : accepted) {
+                outcomes.set(index, createSingle(index, drafts.get(index)));
+            }
+        }
+        return outcomes;
+    }
+
     /**
      * Retrieves a message entity from the database using its unique identifier (UUID).
      *
@@ -135,7 +218,7 @@ public class MessagePSQL implements IMessageRepo {
     @Override
     public @Nullable EMessage getMessageById(@NotNull UUID messageId) throws DataAccessException {
         LoggerUtil.logInfo("Getting message by ID: {}", messageId.toString());
-        return HibernateUtil.executeTransaction(false, session -> {
+        return HibernateUtil.executeReadOnly(session -> {
             EMessage message = session.get(EMessage.class, messageId);
             if (message != null) {
                 LoggerUtil.logDebug("Message retrieved successfully. ID: {}", messageId.toString());
@@ -145,6 +228,29 @@ public class MessagePSQL implements IMessageRepo {
             return message;
         });
     }
+
+    /**
+     * Retrieves several messages by their unique identifiers in a single query.
+     *
+     * <p>Used to resolve message notifications in bulk, so a burst of new messages costs one round trip
+     * instead of one per message.</p>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * List<EMessage> messages = messageRepo.getMessagesByIds(List.of(messageId1, messageId2));
+     * }</pre>
+     *
+     * @param messageIds The identifiers of the messages to retrieve.
+     * @return The messages found, in no particular order.
+     * @throws DataAccessException If there is an issue while querying the database.
+     */
+    @Override
+    public @NotNull List<EMessage> getMessagesByIds(@NotNull Collection<UUID> messageIds) throws DataAccessException {
+        if (messageIds.isEmpty()) return List.of();
+        LoggerUtil.logDebug("Getting {} messages by ID.", String.valueOf(messageIds.size()));
+        List<EMessage> messages = HibernateUtil.executeReadOnly(session -> session.createQuery("FROM EMessage WHERE id IN :ids", EMessage.class).setParameter("ids", messageIds).list());
+        return messages == null ? List.of() : messages;
+    }
     
     /**
      * Retrieves all direct messages exchanged between two users.
@@ -157,7 +263,8 @@ public class MessagePSQL implements IMessageRepo {
      * <ol>
      *   <li>Validate the user IDs using {@link FieldValidator}.</li>
      *   <li>Log the retrieval attempt with the user IDs.</li>
-     *   <li>Start a read-only transaction and execute a query to fetch matching messages.</li>
+     *   <li>Derive the conversation key of the pair via {@link ConversationKey}.</li>
+     *   <li>Start a read-only transaction and fetch the messages carrying that key.</li>
      *   <li>Return all matching messages as a list.</li>
      * </ol>
      *
@@ -180,7 +287,8 @@ public class MessagePSQL implements IMessageRepo {
     ) throws IllegalArgumentException, DataAccessException {
         FieldValidator.userLinkConstraints(senderId, recipientId);
         LoggerUtil.logInfo("Retrieving all direct messages between sender: {} and recipient: {}", senderId.toString(), recipientId.toString());
-        return HibernateUtil.executeTransaction(false, session -> session.createQuery("FROM EMessage WHERE isGroup = false " + "AND ((senderId = :senderId AND recipientId = :recipientId) " + "OR (recipientId = :senderId AND senderId = :recipientId))", EMessage.class).setParameter("senderId", senderId).setParameter("recipientId", recipientId).list());
+        UUID conversationId = ConversationKey.of(senderId, recipientId);
+        return HibernateUtil.executeReadOnly(session -> session.createQuery("FROM EMessage WHERE conversationId = :conversationId", EMessage.class).setParameter("conversationId", conversationId).list());
     }
 
     /**
@@ -213,7 +321,125 @@ public class MessagePSQL implements IMessageRepo {
     @Override
     public @Nullable List<EMessage> getAllMessagesForGroup(@NotNull UUID groupId) throws DataAccessException {
         LoggerUtil.logInfo("Retrieving all messages for group ID: {}", groupId.toString());
-        return HibernateUtil.executeTransaction(false, session -> session.createQuery("FROM EMessage WHERE groupId = :groupId AND isGroup = true", EMessage.class).setParameter("groupId", groupId).list());
+        return HibernateUtil.executeReadOnly(session -> session.createQuery("FROM EMessage WHERE groupId = :groupId AND isGroup = true", EMessage.class).setParameter("groupId", groupId).list());
+    }
+
+    /**
+     * Retrieves one page of the direct message history between two users.
+     *
+     * <p>The query seeks directly to the cursor with a row-value comparison on {@code (timestamp, id)}, which
+     * PostgreSQL resolves through the {@code (conversation_id, timestamp, message_id)} index declared in {@code setup.sql}.
+     * Only {@code limit + 1} rows are read, the extra one telling whether another page exists.</p>
+     *
+     * <h3>Steps:</h3>
+     * <ol>
+     *   <li>Validate the user link and the pagination arguments via {@link FieldValidator}.</li>
+     *   <li>Run the page query within a read-only transaction.</li>
+     *   <li>Return the page in chronological order.</li>
+     * </ol>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * KeysetPage<EMessage> latest = messageRepo.getMessagesBetweenUsers(userId1, userId2, null, null, 50);
+     * }</pre>
+     *
+     * @param userId1 The UUID of one participant. Must not be {@code null}.
+     * @param userId2 The UUID of the other participant. Must not be {@code null}.
+     * @param before  Return messages strictly older than this cursor, or {@code null}.
+     * @param after   Return messages strictly newer than this cursor, or {@code null}.
+     * @param limit   The maximum number of messages in the page.
+     * @return The requested page.
+     * @throws IllegalArgumentException If validation fails.
+     * @throws DataAccessException      If there is an issue while querying the database.
+     */
+    @Override
+    public @NotNull KeysetPage<EMessage> getMessagesBetweenUsers(
+            @NotNull UUID userId1,
+            @NotNull UUID userId2,
+            @Nullable KeysetCursor before,
+            @Nullable KeysetCursor after,
+            int limit
+    ) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.userLinkConstraints(userId1, userId2);
+        FieldValidator.pageConstraints(before, after, limit);
+        LoggerUtil.logInfo("Retrieving a page of direct messages between users: {} and {}", userId1.toString(), userId2.toString());
+        return findPage("m.conversationId = :conversationId", Map.of("conversationId", ConversationKey.of(userId1, userId2)), before, after, limit);
+    }
+
+    /**
+     * Retrieves one page of the message history of a group.
+     *
+     * <p>Works like {@link #getMessagesBetweenUsers(UUID, UUID, KeysetCursor, KeysetCursor, int)}, filtered on
+     * {@code groupId} and backed by the {@code (group_id, timestamp, message_id)} index.</p>
+     *
+     * @param groupId The unique identifier of the group. Must not be {@code null}.
+     * @param before  Return messages strictly older than this cursor, or {@code null}.
+     * @param after   Return messages strictly newer than this cursor, or {@code null}.
+     * @param limit   The maximum number of messages in the page.
+     * @return The requested page.
+     * @throws IllegalArgumentException If validation fails.
+     * @throws DataAccessException      If there is an issue while querying the database.
+     */
+    @Override
+    public @NotNull KeysetPage<EMessage> getMessagesForGroup(
+            @NotNull UUID groupId,
+            @Nullable KeysetCursor before,
+            @Nullable KeysetCursor after,
+            int limit
+    ) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.pageConstraints(before, after, limit);
+        LoggerUtil.logInfo("Retrieving a page of messages for group ID: {}", groupId.toString());
+        return findPage("m.groupId = :groupId AND m.isGroup = true", Map.of("groupId", groupId), before, after, limit);
+    }
+
+    /**
+     * Streams the whole direct message history between two users, oldest first.
+     *
+     * <p>The rows are read through a forward-only cursor: the PostgreSQL driver fetches {@value #STREAM_FETCH_SIZE}
+     * rows per round trip instead of buffering the complete result, and each message is detached once handed over
+     * so that streamed entities can be garbage collected.</p>
+     *
+     * <h3>Steps:</h3>
+     * <ol>
+     *   <li>Validate the user IDs using {@link FieldValidator}.</li>
+     *   <li>Derive the conversation key of the pair via {@link ConversationKey}.</li>
+     *   <li>Scroll through the matching messages within a read-only transaction, passing each one to the sink.</li>
+     * </ol>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * long exported = messageRepo.streamMessagesBetweenUsers(userId1, userId2, message -> writer.write(message));
+     * }</pre>
+     *
+     * @param userId1 The UUID of one participant. Must not be {@code null}.
+     * @param userId2 The UUID of the other participant. Must not be {@code null}.
+     * @param sink    Receives each message in chronological order.
+     * @return The number of messages streamed.
+     * @throws IllegalArgumentException If the user IDs fail validation.
+     * @throws DataAccessException      If there is an issue while querying the database.
+     */
+    @Override
+    public long streamMessagesBetweenUsers(@NotNull UUID userId1, @NotNull UUID userId2, @NotNull Consumer<EMessage> sink
+    ) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.userLinkConstraints(userId1, userId2);
+        LoggerUtil.logInfo("Streaming direct messages between users: {} and {}", userId1.toString(), userId2.toString());
+        return stream("m.conversationId = :conversationId", "conversationId", ConversationKey.of(userId1, userId2), sink);
+    }
+
+    /**
+     * Streams the whole message history of a group, oldest first.
+     *
+     * <p>Works like {@link #streamMessagesBetweenUsers(UUID, UUID, Consumer)}, filtered on {@code groupId}.</p>
+     *
+     * @param groupId The unique identifier of the group. Must not be {@code null}.
+     * @param sink    Receives each message in chronological order.
+     * @return The number of messages streamed.
+     * @throws DataAccessException If there is an issue while querying the database.
+     */
+    @Override
+    public long streamMessagesForGroup(@NotNull UUID groupId, @NotNull Consumer<EMessage> sink) throws DataAccessException {
+        LoggerUtil.logInfo("Streaming messages for group ID: {}", groupId.toString());
+        return stream("m.groupId = :groupId AND m.isGroup = true", "groupId", groupId, sink);
     }
 
     /**
@@ -221,17 +447,15 @@ public class MessagePSQL implements IMessageRepo {
      *
      * <p>This method modifies the encrypted content of the {@link EMessage} entity with the
      * specified {@code messageId}.
-     * If the message corresponding to the ID does not exist in the database, an exception will be thrown.</p>
+     * If the message corresponding to the ID does not exist in the database, nothing is written and {@code 0} is returned.</p>
      *
      * <h3>Steps:</h3>
      * <ol>
      *   <li>Log the update attempt for the specific message ID.</li>
-     *   <li>Start a writing transaction using {@link HibernateUtil}.</li>
-     *   <li>Retrieve the {@link EMessage} by its unique ID.</li>
-     *   <li>If the message does not exist, log a warning and throw an {@link IllegalArgumentException}.</li>
-     *   <li>Update the {@code contentEncrypted} property of the retrieved message with the new value.</li>
-     *   <li>Save the changes to the database using {@code session.merge()}.</li>
-     *   <li>Log success of the operation.</li>
+     *   <li>Write the new {@code contentEncrypted} value with a single targeted {@code UPDATE} through
+     *       {@link HibernateUtil#executeUpdate(String, Map)}, without loading the message first.</li>
+     *   <li>Detach the message from a session shared by the unit of work, so it is not served stale.</li>
+     *   <li>Log success, or a warning if no row was updated.</li>
      * </ol>
      *
      * <h3>Example:</h3>
@@ -243,23 +467,16 @@ public class MessagePSQL implements IMessageRepo {
      *
      * @param messageId          The unique identifier of the message to update.
      * @param newContentEncrypted The new encrypted content for the message.
-     * @throws IllegalArgumentException If the message does not exist in the database.
-     * @throws DataAccessException      If an error occurs during the update operation.
+     * @return The number of updated rows, {@code 0} if no message has the given ID.
+     * @throws DataAccessException If an error occurs during the update operation.
      */
     @Override
-    public void updateMessageContent(@NotNull UUID messageId, @NotNull String newContentEncrypted) throws DataAccessException {
+    public int updateMessageContent(@NotNull UUID messageId, @NotNull String newContentEncrypted) throws DataAccessException {
         LoggerUtil.logInfo("Updating message content. Message ID: {}", messageId.toString());
-        HibernateUtil.executeTransaction(true, session -> {
-            EMessage message = session.get(EMessage.class, messageId);
-            if (message == null) {
-                LoggerUtil.logWarn("Message not found. Message ID: " + messageId);
-                throw new IllegalArgumentException("Message does not exist.");
-            }
-            message.setContentEncrypted(newContentEncrypted);
-            session.merge(message);
-            LoggerUtil.logInfo("Message content updated successfully. Message ID: {}", messageId.toString());
-            return null;
-        });
+        int updated = HibernateUtil.executeUpdate("UPDATE EMessage SET contentEncrypted = :content WHERE id = :messageId", Map.of("content", newContentEncrypted, "messageId", messageId), EMessage.class, messageId);
+        if (updated > 0) LoggerUtil.logInfo("Message content updated successfully. Message ID: {}", messageId.toString());
+        else LoggerUtil.logWarn("Message not found. Message ID: " + messageId);
+        return updated;
     }
 
     /**
@@ -322,9 +539,8 @@ public class MessagePSQL implements IMessageRepo {
      * <h3>Steps:</h3>
      * <ol>
      *   <li>Log the deletion attempt with the provided {@code messageId}.</li>
-     *   <li>Start a writing transaction to modify the message state.</li>
-     *   <li>Retrieve the message entity by its {@code messageId}.</li>
-     *   <li>Set the entity's "deleted" flag and merge the state back into persistence.</li>
+     *   <li>Set the "deleted" flag with a single targeted {@code UPDATE}, without loading the message first.
+     *       The {@code after_message_marked_deletion} trigger still fires, since only the column list shrinks.</li>
      *   <li>Log success or warnings based on the operation outcome.</li>
      * </ol>
      *
@@ -335,19 +551,182 @@ public class MessagePSQL implements IMessageRepo {
      * }</pre>
      *
      * @param messageId The unique identifier of the message to mark as deleted.
+     * @return The number of updated rows, {@code 0} if no message has the given ID.
      * @throws DataAccessException If there is an error during the update operation.
      */
     @Override
-    public void markAsDeleted(@NotNull UUID messageId) throws DataAccessException {
+    public int markAsDeleted(@NotNull UUID messageId) throws DataAccessException {
         LoggerUtil.logInfo("Marking message ID: {} as deleted.", messageId.toString());
-        HibernateUtil.executeTransaction(true, session -> {
-            EMessage message = session.get(EMessage.class, messageId);
-            if (message != null) {
-                message.setDeleted();
-                session.merge(message);
-                LoggerUtil.logInfo("Message successfully marked as deleted. ID: {}", messageId.toString());
-            } else LoggerUtil.logWarn("Message not found for deletion. ID: " + messageId);
-            return null;
+        int updated = HibernateUtil.executeUpdate("UPDATE EMessage SET isDeleted = true WHERE id = :messageId", Map.of("messageId", messageId), EMessage.class, messageId);
+        if (updated > 0) LoggerUtil.logInfo("Message successfully marked as deleted. ID: {}", messageId.toString());
+        else LoggerUtil.logWarn("Message not found for deletion. ID: " + messageId);
+        return updated;
+    }
+
+    /**
+     * Reads one keyset page of messages matching the given filter.
+     *
+     * <p>Pages read backwards ({@code before} or no cursor) are fetched newest first and reversed, so every page is
+     * returned in chronological order regardless of the direction it was read in.</p>
+     *
+     * @param filter     The HQL predicate selecting the timeline, using the alias {@code m}.
+     * @param parameters The named parameters referenced by {@code filter}.
+     * @param before     Return messages strictly older than this cursor, or {@code null}.
+     * @param after      Return messages strictly newer than this cursor, or {@code null}.
+     * @param limit      The maximum number of messages in the page.
+     * @return The requested page in chronological order.
+     * @throws DataAccessException If there is an issue while querying the database.
+     */
+    private @NotNull KeysetPage<EMessage> findPage(
+            @NotNull String filter,
+            @NotNull Map<String, Object> parameters,
+            @Nullable KeysetCursor before,
+            @Nullable KeysetCursor after,
+            int limit
+    ) throws DataAccessException {
+        boolean forward = after != null;
+        KeysetCursor cursor = forward ? after : before;
+        StringBuilder hql = new StringBuilder("FROM EMessage m WHERE ").append(filter);
+        if (cursor != null) hql.append(forward ? " AND (m.timestamp, m.id) > (:cursorTimestamp, :cursorId)" : " AND (m.timestamp, m.id) < (:cursorTimestamp, :cursorId)");
+        hql.append(forward ? " ORDER BY m.timestamp ASC, m.id ASC" : " ORDER BY m.timestamp DESC, m.id DESC");
+
+        List<EMessage> rows = HibernateUtil.executeReadOnly(session -> {
+            var query = session.createQuery(hql.toString(), EMessage.class).setMaxResults(limit + 1);
+            parameters.forEach((name, value) -> query.setParameter(name, value));
+            if (cursor != null) query.setParameter("cursorTimestamp", cursor.timestamp()).setParameter("cursorId", cursor.id());
+            return query.list();
+        });
+
+        List<EMessage> items = new ArrayList<>(rows == null ? List.of() : rows);
+        boolean hasMore = items.size() > limit;
+        if (hasMore) items.remove(items.size() - 1);
+        if (!forward) Collections.reverse(items);
+        return new KeysetPage<>(items, hasMore);
+    }
+
+    /**
+     * Validates a message draft against the rules shared by single and batch creation.
+     *
+     * @param draft The draft to validate.
+     * @throws IllegalArgumentException If the draft violates a constraint.
+     */
+    private void validate(@NotNull MessageDraft draft) throws IllegalArgumentException {
+        FieldValidator.userLinkConstraints(draft.senderId(), draft.recipientId());
+        if (!draft.isGroup() && draft.recipientId() == null) {
+            throw new IllegalArgumentException("Direct messages must have a recipient.");
+        }
+        if (draft.isGroup() && draft.groupId() == null) {
+            throw new IllegalArgumentException("Group messages must include a group ID.");
+        }
+    }
+
+    /**
+     * Creates the entity described by a draft.
+     *
+     * @param draft The validated draft.
+     * @return A new, transient message entity.
+     */
+    private @NotNull EMessage toEntity(@NotNull MessageDraft draft) {
+        return new EMessage(draft.senderId(), draft.recipientId(), draft.groupId(), draft.isGroup(), draft.contentEncrypted());
+    }
+
+    /**
+     * Sends the pending inserts as one JDBC batch and detaches them, keeping the session small for large batches.
+     *
+     * <p>Only the flushed messages are detached: the session may be bound to a wider unit of work and shared with
+     * earlier repository calls, whose managed entities must stay attached.</p>
+     *
+     * @param session The session persisting the batch.
+     * @param pending The messages persisted since the last flush; emptied by this method.
+     * @param created Receives the IDs of the flushed messages, in insertion order.
+     */
+    private void flushBatch(@NotNull Session session, @NotNull List<EMessage> pending, @NotNull List<UUID> created) {
+        if (pending.isEmpty()) return;
+        session.flush();
+        for (EMessage message : pending) {
+            created.add(message.getId());
+            session.detach(message);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Persists validated drafts in a single transaction, flushing and detaching them every batch.
+     *
+     * <p>Package-private so that tests can replace the database round trip.</p>
+     *
+     * @param drafts The validated drafts.
+     * @return The IDs of the new messages, in the order of {@code drafts}.
+     * @throws DataAccessException If the database refuses the transaction.
+     */
+    @NotNull List<UUID> insertBatch(@NotNull List<MessageDraft> drafts) throws DataAccessException {
+        return HibernateUtil.executeTransaction(true, session -> {
+            List<EMessage> pending = new ArrayList<>(INSERT_BATCH_SIZE);
+            List<UUID> created = new ArrayList<>(drafts.size());
+            for (MessageDraft draft : drafts) {
+                EMessage message = toEntity(draft);
+                session.persist(message);
+                pending.add(message);
+                if (pending.size() == INSERT_BATCH_SIZE) {
+                    flushBatch(session, pending, created);
+                }
+            }
+            flushBatch(session, pending, created);
+            return created;
+        });
+    }
+
+    /**
+     * Persists a single draft in its own transaction, used to isolate failures after a batch was refused.
+     *
+     * <p>Package-private so that tests can replace the database round trip.</p>
+     *
+     * @param index The index of the draft in the batch.
+     * @param draft The validated draft.
+     * @return The outcome of the draft.
+     */
+    @NotNull BatchOutcome<Integer> createSingle(int index, @NotNull MessageDraft draft) {
+        try {
+            UUID id = HibernateUtil.executeTransaction(true, session -> {
+                EMessage message = toEntity(draft);
+                session.persist(message);
+                session.flush();
+                return message.getId();
+            });
+            return BatchOutcome.applied(index, String.valueOf(id));
+        } catch (DataAccessException e) {
+            return BatchOutcome.failed(index, e.getMessage());
+        }
+    }
+
+    /**
+     * Scrolls through all messages matching the given filter in chronological order.
+     *
+     * @param filter    The HQL predicate selecting the timeline, using the alias {@code m}.
+     * @param parameter The name of the single parameter referenced by {@code filter}.
+     * @param value     The value of that parameter.
+     * @param sink      Receives each message.
+     * @return The number of messages streamed.
+     * @throws DataAccessException If there is an issue while querying the database.
+     */
+    private long stream(@NotNull String filter, @NotNull String parameter, @NotNull Object value, @NotNull Consumer<EMessage> sink) throws DataAccessException {
+        Long count = HibernateUtil.executeReadOnly(session -> {
+            long streamed = 0;
+            try (ScrollableResults<EMessage> results = session
+                    .createQuery("FROM EMessage m WHERE " + filter + " ORDER BY m.timestamp ASC, m.id ASC", EMessage.class)
+                    .setParameter(parameter, value)
+                    .setFetchSize(STREAM_FETCH_SIZE)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    EMessage message = results.get();
+                    sink.accept(message);
+                    session.detach(message);
+                    streamed++;
+                }
+            }
+            return streamed;
         });
+        return count == null ? 0 : count;
     }
-}
\ No newline at end of file
+}
@@ -27,8 +27,11 @@ import jakarta.persistence.criteria.Root;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -41,8 +44,12 @@ import java.util.UUID;
  * <h2>Features:</h2>
  * <ul>
  *   <li>Creation of notifications with required fields like user ID, type, and content.</li>
+ *   <li>Fan-out of one notification to a whole group or a list of users in a single statement.</li>
+ *   <li>Optional coalescing of unread notification bursts of the same type into a single row.</li>
  *   <li>Efficient retrieval of notifications based on various criteria (user, read status, etc.).</li>
  *   <li>Automatic handling of timestamps and notification lifecycle management.</li>
+ *   <li>Unread counts served from a trigger-maintained counter table.</li>
+ *   <li>Keyset-paginated notification feeds backed by composite indexes.</li>
  * </ul>
  *
  * <p>All database-related exceptions are encapsulated in {@link DataAccessException}
@@ -56,12 +63,98 @@ import java.util.UUID;
  */
 public class NotificationPSQL implements INotificationRepo {
 
+    /**
+     * Merges a notification into the latest unread one of the same {@code (:userId, :type)} since {@code :windowStart},
+     * or inserts it if there is none. The reported row count is that of the insert: {@code 0} when merged.
+     */
+    private static final String COALESCE_SQL = """
+            WITH merged AS (
+                UPDATE unrecorded.notifications
+                SET content = :content, timestamp = :timestamp, coalesced_count = coalesced_count + 1
+                WHERE notification_id = (SELECT notification_id
+                                         FROM unrecorded.notifications
+                                         WHERE user_id = :userId
+                                           AND is_read = FALSE
+                                           AND type = :type
+                                           AND timestamp >= :windowStart
+                                         ORDER BY timestamp DESC
+                                         LIMIT 1
+                                         FOR UPDATE)
+                RETURNING notification_id)
+            INSERT INTO unrecorded.notifications (user_id, type, content, is_read, timestamp)
+            SELECT :userId, :type, :content, FALSE, :timestamp
+            WHERE NOT EXISTS (SELECT 1 FROM merged)""";
+
+    /**
+     * Creates one unread notification per member of {@code :groupId}.
+     */
+    private static final String NOTIFY_GROUP_SQL = """
+            INSERT INTO unrecorded.notifications (user_id, type, content, is_read, timestamp)
+            SELECT user_id, :type, :content, FALSE, :timestamp
+            FROM unrecorded.group_members
+            WHERE group_id = :groupId""";
+
+    /**
+     * Creates one unread notification per existing user among {@code :ids}.
+     */
+    private static final String NOTIFY_USERS_SQL = """
+            INSERT INTO unrecorded.notifications (user_id, type, content, is_read, timestamp)
+            SELECT user_id, :type, :content, FALSE, :timestamp
+            FROM unrecorded.users
+            WHERE user_id = ANY(:ids)""";
+
+    /**
+     * Reads the maintained unread counter of {@code :userId}.
+     */
+    private static final String UNREAD_COUNT_SQL = "SELECT unread_count FROM unrecorded.notification_counters WHERE user_id = :userId";
+
+    /**
+     * Marks the unread notifications among {@code :ids} as read.
+     */
+    private static final String MARK_READ_BY_IDS_SQL = "UPDATE unrecorded.notifications SET is_read = TRUE WHERE notification_id = ANY(:ids) AND is_read = FALSE";
+
+    /**
+     * Deletes the notifications among {@code :ids}.
+     */
+    private static final String DELETE_BY_IDS_SQL = "DELETE FROM unrecorded.notifications WHERE notification_id = ANY(:ids)";
+
+    /**
+     * The window within which unread notifications of the same (user, type) are merged, {@code 0} when disabled.
+     */
+    private final long coalesceWindowMillis;
+
+    /**
+     * Creates a repository that stores every notification as its own row.
+     */
+    public NotificationPSQL() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * Creates a repository that coalesces bursts of unread notifications.
+     *
+     * <p>An unread notification created within {@code coalesceWindow} of the latest unread notification of the same
+     * user and type is merged into it (see {@link #createNotification}). {@link Duration#ZERO} disables coalescing.</p>
+     *
+     * @param coalesceWindow The coalescing window.
+     * @throws IllegalArgumentException If the window is negative.
+     */
+    public NotificationPSQL(@NotNull Duration coalesceWindow) throws IllegalArgumentException {
+        if (coalesceWindow.isNegative()) throw new IllegalArgumentException("The notification coalescing window must not be negative.");
+        this.coalesceWindowMillis = coalesceWindow.toMillis();
+    }
+
     /**
      * Creates and saves a new notification in the database.
      *
      * <p>This method requires specifying the user ID, type, content, read status, and the timestamp for the notification.
      * It ensures all necessary fields are properly populated before persisting the notification entity.</p>
      *
+     * <p>When coalescing is enabled and the notification is unread, a single statement first tries to merge it into
+     * the latest unread notification of the same user and type whose timestamp lies within the window: that row takes
+     * the new content and timestamp and its {@code coalesced_count} grows by one. Only if there is no such row is a
+     * new one inserted. Coalescing is best effort; two notifications created concurrently may both be inserted.</p>
+     *
      * @param userId    The ID of the user receiving the notification.
      * @param type      The type/category of the notification, such as "INFO", "ALERT", or "WARNING".
      * @param content   The content/message of the notification.
@@ -72,6 +165,10 @@ public class NotificationPSQL implements INotificationRepo {
      */
     public void createNotification(@NotNull UUID userId, @NotNull String type, @NotNull String content, boolean isRead, @NotNull ZonedDateTime timestamp) throws IllegalArgumentException, DataAccessException {
         FieldValidator.notificationTypeConstraints(type);
+        if (!isRead && coalesceWindowMillis > 0) {
+            coalesceNotification(userId, type, content, timestamp);
+            return;
+        }
         LoggerUtil.logInfo("Creating a new notification for userId: {}", userId.toString());
         HibernateUtil.executeTransaction(true, session -> {
             ENotification notification = new ENotification(userId, type, content, isRead, timestamp);
@@ -81,6 +178,91 @@ public class NotificationPSQL implements INotificationRepo {
         });
     }
 
+    /**
+     * Merges an unread notification into the latest matching one within the window, or inserts it.
+     *
+     * @param userId    The ID of the user receiving the notification.
+     * @param type      The type/category of the notification.
+     * @param content   The content/message of the notification.
+     * @param timestamp The timestamp of the notification.
+     * @throws DataAccessException If an error occurs while writing the notification.
+     */
+    private void coalesceNotification(@NotNull UUID userId, @NotNull String type, @NotNull String content, @NotNull ZonedDateTime timestamp) throws DataAccessException {
+        LoggerUtil.logInfo("Creating or coalescing a notification for userId: {}", userId.toString());
+        Integer inserted = HibernateUtil.executeTransaction(true, session -> session.createNativeMutationQuery(COALESCE_SQL)
+                .setParameter("userId", userId)
+                .setParameter("type", type)
+                .setParameter("content", content)
+                .setParameter("timestamp", timestamp.toOffsetDateTime())
+                .setParameter("windowStart", timestamp.minus(Duration.ofMillis(coalesceWindowMillis)).toOffsetDateTime())
+                .executeUpdate());
+        if (inserted != null && inserted > 0) LoggerUtil.logInfo("Notification successfully created for userId: {}", userId.toString());
+        else LoggerUtil.logDebug("Notification coalesced for userId: {}", userId.toString());
+    }
+
+    /**
+     * Creates the same unread notification for every member of a group with a single {@code INSERT ... SELECT}.
+     *
+     * <p>The members are read from {@code group_members} by the statement itself, so no member list travels between
+     * the application and the database and all rows are written in one transaction. The unread counters are updated
+     * once for the whole statement.</p>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * int notified = notificationRepo.notifyGroupMembers(groupId, "INFO", "The group was renamed.", ZonedDateTime.now());
+     * }</pre>
+     *
+     * @param groupId   The ID of the group whose members receive the notification.
+     * @param type      The type/category of the notification, such as "INFO", "ALERT", or "WARNING".
+     * @param content   The content/message of the notification.
+     * @param timestamp The timestamp of the notifications.
+     * @return The number of notifications created, {@code 0} if the group has no members.
+     * @throws IllegalArgumentException If the type is invalid.
+     * @throws DataAccessException      If an error occurs while persisting the notifications.
+     */
+    public int notifyGroupMembers(@NotNull UUID groupId, @NotNull String type, @NotNull String content, @NotNull ZonedDateTime timestamp) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.notificationTypeConstraints(type);
+        LoggerUtil.logInfo("Notifying all members of groupId: {}", groupId.toString());
+        Integer created = HibernateUtil.executeTransaction(true, session -> session.createNativeMutationQuery(NOTIFY_GROUP_SQL)
+                .setParameter("groupId", groupId)
+                .setParameter("type", type)
+                .setParameter("content", content)
+                .setParameter("timestamp", timestamp.toOffsetDateTime())
+                .executeUpdate());
+        int notified = created == null ? 0 : created;
+        LoggerUtil.logInfo("Created {} notifications for groupId: {}", String.valueOf(notified), groupId.toString());
+        return notified;
+    }
+
+    /**
+     * Creates the same unread notification for each of the given users with a single {@code INSERT ... SELECT}.
+     *
+     * <p>The IDs are bound as one array parameter and joined against {@code users}, which drops duplicates and
+     * unknown IDs instead of failing the whole statement on the foreign key.</p>
+     *
+     * @param userIds   The IDs of the recipients, at most {@link FieldValidator#MAX_BULK_SIZE}.
+     * @param type      The type/category of the notification, such as "INFO", "ALERT", or "WARNING".
+     * @param content   The content/message of the notification.
+     * @param timestamp The timestamp of the notifications.
+     * @return The number of notifications created. Duplicate and unknown user IDs are skipped.
+     * @throws IllegalArgumentException If the list is empty or too large, or the type is invalid.
+     * @throws DataAccessException      If an error occurs while persisting the notifications.
+     */
+    public int notifyUsers(@NotNull List<UUID> userIds, @NotNull String type, @NotNull String content, @NotNull ZonedDateTime timestamp) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.bulkConstraints(userIds.size());
+        FieldValidator.notificationTypeConstraints(type);
+        LoggerUtil.logInfo("Notifying {} users.", String.valueOf(userIds.size()));
+        Integer created = HibernateUtil.executeTransaction(true, session -> session.createNativeMutationQuery(NOTIFY_USERS_SQL)
+                .setParameter("ids", userIds.toArray(UUID[]::new), UUID[].class)
+                .setParameter("type", type)
+                .setParameter("content", content)
+                .setParameter("timestamp", timestamp.toOffsetDateTime())
+                .executeUpdate());
+        int notified = created == null ? 0 : created;
+        LoggerUtil.logInfo("Created {} notifications.", String.valueOf(notified));
+        return notified;
+    }
+
     /**
      * Retrieves a notification by its unique identifier.
      *
@@ -90,7 +272,7 @@ public class NotificationPSQL implements INotificationRepo {
      */
     public @Nullable ENotification getNotificationById(@NotNull UUID notificationId) throws DataAccessException {
         LoggerUtil.logInfo("Retrieving notification by ID: {}", notificationId.toString());
-        return HibernateUtil.executeTransaction(false, session -> session.find(ENotification.class, notificationId));
+        return HibernateUtil.executeReadOnly(session -> session.find(ENotification.class, notificationId));
     }
 
     /**
@@ -102,7 +284,7 @@ public class NotificationPSQL implements INotificationRepo {
      */
     public @Nullable List<ENotification> getNotificationsByUserId(@NotNull UUID userId) throws DataAccessException {
         LoggerUtil.logInfo("Retrieving notifications for userId: {}", userId.toString());
-        return HibernateUtil.executeTransaction(false, session -> {
+        return HibernateUtil.executeReadOnly(session -> {
             CriteriaBuilder builder = session.getCriteriaBuilder();
             CriteriaQuery<ENotification> query = builder.createQuery(ENotification.class);
             Root<ENotification> root = query.from(ENotification.class);
@@ -120,7 +302,7 @@ public class NotificationPSQL implements INotificationRepo {
      */
     public @Nullable List<ENotification> getUnreadNotificationsByUserId(@NotNull UUID userId) throws DataAccessException {
         LoggerUtil.logInfo("Retrieving unread notifications for userId: {}", userId.toString());
-        return HibernateUtil.executeTransaction(false, session -> {
+        return HibernateUtil.executeReadOnly(session -> {
             CriteriaBuilder builder = session.getCriteriaBuilder();
             CriteriaQuery<ENotification> query = builder.createQuery(ENotification.class);
             Root<ENotification> root = query.from(ENotification.class);
@@ -129,24 +311,119 @@ public class NotificationPSQL implements INotificationRepo {
         });
     }
 
+    /**
+     * Retrieves one page of the notification feed of a user, newest first.
+     *
+     * <p>The query seeks directly to the cursor with a row-value comparison on {@code (timestamp, id)} and reads
+     * {@code limit + 1} rows backwards through an index declared in {@code setup.sql}: the
+     * {@code (user_id, is_read, timestamp, notification_id)} index for the unread feed, the
+     * {@code (user_id, timestamp, notification_id)} index for the full feed. No sort is needed in either case, so a
+     * page costs the same for a user with millions of notifications as for a new one.</p>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * KeysetPage<ENotification> latest = notificationRepo.getNotificationFeed(userId, true, null, 50);
+     * }</pre>
+     *
+     * @param userId     The unique ID of the user.
+     * @param unreadOnly Whether to list unread notifications only.
+     * @param before     Return notifications strictly older than this cursor, or {@code null}.
+     * @param limit      The maximum number of notifications in the page.
+     * @return The requested page, newest first.
+     * @throws IllegalArgumentException If the limit is out of range.
+     * @throws DataAccessException      If an error occurs while querying the database.
+     */
+    public @NotNull KeysetPage<ENotification> getNotificationFeed(@NotNull UUID userId, boolean unreadOnly, @Nullable KeysetCursor before, int limit) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.pageConstraints(before, null, limit);
+        LoggerUtil.logInfo("Retrieving a page of notifications for userId: {}", userId.toString());
+        StringBuilder hql = new StringBuilder("FROM ENotification n WHERE n.userId = :userId");
+        if (unreadOnly) hql.append(" AND n.isRead = false");
+        if (before != null) hql.append(" AND (n.timestamp, n.id) < (:cursorTimestamp, :cursorId)");
+        hql.append(" ORDER BY n.timestamp DESC, n.id DESC");
+
+        List<ENotification> rows = HibernateUtil.executeReadOnly(session -> {
+            var query = session.createQuery(hql.toString(), ENotification.class).setParameter("userId", userId).setMaxResults(limit + 1);
+            if (before != null) query.setParameter("cursorTimestamp", before.timestamp()).setParameter("cursorId", before.id());
+            return query.list();
+        });
+
+        List<ENotification> items = new ArrayList<>(rows == null ? List.of() : rows);
+        boolean hasMore = items.size() > limit;
+        if (hasMore) items.remove(items.size() - 1);
+        return new KeysetPage<>(items, hasMore);
+    }
+
+    /**
+     * Retrieves the number of unread notifications of a user.
+     *
+     * <p>The count is a single primary key lookup in {@code notification_counters}, which the statement-level
+     * triggers on {@code notifications} keep up to date in the same transaction as every insert, read status change
+     * and delete, whichever code path issues it.</p>
+     *
+     * @param userId The unique ID of the user.
+     * @return The number of unread notifications, {@code 0} if the user has none.
+     * @throws DataAccessException If an error occurs while querying the database.
+     */
+    public int getUnreadCount(@NotNull UUID userId) throws DataAccessException {
+        LoggerUtil.logDebug("Retrieving unread notification count for userId: {}", userId.toString());
+        Integer count = HibernateUtil.executeReadOnly(session -> session.createNativeQuery(UNREAD_COUNT_SQL, Integer.class)
+                .setParameter("userId", userId)
+                .uniqueResult());
+        return count == null ? 0 : count;
+    }
+
     /**
      * Updates the read status of a notification.
      *
+     * <p>The flag is written with a single targeted {@code UPDATE}, without loading the notification first.</p>
+     *
      * @param notificationId The unique ID of the notification to update.
      * @param isRead         The new read status (true if the notification is read, false otherwise).
+     * @return The number of updated rows, {@code 0} if no notification has the given ID.
      * @throws DataAccessException If an error occurs while updating the database.
      */
-    public void updateNotificationReadStatus(@NotNull UUID notificationId, boolean isRead) throws DataAccessException {
+    public int updateNotificationReadStatus(@NotNull UUID notificationId, boolean isRead) throws DataAccessException {
         LoggerUtil.logInfo("Updating read status for notificationId: {}", notificationId.toString());
-        HibernateUtil.executeTransaction(true, session -> {
-            ENotification notification = session.find(ENotification.class, notificationId);
-            if (notification != null) {
-                notification.setRead(isRead);
-                session.merge(notification);
-                LoggerUtil.logInfo("Read status updated for notificationId: {}", notificationId.toString());
-            } else LoggerUtil.logWarn("No notification found with ID: " + notificationId);
-            return null;
-        });
+        int updated = HibernateUtil.executeUpdate("UPDATE ENotification SET isRead = :isRead WHERE id = :notificationId", Map.of("isRead", isRead, "notificationId", notificationId), ENotification.class, notificationId);
+        if (updated > 0) LoggerUtil.logInfo("Read status updated for notificationId: {}", notificationId.toString());
+        else LoggerUtil.logWarn("No notification found with ID: " + notificationId);
+        return updated;
+    }
+
+    /**
+     * Marks every unread notification of a user as read with a single {@code UPDATE}.
+     *
+     * <p>Notifications that are already read are left untouched, so they are not rewritten. The statement bypasses
+     * the persistence context: notifications of the user already loaded by a shared session keep their old flag.</p>
+     *
+     * @param userId The unique ID of the user.
+     * @return The number of notifications that were unread and are now read.
+     * @throws DataAccessException If an error occurs while updating the notifications.
+     */
+    public int markAllAsRead(@NotNull UUID userId) throws DataAccessException {
+        LoggerUtil.logInfo("Marking all notifications as read for userId: {}", userId.toString());
+        int updated = HibernateUtil.executeUpdate("UPDATE ENotification SET isRead = true WHERE userId = :userId AND isRead = false", Map.of("userId", userId));
+        LoggerUtil.logInfo("Marked {} notifications as read for userId: {}", String.valueOf(updated), userId.toString());
+        return updated;
+    }
+
+    /**
+     * Marks the given notifications as read with a single {@code UPDATE}.
+     *
+     * <p>The IDs are bound as one array parameter and matched with {@code = ANY(...)}, so the statement text and
+     * its plan are the same for every list size. Notifications that are already read are left untouched.</p>
+     *
+     * @param notificationIds The IDs of the notifications, at most {@link FieldValidator#MAX_BULK_SIZE}.
+     * @return The number of notifications that were unread and are now read. Unknown and already read IDs are skipped.
+     * @throws IllegalArgumentException If the list is empty or too large.
+     * @throws DataAccessException      If an error occurs while updating the notifications.
+     */
+    public int markAsRead(@NotNull List<UUID> notificationIds) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.bulkConstraints(notificationIds.size());
+        LoggerUtil.logInfo("Marking {} notifications as read.", String.valueOf(notificationIds.size()));
+        int updated = executeForIds(MARK_READ_BY_IDS_SQL, notificationIds);
+        LoggerUtil.logInfo("Marked {} notifications as read.", String.valueOf(updated));
+        return updated;
     }
 
     /**
@@ -168,22 +445,53 @@ public class NotificationPSQL implements INotificationRepo {
     }
 
     /**
-     * Deletes all notifications for a specific user.
+     * Deletes the given notifications with a single {@code DELETE}.
+     *
+     * <p>The IDs are bound as one array parameter and matched with {@code = ANY(...)}, so the statement text and
+     * its plan are the same for every list size.</p>
+     *
+     * @param notificationIds The IDs of the notifications, at most {@link FieldValidator#MAX_BULK_SIZE}.
+     * @return The number of deleted notifications. Unknown IDs are skipped.
+     * @throws IllegalArgumentException If the list is empty or too large.
+     * @throws DataAccessException      If an error occurs while deleting the notifications.
+     */
+    public int deleteNotifications(@NotNull List<UUID> notificationIds) throws IllegalArgumentException, DataAccessException {
+        FieldValidator.bulkConstraints(notificationIds.size());
+        LoggerUtil.logInfo("Deleting {} notifications.", String.valueOf(notificationIds.size()));
+        int deleted = executeForIds(DELETE_BY_IDS_SQL, notificationIds);
+        LoggerUtil.logInfo("Successfully deleted {} notifications.", String.valueOf(deleted));
+        return deleted;
+    }
+
+    /**
+     * Deletes all notifications for a specific user with a single {@code DELETE}.
+     *
+     * <p>The statement bypasses the persistence context: notifications of the user already loaded by a shared
+     * session stay managed and must not be used afterwards.</p>
      *
      * @param userId The unique ID of the user whose notifications will be deleted.
+     * @return The number of deleted notifications.
      * @throws DataAccessException If an error occurs while deleting the notifications.
      */
-    public void deleteNotificationsByUserId(@NotNull UUID userId) throws DataAccessException {
+    public int deleteNotificationsByUserId(@NotNull UUID userId) throws DataAccessException {
         LoggerUtil.logInfo("Deleting all notifications for userId: {}", userId.toString());
-        HibernateUtil.executeTransaction(true, session -> {
-            CriteriaBuilder builder = session.getCriteriaBuilder();
-            CriteriaQuery<ENotification> query = builder.createQuery(ENotification.class);
-            Root<ENotification> root = query.from(ENotification.class);
-            query.select(root).where(builder.equal(root.get("userId"), userId));
-            List<ENotification> notifications = session.createQuery(query).getResultList();
-            notifications.forEach(session::remove);
-            LoggerUtil.logInfo("Successfully deleted {} notifications for userId: {}", String.valueOf(notifications.size()), userId.toString());
-            return null;
-        });
+        int deleted = HibernateUtil.executeUpdate("DELETE FROM ENotification WHERE userId = :userId", Map.of("userId", userId));
+        LoggerUtil.logInfo("Successfully deleted {} notifications for userId: {}", String.valueOf(deleted), userId.toString());
+        return deleted;
+    }
+
+    /**
+     * Runs a native statement taking the array parameter {@code :ids} in its own transaction.
+     *
+     * @param sql The statement to execute.
+     * @param ids The IDs bound to {@code :ids}.
+     * @return The number of affected rows.
+     * @throws DataAccessException If an error occurs while executing the statement.
+     */
+    private static int executeForIds(@NotNull String sql, @NotNull List<UUID> ids) throws DataAccessException {
+        Integer affected = HibernateUtil.executeTransaction(true, session -> session.createNativeMutationQuery(sql)
+                .setParameter("ids", ids.toArray(UUID[]::new), UUID[].class)
+                .executeUpdate());
+        return affected == null ? 0 : affected;
     }
-}
\ No newline at end of file
+}
@@ -20,6 +20,7 @@ import com.unrecorded.database.entities.ESession;
 import com.unrecorded.database.exceptions.DataAccessException;
 import com.unrecorded.database.util.HibernateUtil;
 import com.unrecorded.database.util.LoggerUtil;
+import com.unrecorded.database.util.TokenDigest;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
@@ -57,6 +58,18 @@ import java.util.UUID;
  */
 public class SessionPSQL implements ISessionRepo {
 
+    /**
+     * Deletes one batch of expired sessions. The inner query walks {@code sessions_expires_at_index} and skips rows
+     * that another purge has already locked.
+     */
+    private static final String PURGE_BATCH_SQL = """
+            DELETE FROM unrecorded.sessions
+            WHERE session_id IN (SELECT session_id
+                                 FROM unrecorded.sessions
+                                 WHERE expires_at < :currentTime
+                                 LIMIT :batchSize
+                                 FOR UPDATE SKIP LOCKED)""";
+
     /**
      * Creates and saves a new session in the database.
      *
@@ -88,7 +101,7 @@ public class SessionPSQL implements ISessionRepo {
      */
     public @Nullable ESession getSessionById(@NotNull UUID sessionId) throws DataAccessException {
         LoggerUtil.logInfo("Retrieving session by sessionId: {}", sessionId.toString());
-        return HibernateUtil.executeTransaction(false, session -> session.find(ESession.class, sessionId));
+        return HibernateUtil.executeReadOnly(session -> session.find(ESession.class, sessionId));
     }
 
     /**
@@ -101,7 +114,7 @@ public class SessionPSQL implements ISessionRepo {
      */
     public @Nullable List<ESession> getSessionsByUserId(@NotNull UUID userId) throws DataAccessException {
         LoggerUtil.logInfo("Retrieving all sessions for userId: {}", userId.toString());
-        return HibernateUtil.executeTransaction(false, session -> {
+        return HibernateUtil.executeReadOnly(session -> {
             CriteriaBuilder builder = session.getCriteriaBuilder();
             CriteriaQuery<ESession> query = builder.createQuery(ESession.class);
             Root<ESession> root = query.from(ESession.class);
@@ -115,19 +128,17 @@ public class SessionPSQL implements ISessionRepo {
     /**
      * Retrieves a session using its token.
      *
+     * <p>The session is found through the SHA-256 digest of the token, which is backed by the unique
+     * {@code sessions_token_hash_key} index, so the lookup stays a single index probe as sessions grow.</p>
+     *
      * @param token The session token.
      * @return The {@link ESession} entity corresponding to the token, or {@code null} if not found.
      * @throws DataAccessException If an issue occurs during the query process.
      */
     public @Nullable ESession getSessionByToken(@NotNull String token) throws DataAccessException {
         LoggerUtil.logInfo("Retrieving session by token.");
-        return HibernateUtil.executeTransaction(false, session -> {
-            CriteriaBuilder builder = session.getCriteriaBuilder();
-            CriteriaQuery<ESession> query = builder.createQuery(ESession.class);
-            Root<ESession> root = query.from(ESession.class);
-            query.select(root).where(builder.equal(root.get("token"), token));
-            return session.createQuery(query).uniqueResult();
-        });
+        byte[] tokenHash = TokenDigest.of(token);
+        return HibernateUtil.executeReadOnly(session -> session.createQuery("FROM ESession WHERE tokenHash = :tokenHash", ESession.class).setParameter("tokenHash", tokenHash).uniqueResult());
     }
 
     /**
@@ -149,23 +160,35 @@ public class SessionPSQL implements ISessionRepo {
     }
 
     /**
-     * Deletes all expired sessions from the database.
+     * Deletes all expired sessions from the database in bounded batches.
+     *
+     * <p>Each batch is a single set-based {@code DELETE} of at most {@code batchSize} rows, picked through the
+     * {@code sessions_expires_at_index} and committed on its own. No entity is loaded, and every transaction holds
+     * its row locks only for one batch. Rows locked by a concurrent purge are skipped rather than waited for.</p>
+     *
+     * <p><b>Note:</b> When a session with an active transaction is bound to the calling thread, all batches join
+     * that transaction and are committed together with it.</p>
      *
      * @param currentTime The current timestamp to check for expiration.
+     * @param batchSize   The maximum number of sessions deleted per transaction.
      * @return The number of sessions deleted.
-     * @throws DataAccessException If an issue occurs during the deletion process.
+     * @throws IllegalArgumentException If the batch size is not positive.
+     * @throws DataAccessException      If an issue occurs during the deletion process.
      */
-    public boolean deleteExpiredSessions(@NotNull ZonedDateTime currentTime) throws DataAccessException {
+    public long deleteExpiredSessions(@NotNull ZonedDateTime currentTime, int batchSize) throws IllegalArgumentException, DataAccessException {
+        if (batchSize < 1) throw new IllegalArgumentException("The purge batch size must be positive.");
         LoggerUtil.logInfo("Deleting expired sessions for current time: {}", currentTime.toString());
-        return Boolean.TRUE.equals(HibernateUtil.executeTransaction(true, session -> {
-            CriteriaBuilder builder = session.getCriteriaBuilder();
-            CriteriaQuery<ESession> query = builder.createQuery(ESession.class);
-            Root<ESession> root = query.from(ESession.class);
-            query.select(root).where(builder.lessThan(root.get("expiresAt"), currentTime));
-            List<ESession> expiredSessions = session.createQuery(query).getResultList();
-            expiredSessions.forEach(session::remove);
-            LoggerUtil.logInfo("Successfully deleted {} expired sessions.", String.valueOf(expiredSessions.size()));
-            return !expiredSessions.isEmpty();
-        }));
+        long total = 0;
+        int deleted;
+        do {
+            Integer batch = HibernateUtil.executeTransaction(true, session -> session.createNativeMutationQuery(PURGE_BATCH_SQL)
+                    .setParameter("currentTime", currentTime.toOffsetDateTime())
+                    .setParameter("batchSize", batchSize)
+                    .executeUpdate());
+            deleted = batch == null ? 0 : batch;
+            total += deleted;
+        } while (deleted == batchSize);
+        LoggerUtil.logInfo("Successfully deleted {} expired sessions.", String.valueOf(total));
+        return total;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.repositories;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * The stored credentials of one user, read without loading the user entity.
+ *
+ * <p>Password verification needs only the hash and the salt. Selecting them as a projection skips the key
+ * columns of {@code users}, which are large {@code TEXT} values, and creates no managed entity, so a login
+ * allocates little and leaves nothing in the persistence context.</p>
+ *
+ * @param userId   The UUID of the user.
+ * @param passHash The encoded Argon2id hash of the password.
+ * @param salt     The salt the password was hashed with.
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see IUserRepo#getCredentialsByUsername(String)
+ * @since 0.5
+ */
+public record UserCredentials(@NotNull UUID userId, @NotNull String passHash, byte @NotNull [] salt) {
+}
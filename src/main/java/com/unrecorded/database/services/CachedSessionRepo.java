@@ -0,0 +1,402 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.services;
+
+import com.unrecorded.database.entities.ESession;
+import com.unrecorded.database.exceptions.DataAccessException;
+import com.unrecorded.database.repositories.ISessionRepo;
+import com.unrecorded.database.util.LoggerUtil;
+import com.unrecorded.database.util.TokenDigest;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded in-memory cache of token lookups in front of an {@link ISessionRepo}.
+ *
+ * <p><b>Purpose:</b> Every authenticated request resolves its token to a session, yet sessions are written once and
+ * rarely change afterwards. Serving repeated lookups from memory takes that query off PostgreSQL and answers in
+ * microseconds instead of a network round-trip.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li><b>Keyed by Digest:</b> Entries are keyed by the SHA-256 digest of the token (see {@link TokenDigest}),
+ *   so the cache never holds a token as its key.</li>
+ *   <li><b>Bounded:</b> At most {@code maxEntries} lookups are kept; the least recently used one is evicted first.</li>
+ *   <li><b>Expiry:</b> A found session is kept until its {@link ESession#getExpiresAt() expiresAt}, capped by
+ *   {@code maxTtl} so sessions removed by other instances are picked up eventually.</li>
+ *   <li><b>Negative Caching:</b> Unknown and already expired tokens are remembered for {@code negativeTtl}, so
+ *   repeated probes with a bad token do not reach the database either.</li>
+ *   <li><b>Invalidation:</b> {@link #createSession}, {@link #deleteSession} and {@link #deleteExpiredSessions}
+ *   drop the entries they affect. A lookup that was already reading from the database when a write affected its
+ *   token or session returns what it read but does not cache it, so the write cannot be undone by a late fill.</li>
+ *   <li><b>Metrics:</b> Hits, misses, evictions and invalidations (see {@link #metrics()}).</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * ISessionRepo sessionRepo = new CachedSessionRepo(new SessionPSQL(), 100_000, Duration.ofMinutes(5), Duration.ofSeconds(5));
+ * ESession session = sessionRepo.getSessionByToken(token);
+ * }</pre>
+ *
+ * <h2>Thread Safety:</h2>
+ * <p>All methods can be called from any thread. The returned {@link ESession} instances are detached and shared
+ * between callers, so they must be treated as read-only.</p>
+ *
+ * <p><b>Note:</b> The cache is local to one server instance. A session deleted through another instance stays
+ * visible here for at most {@code maxTtl}.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see ISessionRepo
+ * @since 0.5
+ */
+public class CachedSessionRepo implements ISessionRepo {
+
+    private final ISessionRepo delegate;
+    private final int maxEntries;
+    private final long maxTtlMillis;
+    private final long negativeTtlMillis;
+
+    /**
+     * The cached lookups, in access order. Guarded by {@code this}.
+     */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * The key of every cached session, by session ID, for invalidation by ID. Guarded by {@code this}.
+     */
+    private final Map<UUID, String> keysBySessionId = new HashMap<>();
+
+    /**
+     * Incremented by every write that invalidates entries. Guarded by {@code this}.
+     */
+    private long generation;
+
+    /**
+     * The generation at which each database lookup in flight started, with the number of lookups that started at
+     * it. Guarded by {@code this}.
+     */
+    private final TreeMap<Long, Integer> loadsByGeneration = new TreeMap<>();
+
+    /**
+     * The writes that lookups in flight may have missed, by token key and by session ID, with their generation.
+     * Only recorded while lookups are in flight. Guarded by {@code this}.
+     */
+    private final Map<String, Long> invalidatedKeys = new HashMap<>();
+    private final Map<UUID, Long> deletedSessions = new HashMap<>();
+
+    /**
+     * The keys of {@link #invalidatedKeys} and {@link #deletedSessions} in generation order, for pruning.
+     * Guarded by {@code this}.
+     */
+    private final ArrayDeque<Tombstone> tombstones = new ArrayDeque<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates a cache in front of the given repository.
+     *
+     * @param delegate    The repository answering cache misses and performing all writes.
+     * @param maxEntries  The maximum number of cached lookups.
+     * @param maxTtl      The longest time a found session is served from memory.
+     * @param negativeTtl How long an unknown or expired token is remembered.
+     * @throws IllegalArgumentException If the size is not positive or a duration is negative.
+     */
+    public CachedSessionRepo(@NotNull ISessionRepo delegate, int maxEntries, @NotNull Duration maxTtl, @NotNull Duration negativeTtl) throws IllegalArgumentException {
+        if (maxEntries < 1) throw new IllegalArgumentException("The session cache must hold at least one entry.");
+        if (maxTtl.isNegative() || negativeTtl.isNegative()) throw new IllegalArgumentException("Session cache TTLs must not be negative.");
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.maxTtlMillis = maxTtl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= CachedSessionRepo.this.maxEntries) return false;
+                forgetSessionKey(eldest.getValue());
+                evictions.increment();
+                return true;
+            }
+        };
+        LoggerUtil.logInfo("Session cache enabled (entries: {}, TTL: {} ms).", String.valueOf(maxEntries), String.valueOf(maxTtlMillis));
+    }
+
+    /**
+     * Creates the session and forgets any cached miss for its token, so it is visible at once.
+     */
+    @Override
+    public void createSession(@NotNull UUID userId, @NotNull String token, @NotNull ZonedDateTime expiresAt) throws IllegalArgumentException, DataAccessException {
+        delegate.createSession(userId, token, expiresAt);
+        String key = keyOf(token);
+        synchronized (this) {
+            if (!loadsByGeneration.isEmpty()) tombstone(key, invalidatedKeys);
+            invalidate(key);
+        }
+    }
+
+    /**
+     * Passes through to the underlying repository; lookups by ID are not cached.
+     */
+    @Override
+    public @Nullable ESession getSessionById(@NotNull UUID sessionId) throws DataAccessException {
+        return delegate.getSessionById(sessionId);
+    }
+
+    /**
+     * Passes through to the underlying repository; lookups by user are not cached.
+     */
+    @Override
+    public @Nullable List<ESession> getSessionsByUserId(@NotNull UUID userId) throws DataAccessException {
+        return delegate.getSessionsByUserId(userId);
+    }
+
+    /**
+     * Resolves a token from memory, or from the underlying repository on a miss, and caches the result.
+     *
+     * <p>The result is the same as the underlying repository would return, including sessions that have already
+     * expired, which are cached like unknown tokens for {@code negativeTtl}.</p>
+     */
+    @Override
+    public @Nullable ESession getSessionByToken(@NotNull String token) throws DataAccessException {
+        String key = keyOf(token);
+        long now = System.currentTimeMillis();
+        long startedAt;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.deadline() > now) {
+                    if (entry.session() != null) hits.increment();
+                    else negativeHits.increment();
+                    return entry.session();
+                }
+                entries.remove(key);
+                forgetSessionKey(entry);
+                expirations.increment();
+            }
+            startedAt = generation;
+            loadsByGeneration.merge(startedAt, 1, Integer::sum);
+        }
+
+        misses.increment();
+        ESession session = null;
+        boolean loaded = false;
+        try {
+            session = delegate.getSessionByToken(token);
+            loaded = true;
+        } finally {
+            synchronized (this) {
+                if (loaded) fill(key, session, startedAt, now);
+                loadsByGeneration.computeIfPresent(startedAt, (start, count) -> count == 1 ? null : count - 1);
+                pruneTombstones();
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Deletes the session and drops its cached lookup.
+     */
+    @Override
+    public void deleteSession(@NotNull UUID sessionId) throws DataAccessException {
+        delegate.deleteSession(sessionId);
+        synchronized (this) {
+            if (!loadsByGeneration.isEmpty()) tombstone(sessionId, deletedSessions);
+            String key = keysBySessionId.remove(sessionId);
+            if (key != null) invalidate(key);
+        }
+    }
+
+    /**
+     * Deletes expired sessions and drops every cached session that expired before {@code currentTime}.
+     */
+    @Override
+    public long deleteExpiredSessions(@NotNull ZonedDateTime currentTime, int batchSize) throws IllegalArgumentException, DataAccessException {
+        long deleted = delegate.deleteExpiredSessions(currentTime, batchSize);
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.session() == null || entry.session().getExpiresAt().isAfter(currentTime)) continue;
+                iterator.remove();
+                forgetSessionKey(entry);
+                invalidations.increment();
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns a snapshot of the cache metrics.
+     *
+     * @return The current metrics.
+     */
+    public @NotNull Metrics metrics() {
+        long hitCount = hits.sum();
+        long negativeHitCount = negativeHits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + negativeHitCount + missCount;
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new Metrics(
+                hitCount,
+                negativeHitCount,
+                missCount,
+                evictions.sum(),
+                expirations.sum(),
+                invalidations.sum(),
+                size,
+                lookups == 0 ? 0 : (double) (hitCount + negativeHitCount) / lookups
+        );
+    }
+
+    /**
+     * Caches the result of a database lookup, unless a write affected its token or session since it started.
+     * Must be called while holding the lock.
+     *
+     * @param key       The digest key of the token.
+     * @param session   The session the token resolved to, or {@code null}.
+     * @param startedAt The generation at which the lookup started.
+     * @param now       The epoch millisecond at which the lookup started.
+     */
+    private void fill(@NotNull String key, @Nullable ESession session, long startedAt, long now) {
+        if (invalidatedKeys.getOrDefault(key, startedAt) > startedAt) return;
+        if (session != null && session.getId() != null && deletedSessions.getOrDefault(session.getId(), startedAt) > startedAt) return;
+        long expiresAt = session == null ? now : session.getExpiresAt().toInstant().toEpochMilli();
+        long deadline = expiresAt > now ? Math.min(expiresAt, now + maxTtlMillis) : now + negativeTtlMillis;
+        Entry previous = entries.put(key, new Entry(session, deadline));
+        if (previous != null) forgetSessionKey(previous);
+        if (session != null && session.getId() != null) keysBySessionId.put(session.getId(), key);
+    }
+
+    /**
+     * Records a write that lookups in flight may have missed. Must be called while holding the lock.
+     *
+     * @param id         The token key or session ID affected by the write.
+     * @param tombstones The map recording writes of that kind.
+     * @param <K>        The type of the identifier.
+     */
+    private <K> void tombstone(@NotNull K id, @NotNull Map<K, Long> tombstones) {
+        tombstones.put(id, ++generation);
+        this.tombstones.add(new Tombstone(id, generation));
+    }
+
+    /**
+     * Drops the tombstones no lookup in flight can be affected by, i.e. the ones older than the oldest lookup.
+     * Must be called while holding the lock.
+     */
+    private void pruneTombstones() {
+        long oldest = loadsByGeneration.isEmpty() ? generation : loadsByGeneration.firstKey();
+        while (!tombstones.isEmpty() && tombstones.peek().generation() <= oldest) {
+            Tombstone tombstone = tombstones.poll();
+            if (tombstone.id() instanceof UUID sessionId) deletedSessions.remove(sessionId, tombstone.generation());
+            else invalidatedKeys.remove((String) tombstone.id(), tombstone.generation());
+        }
+    }
+
+    /**
+     * Removes one cached lookup. Must be called while holding the lock.
+     *
+     * @param key The digest key of the token.
+     */
+    private void invalidate(@NotNull String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) return;
+        forgetSessionKey(entry);
+        invalidations.increment();
+    }
+
+    /**
+     * Drops the ID-to-key mapping of a removed entry. Must be called while holding the lock.
+     *
+     * @param entry The removed entry.
+     */
+    private void forgetSessionKey(@NotNull Entry entry) {
+        if (entry.session() != null && entry.session().getId() != null) keysBySessionId.remove(entry.session().getId());
+    }
+
+    /**
+     * Derives the cache key of a token.
+     *
+     * @param token The session token.
+     * @return The hexadecimal SHA-256 digest of the token.
+     */
+    private static @NotNull String keyOf(@NotNull String token) {
+        return HexFormat.of().formatHex(TokenDigest.of(token));
+    }
+
+    /**
+     * A cached lookup.
+     *
+     * @param session  The session the token resolved to, or {@code null} for an unknown token.
+     * @param deadline The epoch millisecond after which the entry must be reloaded.
+     */
+    private record Entry(@Nullable ESession session, long deadline) {
+    }
+
+    /**
+     * A write recorded for the lookups in flight.
+     *
+     * @param id         The token key or session ID affected by the write.
+     * @param generation The generation of the write.
+     */
+    private record Tombstone(@NotNull Object id, long generation) {
+    }
+
+    /**
+     * A snapshot of the session cache metrics.
+     *
+     * @param hits          Lookups answered from memory with a session.
+     * @param negativeHits  Lookups answered from memory with a cached miss.
+     * @param misses        Lookups that went to the database.
+     * @param evictions     Entries dropped to stay within the size bound.
+     * @param expirations   Entries dropped because their TTL had passed.
+     * @param invalidations Entries dropped by session writes.
+     * @param size          Entries currently cached.
+     * @param hitRatio      Share of lookups answered from memory, between 0 and 1.
+     */
+    public record Metrics(
+            long hits,
+            long negativeHits,
+            long misses,
+            long evictions,
+            long expirations,
+            long invalidations,
+            int size,
+            double hitRatio
+    ) {
+    }
+}
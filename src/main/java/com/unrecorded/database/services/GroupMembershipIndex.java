@@ -0,0 +1,316 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.services;
+
+import com.unrecorded.database.exceptions.DataAccessException;
+import com.unrecorded.database.util.HibernateUtil;
+import com.unrecorded.database.util.LoggerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-process index of group memberships, answering membership and role checks from memory.
+ *
+ * <p><b>Purpose:</b> Authorizing an action on a group means checking that the acting user belongs to it, usually on
+ * every request. Each check used to be a database round-trip. The index loads the members of a group once, as a
+ * compact map from member ID to role, and answers further checks from memory until the entry expires.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li><b>Lazy:</b> A group is loaded on its first lookup, with a single query reading only member IDs and roles.</li>
+ *   <li><b>Write-Through:</b> {@code GroupMemberPSQL} reports every membership it adds, removes or changes
+ *   (see {@link #memberAdded}, {@link #memberRemoved} and {@link #roleChanged}), so loaded groups stay current.</li>
+ *   <li><b>Bounded:</b> At most {@code maxGroups} groups are kept; the least recently used one is evicted first.</li>
+ *   <li><b>Expiry:</b> A loaded group is reloaded after {@code ttl}, which bounds the staleness caused by changes the
+ *   index cannot observe: cascading deletes in the database, rolled back units of work and other server instances.</li>
+ *   <li><b>Metrics:</b> Hits, loads and evictions (see {@link #metrics()}).</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * GroupMembershipIndex index = new GroupMembershipIndex(10_000, Duration.ofMinutes(1));
+ * if (!index.isMember(groupId, userId)) throw new IllegalArgumentException("Not a member of the group.");
+ * }</pre>
+ *
+ * <h2>Thread Safety:</h2>
+ * <p>All methods can be called from any thread. Lookups of a loaded group take a short lock on the group table only
+ * to find the entry; the member map itself is concurrent.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see com.unrecorded.database.repositories.GroupMemberPSQL GroupMemberPSQL
+ * @since 0.5
+ */
+public class GroupMembershipIndex {
+
+    private final long ttlMillis;
+
+    /**
+     * The loaded groups, in access order. Guarded by {@code this}.
+     */
+    private final LinkedHashMap<UUID, Entry> groups;
+
+    /**
+     * The number of loads in flight, by group. Guarded by {@code this}.
+     */
+    private final Map<UUID, Integer> loading = new HashMap<>();
+
+    /**
+     * The number of changes to each group that is being loaded, so a load racing with a change to its own group is
+     * not cached. Changes to other groups do not affect it. Guarded by {@code this}.
+     */
+    private final Map<UUID, Long> versions = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Creates an empty index.
+     *
+     * @param maxGroups The maximum number of groups kept in memory.
+     * @param ttl       How long a loaded group is trusted before it is reloaded.
+     * @throws IllegalArgumentException If the size is not positive or the TTL is not positive.
+     */
+    public GroupMembershipIndex(int maxGroups, @NotNull Duration ttl) throws IllegalArgumentException {
+        if (maxGroups < 1) throw new IllegalArgumentException("The membership index must hold at least one group.");
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("The membership index TTL must be positive.");
+        this.ttlMillis = ttl.toMillis();
+        this.groups = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                if (size() <= maxGroups) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+        LoggerUtil.logInfo("Group membership index enabled (groups: {}, TTL: {} ms).", String.valueOf(maxGroups), String.valueOf(ttlMillis));
+    }
+
+    /**
+     * Checks whether a user is a member of a group.
+     *
+     * @param groupId The ID of the group.
+     * @param userId  The ID of the user.
+     * @return {@code true} if the user is a member of the group.
+     * @throws DataAccessException If the group has to be loaded and the query fails.
+     */
+    public boolean isMember(@NotNull UUID groupId, @NotNull UUID userId) throws DataAccessException {
+        return members(groupId).containsKey(userId);
+    }
+
+    /**
+     * Retrieves the role of a user in a group.
+     *
+     * @param groupId The ID of the group.
+     * @param userId  The ID of the user.
+     * @return The role of the user, or {@code null} if the user is not a member of the group.
+     * @throws DataAccessException If the group has to be loaded and the query fails.
+     */
+    public @Nullable String roleOf(@NotNull UUID groupId, @NotNull UUID userId) throws DataAccessException {
+        return members(groupId).get(userId);
+    }
+
+    /**
+     * Retrieves the IDs of all members of a group.
+     *
+     * @param groupId The ID of the group.
+     * @return A read-only view of the member IDs; it reflects later changes while the group stays loaded.
+     * @throws DataAccessException If the group has to be loaded and the query fails.
+     */
+    public @NotNull Set<UUID> memberIds(@NotNull UUID groupId) throws DataAccessException {
+        return Collections.unmodifiableSet(members(groupId).keySet());
+    }
+
+    /**
+     * Records a membership added by a committed write.
+     *
+     * @param groupId The ID of the group.
+     * @param userId  The ID of the new member.
+     * @param role    The role of the new member.
+     */
+    public void memberAdded(@NotNull UUID groupId, @NotNull UUID userId, @NotNull String role) {
+        Map<UUID, String> members = changed(groupId);
+        if (members != null) members.put(userId, role.intern());
+    }
+
+    /**
+     * Records a membership removed by a committed write.
+     *
+     * @param groupId The ID of the group.
+     * @param userId  The ID of the former member.
+     */
+    public void memberRemoved(@NotNull UUID groupId, @NotNull UUID userId) {
+        Map<UUID, String> members = changed(groupId);
+        if (members != null) members.remove(userId);
+    }
+
+    /**
+     * Records a role changed by a committed write.
+     *
+     * @param groupId The ID of the group.
+     * @param userId  The ID of the member.
+     * @param role    The new role of the member.
+     */
+    public void roleChanged(@NotNull UUID groupId, @NotNull UUID userId, @NotNull String role) {
+        Map<UUID, String> members = changed(groupId);
+        if (members != null) members.replace(userId, role.intern());
+    }
+
+    /**
+     * Drops a group, so its next lookup reloads it.
+     *
+     * @param groupId The ID of the group.
+     */
+    public synchronized void invalidate(@NotNull UUID groupId) {
+        if (loading.containsKey(groupId)) versions.merge(groupId, 1L, Long::sum);
+        groups.remove(groupId);
+    }
+
+    /**
+     * Returns a snapshot of the index metrics.
+     *
+     * @return The current metrics.
+     */
+    public @NotNull Metrics metrics() {
+        int groupCount;
+        long memberships = 0;
+        synchronized (this) {
+            groupCount = groups.size();
+            for (Entry entry : groups.values()) memberships += entry.members().size();
+        }
+        long hitCount = hits.sum();
+        long loadCount = loads.sum();
+        long lookups = hitCount + loadCount;
+        return new Metrics(hitCount, loadCount, evictions.sum(), expirations.sum(), groupCount, memberships, lookups == 0 ? 0 : (double) hitCount / lookups);
+    }
+
+    /**
+     * Returns the members of a group, loading the group if it is not loaded or has expired.
+     *
+     * @param groupId The ID of the group.
+     * @return The members of the group, mapped to their roles.
+     * @throws DataAccessException If the query fails.
+     */
+    private @NotNull Map<UUID, String> members(@NotNull UUID groupId) throws DataAccessException {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Entry entry = groups.get(groupId);
+            if (entry != null) {
+                if (entry.deadline() > now) {
+                    hits.increment();
+                    return entry.members();
+                }
+                groups.remove(groupId);
+                expirations.increment();
+            }
+        }
+
+        loads.increment();
+        long versionBefore;
+        synchronized (this) {
+            loading.merge(groupId, 1, Integer::sum);
+            versionBefore = versions.getOrDefault(groupId, 0L);
+        }
+        Map<UUID, String> members = null;
+        try {
+            members = load(groupId);
+        } finally {
+            synchronized (this) {
+                if (members != null && versions.getOrDefault(groupId, 0L) == versionBefore) groups.put(groupId, new Entry(members, now + ttlMillis));
+                if (loading.merge(groupId, -1, Integer::sum) == 0) {
+                    loading.remove(groupId);
+                    versions.remove(groupId);
+                }
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Records a change to a group and returns its member map without loading it.
+     *
+     * @param groupId The ID of the group.
+     * @return The member map, or {@code null} if the group is not loaded.
+     */
+    private synchronized @Nullable Map<UUID, String> changed(@NotNull UUID groupId) {
+        if (loading.containsKey(groupId)) versions.merge(groupId, 1L, Long::sum);
+        Entry entry = groups.get(groupId);
+        return entry == null ? null : entry.members();
+    }
+
+    /**
+     * Reads the member IDs and roles of a group.
+     *
+     * @param groupId The ID of the group.
+     * @return A concurrent map from member ID to role.
+     * @throws DataAccessException If the query fails.
+     */
+    private static @NotNull Map<UUID, String> load(@NotNull UUID groupId) throws DataAccessException {
+        LoggerUtil.logDebug("Loading members of groupId: {}", groupId.toString());
+        List<Object[]> rows = HibernateUtil.executeReadOnly(session -> session
+                .createQuery("SELECT m.id.userId, m.role FROM EGroupMember m WHERE m.id.groupId = :groupId", Object[].class)
+                .setParameter("groupId", groupId)
+                .list());
+        Map<UUID, String> members = new ConcurrentHashMap<>(rows == null ? 16 : Math.max(16, rows.size() * 2));
+        if (rows != null) for (Object[] row : rows) members.put((UUID) row[0], ((String) row[1]).intern());
+        return members;
+    }
+
+    /**
+     * A loaded group.
+     *
+     * @param members  The members of the group, mapped to their roles.
+     * @param deadline The epoch millisecond after which the group must be reloaded.
+     */
+    private record Entry(@NotNull Map<UUID, String> members, long deadline) {
+    }
+
+    /**
+     * A snapshot of the membership index metrics.
+     *
+     * @param hits        Lookups answered from memory.
+     * @param loads       Lookups that loaded a group from the database.
+     * @param evictions   Groups dropped to stay within the size bound.
+     * @param expirations Groups dropped because their TTL had passed.
+     * @param groups      Groups currently loaded.
+     * @param memberships Memberships currently held across all loaded groups.
+     * @param hitRatio    Share of lookups answered from memory, between 0 and 1.
+     */
+    public record Metrics(
+            long hits,
+            long loads,
+            long evictions,
+            long expirations,
+            int groups,
+            long memberships,
+            double hitRatio
+    ) {
+    }
+}
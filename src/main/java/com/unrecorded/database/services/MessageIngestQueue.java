@@ -0,0 +1,341 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.services;
+
+import com.unrecorded.database.exceptions.DataAccessException;
+import com.unrecorded.database.exceptions.TypeOfDAE;
+import com.unrecorded.database.repositories.BatchOutcome;
+import com.unrecorded.database.repositories.IMessageRepo;
+import com.unrecorded.database.repositories.MessageDraft;
+import com.unrecorded.database.util.FieldValidator;
+import com.unrecorded.database.util.LoggerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A write-behind queue in front of {@link IMessageRepo#createMessages(List)} that commits messages in groups.
+ *
+ * <p><b>Purpose:</b> Creating messages one by one costs one transaction, and therefore one WAL flush, per message.
+ * Under peak load the queue collects concurrent submissions and lets a single writer thread commit them together,
+ * so the number of commits grows with the number of batches instead of the number of messages (group commit).</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li><b>Bounded:</b> The queue holds at most {@code capacity} pending messages. Submissions beyond that fail
+ *   immediately with a {@link RejectedExecutionException}, pushing back on clients instead of growing the heap.</li>
+ *   <li><b>Size or Time Trigger:</b> A batch is committed as soon as it holds {@code maxBatchSize} messages or the
+ *   oldest message in it has waited {@code maxDelay}, whichever comes first.</li>
+ *   <li><b>Durable Acknowledgements:</b> {@link #submit(MessageDraft)} returns a future that completes only once
+ *   the message is committed, or fails with the reason it was not.</li>
+ *   <li><b>Metrics:</b> Counters for throughput, batch sizes and enqueue-to-commit latency (see {@link #metrics()}).</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * MessageIngestQueue queue = new MessageIngestQueue(messageRepo, 10_000, 200, Duration.ofMillis(5));
+ * queue.start();
+ * UUID messageId = queue.submit(new MessageDraft(senderId, recipientId, null, false, "Encrypted")).join();
+ * queue.close();
+ * }</pre>
+ *
+ * <h2>Thread Safety:</h2>
+ * <p>{@link #submit(MessageDraft)} and {@link #metrics()} can be called from any thread. All database work is done
+ * by the single writer thread.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see IMessageRepo#createMessages(List)
+ * @since 0.5
+ */
+public class MessageIngestQueue implements AutoCloseable {
+
+    /**
+     * How long the writer waits for a first message before checking whether the queue was closed.
+     */
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final IMessageRepo messageRepo;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Thread writer;
+    private volatile boolean running;
+
+    private final long startedAt = System.nanoTime();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final LongAdder commitNanos = new LongAdder();
+
+    /**
+     * Creates a new, not yet started, ingestion queue.
+     *
+     * @param messageRepo  The repository committing the batches.
+     * @param capacity     The maximum number of pending messages.
+     * @param maxBatchSize The maximum number of messages per commit, at most {@link FieldValidator#MAX_BATCH_SIZE}.
+     * @param maxDelay     The longest time a message waits for its batch to fill up.
+     * @throws IllegalArgumentException If a size is out of range or the delay is negative.
+     */
+    public MessageIngestQueue(@NotNull IMessageRepo messageRepo, int capacity, int maxBatchSize, @NotNull Duration maxDelay) throws IllegalArgumentException {
+        FieldValidator.batchConstraints(maxBatchSize);
+        if (capacity < 1) throw new IllegalArgumentException("The ingest queue capacity must be positive.");
+        if (maxDelay.isNegative()) throw new IllegalArgumentException("The ingest queue delay must not be negative.");
+        this.messageRepo = messageRepo;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.writer = new Thread(this::drain, "message-ingest-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        writer.start();
+        LoggerUtil.logInfo("Message ingest queue started (batch size: {}, delay: {} ms).", String.valueOf(maxBatchSize), String.valueOf(TimeUnit.NANOSECONDS.toMillis(maxDelayNanos)));
+    }
+
+    /**
+     * Enqueues a message for the next group commit.
+     *
+     * <p>The draft is validated when its batch is written; validation errors complete the future with an
+     * {@link IllegalArgumentException}, database errors with a {@link DataAccessException}.</p>
+     *
+     * @param draft The message to create.
+     * @return A future completed with the ID of the message once it is committed.
+     */
+    public @NotNull CompletableFuture<UUID> submit(@NotNull MessageDraft draft) {
+        Pending pending = new Pending(draft, new CompletableFuture<>(), System.nanoTime());
+        if (!running) {
+            pending.result().completeExceptionally(new RejectedExecutionException("The message ingest queue is not running."));
+        } else if (!queue.offer(pending)) {
+            rejected.increment();
+            pending.result().completeExceptionally(new RejectedExecutionException("The message ingest queue is full."));
+        } else if (!running && queue.remove(pending)) {
+            // Closed between the check and the offer: the writer may already be gone, so nobody would complete it.
+            pending.result().completeExceptionally(new RejectedExecutionException("The message ingest queue is not running."));
+        } else submitted.increment();
+        return pending.result();
+    }
+
+    /**
+     * Returns a snapshot of the queue metrics.
+     *
+     * @return The current metrics.
+     */
+    public @NotNull Metrics metrics() {
+        long committedCount = committed.sum();
+        long batchCount = batches.sum();
+        long completed = committedCount + failed.sum();
+        double uptimeSeconds = Math.max((System.nanoTime() - startedAt) / 1e9, 1e-9);
+        return new Metrics(
+                submitted.sum(),
+                rejected.sum(),
+                committedCount,
+                failed.sum(),
+                batchCount,
+                queue.size(),
+                batchCount == 0 ? 0 : (double) completed / batchCount,
+                committedCount / uptimeSeconds,
+                completed == 0 ? 0 : latencyNanos.sum() / 1e6 / completed,
+                maxLatencyNanos.get() / 1e6,
+                batchCount == 0 ? 0 : commitNanos.sum() / 1e6 / batchCount
+        );
+    }
+
+    /**
+     * Stops accepting messages, commits everything still queued and waits for the writer to finish.
+     *
+     * <p>Messages that slipped into the queue after the writer stopped are failed with a
+     * {@link RejectedExecutionException}, so no submitted future is left pending.</p>
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) return;
+            running = false;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failRemaining(queue);
+        LoggerUtil.logInfo("Message ingest queue stopped after committing {} messages.", String.valueOf(committed.sum()));
+    }
+
+    /**
+     * The writer loop: waits for a first message, gathers a batch around it and commits it.
+     * After {@link #close()}, it keeps going until the queue is empty.
+     */
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = first.enqueuedAt() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) continue;
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failRemaining(batch);
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Fails every message left in the given collection because the queue stopped before committing it.
+     *
+     * @param pending The messages to fail; emptied by this call.
+     */
+    private void failRemaining(@NotNull Collection<Pending> pending) {
+        List<Pending> remaining = new ArrayList<>();
+        if (pending instanceof BlockingQueue<Pending> blocking) blocking.drainTo(remaining);
+        else {
+            remaining.addAll(pending);
+            pending.clear();
+        }
+        if (remaining.isEmpty()) return;
+        LoggerUtil.logWarn("Message ingest queue stopped with " + remaining.size() + " uncommitted messages.");
+        for (Pending message : remaining) {
+            complete(message, null, new RejectedExecutionException("The message ingest queue was closed."));
+        }
+    }
+
+    /**
+     * Commits one batch and completes the futures of its messages.
+     *
+     * @param batch The pending messages, in submission order.
+     */
+    private void commit(@NotNull List<Pending> batch) {
+        List<MessageDraft> drafts = new ArrayList<>(batch.size());
+        for (Pending pending : batch) drafts.add(pending.draft());
+
+        long start = System.nanoTime();
+        List<BatchOutcome<Integer>> outcomes;
+        try {
+            outcomes = messageRepo.createMessages(drafts);
+        } catch (RuntimeException e) {
+            LoggerUtil.logError("Message ingest batch of " + batch.size() + " failed.", e);
+            for (Pending pending : batch) complete(pending, null, e);
+            return;
+        } finally {
+            batches.increment();
+            commitNanos.add(System.nanoTime() - start);
+        }
+
+        for (BatchOutcome<Integer> outcome : outcomes) {
+            Pending pending = batch.get(outcome.key());
+            switch (outcome.status()) {
+                case APPLIED -> complete(pending, UUID.fromString(outcome.detail()), null);
+                case REJECTED -> complete(pending, null, new IllegalArgumentException(outcome.detail()));
+                default -> complete(pending, null, new DataAccessException(TypeOfDAE.INS, String.valueOf(outcome.detail())));
+            }
+        }
+    }
+
+    /**
+     * Completes the future of a message and records its latency.
+     *
+     * @param pending The message.
+     * @param id      The ID of the created message, or {@code null} on failure.
+     * @param error   The reason of the failure, or {@code null} on success.
+     */
+    private void complete(@NotNull Pending pending, UUID id, Throwable error) {
+        long latency = System.nanoTime() - pending.enqueuedAt();
+        latencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        if (error == null) {
+            committed.increment();
+            pending.result().complete(id);
+        } else {
+            failed.increment();
+            pending.result().completeExceptionally(error);
+        }
+    }
+
+    /**
+     * A message waiting in the queue.
+     *
+     * @param draft      The message to create.
+     * @param result     The future handed to the submitter.
+     * @param enqueuedAt The {@link System#nanoTime()} at submission.
+     */
+    private record Pending(@NotNull MessageDraft draft, @NotNull CompletableFuture<UUID> result, long enqueuedAt) {
+    }
+
+    /**
+     * A snapshot of the ingest queue metrics.
+     *
+     * @param submitted            Messages accepted into the queue.
+     * @param rejected             Messages refused because the queue was full.
+     * @param committed            Messages committed to the database.
+     * @param failed               Messages that were rejected by validation or by the database.
+     * @param batches              Group commits performed.
+     * @param queueDepth           Messages currently waiting.
+     * @param averageBatchSize     Average number of messages per group commit.
+     * @param messagesPerSecond    Committed messages per second since the queue was created.
+     * @param averageLatencyMillis Average time from submission to completion, in milliseconds.
+     * @param maxLatencyMillis     Longest time from submission to completion, in milliseconds.
+     * @param averageCommitMillis  Average duration of a group commit, in milliseconds.
+     */
+    public record Metrics(
+            long submitted,
+            long rejected,
+            long committed,
+            long failed,
+            long batches,
+            int queueDepth,
+            double averageBatchSize,
+            double messagesPerSecond,
+            double averageLatencyMillis,
+            double maxLatencyMillis,
+            double averageCommitMillis
+    ) {
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.services;
+
+import com.unrecorded.database.entities.EMessage;
+import com.unrecorded.database.exceptions.DataAccessException;
+import com.unrecorded.database.repositories.IMessageRepo;
+import com.unrecorded.database.util.ConversationKey;
+import com.unrecorded.database.util.DatabaseConfig;
+import com.unrecorded.database.util.LoggerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Pushes newly committed messages to in-process subscribers, fed by PostgreSQL {@code LISTEN/NOTIFY}.
+ *
+ * <p><b>Purpose:</b> Without push, clients discover new messages by polling the history endpoints, which turns
+ * every idle client into a steady stream of reads. The {@code after_message_insert} trigger in {@code setup.sql}
+ * announces new messages on the {@value #CHANNEL} channel once their transaction commits, with one notification per
+ * topic and statement rather than one per message, so batch inserts stay cheap. Every application node
+ * listens on that channel, so a message written through any node reaches subscribers connected to any other.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li><b>Topics:</b> Subscribers register for a topic, which is the conversation key of a direct conversation
+ *   (see {@link #conversationTopic(UUID, UUID)}) or the ID of a group.</li>
+ *   <li><b>Selective Fetching:</b> Notifications carry only a topic and the IDs of its new messages. Messages are
+ *   loaded, in one query per burst of notifications, only when this node has a subscriber for their topic.</li>
+ *   <li><b>Dedicated Connection:</b> {@code LISTEN} needs a session-long connection, so the listener opens its own
+ *   JDBC connection instead of holding one from the pool, and reconnects with exponential backoff if it drops.</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * MessageNotificationListener listener = new MessageNotificationListener(messageRepo);
+ * listener.start();
+ * AutoCloseable subscription = listener.subscribe(groupId, message -> push(message));
+ * subscription.close();
+ * }</pre>
+ *
+ * <h2>Delivery:</h2>
+ * <p>Delivery is best effort: messages committed while the connection is being re-established are not pushed.
+ * Clients that need a gap-free history should resume from their last message with the {@code after} cursor of the
+ * paginated history endpoints whenever they (re)subscribe.</p>
+ *
+ * <h2>Disabling:</h2>
+ * <p>The trigger notifies even when no node listens, and every notifying commit takes PostgreSQL's global notify
+ * queue lock. Deployments that leave the listener disabled should therefore run
+ * {@code ALTER DATABASE postgres SET unrecorded.notify_messages = 'off'}, which makes the trigger return early.</p>
+ *
+ * <h2>Thread Safety:</h2>
+ * <p>Subscribing and unsubscribing are safe from any thread. Subscribers are invoked on the listener thread and
+ * must not block.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see IMessageRepo#getMessagesByIds(java.util.Collection)
+ * @since 0.5
+ */
+public class MessageNotificationListener implements AutoCloseable {
+
+    /**
+     * The channel the {@code after_message_insert} trigger notifies on.
+     */
+    public static final String CHANNEL = "message_created";
+
+    /**
+     * How long a single wait for notifications lasts before checking whether the listener was closed.
+     */
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+
+    /**
+     * The longest pause between two reconnection attempts.
+     */
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final IMessageRepo messageRepo;
+    private final ConcurrentMap<UUID, Set<Consumer<EMessage>>> subscribers = new ConcurrentHashMap<>();
+    private final Thread listener;
+    private volatile boolean running;
+
+    /**
+     * Creates a new, not yet started, listener.
+     *
+     * @param messageRepo The repository used to load announced messages.
+     */
+    public MessageNotificationListener(@NotNull IMessageRepo messageRepo) {
+        this.messageRepo = messageRepo;
+        this.listener = new Thread(this::listen, "message-notification-listener");
+        this.listener.setDaemon(true);
+    }
+
+    /**
+     * Returns the topic of the direct conversation between two users.
+     *
+     * @param userId1 The UUID of one participant.
+     * @param userId2 The UUID of the other participant.
+     * @return The topic, equal to the conversation key stored on the messages.
+     */
+    public static @NotNull UUID conversationTopic(@NotNull UUID userId1, @NotNull UUID userId2) {
+        return ConversationKey.of(userId1, userId2);
+    }
+
+    /**
+     * Starts listening.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        listener.start();
+    }
+
+    /**
+     * Registers a subscriber for a topic.
+     *
+     * @param topic      The conversation key or group ID to follow.
+     * @param subscriber Receives every new message of the topic; must not block.
+     * @return A handle removing the subscription when closed.
+     */
+    public @NotNull AutoCloseable subscribe(@NotNull UUID topic, @NotNull Consumer<EMessage> subscriber) {
+        subscribers.compute(topic, (key, current) -> {
+            if (current == null) current = ConcurrentHashMap.newKeySet();
+            current.add(subscriber);
+            return current;
+        });
+        return () -> subscribers.compute(topic, (key, current) -> {
+            if (current == null) return null;
+            current.remove(subscriber);
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    /**
+     * Stops listening and releases the dedicated connection.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) return;
+            running = false;
+        }
+        try {
+            listener.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * The listener loop: (re)connects, issues {@code LISTEN} and dispatches notifications until closed.
+     */
+    private void listen() {
+        long backoff = 1_000;
+        while (running) {
+            try (Connection connection = openConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                LoggerUtil.logInfo("Listening for new messages on channel: {}", CHANNEL);
+                backoff = 1_000;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null && notifications.length > 0) dispatch(notifications);
+                }
+            } catch (SQLException | IllegalStateException e) {
+                if (!running) break;
+                LoggerUtil.logError("Message notification listener lost its connection; retrying in " + backoff + " ms.", e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Loads the announced messages that have a subscriber on this node and hands them over.
+     *
+     * @param notifications The notifications received since the last poll.
+     */
+    private void dispatch(@NotNull PGNotification[] notifications) {
+        Set<UUID> wanted = new HashSet<>();
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            String[] ids = payload.split(",");
+            if (ids.length < 2) continue;
+            try {
+                if (!subscribers.containsKey(UUID.fromString(ids[0]))) continue;
+                for (int i = 1; i < ids.length; i++) wanted.add(UUID.fromString(ids[i]));
+            } catch (IllegalArgumentException e) {
+                LoggerUtil.logWarn("Ignoring malformed message notification: " + payload);
+            }
+        }
+        if (wanted.isEmpty()) return;
+
+        try {
+            for (EMessage message : messageRepo.getMessagesByIds(wanted)) {
+                UUID topic = message.getConversationId() != null ? message.getConversationId() : message.getGroupId();
+                Set<Consumer<EMessage>> targets = topic == null ? null : subscribers.get(topic);
+                if (targets == null) continue;
+                for (Consumer<EMessage> subscriber : targets) {
+                    try {
+                        subscriber.accept(message);
+                    } catch (RuntimeException e) {
+                        LoggerUtil.logError("Message subscriber failed.", e);
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            LoggerUtil.logError("Failed to load " + wanted.size() + " announced messages.", e);
+        }
+    }
+
+    /**
+     * Opens the dedicated listening connection with the same SSL settings as the Hibernate pool.
+     *
+     * @return A new auto-committing connection.
+     * @throws SQLException If the connection cannot be established.
+     */
+    private static @NotNull Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", DatabaseConfig.getDatabaseUser());
+        properties.setProperty("password", DatabaseConfig.getDatabasePassword());
+        properties.setProperty("sslmode", "require");
+        properties.setProperty("sslfactory", "org.postgresql.ssl.NonValidatingFactory");
+        Connection connection = DriverManager.getConnection(DatabaseConfig.getDatabaseUrl(), properties);
+        connection.setAutoCommit(true);
+        return connection;
+    }
+}
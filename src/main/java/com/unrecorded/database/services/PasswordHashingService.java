@@ -0,0 +1,253 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.services;
+
+import com.unrecorded.database.util.Argon2Parameters;
+import com.unrecorded.database.util.LoggerUtil;
+import com.unrecorded.database.util.PasswordUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded worker pool running the Argon2 password hashing of {@link PasswordUtil} off the request threads.
+ *
+ * <p><b>Purpose:</b> One Argon2id hash costs tens of milliseconds of CPU and 64 MiB of memory. Computed on the
+ * calling thread, a burst of logins or signups occupies every request thread and starves unrelated endpoints.
+ * This service gives hashing its own small pool and a bounded queue, so the cost of a login storm is capped and
+ * excess work is refused at once instead of piling up.</p>
+ *
+ * <p>Operations return a {@link CompletableFuture}. Callers must await it without holding a database connection or
+ * a permit of the database dispatcher: a login should hold a connection for the credential lookup only, not for
+ * the tens of milliseconds the verification takes.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li><b>Dedicated Workers:</b> A fixed number of daemon threads does all hashing and verification.</li>
+ *   <li><b>Admission Control:</b> At most {@code queueCapacity} operations wait for a worker. Beyond that,
+ *   {@link #hash(String, byte[])} and {@link #verify(String, String, byte[])} fail immediately with a
+ *   {@link RejectedExecutionException}, which the API reports as {@code 503 Service Unavailable}.</li>
+ *   <li><b>Tunable Cost:</b> New hashes use the configured {@link Argon2Parameters}; {@link #needsRehash(String)}
+ *   spots stored hashes created with another cost.</li>
+ *   <li><b>Metrics:</b> Queue depth, time spent waiting for a worker, and time spent hashing (see {@link #metrics()}).</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * PasswordHashingService hasher = new PasswordHashingService(2, 64, Argon2Parameters.DEFAULT);
+ * byte[] salt = PasswordUtil.generateSalt();
+ * String hash = hasher.hash("securePassword123", salt).join();
+ * boolean valid = hasher.verify(hash, "securePassword123", salt).join();
+ * hasher.close();
+ * }</pre>
+ *
+ * <h2>Thread Safety:</h2>
+ * <p>All methods can be called from any thread. Submitting never blocks; the futures complete on a worker thread.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see PasswordUtil
+ * @since 0.5
+ */
+public class PasswordHashingService implements AutoCloseable {
+
+    /**
+     * How long {@link #close()} waits for queued operations to finish.
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final ThreadPoolExecutor executor;
+    private final Argon2Parameters parameters;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder hashNanos = new LongAdder();
+
+    /**
+     * Creates a new hashing service and starts its workers.
+     *
+     * @param threads       The number of worker threads. Each running hash uses the memory and parallelism of
+     *                      one Argon2 computation, so this should stay well below the number of CPU cores.
+     * @param queueCapacity The maximum number of operations waiting for a worker.
+     * @param parameters    The Argon2 cost of new hashes.
+     * @throws IllegalArgumentException If a size is not positive.
+     */
+    public PasswordHashingService(int threads, int queueCapacity, @NotNull Argon2Parameters parameters) throws IllegalArgumentException {
+        if (threads < 1) throw new IllegalArgumentException("The password hashing pool needs at least one thread.");
+        if (queueCapacity < 1) throw new IllegalArgumentException("The password hashing queue capacity must be positive.");
+        this.parameters = parameters;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), task -> {
+            Thread worker = new Thread(task, "password-hasher-" + workerCount.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        LoggerUtil.logInfo("Password hashing service started (threads: {}, queue: {}).", String.valueOf(threads), String.valueOf(queueCapacity));
+        LoggerUtil.logInfo("Password hashing cost: {}", parameters.toString());
+    }
+
+    /**
+     * Hashes a password on a worker thread, with the configured cost.
+     *
+     * @param password The plaintext password to hash.
+     * @param salt     The salt to hash it with.
+     * @return A future completed with the encoded Argon2id hash, or with an {@link IllegalArgumentException} if the
+     * password or salt is {@code null} or empty.
+     * @throws RejectedExecutionException If the queue is full or the service is closed.
+     * @see PasswordUtil#hashPassword(String, byte[], Argon2Parameters)
+     */
+    public @NotNull CompletableFuture<String> hash(@NotNull String password, byte @NotNull [] salt) throws RejectedExecutionException {
+        return submit(() -> PasswordUtil.hashPassword(password, salt, parameters));
+    }
+
+    /**
+     * Verifies a password against its stored hash on a worker thread.
+     *
+     * @param hashedPassword The stored encoded hash.
+     * @param rawPassword    The plaintext password to check.
+     * @param salt           The salt the hash was computed with.
+     * @return A future completed with {@code true} if the password matches the hash, or with an
+     * {@link IllegalArgumentException} if any argument is {@code null}.
+     * @throws RejectedExecutionException If the queue is full or the service is closed.
+     * @see PasswordUtil#verifyPassword(String, String, byte[])
+     */
+    public @NotNull CompletableFuture<Boolean> verify(@NotNull String hashedPassword, @NotNull String rawPassword, byte @NotNull [] salt) throws RejectedExecutionException {
+        return submit(() -> PasswordUtil.verifyPassword(hashedPassword, rawPassword, salt));
+    }
+
+    /**
+     * Tells whether a stored hash was created with a cost other than the configured one.
+     *
+     * <p>This only parses the hash and runs on the calling thread.</p>
+     *
+     * @param hashedPassword The stored encoded hash.
+     * @return {@code true} if the hash should be recomputed on the next successful login.
+     */
+    public boolean needsRehash(@NotNull String hashedPassword) {
+        return PasswordUtil.needsRehash(hashedPassword, parameters);
+    }
+
+    /**
+     * Returns the Argon2 cost of new hashes.
+     *
+     * @return The configured parameters.
+     */
+    public @NotNull Argon2Parameters parameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns a snapshot of the service metrics.
+     *
+     * @return The current metrics.
+     */
+    public @NotNull Metrics metrics() {
+        long completedCount = completed.sum();
+        return new Metrics(
+                submitted.sum(),
+                rejected.sum(),
+                completedCount,
+                executor.getQueue().size(),
+                executor.getActiveCount(),
+                completedCount == 0 ? 0 : waitNanos.sum() / 1e6 / completedCount,
+                maxWaitNanos.get() / 1e6,
+                completedCount == 0 ? 0 : hashNanos.sum() / 1e6 / completedCount
+        );
+    }
+
+    /**
+     * Stops accepting operations and waits for the queued ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                LoggerUtil.logWarn("Password hashing service did not finish its queued operations in time.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LoggerUtil.logInfo("Password hashing service stopped after {} operations.", String.valueOf(completed.sum()));
+    }
+
+    /**
+     * Submits an operation to the pool and records its timings.
+     *
+     * @param operation The hashing or verification to run.
+     * @param <T>       The result type of the operation.
+     * @return A future completed with the result of the operation.
+     * @throws RejectedExecutionException If the queue is full or the service is closed.
+     */
+    private <T> @NotNull CompletableFuture<T> submit(@NotNull Supplier<T> operation) throws RejectedExecutionException {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                long waited = startedAt - enqueuedAt;
+                waitNanos.add(waited);
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+                try {
+                    return operation.get();
+                } finally {
+                    hashNanos.add(System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("The password hashing queue is full.", e);
+        }
+        submitted.increment();
+        return result;
+    }
+
+    /**
+     * A snapshot of the password hashing metrics.
+     *
+     * @param submitted         Operations accepted by the pool.
+     * @param rejected          Operations refused because the queue was full.
+     * @param completed         Operations finished, successfully or not.
+     * @param queueDepth        Operations currently waiting for a worker.
+     * @param activeWorkers     Workers currently hashing.
+     * @param averageWaitMillis Average time an operation waited for a worker, in milliseconds.
+     * @param maxWaitMillis     Longest time an operation waited for a worker, in milliseconds.
+     * @param averageHashMillis Average duration of one hash or verification, in milliseconds.
+     */
+    public record Metrics(
+            long submitted,
+            long rejected,
+            long completed,
+            int queueDepth,
+            int activeWorkers,
+            double averageWaitMillis,
+            double maxWaitMillis,
+            double averageHashMillis
+    ) {
+    }
+}
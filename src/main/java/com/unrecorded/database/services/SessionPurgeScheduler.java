@@ -0,0 +1,223 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.services;
+
+import com.unrecorded.database.exceptions.DataAccessException;
+import com.unrecorded.database.repositories.ISessionRepo;
+import com.unrecorded.database.util.LoggerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purges expired sessions periodically on a background thread.
+ *
+ * <p><b>Purpose:</b> Expired sessions are never read again, but they keep growing the {@code sessions} table and
+ * its indexes until someone deletes them. Purging them regularly in small batches keeps each run short and cheap,
+ * instead of leaving one large cleanup to an administrator calling {@code DELETE /api/sessions/expired}.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li><b>Configurable Cadence:</b> A run starts {@code interval} after the previous one finished, so runs never
+ *   overlap and a slow run delays the next one instead of piling up.</li>
+ *   <li><b>Bounded Batches:</b> Each run calls {@link ISessionRepo#deleteExpiredSessions(ZonedDateTime, int)}
+ *   with {@code batchSize}, committing every batch on its own.</li>
+ *   <li><b>On Demand:</b> {@link #purgeNow()} runs a purge immediately on the calling thread; it waits for a
+ *   scheduled run in progress rather than competing with it.</li>
+ *   <li><b>Reporting:</b> Every run logs the rows purged and the time taken; totals are kept in {@link #metrics()}.</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * SessionPurgeScheduler purger = new SessionPurgeScheduler(sessionRepo, Duration.ofMinutes(5), 1000);
+ * purger.start();
+ * SessionPurgeScheduler.Run run = purger.purgeNow();
+ * purger.close();
+ * }</pre>
+ *
+ * <h2>Thread Safety:</h2>
+ * <p>All methods can be called from any thread. Purges are serialized, so at most one runs at a time.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see ISessionRepo#deleteExpiredSessions(ZonedDateTime, int)
+ * @since 0.5
+ */
+public class SessionPurgeScheduler implements AutoCloseable {
+
+    private final ISessionRepo sessionRepo;
+    private final long intervalMillis;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Object purgeLock = new Object();
+    private boolean started;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+    private final LongAdder durationMillis = new LongAdder();
+    private final AtomicLong lastPurged = new AtomicLong();
+    private final AtomicLong lastDurationMillis = new AtomicLong();
+    private final AtomicLong maxDurationMillis = new AtomicLong();
+
+    /**
+     * Creates a new, not yet started, purge scheduler.
+     *
+     * @param sessionRepo The repository deleting the expired sessions.
+     * @param interval    The pause between the end of one run and the start of the next.
+     * @param batchSize   The maximum number of sessions deleted per transaction.
+     * @throws IllegalArgumentException If the interval or the batch size is not positive.
+     */
+    public SessionPurgeScheduler(@NotNull ISessionRepo sessionRepo, @NotNull Duration interval, int batchSize) throws IllegalArgumentException {
+        if (interval.isNegative() || interval.isZero()) throw new IllegalArgumentException("The session purge interval must be positive.");
+        if (batchSize < 1) throw new IllegalArgumentException("The purge batch size must be positive.");
+        this.sessionRepo = sessionRepo;
+        this.intervalMillis = interval.toMillis();
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules the periodic purge. The first run starts one interval after this call.
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        scheduler.scheduleWithFixedDelay(this::scheduledRun, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        LoggerUtil.logInfo("Session purge scheduled (interval: {} ms, batch size: {}).", String.valueOf(intervalMillis), String.valueOf(batchSize));
+    }
+
+    /**
+     * Purges all sessions expired by now.
+     *
+     * @return The outcome of the run.
+     * @throws DataAccessException If the purge fails. Batches committed before the failure stay deleted.
+     */
+    public @NotNull Run purgeNow() throws DataAccessException {
+        synchronized (purgeLock) {
+            long start = System.nanoTime();
+            try {
+                long deleted = sessionRepo.deleteExpiredSessions(ZonedDateTime.now(), batchSize);
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                record(deleted, elapsed);
+                LoggerUtil.logInfo("Purged {} expired sessions in {} ms.", String.valueOf(deleted), String.valueOf(elapsed));
+                return new Run(deleted, elapsed);
+            } catch (RuntimeException e) {
+                runs.increment();
+                failures.increment();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the purge metrics.
+     *
+     * @return The current metrics.
+     */
+    public @NotNull Metrics metrics() {
+        long runCount = runs.sum();
+        long succeeded = runCount - failures.sum();
+        return new Metrics(
+                runCount,
+                failures.sum(),
+                purged.sum(),
+                lastPurged.get(),
+                lastDurationMillis.get(),
+                succeeded == 0 ? 0 : (double) durationMillis.sum() / succeeded,
+                maxDurationMillis.get()
+        );
+    }
+
+    /**
+     * Cancels the periodic purge, waiting briefly for a run in progress to finish.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) LoggerUtil.logWarn("Session purge did not stop within 5 seconds.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs one scheduled purge. Failures are logged and never escape, since an exception would cancel all
+     * further runs of the schedule.
+     */
+    private void scheduledRun() {
+        try {
+            purgeNow();
+        } catch (RuntimeException e) {
+            LoggerUtil.logError("Scheduled session purge failed.", e);
+        }
+    }
+
+    /**
+     * Adds a successful run to the metrics.
+     */
+    private void record(long deleted, long elapsedMillis) {
+        runs.increment();
+        purged.add(deleted);
+        durationMillis.add(elapsedMillis);
+        lastPurged.set(deleted);
+        lastDurationMillis.set(elapsedMillis);
+        maxDurationMillis.accumulateAndGet(elapsedMillis, Math::max);
+    }
+
+    /**
+     * The outcome of one purge.
+     *
+     * @param purged         The number of sessions deleted.
+     * @param durationMillis The time the purge took, in milliseconds.
+     */
+    public record Run(long purged, long durationMillis) {
+    }
+
+    /**
+     * A snapshot of the session purge metrics.
+     *
+     * @param runs                  Purges started, scheduled or on demand.
+     * @param failures              Purges that ended with an error.
+     * @param purged                Sessions deleted by all purges.
+     * @param lastPurged            Sessions deleted by the last successful purge.
+     * @param lastDurationMillis    Duration of the last successful purge, in milliseconds.
+     * @param averageDurationMillis Average duration of a successful purge, in milliseconds.
+     * @param maxDurationMillis     Longest successful purge, in milliseconds.
+     */
+    public record Metrics(
+            long runs,
+            long failures,
+            long purged,
+            long lastPurged,
+            long lastDurationMillis,
+            double averageDurationMillis,
+            long maxDurationMillis
+    ) {
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A command-line tool that benchmarks Argon2id on the current host and recommends the settings to hash with.
+ *
+ * <p><b>Purpose:</b> The right Argon2 cost depends on the hardware and on how long a login may take. Too cheap,
+ * and a leaked hash is easy to crack; too expensive, and every login burns CPU the rest of the server needs.
+ * This tool measures candidate settings on the machine that will run the server and picks the most expensive one
+ * that still fits the target time.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li>Tries every memory size in {@link #MEMORY_CANDIDATES_KIB} and, for each one, raises the iterations until a
+ *   hash takes longer than the target.</li>
+ *   <li>Reports the median of several timed runs per candidate, after one untimed warm-up run.</li>
+ *   <li>Recommends the fitting candidate with the largest memory-times-iterations cost and prints it as the
+ *   {@code database.passwordHashing} section of {@code application.yaml}.</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * ./gradlew calibrateArgon2 -PtargetMs=100 -Pparallelism=4
+ * }</pre>
+ *
+ * <p><b>Note:</b> Run it on idle production hardware. Stored hashes keep working after the settings change and are
+ * upgraded on the next successful login of each user.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see Argon2Parameters
+ * @since 0.5
+ */
+public class Argon2Calibrator {
+
+    /**
+     * The memory sizes tried, in kibibytes: from the 19 MiB minimum recommended by OWASP up to 256 MiB.
+     */
+    public static final int[] MEMORY_CANDIDATES_KIB = {19456, 32768, 47104, 65536, 131072, 262144};
+
+    /**
+     * The highest number of iterations tried per memory size.
+     */
+    public static final int MAX_ITERATIONS = 10;
+
+    /**
+     * A measured candidate.
+     *
+     * @param parameters   The settings that were benchmarked.
+     * @param medianMillis The median time of one hash with these settings, in milliseconds.
+     */
+    public record Candidate(@NotNull Argon2Parameters parameters, double medianMillis) {
+    }
+
+    /**
+     * Runs the calibration and prints the results.
+     *
+     * <p>Arguments, all optional: the target time in milliseconds (default 100), the parallelism (default 4) and the
+     * number of timed runs per candidate (default 5).</p>
+     *
+     * @param args The command-line arguments.
+     */
+    public static void main(String @NotNull [] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 100;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int samples = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.printf("Calibrating Argon2id for %d ms per hash (parallelism %d, %d runs per candidate).%n", targetMillis, parallelism, samples);
+        List<Candidate> candidates = calibrate(targetMillis, parallelism, samples);
+        for (Candidate candidate : candidates) {
+            Argon2Parameters parameters = candidate.parameters();
+            System.out.printf("  m=%d KiB, t=%d, p=%d: %.1f ms%n", parameters.memoryKiB(), parameters.iterations(), parameters.parallelism(), candidate.medianMillis());
+        }
+
+        Candidate recommended = recommend(candidates, targetMillis);
+        if (recommended == null) {
+            System.out.println("No candidate fits the target; raise it or lower the parallelism.");
+            return;
+        }
+        Argon2Parameters parameters = recommended.parameters();
+        System.out.printf("Recommended (%.1f ms):%n", recommended.medianMillis());
+        System.out.println("database:");
+        System.out.println("  passwordHashing:");
+        System.out.println("    iterations: " + parameters.iterations());
+        System.out.println("    memoryKiB: " + parameters.memoryKiB());
+        System.out.println("    parallelism: " + parameters.parallelism());
+    }
+
+    /**
+     * Measures the candidate settings on this host.
+     *
+     * <p>For each memory size, the iterations are raised one by one and the search stops at the first candidate
+     * slower than the target, which is still included so the caller can see where the limit lies.</p>
+     *
+     * @param targetMillis The target time of one hash, in milliseconds.
+     * @param parallelism  The number of lanes of every candidate.
+     * @param samples      The number of timed runs per candidate.
+     * @return The measured candidates, in the order they were tried.
+     * @throws IllegalArgumentException If an argument is not positive.
+     */
+    public static @NotNull List<Candidate> calibrate(long targetMillis, int parallelism, int samples) throws IllegalArgumentException {
+        if (targetMillis < 1 || parallelism < 1 || samples < 1) throw new IllegalArgumentException("Calibration arguments must be positive.");
+        List<Candidate> candidates = new ArrayList<>();
+        for (int memoryKiB : MEMORY_CANDIDATES_KIB) {
+            for (int iterations = 1; iterations <= MAX_ITERATIONS; iterations++) {
+                Argon2Parameters parameters = new Argon2Parameters(iterations, memoryKiB, parallelism);
+                Candidate candidate = new Candidate(parameters, measure(parameters, samples));
+                candidates.add(candidate);
+                if (candidate.medianMillis() > targetMillis) break;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Picks the most expensive candidate within the target time.
+     *
+     * @param candidates   The measured candidates.
+     * @param targetMillis The target time of one hash, in milliseconds.
+     * @return The candidate with the largest memory-times-iterations cost that fits the target, or {@code null} if none does.
+     */
+    public static @Nullable Candidate recommend(@NotNull List<Candidate> candidates, long targetMillis) {
+        return candidates.stream()
+                .filter(candidate -> candidate.medianMillis() <= targetMillis)
+                .max(Comparator.comparingLong(candidate -> (long) candidate.parameters().memoryKiB() * candidate.parameters().iterations()))
+                .orElse(null);
+    }
+
+    /**
+     * Times one candidate.
+     *
+     * @param parameters The settings to benchmark.
+     * @param samples    The number of timed runs.
+     * @return The median time of one hash, in milliseconds.
+     */
+    private static double measure(@NotNull Argon2Parameters parameters, int samples) {
+        byte[] salt = PasswordUtil.generateSalt();
+        PasswordUtil.hashPassword("calibration-password", salt, parameters);
+        double[] millis = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            PasswordUtil.hashPassword("calibration-password", salt, parameters);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[samples / 2];
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The cost settings of an Argon2id password hash.
+ *
+ * <p><b>Purpose:</b> The cost of hashing a password decides both how hard a leaked hash is to crack and how much CPU
+ * and memory every login consumes. Keeping the settings in one value lets them be tuned per deployment (see
+ * {@link Argon2Calibrator}) and compared against the settings each stored hash was created with.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li>The encoded hashes produced by {@link PasswordUtil} carry their own settings in the standard
+ *   {@code $argon2id$v=19$m=...,t=...,p=...$} prefix, which {@link #fromHash(String)} reads back.</li>
+ *   <li>Comparing a stored hash with the current target tells whether it was created under an older cost and
+ *   should be recomputed on the next successful login.</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * Argon2Parameters target = new Argon2Parameters(3, 65536, 4);
+ * boolean outdated = !target.equals(Argon2Parameters.fromHash(user.getPassHash()));
+ * }</pre>
+ *
+ * @param iterations  The number of passes over the memory (Argon2 {@code t}).
+ * @param memoryKiB   The memory used by one hash, in kibibytes (Argon2 {@code m}).
+ * @param parallelism The number of lanes computed in parallel (Argon2 {@code p}).
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see PasswordUtil
+ * @see Argon2Calibrator
+ * @since 0.5
+ */
+public record Argon2Parameters(int iterations, int memoryKiB, int parallelism) {
+
+    /**
+     * The settings used before they became configurable: 3 iterations, 64 MiB of memory and 4 lanes.
+     */
+    public static final Argon2Parameters DEFAULT = new Argon2Parameters(3, 65536, 4);
+
+    /**
+     * Matches the settings segment of an encoded Argon2 hash.
+     */
+    private static final Pattern ENCODED_SETTINGS = Pattern.compile("^\\$argon2id\\$v=\\d+\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$");
+
+    /**
+     * Validates the settings.
+     *
+     * @throws IllegalArgumentException If a value is below the minimum allowed by Argon2.
+     */
+    public Argon2Parameters {
+        if (iterations < 1) throw new IllegalArgumentException("Argon2 needs at least one iteration.");
+        if (parallelism < 1) throw new IllegalArgumentException("Argon2 needs at least one lane.");
+        if (memoryKiB < 8 * parallelism) throw new IllegalArgumentException("Argon2 needs at least 8 KiB of memory per lane.");
+    }
+
+    /**
+     * Reads the settings an encoded Argon2id hash was created with.
+     *
+     * @param encodedHash A hash as returned by {@link PasswordUtil#hashPassword(String, byte[], Argon2Parameters)}.
+     * @return The settings of the hash, or {@code null} if it is not an encoded Argon2id hash.
+     */
+    public static @Nullable Argon2Parameters fromHash(@NotNull String encodedHash) {
+        Matcher matcher = ENCODED_SETTINGS.matcher(encodedHash);
+        if (!matcher.find()) return null;
+        try {
+            return new Argon2Parameters(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(3)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
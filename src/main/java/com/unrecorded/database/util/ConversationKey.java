@@ -0,0 +1,102 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Derives the canonical identifier of a direct-message conversation from its two participants.
+ *
+ * <p><b>Purpose:</b> A direct conversation is an unordered pair of users, but each message stores an ordered
+ * {@code (sender_id, recipient_id)} pair. Looking up a conversation by both orderings needs an {@code OR} that
+ * PostgreSQL cannot serve from a single index range. Storing one key per unordered pair on every direct message
+ * turns the lookup into a single equality predicate on the {@code conversation_id} column.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li>The key is symmetric: {@code of(a, b)} equals {@code of(b, a)}.</li>
+ *   <li>The key matches the {@code conversation_key(a, b)} SQL function in {@code setup.sql} bit for bit, so rows
+ *   backfilled by the database and rows written by the application agree.</li>
+ * </ul>
+ *
+ * <h3>Algorithm:</h3>
+ * <ol>
+ *   <li>Order the two UUIDs the way PostgreSQL does, comparing their bytes as unsigned values.</li>
+ *   <li>Concatenate their canonical text forms, smallest first.</li>
+ *   <li>Take the MD5 digest of the result and read its 16 bytes as a UUID.</li>
+ * </ol>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * UUID conversationId = ConversationKey.of(senderId, recipientId);
+ * }</pre>
+ *
+ * <p><b>Note:</b> MD5 is used only to spread pairs uniformly over the key space, matching what PostgreSQL provides
+ * natively. The key is not a security boundary.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see com.unrecorded.database.entities.EMessage EMessage
+ * @since 0.5
+ */
+public class ConversationKey {
+
+    /**
+     * Computes the conversation key of two users.
+     *
+     * @param first  The UUID of one participant.
+     * @param second The UUID of the other participant.
+     * @return The key shared by both orderings of the pair.
+     */
+    public static @NotNull UUID of(@NotNull UUID first, @NotNull UUID second) {
+        boolean ordered = compareUnsigned(first, second) <= 0;
+        UUID least = ordered ? first : second;
+        UUID greatest = ordered ? second : first;
+
+        byte[] digest = md5().digest((least.toString() + greatest).getBytes(StandardCharsets.US_ASCII));
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < 8; i++) msb = (msb << 8) | (digest[i] & 0xff);
+        for (int i = 8; i < 16; i++) lsb = (lsb << 8) | (digest[i] & 0xff);
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Compares two UUIDs byte by byte as unsigned values, which is how PostgreSQL orders its {@code uuid} type.
+     * {@link UUID#compareTo(UUID)} compares signed halves and would disagree for some pairs.
+     */
+    private static int compareUnsigned(@NotNull UUID first, @NotNull UUID second) {
+        int result = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+
+    /**
+     * Returns a fresh MD5 digest. {@link MessageDigest} instances are not thread-safe, so one is created per call.
+     */
+    private static @NotNull MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available on this JVM.", e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util;
+
+import com.unrecorded.database.entities.EMessage;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+/**
+ * A command-line tool that compares the former SHA-256 based entity hash with {@link MiscUtils#hash(Object)} on
+ * loaded {@link EMessage} instances.
+ *
+ * <p><b>Purpose:</b> {@code EMessage.hashCode()} used to SHA-256 the string form of every field, encrypted content
+ * included, each time a message entered a hash-based collection or the persistence context. It now hashes the
+ * message ID only. This tool shows what that buys on the current host: it builds messages as they look once loaded
+ * (ID, timestamp and encrypted content set), hashes all of them with both implementations, and prints the medians.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li>Measures the wall time, the CPU time and the heap allocated by the calling thread for each run.</li>
+ *   <li>Reports the median of several timed runs per implementation, after untimed warm-up runs.</li>
+ *   <li>Alternates the implementations run by run, so both see the same cache and JIT state.</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * ./gradlew benchmarkEntityHash -Pmessages=10000 -PcontentBytes=1024
+ * }</pre>
+ *
+ * <p><b>Note:</b> No database is needed; the messages only live in memory.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see MiscUtils#hash(Object)
+ * @since 0.5
+ */
+public class EntityHashBenchmark {
+
+    /**
+     * The number of untimed runs per implementation before measuring.
+     */
+    public static final int WARMUP_RUNS = 10;
+
+    /**
+     * Keeps the hashes alive, so the JIT cannot drop the hashing as dead code.
+     */
+    private static int sink;
+
+    /**
+     * Runs the benchmark and prints the results.
+     *
+     * <p>Arguments, all optional: the number of messages (default 10000), the size of the encrypted content of each
+     * message in bytes before Base64 encoding (default 1024) and the number of timed runs per implementation
+     * (default 20).</p>
+     *
+     * @param args The command-line arguments.
+     */
+    public static void main(String @NotNull [] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int contentBytes = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int samples = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        if (count < 1 || contentBytes < 1 || samples < 1) throw new IllegalArgumentException("Benchmark arguments must be positive.");
+
+        System.out.printf("Hashing %d messages with %d bytes of encrypted content each.%n", count, contentBytes);
+        EMessage[] messages = loadedMessages(count, contentBytes);
+        ToIntFunction<EMessage> before = EntityHashBenchmark::digestHash;
+        ToIntFunction<EMessage> after = message -> MiscUtils.hash(message.getId());
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run(before, messages);
+            run(after, messages);
+        }
+
+        long[][] digest = new long[3][samples];
+        long[][] identifier = new long[3][samples];
+        for (int i = 0; i < samples; i++) {
+            measure(before, messages, digest, i);
+            measure(after, messages, identifier, i);
+        }
+        ReadOnlyBenchmark.Result beforeResult = median(digest);
+        ReadOnlyBenchmark.Result afterResult = median(identifier);
+        System.out.println("EMessage.hashCode() over " + count + " messages:");
+        print("  SHA-256 of every field", beforeResult);
+        print("  MiscUtils.hash(id)    ", afterResult);
+        System.out.printf("  allocated: %+.1f %%, CPU: %+.1f %%%n",
+                percentChange(beforeResult.allocatedBytes(), afterResult.allocatedBytes()),
+                percentChange(beforeResult.cpuMillis(), afterResult.cpuMillis()));
+    }
+
+    /**
+     * The entity hash as it was before {@link MiscUtils#hash(Object)}: the SHA-256 of the concatenated string form of
+     * every field, folded into an {@code int}.
+     *
+     * @param message The message to hash.
+     * @return The former hash code of the message.
+     */
+    static int digestHash(@NotNull EMessage message) {
+        Object[] fields = {message.getId(), message.getSender(), message.getDeletedSender(), message.getRecipientId(), message.getDeletedRecipient(),
+                message.getGroupId(), message.isGroup(), message.getContentEncrypted(), message.getTimestamp(), message.isDeleted()};
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder inputBuilder = new StringBuilder();
+            Arrays.stream(fields).map(Objects::toString).forEach(inputBuilder::append);
+            byte[] hashBytes = digest.digest(inputBuilder.toString().getBytes(StandardCharsets.UTF_8));
+            int hash = 0;
+            for (int i = 0; i < hashBytes.length; i += 4) {
+                int chunk = ((hashBytes[i] & 0xff) << 24) | ((hashBytes[i + 1] & 0xff) << 16) | ((hashBytes[i + 2] & 0xff) << 8) | (hashBytes[i + 3] & 0xff);
+                hash ^= chunk;
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    /**
+     * Hashes every message once.
+     */
+    private static void run(@NotNull ToIntFunction<EMessage> hash, EMessage @NotNull [] messages) {
+        int combined = 0;
+        for (EMessage message : messages) combined += hash.applyAsInt(message);
+        sink += combined;
+    }
+
+    /**
+     * Times one run and stores its wall time, CPU time and allocated bytes at {@code index}.
+     */
+    private static void measure(@NotNull ToIntFunction<EMessage> hash, EMessage @NotNull [] messages, long[][] samples, int index) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long cpu = threads.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        run(hash, messages);
+        samples[0][index] = System.nanoTime() - start;
+        samples[1][index] = threads.getCurrentThreadCpuTime() - cpu;
+        samples[2][index] = threads.getCurrentThreadAllocatedBytes() - allocated;
+    }
+
+    /**
+     * Reduces the samples of one implementation to their medians.
+     */
+    private static @NotNull ReadOnlyBenchmark.Result median(long[][] samples) {
+        for (long[] series : samples) Arrays.sort(series);
+        int middle = samples[0].length / 2;
+        return new ReadOnlyBenchmark.Result(samples[0][middle] / 1e6, samples[1][middle] / 1e6, samples[2][middle]);
+    }
+
+    private static void print(@NotNull String label, @NotNull ReadOnlyBenchmark.Result result) {
+        System.out.printf("%s %8.2f ms wall, %8.2f ms CPU, %10.1f KiB allocated%n", label, result.wallMillis(), result.cpuMillis(), result.allocatedBytes() / 1024.0);
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    /**
+     * Builds group messages in the state Hibernate leaves them in after loading: ID and timestamp assigned.
+     */
+    private static EMessage @NotNull [] loadedMessages(int count, int contentBytes) {
+        Random random = new Random(42);
+        UUID senderId = UUID.randomUUID();
+        UUID groupId = UUID.randomUUID();
+        ZonedDateTime now = ZonedDateTime.now();
+        byte[] content = new byte[contentBytes];
+        EMessage[] messages = new EMessage[count];
+        try {
+            Field id = EMessage.class.getDeclaredField("id");
+            Field timestamp = EMessage.class.getDeclaredField("timestamp");
+            id.setAccessible(true);
+            timestamp.setAccessible(true);
+            for (int i = 0; i < count; i++) {
+                random.nextBytes(content);
+                messages[i] = new EMessage(senderId, null, groupId, true, Base64.getEncoder().encodeToString(content));
+                id.set(messages[i], UUID.randomUUID());
+                timestamp.set(messages[i], now.plusNanos(i * 1000L));
+            }
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot populate the benchmark messages.", e);
+        }
+        return messages;
+    }
+}
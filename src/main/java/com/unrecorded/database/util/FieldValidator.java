@@ -17,6 +17,7 @@
 package com.unrecorded.database.util;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.UUID;
@@ -50,6 +51,21 @@ import java.util.UUID;
  */
 public class FieldValidator {
 
+    /**
+     * The largest number of rows a single keyset page may contain.
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * The largest number of items a single batch operation may contain.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * The largest number of IDs a single bulk update or delete may target.
+     */
+    public static final int MAX_BULK_SIZE = 10_000;
+
     /**
      * Validates constraints for a username.
      *
@@ -226,4 +242,74 @@ public class FieldValidator {
             throw new IllegalArgumentException("Invalid notification type: " + type);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Validates the arguments of a keyset-paginated query.
+     *
+     * <p>A page is anchored on at most one cursor: either {@code before} (older rows) or {@code after} (newer rows).
+     * The page size must be between 1 and {@link #MAX_PAGE_SIZE}.</p>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * FieldValidator.pageConstraints(null, null, 50); // Valid input
+     * FieldValidator.pageConstraints(cursor, cursor, 50); // Throws IllegalArgumentException
+     * }</pre>
+     *
+     * @param before The cursor to page backwards from, or {@code null}.
+     * @param after  The cursor to page forwards from, or {@code null}.
+     * @param limit  The requested page size.
+     * @throws IllegalArgumentException If both cursors are set or the limit is out of range.
+     */
+    public static void pageConstraints(@Nullable Object before, @Nullable Object after, int limit) throws IllegalArgumentException {
+        if (before != null && after != null) {
+            LoggerUtil.logWarn("Validation failed for page: both 'before' and 'after' cursors were provided.");
+            throw new IllegalArgumentException("Only one of 'before' and 'after' may be provided.");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            LoggerUtil.logWarn("Validation failed for page limit: " + limit);
+            throw new IllegalArgumentException("Invalid page limit. It must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    /**
+     * Validates the size of a batch operation.
+     *
+     * <p>A batch must contain between 1 and {@link #MAX_BATCH_SIZE} items, which bounds the memory and the
+     * transaction length a single request can cause.</p>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * FieldValidator.batchConstraints(drafts.size()); // Throws IllegalArgumentException if out of range
+     * }</pre>
+     *
+     * @param size The number of items in the batch.
+     * @throws IllegalArgumentException If the batch is empty or too large.
+     */
+    public static void batchConstraints(int size) throws IllegalArgumentException {
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            LoggerUtil.logWarn("Validation failed for batch size: " + size);
+            throw new IllegalArgumentException("Invalid batch size. It must be between 1 and " + MAX_BATCH_SIZE + ".");
+        }
+    }
+
+    /**
+     * Validates the number of IDs targeted by a bulk update or delete.
+     *
+     * <p>Bulk operations run as a single statement that does not load any row, so they accept far more IDs than a
+     * {@linkplain #batchConstraints(int) batch}. The bound keeps the request body and the statement reasonably sized.</p>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * FieldValidator.bulkConstraints(notificationIds.size()); // Throws IllegalArgumentException if out of range
+     * }</pre>
+     *
+     * @param size The number of targeted IDs.
+     * @throws IllegalArgumentException If no ID or too many IDs are given.
+     */
+    public static void bulkConstraints(int size) throws IllegalArgumentException {
+        if (size < 1 || size > MAX_BULK_SIZE) {
+            LoggerUtil.logWarn("Validation failed for bulk size: " + size);
+            throw new IllegalArgumentException("Invalid number of IDs. It must be between 1 and " + MAX_BULK_SIZE + ".");
+        }
+    }
+}
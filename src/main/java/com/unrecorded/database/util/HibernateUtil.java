@@ -20,10 +20,20 @@ import com.unrecorded.database.DBA;
 import com.unrecorded.database.exceptions.DataAccessException;
 import com.unrecorded.database.exceptions.TypeOfDAE;
 import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Synchronization;
+import org.hibernate.FlushMode;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.MutationQuery;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.sql.SQLException;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -42,6 +52,8 @@ import java.util.function.Function;
  * <ul>
  *   <li>Abstracts session and transaction management for Hibernate-based operations.</li>
  *   <li>Supports both transactional (write) and non-transactional (read) database interactions.</li>
+ *   <li>Binds the active session to the calling thread, so nested operations join the outer unit of work
+ *       instead of opening a second session and checking out a second pooled connection.</li>
  *   <li>Handles error propagation by encapsulating persistence-related errors as {@link DataAccessException}.</li>
  *   <li>Leverages {@link LoggerUtil} for structured and secure logging of operations and exceptions.</li>
  *   <li>Ensures consistent exception handling, including transaction rollbacks on failure.</li>
@@ -63,24 +75,38 @@ import java.util.function.Function;
  * });
  * }</pre>
  *
+ * <h2>Units of Work:</h2>
+ * <p>The session used by an operation is bound to the calling thread for as long as the operation runs.
+ * Any {@code executeTransaction} call made while a session is bound (e.g., a repository method invoking another
+ * repository method from inside its action) reuses that session and, if one is active, its transaction.
+ * Callers that want a wider unit of work, such as one session per HTTP call, can open a session with
+ * {@link #openSession()} and bind it through {@link #bindSession(Session)} for the duration of the work.</p>
+ *
  * <h2>Error Handling:</h2>
  * <ul>
  *   <li>During a transactional operation, in case of failure, the transaction is automatically rolled back.</li>
  *   <li>Any unexpected Hibernate `PersistenceException` or runtime errors are re-thrown as {@link DataAccessException}.</li>
+ *   <li>A {@link DataAccessException} raised by a nested operation is propagated unchanged to the outer one.</li>
  *   <li>The {@code DataAccessException} includes details about the error type ({@link TypeOfDAE}) and
  *       provides diagnostic information about the exception.</li>
  * </ul>
  *
- * <p><b>Thread Safety:</b> This utility class is inherently thread-safe, as each method invocation
- * creates and manages its own distinct Hibernate session instance.</p>
+ * <p><b>Thread Safety:</b> This utility class is thread-safe. Sessions are bound per thread, so concurrent
+ * invocations never share a session unless the caller explicitly binds the same session on several threads,
+ * which is not supported since Hibernate sessions are not thread-safe.</p>
  *
  * @author Sergiu Chirap
- * @version 1.0
+ * @version 1.1
  * @see com.unrecorded.database.exceptions.DataAccessException DataAccessException
  * @since 0.3
  */
 public class HibernateUtil {
 
+    /**
+     * The session bound to the current thread, shared by every operation executed while it is set.
+     */
+    private static final ThreadLocal<Session> BOUND_SESSION = new ThreadLocal<>();
+
     /**
      * Executes a database action within an optional transaction.
      *
@@ -95,6 +121,10 @@ public class HibernateUtil {
      *   <li>The caller must provide a {@link Function} that defines the database operation to
      *       perform within the session. This function is applied to an active {@link Session}.</li>
      *   <li>The session is automatically closed when the operation completes, even in the case of an exception.</li>
+     *   <li>If a session is already bound to the current thread, it is reused and no new session is opened.
+     *       A transaction is only started if {@code requiresTransaction} is {@code true} and the bound session
+     *       has no active transaction; otherwise the action joins the existing one, which is then committed or
+     *       rolled back by its owner.</li>
      * </ul>
      *
      * <h3>Typical Use Cases:</h3>
@@ -158,22 +188,327 @@ public class HibernateUtil {
      */
     @Nullable
     public static <T> T executeTransaction(boolean requiresTransaction, Function<Session, T> action) throws DataAccessException {
-        try (Session session = DBA.getSessionFactory().openSession()) {
-            Transaction transaction = null;
-            if (requiresTransaction) transaction = session.beginTransaction();
+        Session bound = currentSession();
+        if (bound != null) return execute(bound, requiresTransaction && !bound.getTransaction().isActive(), false, false, action);
+
+        try (Session session = openSession()) {
+            BOUND_SESSION.set(session);
+            try {
+                return execute(session, requiresTransaction, false, false, action);
+            } finally {
+                BOUND_SESSION.remove();
+            }
+        }
+    }
+
+    /**
+     * Executes a read-only database action inside a read-only transaction.
+     *
+     * <p>Unlike {@code executeTransaction(false, ...)}, which runs each statement in autocommit mode, this method
+     * wraps the action in a real transaction that PostgreSQL and Hibernate both treat as read-only.
+     * It is meant for all lookup and listing operations.</p>
+     *
+     * <h3>Description:</h3>
+     * <ul>
+     *   <li>The JDBC connection is switched to read-only, so the transaction starts with {@code BEGIN READ ONLY}.</li>
+     *   <li>Entities are loaded read-only by default, so Hibernate keeps no snapshot for dirty checking.</li>
+     *   <li>The flush mode is set to {@link FlushMode#MANUAL}, so neither queries nor the commit trigger a flush.</li>
+     *   <li>All three settings are restored when the transaction completes, before the connection is released.</li>
+     * </ul>
+     *
+     * <h3>Behavior:</h3>
+     * <ul>
+     *   <li>If a session is bound to the current thread and has an active transaction, the action simply joins it,
+     *       so it sees the uncommitted changes of the surrounding unit of work.</li>
+     *   <li>If a bound session has no active transaction, the read-only transaction runs on it. The persistence
+     *       entities it loaded are made modifiable again afterwards, so they stay in the shared persistence context
+     *       for later calls of the same unit of work without leaking read-only instances into later writes.</li>
+     *   <li>Errors are handled exactly like in {@link #executeTransaction(boolean, Function)}.</li>
+     * </ul>
+     *
+     * <h4>Example:</h4>
+     * <pre>{@code
+     * List<EMessage> messages = HibernateUtil.executeReadOnly(session ->
+     *     session.createQuery("FROM EMessage WHERE groupId = :groupId", EMessage.class)
+     *         .setParameter("groupId", groupId)
+     *         .list()
+     * );
+     * }</pre>
+     *
+     * @param action A {@link Function} that accepts the Hibernate {@link Session} and performs the query.
+     *               The function may return {@code null}.
+     * @param <T>    The return type of the action, e.g., an entity, a collection, or {@code null}.
+     * @return The result of the action, or {@code null} if the function has no result.
+     * @throws DataAccessException If any database error occurs during the operation.
+     */
+    @Nullable
+    public static <T> T executeReadOnly(Function<Session, T> action) throws DataAccessException {
+        Session bound = currentSession();
+        if (bound != null) {
+            if (bound.getTransaction().isActive()) return execute(bound, false, false, false, action);
+            return execute(bound, true, true, true, action);
+        }
+
+        try (Session session = openSession()) {
+            BOUND_SESSION.set(session);
             try {
-                T result = action.apply(session);
-                if (transaction != null) transaction.commit();
-                return result;
-            } catch (PersistenceException e) {
-                if (transaction != null) transaction.rollback();
-                LoggerUtil.logError("Database operation failed.", e);
-                throw new DataAccessException(TypeOfDAE.GNL, "An unexpected persistence-related error occurred during the transaction.", e, true, true);
-            } catch (Exception e) {
-                if (transaction != null) transaction.rollback();
-                LoggerUtil.logError("Unexpected error occurred during the database transaction.", e);
-                throw new DataAccessException(TypeOfDAE.GNL, "Unexpected error occurred in database transaction.", e, false, false);
+                return execute(session, true, true, false, action);
+            } finally {
+                BOUND_SESSION.remove();
             }
         }
     }
+
+    /**
+     * Executes a single HQL {@code UPDATE} or {@code DELETE} statement in a writing transaction and returns the affected row count.
+     *
+     * <p>This is the write-without-read path for targeted mutations. Instead of loading an entity, changing one
+     * field and merging it back, which costs a {@code SELECT} plus an {@code UPDATE} of every column, the caller
+     * states the columns to change and the row to change them in, and the database does the rest in one round-trip.</p>
+     *
+     * <h3>Behavior:</h3>
+     * <ul>
+     *   <li>Joins the transaction of a session bound to the current thread, or runs in its own transaction otherwise,
+     *       exactly like {@link #executeTransaction(boolean, Function)}.</li>
+     *   <li>Database triggers on the affected columns fire as usual, since the statement is a plain SQL
+     *       {@code UPDATE}.</li>
+     *   <li>The statement bypasses the persistence context. Entities already loaded in a bound session are not
+     *       refreshed and must be re-read if the caller still needs them. Statements targeting a single entity
+     *       should use {@link #executeUpdate(String, Map, Class, Object)}, which detaches the stale instance.</li>
+     * </ul>
+     *
+     * <h4>Example:</h4>
+     * <pre>{@code
+     * int updated = HibernateUtil.executeUpdate(
+     *     "UPDATE ENotification SET isRead = :isRead WHERE id = :id",
+     *     Map.of("isRead", true, "id", notificationId)
+     * );
+     * }</pre>
+     *
+     * @param hql        The HQL {@code UPDATE} or {@code DELETE} statement to execute.
+     * @param parameters The named parameters referenced by {@code hql}.
+     * @return The number of rows the statement changed, {@code 0} if no row matched.
+     * @throws DataAccessException If any database error occurs during the operation.
+     */
+    public static int executeUpdate(@NotNull String hql, @NotNull Map<String, ?> parameters) throws DataAccessException {
+        Integer updated = executeTransaction(true, session -> {
+            MutationQuery query = session.createMutationQuery(hql);
+            parameters.forEach(query::setParameter);
+            return query.executeUpdate();
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    /**
+     * Executes a single HQL {@code UPDATE} or {@code DELETE} statement targeting one entity and detaches that entity
+     * from the session.
+     *
+     * <p>Behaves like {@link #executeUpdate(String, Map)}. In addition, if the entity with the given identifier is
+     * managed by the session the statement ran in (i.e., a session bound to the current thread by a unit of work),
+     * it is detached, so a later lookup in the same unit of work reads the new state instead of the stale instance,
+     * and a later flush does not write the old values back.</p>
+     *
+     * <h4>Example:</h4>
+     * <pre>{@code
+     * int updated = HibernateUtil.executeUpdate(
+     *     "UPDATE EMessage SET isDeleted = true WHERE id = :id",
+     *     Map.of("id", messageId),
+     *     EMessage.class, messageId
+     * );
+     * }</pre>
+     *
+     * @param hql        The HQL {@code UPDATE} or {@code DELETE} statement to execute.
+     * @param parameters The named parameters referenced by {@code hql}.
+     * @param entityType The class of the entity the statement changes.
+     * @param id         The identifier of the entity the statement changes.
+     * @return The number of rows the statement changed, {@code 0} if no row matched.
+     * @throws DataAccessException If any database error occurs during the operation.
+     */
+    public static int executeUpdate(@NotNull String hql, @NotNull Map<String, ?> parameters, @NotNull Class<?> entityType, @NotNull Object id) throws DataAccessException {
+        Integer updated = executeTransaction(true, session -> {
+            MutationQuery query = session.createMutationQuery(hql);
+            parameters.forEach(query::setParameter);
+            int count = query.executeUpdate();
+            detach(session, entityType, id);
+            return count;
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    /**
+     * Opens a new Hibernate session that is not bound to any thread.
+     *
+     * <p>Intended for callers that manage a unit of work spanning several operations. The caller owns the
+     * returned session and must close it; binding it through {@link #bindSession(Session)} makes subsequent
+     * {@link #executeTransaction(boolean, Function)} calls on the same thread use it.</p>
+     *
+     * @return A newly opened {@link Session}.
+     */
+    @NotNull
+    public static Session openSession() {
+        return DBA.getSessionFactory().openSession();
+    }
+
+    /**
+     * Returns the open session bound to the current thread, if any.
+     *
+     * @return The bound {@link Session}, or {@code null} if no open session is bound.
+     */
+    @Nullable
+    public static Session currentSession() {
+        Session session = BOUND_SESSION.get();
+        return session != null && session.isOpen() ? session : null;
+    }
+
+    /**
+     * Binds a session to the current thread, replacing the previous binding.
+     *
+     * <p>Passing {@code null} removes the binding. The previous value is returned so that callers can restore it
+     * once their unit of work ends (e.g., when a coroutine is suspended or resumed on a different thread).</p>
+     *
+     * <h3>Example:</h3>
+     * <pre>{@code
+     * try (Session session = HibernateUtil.openSession()) {
+     *     Session previous = HibernateUtil.bindSession(session);
+     *     try {
+     *         // Every repository call made here shares the same session.
+     *     } finally {
+     *         HibernateUtil.bindSession(previous);
+     *     }
+     * }
+     * }</pre>
+     *
+     * @param session The session to bind, or {@code null} to clear the binding.
+     * @return The session that was bound before this call, or {@code null} if there was none.
+     */
+    @Nullable
+    public static Session bindSession(@Nullable Session session) {
+        Session previous = BOUND_SESSION.get();
+        if (session == null) BOUND_SESSION.remove();
+        else BOUND_SESSION.set(session);
+        return previous;
+    }
+
+    /**
+     * Runs the action against the given session, optionally inside a transaction owned by this call.
+     *
+     * <p>On failure, a transaction owned by this call is rolled back and the persistence context is cleared,
+     * so a long-lived bound session does not retain entities from the failed unit of work.</p>
+     *
+     * @param session           The session to run the action with.
+     * @param ownsTransaction   Whether this call begins, commits, and rolls back its own transaction.
+     * @param readOnly          Whether the owned transaction is read-only (see {@link #executeReadOnly(Function)}).
+     * @param sharedSession     Whether the session outlives this call, so read-only entities must be released afterwards.
+     * @param action            The database operation to execute.
+     * @param <T>               The return type of the action.
+     * @return The result of the action.
+     * @throws DataAccessException If the action fails.
+     */
+    private static <T> T execute(Session session, boolean ownsTransaction, boolean readOnly, boolean sharedSession, Function<Session, T> action) throws DataAccessException {
+        Transaction transaction = ownsTransaction ? session.beginTransaction() : null;
+        try {
+            if (transaction != null && readOnly) markReadOnly(session, transaction, sharedSession);
+            T result = action.apply(session);
+            if (transaction != null) transaction.commit();
+            return result;
+        } catch (DataAccessException e) {
+            rollback(session, transaction);
+            throw e;
+        } catch (PersistenceException e) {
+            rollback(session, transaction);
+            LoggerUtil.logError("Database operation failed.", e);
+            throw new DataAccessException(TypeOfDAE.GNL, "An unexpected persistence-related error occurred during the transaction.", e, true, true);
+        } catch (Exception e) {
+            rollback(session, transaction);
+            LoggerUtil.logError("Unexpected error occurred during the database transaction.", e);
+            throw new DataAccessException(TypeOfDAE.GNL, "Unexpected error occurred in database transaction.", e, false, false);
+        }
+    }
+
+    /**
+     * Switches a freshly begun transaction to read-only mode and schedules the restoration of the previous settings.
+     *
+     * <p>The PostgreSQL driver only accepts {@code setReadOnly} while no statement has run in the transaction,
+     * which holds right after {@link Session#beginTransaction()}. The settings are restored in
+     * {@link Synchronization#afterCompletion(int)}, which Hibernate invokes after commit or rollback but before
+     * the connection is handed back to the pool. The instances loaded read-only are made modifiable at the same time
+     * (see {@link #releaseReadOnlyEntities(Session)}), so a session that outlives the transaction keeps them in its
+     * identity map without handing read-only instances to a later write. Entities loaded before the transaction are
+     * left untouched.</p>
+     *
+     * @param session       The session owning the transaction.
+     * @param transaction   The transaction that has just been started.
+     * @param sharedSession Whether the session outlives the transaction. A session closed right after it is not
+     *                      worth releasing, since making the entities modifiable would copy their whole state.
+     */
+    private static void markReadOnly(Session session, Transaction transaction, boolean sharedSession) {
+        boolean defaultReadOnly = session.isDefaultReadOnly();
+        FlushMode flushMode = session.getHibernateFlushMode();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        session.doWork(connection -> {
+            connection.setReadOnly(true);
+            transaction.registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    session.setDefaultReadOnly(defaultReadOnly);
+                    session.setHibernateFlushMode(flushMode);
+                    if (sharedSession && !defaultReadOnly) releaseReadOnlyEntities(session);
+                    try {
+                        connection.setReadOnly(false);
+                    } catch (SQLException e) {
+                        LoggerUtil.logError("Failed to reset the read-only flag of a database connection.", e);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Makes every managed entity that was loaded read-only modifiable again.
+     *
+     * <p>Only the entities loaded by a read-only transaction are read-only: instances that were already managed are
+     * returned as they are. Switching them back takes a fresh snapshot of their current state, which is what the
+     * entity would have had if it had been loaded by a writing transaction, so later dirty checks behave normally.</p>
+     *
+     * @param session The session whose persistence context is released.
+     */
+    private static void releaseReadOnlyEntities(Session session) {
+        PersistenceContext context = session.unwrap(SharedSessionContractImplementor.class).getPersistenceContextInternal();
+        for (Map.Entry<Object, EntityEntry> entry : context.reentrantSafeEntityEntries()) {
+            if (entry.getValue().isReadOnly()) session.setReadOnly(entry.getKey(), false);
+        }
+    }
+
+    /**
+     * Detaches the instance of an entity from the session, if the session manages one.
+     *
+     * <p>The instance is looked up by key in the persistence context, so nothing is loaded from the database.</p>
+     *
+     * @param session    The session to detach the instance from.
+     * @param entityType The class of the entity.
+     * @param id         The identifier of the entity.
+     */
+    private static void detach(Session session, Class<?> entityType, Object id) {
+        SharedSessionContractImplementor implementor = session.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = implementor.getFactory().getMappingMetamodel().getEntityDescriptor(entityType);
+        Object managed = implementor.getPersistenceContextInternal().getEntity(implementor.generateEntityKey(id, persister));
+        if (managed != null) session.detach(managed);
+    }
+
+    /**
+     * Rolls back a transaction owned by the current call and detaches everything it loaded or persisted.
+     *
+     * @param session     The session the transaction belongs to.
+     * @param transaction The owned transaction, or {@code null} if the call did not start one.
+     */
+    private static void rollback(Session session, @Nullable Transaction transaction) {
+        if (transaction == null) return;
+        if (transaction.isActive()) transaction.rollback();
+        session.clear();
+    }
 }
\ No newline at end of file
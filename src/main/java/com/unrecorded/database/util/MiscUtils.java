@@ -16,10 +16,8 @@
 
 package com.unrecorded.database.util;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import org.jetbrains.annotations.Nullable;
+
 import java.util.Objects;
 
 /**
@@ -42,8 +40,9 @@ import java.util.Objects;
  *
  * <h2>Current Features:</h2>
  * <ul>
- *   <li><b>Hashing:</b> Implements a hardened hashing mechanism that converts input objects to a strong SHA-256 hash,
- *   reduced to a 32-bit {@code int}, suitable for overriding Java's {@code hashCode()} method.</li>
+ *   <li><b>Hashing:</b> Implements an allocation-free hashing mechanism that combines the {@code hashCode()} of
+ *   identifying values (e.g., entity IDs or the fields of a composite key) and spreads the result with a
+ *   finalizing mix, suitable for overriding Java's {@code hashCode()} method.</li>
  *   <li>Functionality is designed to handle null values and support a wide variety of object inputs.</li>
  * </ul>
  *
@@ -61,8 +60,8 @@ import java.util.Objects;
  *
  * <h3>Example Usage:</h3>
  * <pre>{@code
- * // Using the hash method to generate a secure hash for multiple inputs:
- * int hash = MiscUtils.hash("field1", "field2", "field3");
+ * // Using the hash method to generate a hash code for a composite key:
+ * int hash = MiscUtils.hash(userId, messageId, emoji);
  * System.out.println("Generated Hash: " + hash);
  * }</pre>
  *
@@ -73,68 +72,89 @@ import java.util.Objects;
  *
  * <h2>Known Limitations:</h2>
  * <ul>
- *   <li>While the SHA-256-based integer hash is highly secure and robust,
- *       the reduction to 32 bits increases the likelihood of hash collisions
- *       compared to the full hash (256-bit).
- *       It is unsuitable for cryptographic purposes.</li>
+ *   <li>The hash is not cryptographic. It is only meant for hash-based collections and the persistence context,
+ *       and must never be used to protect or fingerprint sensitive data.</li>
  *   <li>The class holds arbitrary utilities that may span multiple concerns;
  *       developers should avoid introducing cohesion-violating features.</li>
  * </ul>
  *
  * @author Sergiu Chirap
- * @version 1.0
+ * @version 2.0
  * @since PREVIEW
  */
 public class MiscUtils {
 
     /**
-     * Generates a hardened integer hash using SHA-256, reduced to fit into a 32-bit {@code int}.
+     * Multiplier used to combine several hash codes, identical to the one used by {@link java.util.Arrays#hashCode(Object[])}.
+     */
+    private static final int COMBINE_FACTOR = 31;
+
+    /**
+     * Generates a hash code for a single identifying value, such as an entity ID.
      *
-     * <p>This method takes one or more objects, converts them to their {@link String} representation,
-     * concatenates the results, and applies SHA-256 hashing.
-     * The resulting 256-bit output is compressed into a 32-bit integer using bitwise operations,
-     * while preserving a high degree of randomness
-     * and uniformity.</p>
+     * <p>Entities hash on their identifier only. The identifier never changes once an entity is persisted,
+     * so the hash code stays stable while the other fields are modified, and equal entities (which always share
+     * their identifier) always hash identically.</p>
      *
      * <h2>Behavior:</h2>
      * <ul>
-     *   <li>Handles {@code null} values gracefully, converting them to the string literal "null".</li>
-     *   <li>Ensures UTF-8 encoding is applied to handle internationalized input correctly.</li>
-     *   <li>Reduces the 256-bit SHA-256 hash to a 32-bit {@code int}, making it usable for
-     *       overriding the {@link Object#hashCode()} method.</li>
+     *   <li>Handles {@code null} values gracefully, treating them as {@code 0}.</li>
+     *   <li>Performs no allocation: no varargs array, no string conversion, no digest.</li>
+     *   <li>Spreads the input bits with a finalizing mix, so keys differing in a few bits land in different buckets.</li>
      * </ul>
      *
      * <h2>Example Usage:</h2>
      * <pre>{@code
-     * int hash = MiscUtils.hash("username", "email@example.com", "password");
-     * System.out.println("Generated Integer Hash: " + hash);
+     * @Override
+     * public int hashCode() {
+     *     return MiscUtils.hash(id);
+     * }
      * }</pre>
      *
-     * <h2>Security:</h2>
-     * <ul>
-     *   <li>Uses SHA-256 to provide a strong cryptographic hash.</li>
-     *   <li>The reduction to 32 bits maintains randomness but is not suitable for cryptographic operations.
-     *       Only use this for non-cryptographic purposes such as overriding {@code hashCode()}.</li>
-     * </ul>
+     * @param value The value to hash.
+     * @return A 32-bit integer hash derived from the value's {@code hashCode()}.
+     */
+    public static int hash(@Nullable Object value) {
+        return mix(Objects.hashCode(value));
+    }
+
+    /**
+     * Generates a hash code for a composite value made of two parts, such as a two-column embedded key.
+     *
+     * @param first  The first part of the value.
+     * @param second The second part of the value.
+     * @return A 32-bit integer hash combining both parts.
+     * @see #hash(Object)
+     */
+    public static int hash(@Nullable Object first, @Nullable Object second) {
+        return mix(COMBINE_FACTOR * Objects.hashCode(first) + Objects.hashCode(second));
+    }
+
+    /**
+     * Generates a hash code for a composite value made of three parts, such as a three-column embedded key.
+     *
+     * @param first  The first part of the value.
+     * @param second The second part of the value.
+     * @param third  The third part of the value.
+     * @return A 32-bit integer hash combining all three parts.
+     * @see #hash(Object)
+     */
+    public static int hash(@Nullable Object first, @Nullable Object second, @Nullable Object third) {
+        return mix(COMBINE_FACTOR * (COMBINE_FACTOR * Objects.hashCode(first) + Objects.hashCode(second)) + Objects.hashCode(third));
+    }
+
+    /**
+     * Applies the 32-bit finalizer of MurmurHash3 to spread the bits of a hash code.
      *
-     * @param objects The objects to hash. Supports varargs to hash multiple inputs.
-     * @return A 32-bit integer hash derived from the SHA-256 hash of the concatenated input.
-     * @throws RuntimeException If the SHA-256 algorithm is unavailable (highly unlikely).
+     * @param hash The hash code to mix.
+     * @return The mixed hash code.
      */
-    public static int hash(Object... objects) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            StringBuilder inputBuilder = new StringBuilder();
-            Arrays.stream(objects).map(Objects::toString).forEach(inputBuilder::append);
-            byte[] hashBytes = digest.digest(inputBuilder.toString().getBytes(StandardCharsets.UTF_8));
-            int hash = 0;
-            for (int i = 0; i < hashBytes.length; i += 4) {
-                int chunk = ((hashBytes[i] & 0xff) << 24) | ((hashBytes[i + 1] & 0xff) << 16) | ((hashBytes[i + 2] & 0xff) << 8) | (hashBytes[i + 3] & 0xff);
-                hash ^= chunk;
-            }
-            return hash;
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
-        }
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
     }
-}
\ No newline at end of file
+}
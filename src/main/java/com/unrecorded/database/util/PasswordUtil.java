@@ -16,13 +16,13 @@
 
 package com.unrecorded.database.util;
 
+import de.mkammerer.argon2.Argon2Advanced;
 import de.mkammerer.argon2.Argon2Factory;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 
-
 /**
  * The `PasswordUtil` class provides cryptographic utilities for password management.
  *
@@ -33,15 +33,18 @@ import java.security.SecureRandom;
  * <h2>Features:</h2>
  * <ul>
  *   <li>Generates cryptographically secure salts for password hashing.</li>
- *   <li>Hashes passwords using the Argon2id algorithm with custom salting.</li>
+ *   <li>Hashes passwords using the Argon2id algorithm with custom salting and a configurable cost.</li>
+ *   <li>Detects stored hashes created with an outdated cost.</li>
  *   <li>Verifies hashed passwords against their plaintext counterparts.</li>
  * </ul>
  *
  * <h2>Thread Safety:</h2>
- * <p>This class is stateless and thread-safe, as it does not maintain any internal state
- * between method calls.
- * All operations use local variables and thread-safe components like
- * {@link SecureRandom}.</p>
+ * <p>This class is thread-safe. It shares one {@link SecureRandom} and one Argon2 instance across all calls,
+ * both of which are safe for concurrent use, instead of creating (and seeding) new ones per call.</p>
+ *
+ * <p><b>Note:</b> Hashing is CPU- and memory-heavy. Request handlers should go through
+ * {@link com.unrecorded.database.services.PasswordHashingService PasswordHashingService}, which runs it on a
+ * bounded pool of its own.</p>
  *
  * @author Sergiu Chirap
  * @version 2.0
@@ -50,6 +53,16 @@ import java.security.SecureRandom;
  */
 public class PasswordUtil {
 
+    /**
+     * The shared source of salts. {@link SecureRandom} is thread-safe, and seeding a new one per call is costly.
+     */
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    /**
+     * The shared Argon2id hasher. It holds no per-call state, so one instance serves all threads.
+     */
+    private static final Argon2Advanced ARGON2 = Argon2Factory.createAdvanced(Argon2Factory.Argon2Types.ARGON2id);
+
     /**
      * Generates a random salt value using a secure random number generator.
      *
@@ -66,12 +79,24 @@ public class PasswordUtil {
      * @return A newly generated 32-byte salt as a byte array.
      */
     public static byte @NotNull [] generateSalt() {
-        SecureRandom secureRandom = new SecureRandom();
         byte[] salt = new byte[32];
-        secureRandom.nextBytes(salt);
+        SECURE_RANDOM.nextBytes(salt);
         return salt;
     }
 
+    /**
+     * Hashes a given password using the Argon2id algorithm with the {@link Argon2Parameters#DEFAULT default} cost.
+     *
+     * @param password The plaintext password to hash. Must not be {@code null} or empty.
+     * @param salt     A unique cryptographic salt to use in hashing. Must not be {@code null} or empty.
+     * @return An encoded Argon2id hash string of the given password and salt.
+     * @throws IllegalArgumentException If the password or salt is {@code null} or empty.
+     * @see #hashPassword(String, byte[], Argon2Parameters)
+     */
+    public static String hashPassword(String password, byte[] salt) throws IllegalArgumentException {
+        return hashPassword(password, salt, Argon2Parameters.DEFAULT);
+    }
+
     /**
      * Hashes a given password using the Argon2id algorithm.
      *
@@ -83,31 +108,43 @@ public class PasswordUtil {
      * <h3>Steps:</h3>
      * <ol>
      *   <li>Concatenate the given password with the provided salt.</li>
-     *   <li>Hash the resulting value using 3 iterations, 64 MB of memory, and 4 threads.</li>
-     *   <li>Return the resulting hash in an encoded Argon2id string format.</li>
+     *   <li>Hash the resulting value with the iterations, memory, and parallelism of {@code parameters}.</li>
+     *   <li>Return the resulting hash in an encoded Argon2id string format, which records those settings so the
+     *       hash can still be verified after they change.</li>
      * </ol>
      *
      * <h3>Example:</h3>
      * <pre>{@code
      * String password = "mySecurePassword";
      * byte[] salt = PasswordUtil.generateSalt();
-     * String hashedPassword = PasswordUtil.hashPassword(password, salt);
+     * String hashedPassword = PasswordUtil.hashPassword(password, salt, new Argon2Parameters(3, 65536, 4));
      * System.out.println("Hashed password: " + hashedPassword);
      * }</pre>
      *
-     * @param password The plaintext password to hash. Must not be {@code null} or empty.
-     * @param salt     A unique cryptographic salt to use in hashing. Must not be {@code null} or empty.
+     * @param password   The plaintext password to hash. Must not be {@code null} or empty.
+     * @param salt       A unique cryptographic salt to use in hashing. Must not be {@code null} or empty.
+     * @param parameters The Argon2 cost to hash with.
      * @return An encoded Argon2id hash string of the given password and salt.
      * @throws IllegalArgumentException If the password or salt is {@code null} or empty.
      */
-    public static String hashPassword(String password, byte[] salt) throws IllegalArgumentException {
+    public static String hashPassword(String password, byte[] salt, @NotNull Argon2Parameters parameters) throws IllegalArgumentException {
         if (password == null || password.isEmpty()) throw new IllegalArgumentException("Password cannot be null or empty.");
         if (salt == null || salt.length == 0) throw new IllegalArgumentException("Salt cannot be null or empty.");
         String passwordWithSalt = password + new String(salt, StandardCharsets.UTF_8);
-        int iterations = 3; 
-        int memory = 65536;
-        int parallelism = 4;
-        return Argon2Factory.createAdvanced(Argon2Factory.Argon2Types.ARGON2id).hash(iterations, memory, parallelism, passwordWithSalt.toCharArray());
+        return ARGON2.hash(parameters.iterations(), parameters.memoryKiB(), parameters.parallelism(), passwordWithSalt.toCharArray());
+    }
+
+    /**
+     * Tells whether a stored hash was created with a cost other than the given target.
+     *
+     * <p>Hashes that cannot be parsed are reported as outdated, so they are replaced on the next login.</p>
+     *
+     * @param hashedPassword The stored encoded hash.
+     * @param target         The cost new hashes are created with.
+     * @return {@code true} if the hash should be recomputed with {@code target}.
+     */
+    public static boolean needsRehash(@NotNull String hashedPassword, @NotNull Argon2Parameters target) {
+        return !target.equals(Argon2Parameters.fromHash(hashedPassword));
     }
 
     /**
@@ -141,6 +178,6 @@ public class PasswordUtil {
     public static boolean verifyPassword(String hashedPassword, String rawPassword, byte[] salt) {
         if (hashedPassword == null || rawPassword == null || salt == null) throw new IllegalArgumentException("Hashed password, raw password, and salt cannot be null.");
         String passwordWithSalt = rawPassword + new String(salt, StandardCharsets.UTF_8);
-        return Argon2Factory.createAdvanced(Argon2Factory.Argon2Types.ARGON2id).verify(hashedPassword, passwordWithSalt.toCharArray());
+        return ARGON2.verify(hashedPassword, passwordWithSalt.toCharArray());
     }
 }
\ No newline at end of file
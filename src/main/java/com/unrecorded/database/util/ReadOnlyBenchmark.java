@@ -0,0 +1,219 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util;
+
+import com.unrecorded.database.DBA;
+import com.unrecorded.database.entities.EMessage;
+import com.unrecorded.database.entities.ENotification;
+import org.hibernate.Session;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A command-line tool that compares the plain and the read-only transaction modes of {@link HibernateUtil} on the two
+ * list queries that load the most entities.
+ *
+ * <p><b>Purpose:</b> {@link HibernateUtil#executeReadOnly(Function)} replaced {@code executeTransaction(false, ...)}
+ * for every lookup. This tool shows what that buys on the current host and database: it seeds a group with messages
+ * and a user with notifications, runs the queries behind {@code getAllMessagesForGroup} and
+ * {@code getNotificationsByUserId} in both modes, and removes the seeded rows again.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li>Measures the wall time, the CPU time and the heap allocated by the calling thread for each run.</li>
+ *   <li>Reports the median of several timed runs per mode, after untimed warm-up runs.</li>
+ *   <li>Alternates the modes run by run, so both see the same cache and JIT state.</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * ./gradlew benchmarkReadOnly -Prows=5000 -Psamples=20
+ * }</pre>
+ *
+ * <p><b>Note:</b> Run it against a development database: it connects with {@code hibernate.cfg.xml} and writes (then
+ * deletes) one user, one group and the seeded rows.</p>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see HibernateUtil#executeReadOnly(Function)
+ * @since 0.5
+ */
+public class ReadOnlyBenchmark {
+
+    /**
+     * The number of untimed runs per mode before measuring.
+     */
+    public static final int WARMUP_RUNS = 5;
+
+    /**
+     * The medians of one mode.
+     *
+     * @param wallMillis     The median wall time of one run, in milliseconds.
+     * @param cpuMillis      The median CPU time of the calling thread per run, in milliseconds.
+     * @param allocatedBytes The median heap allocated by the calling thread per run, in bytes.
+     */
+    public record Result(double wallMillis, double cpuMillis, long allocatedBytes) {
+    }
+
+    /**
+     * Runs the benchmark and prints the results.
+     *
+     * <p>Arguments, all optional: the number of rows seeded per list (default 5000) and the number of timed runs per
+     * mode (default 20).</p>
+     *
+     * @param args The command-line arguments.
+     */
+    public static void main(String @NotNull [] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        if (rows < 1 || samples < 1) throw new IllegalArgumentException("Benchmark arguments must be positive.");
+
+        UUID userId = UUID.randomUUID();
+        UUID groupId = UUID.randomUUID();
+        System.out.printf("Seeding %d group messages and %d notifications.%n", rows, rows);
+        seed(userId, groupId, rows);
+        try {
+            compare("getAllMessagesForGroup", samples, session -> session
+                    .createQuery("FROM EMessage WHERE groupId = :groupId AND isGroup = true", EMessage.class)
+                    .setParameter("groupId", groupId)
+                    .list());
+            compare("getNotificationsByUserId", samples, session -> session
+                    .createQuery("FROM ENotification WHERE userId = :userId", ENotification.class)
+                    .setParameter("userId", userId)
+                    .list());
+        } finally {
+            cleanUp(userId, groupId);
+            DBA.shutdown();
+        }
+    }
+
+    /**
+     * Measures one query in both modes and prints the medians side by side.
+     *
+     * @param name    The name printed for the query.
+     * @param samples The number of timed runs per mode.
+     * @param query   The query, returning the loaded entities.
+     */
+    private static void compare(@NotNull String name, int samples, @NotNull Function<Session, List<?>> query) {
+        Supplier<List<?>> before = () -> HibernateUtil.executeTransaction(false, query);
+        Supplier<List<?>> after = () -> HibernateUtil.executeReadOnly(query);
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            before.get();
+            after.get();
+        }
+
+        long[][] plain = new long[3][samples];
+        long[][] readOnly = new long[3][samples];
+        for (int i = 0; i < samples; i++) {
+            measure(before, plain, i);
+            measure(after, readOnly, i);
+        }
+        Result beforeResult = median(plain);
+        Result afterResult = median(readOnly);
+        System.out.println(name + ":");
+        print("  executeTransaction(false)", beforeResult);
+        print("  executeReadOnly          ", afterResult);
+        System.out.printf("  allocated: %+.1f %%, CPU: %+.1f %%%n",
+                percentChange(beforeResult.allocatedBytes(), afterResult.allocatedBytes()),
+                percentChange(beforeResult.cpuMillis(), afterResult.cpuMillis()));
+    }
+
+    /**
+     * Times one run and stores its wall time, CPU time and allocated bytes at {@code index}.
+     */
+    private static void measure(@NotNull Supplier<List<?>> run, long[][] samples, int index) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long cpu = threads.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        List<?> loaded = run.get();
+        samples[0][index] = System.nanoTime() - start;
+        samples[1][index] = threads.getCurrentThreadCpuTime() - cpu;
+        samples[2][index] = threads.getCurrentThreadAllocatedBytes() - allocated;
+        if (loaded == null || loaded.isEmpty()) throw new IllegalStateException("The benchmark query returned no rows.");
+    }
+
+    /**
+     * Reduces the samples of one mode to their medians.
+     */
+    private static @NotNull Result median(long[][] samples) {
+        for (long[] series : samples) Arrays.sort(series);
+        int middle = samples[0].length / 2;
+        return new Result(samples[0][middle] / 1e6, samples[1][middle] / 1e6, samples[2][middle]);
+    }
+
+    private static void print(@NotNull String label, @NotNull Result result) {
+        System.out.printf("%s %8.2f ms wall, %8.2f ms CPU, %10.1f KiB allocated%n", label, result.wallMillis(), result.cpuMillis(), result.allocatedBytes() / 1024.0);
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    /**
+     * Inserts a user owning a group, {@code rows} group messages and {@code rows} notifications.
+     */
+    private static void seed(@NotNull UUID userId, @NotNull UUID groupId, int rows) {
+        String suffix = userId.toString().substring(0, 8);
+        HibernateUtil.executeTransaction(true, session -> {
+            session.createNativeMutationQuery("""
+                            INSERT INTO unrecorded.users (user_id, username, password_hash, password_salt, email, public_key, private_key_encrypted)
+                            VALUES (:userId, :username, 'benchmark', '\\x00', :email, :publicKey, 'benchmark')""")
+                    .setParameter("userId", userId)
+                    .setParameter("username", "bench_" + suffix)
+                    .setParameter("email", "bench_" + suffix + "@example.com")
+                    .setParameter("publicKey", "benchmark-" + userId)
+                    .executeUpdate();
+            session.createNativeMutationQuery("INSERT INTO unrecorded.groups (group_id, group_name, admin_id) VALUES (:groupId, 'benchmark', :userId)")
+                    .setParameter("groupId", groupId)
+                    .setParameter("userId", userId)
+                    .executeUpdate();
+            session.createNativeMutationQuery("""
+                            INSERT INTO unrecorded.messages (sender_id, group_id, is_group, content_encrypted)
+                            SELECT :userId, :groupId, TRUE, md5(i::text) FROM generate_series(1, :rows) i""")
+                    .setParameter("userId", userId)
+                    .setParameter("groupId", groupId)
+                    .setParameter("rows", rows)
+                    .executeUpdate();
+            session.createNativeMutationQuery("""
+                            INSERT INTO unrecorded.notifications (user_id, type, content, is_read)
+                            SELECT :userId, 'Info', md5(i::text), FALSE FROM generate_series(1, :rows) i""")
+                    .setParameter("userId", userId)
+                    .setParameter("rows", rows)
+                    .executeUpdate();
+            return null;
+        });
+    }
+
+    /**
+     * Deletes everything {@link #seed} inserted.
+     */
+    private static void cleanUp(@NotNull UUID userId, @NotNull UUID groupId) {
+        HibernateUtil.executeTransaction(true, session -> {
+            session.createNativeMutationQuery("DELETE FROM unrecorded.messages WHERE group_id = :groupId").setParameter("groupId", groupId).executeUpdate();
+            session.createNativeMutationQuery("DELETE FROM unrecorded.groups WHERE group_id = :groupId").setParameter("groupId", groupId).executeUpdate();
+            session.createNativeMutationQuery("DELETE FROM unrecorded.users WHERE user_id = :userId").setParameter("userId", userId).executeUpdate();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Derives the fixed-width lookup key of a session token.
+ *
+ * <p><b>Purpose:</b> Tokens are variable-length {@code TEXT}, and every authenticated request looks its session up
+ * by token. Storing the SHA-256 digest of each token in an indexed {@code token_hash} column gives that lookup a
+ * compact, unique 32-byte key, so it stays a single B-tree probe however many sessions exist.</p>
+ *
+ * <h2>Features:</h2>
+ * <ul>
+ *   <li>The digest matches {@code sha256(convert_to(token, 'UTF8'))} in PostgreSQL, which the session trigger in
+ *   {@code setup.sql} and the migration script use, so rows written by either side agree.</li>
+ * </ul>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * byte[] tokenHash = TokenDigest.of(token);
+ * }</pre>
+ *
+ * @author Sergiu Chirap
+ * @version 1.0
+ * @see com.unrecorded.database.entities.ESession ESession
+ * @since 0.5
+ */
+public class TokenDigest {
+
+    /**
+     * Computes the SHA-256 digest of a session token.
+     *
+     * @param token The session token.
+     * @return The 32-byte digest of the UTF-8 encoding of {@code token}.
+     */
+    public static byte @NotNull [] of(@NotNull String token) {
+        return sha256().digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns a fresh SHA-256 digest. {@link MessageDigest} instances are not thread-safe, so one is created per call.
+     */
+    private static @NotNull MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available on this JVM.", e);
+        }
+    }
+}
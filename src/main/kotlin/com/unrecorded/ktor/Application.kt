@@ -16,6 +16,7 @@
 
 package com.unrecorded.ktor
 
+import com.unrecorded.ktor.settings.configureDatabase
 import com.unrecorded.ktor.settings.configureKtorModules
 import io.ktor.server.application.*
 import io.ktor.server.engine.*
@@ -125,6 +126,7 @@ fun main() {
  * @see configureKtorModules
  */
 fun Application.module() {
+    configureDatabase()
     configureKtorModules()
     println("Application started successfully!")
 }
\ No newline at end of file
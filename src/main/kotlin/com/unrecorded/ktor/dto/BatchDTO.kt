@@ -0,0 +1,84 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.ktor.dto
+
+import kotlinx.serialization.Serializable
+
+/*
+ * BatchDTO.kt
+ *
+ * This file defines the data transfer objects (DTOs) shared by all batch endpoints of the Ktor application.
+ *
+ * General Purpose:
+ * - Batch endpoints never fail as a whole because of a single bad item. Instead, they report what happened to
+ *   every item, so clients can retry or surface exactly the items that did not go through.
+ *
+ * DTOs Provided:
+ * 1. `BatchItemResult`: Represents the outcome of one item of a batch.
+ * 2. `BatchResultResponse`: Represents the outcomes of a whole batch, with a summary count.
+ *
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+/**
+ * Represents the outcome of one item of a batch request.
+ *
+ * ### Statuses:
+ * - `APPLIED`: The item was written.
+ * - `SKIPPED`: The item was valid but had nothing to change.
+ * - `REJECTED`: The item failed validation.
+ * - `FAILED`: The database refused the item.
+ *
+ * @property key Identifies the item within the batch (e.g., its index in the request).
+ * @property status One of `APPLIED`, `SKIPPED`, `REJECTED` or `FAILED`.
+ * @property detail Additional information, such as the ID of a created row or the reason of a failure.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class BatchItemResult(
+    val key: String,
+    val status: String,
+    val detail: String? = null
+)
+
+/**
+ * Represents the outcomes of a batch request.
+ *
+ * ### Usage Example:
+ * - **Client JSON Response**:
+ *   ```json
+ *   {
+ *     "applied": 1,
+ *     "results": [
+ *       { "key": "0", "status": "APPLIED", "detail": "uuid-message" },
+ *       { "key": "1", "status": "REJECTED", "detail": "Group messages must include a group ID." }
+ *     ]
+ *   }
+ *   ```
+ *
+ * @property applied The number of items with the status `APPLIED`.
+ * @property results One result per item, in request order.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class BatchResultResponse(
+    val applied: Int,
+    val results: List<BatchItemResult>
+)
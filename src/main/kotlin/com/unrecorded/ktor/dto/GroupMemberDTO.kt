@@ -37,6 +37,8 @@ import kotlinx.serialization.Serializable
  * 1. `AddGroupMemberRequest`: Represents the payload for adding a new member to a group.
  * 2. `GroupMemberResponse`: Represents the output structure used when sending group member information to API clients.
  * 3. `UpdateGroupMemberRoleRequest`: Represents the payload for updating the role of a group member.
+ * 4. `AddGroupMembersRequest`: Represents the payload for adding many users to a group at once.
+ * 5. `RemoveGroupMembersRequest`: Represents the payload for removing many users from a group at once.
  *
  * Extensibility:
  * - Additional DTOs can be added for other group-member management functionalities if needed.
@@ -161,4 +163,51 @@ data class GroupMemberResponse(
 @Serializable
 data class UpdateGroupMemberRoleRequest(
     val newRole: String
-)
\ No newline at end of file
+)
+
+/**
+ * Represents the payload for adding many users to a group with the same role.
+ *
+ * The endpoint answers with a [BatchResultResponse] holding one result per user, keyed by the user ID.
+ *
+ * ### Usage Example:
+ * - **Client JSON Request**:
+ *   ```json
+ *   {
+ *     "userIds": ["uuid-user-1", "uuid-user-2"],
+ *     "role": "MEMBER"
+ *   }
+ *   ```
+ *
+ * @property userIds The IDs of the users to add, at most 10000.
+ * @property role The role assigned to every added user.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class AddGroupMembersRequest(
+    val userIds: List<String>,
+    val role: String
+)
+
+/**
+ * Represents the payload for removing many users from a group.
+ *
+ * The endpoint answers with a [BatchResultResponse] holding one result per user, keyed by the user ID.
+ *
+ * ### Usage Example:
+ * - **Client JSON Request**:
+ *   ```json
+ *   {
+ *     "userIds": ["uuid-user-1", "uuid-user-2"]
+ *   }
+ *   ```
+ *
+ * @property userIds The IDs of the users to remove, at most 10000.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class RemoveGroupMembersRequest(
+    val userIds: List<String>
+)
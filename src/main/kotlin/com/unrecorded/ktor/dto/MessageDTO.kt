@@ -37,6 +37,8 @@ import kotlinx.serialization.Serializable
  * 1. `CreateMessageRequest`: Represents the payload for creating a new message (direct or group).
  * 2. `MessageResponse`: Represents the structure for sending message details in API responses.
  * 3. `UpdateMessageContentRequest`: Represents the payload for updating the encrypted content of a message.
+ * 4. `MessagePageResponse`: Represents one keyset-paginated page of a conversation history.
+ * 5. `CreateMessagesBatchRequest`: Represents the payload for creating many messages at once.
  *
  * Extensibility:
  * - Additional DTOs can be added for advanced messaging functionalities (e.g., attachments, reactions, or pinned messages).
@@ -190,4 +192,62 @@ data class MessageResponse(
 @Serializable
 data class UpdateMessageContentRequest(
     val newContentEncrypted: String
-)
\ No newline at end of file
+)
+
+/**
+ * Represents one page of a conversation history returned by the paginated message endpoints.
+ *
+ * Messages are ordered chronologically (oldest first). The cursors are opaque tokens pointing at the first and
+ * last message of the page; pass `before` back to load older messages and `after` to load newer ones.
+ *
+ * ### Usage Example:
+ * - **Client JSON Response**:
+ *   ```json
+ *   {
+ *     "messages": [ { "id": "uuid-message", "...": "..." } ],
+ *     "before": "MjAyNC0wNS0xM1QxNDo1NTozMFp8...",
+ *     "after": "MjAyNC0wNS0xM1QxNDo1OToxMlp8...",
+ *     "hasMore": true
+ *   }
+ *   ```
+ *
+ * @property messages The messages of the page, oldest first.
+ * @property before Cursor of the oldest message in the page, or `null` if the page is empty.
+ * @property after Cursor of the newest message in the page, or `null` if the page is empty.
+ * @property hasMore Whether more messages exist in the direction the page was read.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class MessagePageResponse(
+    val messages: List<MessageResponse>,
+    val before: String? = null,
+    val after: String? = null,
+    val hasMore: Boolean
+)
+
+/**
+ * Represents the payload for creating a batch of messages in one request.
+ *
+ * Each item follows the rules of [CreateMessageRequest]. The server answers with a
+ * [BatchResultResponse] holding one result per item, keyed by the item's index in [messages].
+ *
+ * ### Usage Example:
+ * - **Client JSON Request**:
+ *   ```json
+ *   {
+ *     "messages": [
+ *       { "senderId": "uuid-sender", "recipientId": "uuid-recipient", "isGroup": false, "contentEncrypted": "..." },
+ *       { "senderId": "uuid-sender", "groupId": "uuid-group", "isGroup": true, "contentEncrypted": "..." }
+ *     ]
+ *   }
+ *   ```
+ *
+ * @property messages The messages to create, at most 1000.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class CreateMessagesBatchRequest(
+    val messages: List<CreateMessageRequest>
+)
@@ -0,0 +1,247 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.ktor.dto
+
+import kotlinx.serialization.Serializable
+
+/*
+ * MetricsDTO.kt
+ *
+ * This file defines the data transfer objects (DTOs) exposing runtime metrics of the database layer.
+ *
+ * General Purpose:
+ * - Give operators a lightweight view of the optional services sitting in front of the repositories, without
+ *   requiring an external monitoring stack.
+ *
+ * DTOs Provided:
+ * 1. `IngestMetricsResponse`: Represents a snapshot of the write-behind message ingest queue.
+ * 2. `PasswordHashingMetricsResponse`: Represents a snapshot of the password hashing pool.
+ * 3. `SessionCacheMetricsResponse`: Represents a snapshot of the session cache.
+ * 4. `SessionPurgeMetricsResponse`: Represents a snapshot of the expired session purge.
+ * 5. `MembershipIndexMetricsResponse`: Represents a snapshot of the group membership index.
+ *
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+/**
+ * Represents a snapshot of the message ingest queue metrics.
+ *
+ * ### Usage Example:
+ * - **Client JSON Response**:
+ *   ```json
+ *   {
+ *     "submitted": 120000,
+ *     "rejected": 0,
+ *     "committed": 119990,
+ *     "failed": 10,
+ *     "batches": 1450,
+ *     "queueDepth": 12,
+ *     "averageBatchSize": 82.76,
+ *     "messagesPerSecond": 3120.5,
+ *     "averageLatencyMillis": 6.4,
+ *     "maxLatencyMillis": 48.1,
+ *     "averageCommitMillis": 3.2
+ *   }
+ *   ```
+ *
+ * @property submitted Messages accepted into the queue.
+ * @property rejected Messages refused because the queue was full.
+ * @property committed Messages committed to the database.
+ * @property failed Messages rejected by validation or by the database.
+ * @property batches Group commits performed.
+ * @property queueDepth Messages currently waiting.
+ * @property averageBatchSize Average number of messages per group commit.
+ * @property messagesPerSecond Committed messages per second since the queue was started.
+ * @property averageLatencyMillis Average time from submission to commit, in milliseconds.
+ * @property maxLatencyMillis Longest time from submission to commit, in milliseconds.
+ * @property averageCommitMillis Average duration of a group commit, in milliseconds.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class IngestMetricsResponse(
+    val submitted: Long,
+    val rejected: Long,
+    val committed: Long,
+    val failed: Long,
+    val batches: Long,
+    val queueDepth: Int,
+    val averageBatchSize: Double,
+    val messagesPerSecond: Double,
+    val averageLatencyMillis: Double,
+    val maxLatencyMillis: Double,
+    val averageCommitMillis: Double
+)
+
+/**
+ * Represents a snapshot of the password hashing pool metrics.
+ *
+ * ### Usage Example:
+ * - **Client JSON Response**:
+ *   ```json
+ *   {
+ *     "submitted": 5400,
+ *     "rejected": 12,
+ *     "completed": 5396,
+ *     "queueDepth": 4,
+ *     "activeWorkers": 2,
+ *     "averageWaitMillis": 18.3,
+ *     "maxWaitMillis": 310.7,
+ *     "averageHashMillis": 41.9
+ *   }
+ *   ```
+ *
+ * @property submitted Operations accepted by the pool.
+ * @property rejected Operations refused because the queue was full.
+ * @property completed Operations finished, successfully or not.
+ * @property queueDepth Operations currently waiting for a worker.
+ * @property activeWorkers Workers currently hashing.
+ * @property averageWaitMillis Average time an operation waited for a worker, in milliseconds.
+ * @property maxWaitMillis Longest time an operation waited for a worker, in milliseconds.
+ * @property averageHashMillis Average duration of one hash or verification, in milliseconds.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class PasswordHashingMetricsResponse(
+    val submitted: Long,
+    val rejected: Long,
+    val completed: Long,
+    val queueDepth: Int,
+    val activeWorkers: Int,
+    val averageWaitMillis: Double,
+    val maxWaitMillis: Double,
+    val averageHashMillis: Double
+)
+
+/**
+ * Represents a snapshot of the session cache metrics.
+ *
+ * ### Usage Example:
+ * - **Client JSON Response**:
+ *   ```json
+ *   {
+ *     "hits": 918204,
+ *     "negativeHits": 3120,
+ *     "misses": 20415,
+ *     "evictions": 0,
+ *     "expirations": 17302,
+ *     "invalidations": 2890,
+ *     "size": 6140,
+ *     "hitRatio": 0.978
+ *   }
+ *   ```
+ *
+ * @property hits Lookups answered from memory with a session.
+ * @property negativeHits Lookups answered from memory with a cached unknown or expired token.
+ * @property misses Lookups that went to the database.
+ * @property evictions Entries dropped to stay within `maxEntries`.
+ * @property expirations Entries dropped because their TTL had passed.
+ * @property invalidations Entries dropped because a session was created or deleted.
+ * @property size Entries currently cached.
+ * @property hitRatio Share of lookups answered from memory, between 0 and 1.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class SessionCacheMetricsResponse(
+    val hits: Long,
+    val negativeHits: Long,
+    val misses: Long,
+    val evictions: Long,
+    val expirations: Long,
+    val invalidations: Long,
+    val size: Int,
+    val hitRatio: Double
+)
+
+/**
+ * Represents a snapshot of the expired session purge metrics.
+ *
+ * ### Usage Example:
+ * - **Client JSON Response**:
+ *   ```json
+ *   {
+ *     "runs": 288,
+ *     "failures": 0,
+ *     "purged": 1204388,
+ *     "lastPurged": 3920,
+ *     "lastDurationMillis": 41,
+ *     "averageDurationMillis": 57.6,
+ *     "maxDurationMillis": 8312
+ *   }
+ *   ```
+ *
+ * @property runs Purges started, scheduled or on demand.
+ * @property failures Purges that ended with an error.
+ * @property purged Sessions deleted by all purges.
+ * @property lastPurged Sessions deleted by the last successful purge.
+ * @property lastDurationMillis Duration of the last successful purge, in milliseconds.
+ * @property averageDurationMillis Average duration of a successful purge, in milliseconds.
+ * @property maxDurationMillis Longest successful purge, in milliseconds.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class SessionPurgeMetricsResponse(
+    val runs: Long,
+    val failures: Long,
+    val purged: Long,
+    val lastPurged: Long,
+    val lastDurationMillis: Long,
+    val averageDurationMillis: Double,
+    val maxDurationMillis: Long
+)
+
+/**
+ * Represents a snapshot of the group membership index metrics.
+ *
+ * ### Usage Example:
+ * - **Client JSON Response**:
+ *   ```json
+ *   {
+ *     "hits": 982114,
+ *     "loads": 3410,
+ *     "evictions": 0,
+ *     "expirations": 3102,
+ *     "groups": 308,
+ *     "memberships": 9120,
+ *     "hitRatio": 0.9965
+ *   }
+ *   ```
+ *
+ * @property hits Membership checks answered from memory.
+ * @property loads Membership checks that loaded a group from the database.
+ * @property evictions Groups dropped to stay within `maxGroups`.
+ * @property expirations Groups dropped because their TTL had passed.
+ * @property groups Groups currently loaded.
+ * @property memberships Memberships currently held across all loaded groups.
+ * @property hitRatio Share of membership checks answered from memory, between 0 and 1.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+@Serializable
+data class MembershipIndexMetricsResponse(
+    val hits: Long,
+    val loads: Long,
+    val evictions: Long,
+    val expirations: Long,
+    val groups: Int,
+    val memberships: Long,
+    val hitRatio: Double
+)
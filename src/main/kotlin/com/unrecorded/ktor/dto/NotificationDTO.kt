@@ -37,6 +37,11 @@ import kotlinx.serialization.Serializable
  * 1. `CreateNotificationRequest`: Represents the payload for creating a new notification.
  * 2. `UpdateNotificationReadStatusRequest`: Represents the payload for updating the read status of a notification.
  * 3. `NotificationResponse`: Represents the response object for returning notification details to clients.
+ * 4. `NotificationIdsRequest`: Represents the payload of bulk operations targeting a list of notifications.
+ * 5. `UnreadCountResponse`: Represents the number of unread notifications of a user.
+ * 6. `NotificationPageResponse`: Represents one keyset-paginated page of a notification feed.
+ * 7. `GroupNotificationRequest`: Represents the payload for notifying every member of a group.
+ * 8. `FanOutNotificationRequest`: Represents the payload for notifying a list of users.
  *
  * Extensibility:
  * - Additional DTOs can be introduced to support new features, such as priority-based notifications or push notification tokens.
@@ -150,7 +155,8 @@ data class UpdateNotificationReadStatusRequest(
  *       "type": "Info",
  *       "content": "Your password has been changed.",
  *       "isRead": true,
- *       "timestamp": "2024-01-20T15:45:00+01:00"
+ *       "timestamp": "2024-01-20T15:45:00+01:00",
+ *       "coalescedCount": 1
  *   }
  *   ```
  * - **DTO Initialization**:
@@ -171,6 +177,8 @@ data class UpdateNotificationReadStatusRequest(
  * @property content The content or body of the notification. Examples include status updates or informational messages.
  * @property isRead The read status of the notification. `true` if it has been read, otherwise `false`.
  * @property timestamp The timestamp (in ISO-8601 format) indicating when the notification was created.
+ *   For a coalesced notification, the timestamp of the latest notification merged into it.
+ * @property coalescedCount The number of notifications merged into this one; `1` for a plain notification.
  * @see kotlinx.serialization.Serializable
  */
 @Serializable
@@ -180,5 +188,135 @@ data class NotificationResponse(
     val type: String,
     val content: String,
     val isRead: Boolean,
+    val timestamp: String,
+    val coalescedCount: Int = 1
+)
+
+/**
+ * Represents the request payload of bulk operations targeting a list of notifications.
+ *
+ * Used by `PATCH /api/notifications/read` and `POST /api/notifications/delete`, which each handle the whole list
+ * with a single database statement.
+ *
+ * ### Usage Example:
+ * - **Client JSON Request**:
+ *   ```json
+ *   {
+ *       "ids": ["64be46b3-2d8b-4205-9615-f438dbefc0a1", "0f8e8c1e-8a3b-4f7d-9d62-3b8f4e0a2c11"]
+ *   }
+ *   ```
+ *
+ * @property ids The notification IDs, between 1 and 10,000 of them.
+ * @see kotlinx.serialization.Serializable
+ */
+@Serializable
+data class NotificationIdsRequest(
+    val ids: List<String>
+)
+
+/**
+ * Represents the number of unread notifications of a user, as shown on a notification badge.
+ *
+ * ### Usage Example:
+ * - **Server JSON Response**:
+ *   ```json
+ *   {
+ *       "userId": "123e4567-e89b-12d3-a456-426614174000",
+ *       "unreadCount": 7
+ *   }
+ *   ```
+ *
+ * @property userId The unique identifier of the user.
+ * @property unreadCount The number of unread notifications.
+ * @see kotlinx.serialization.Serializable
+ */
+@Serializable
+data class UnreadCountResponse(
+    val userId: String,
+    val unreadCount: Int
+)
+
+/**
+ * Represents one page of a notification feed returned by `GET /api/notifications/user/{userId}/feed`.
+ *
+ * Notifications are ordered newest first. The cursor is an opaque token pointing at the oldest notification of the
+ * page; pass it back as `before` to load the next, older page.
+ *
+ * ### Usage Example:
+ * - **Server JSON Response**:
+ *   ```json
+ *   {
+ *       "notifications": [ { "id": "uuid-notification", "...": "..." } ],
+ *       "before": "MjAyNC0wNS0xM1QxNDo1NTozMFp8...",
+ *       "hasMore": true
+ *   }
+ *   ```
+ *
+ * @property notifications The notifications of the page, newest first.
+ * @property before Cursor of the oldest notification in the page, or `null` if the page is empty.
+ * @property hasMore Whether older notifications exist beyond this page.
+ * @see kotlinx.serialization.Serializable
+ */
+@Serializable
+data class NotificationPageResponse(
+    val notifications: List<NotificationResponse>,
+    val before: String?,
+    val hasMore: Boolean
+)
+
+/**
+ * Represents the request payload for notifying every member of a group (`POST /api/notifications/group/{groupId}`).
+ *
+ * The group is taken from the path; the notification is created unread for each member in a single statement.
+ *
+ * ### Usage Example:
+ * - **Client JSON Request**:
+ *   ```json
+ *   {
+ *       "type": "Info",
+ *       "content": "The group was renamed.",
+ *       "timestamp": "2024-01-20T15:45:00+01:00"
+ *   }
+ *   ```
+ *
+ * @property type The type of notification (e.g., "Info", "Alert", or "Success").
+ * @property content The content or message of the notification.
+ * @property timestamp The time of the notification, in ISO-8601 format.
+ * @see kotlinx.serialization.Serializable
+ */
+@Serializable
+data class GroupNotificationRequest(
+    val type: String,
+    val content: String,
     val timestamp: String
-)
\ No newline at end of file
+)
+
+/**
+ * Represents the request payload for notifying a list of users (`POST /api/notifications/fanout`).
+ *
+ * The notification is created unread for each listed user in a single statement; duplicate and unknown IDs are skipped.
+ *
+ * ### Usage Example:
+ * - **Client JSON Request**:
+ *   ```json
+ *   {
+ *       "userIds": ["123e4567-e89b-12d3-a456-426614174000", "9b2f7c4e-1d3a-4e8b-a6f0-5c2d8e7b1a90"],
+ *       "type": "Alert",
+ *       "content": "Scheduled maintenance tonight.",
+ *       "timestamp": "2024-01-20T15:45:00+01:00"
+ *   }
+ *   ```
+ *
+ * @property userIds The recipients, between 1 and 10,000 of them.
+ * @property type The type of notification (e.g., "Info", "Alert", or "Success").
+ * @property content The content or message of the notification.
+ * @property timestamp The time of the notification, in ISO-8601 format.
+ * @see kotlinx.serialization.Serializable
+ */
+@Serializable
+data class FanOutNotificationRequest(
+    val userIds: List<String>,
+    val type: String,
+    val content: String,
+    val timestamp: String
+)
@@ -20,6 +20,8 @@ import com.unrecorded.database.repositories.IFriendshipRepo
 import com.unrecorded.ktor.dto.CreateFriendshipRequest
 import com.unrecorded.ktor.dto.FriendshipResponse
 import com.unrecorded.ktor.dto.UpdateFriendshipStatusRequest
+import com.unrecorded.ktor.util.dbQuery
+import io.ktor.http.*
 import io.ktor.server.application.*
 import io.ktor.server.request.*
 import io.ktor.server.response.*
@@ -125,7 +127,7 @@ fun Route.friendshipRoutes(friendshipRepo: IFriendshipRepo) {
             val userId2 = UUID.fromString(request.userId2)
             val status = request.status
             try {
-                friendshipRepo.createFriendship(userId1, userId2, status)
+                dbQuery { friendshipRepo.createFriendship(userId1, userId2, status) }
                 call.respond(mapOf("status" to "success", "message" to "Friendship created successfully!"))
             } catch (e: Exception) {
                 call.respond(mapOf("error" to e.message))
@@ -137,7 +139,7 @@ fun Route.friendshipRoutes(friendshipRepo: IFriendshipRepo) {
             val userId1 = call.parameters["userId1"]?.let(UUID::fromString)
             val userId2 = call.parameters["userId2"]?.let(UUID::fromString)
             if (userId1 != null && userId2 != null) {
-                val friendship = friendshipRepo.getFriendship(userId1, userId2)
+                val friendship = dbQuery { friendshipRepo.getFriendship(userId1, userId2) }
                 if (friendship != null) {
                     call.respond(
                         FriendshipResponse(
@@ -154,7 +156,7 @@ fun Route.friendshipRoutes(friendshipRepo: IFriendshipRepo) {
         get("/{userId}") {
             val userId = call.parameters["userId"]?.let(UUID::fromString)
             if (userId != null) {
-                val friendships = friendshipRepo.getFriendshipsForUser(userId)
+                val friendships = dbQuery { friendshipRepo.getFriendshipsForUser(userId) }
                 if (friendships != null && friendships.isNotEmpty()) {
                     call.respond(friendships.map {
                         FriendshipResponse(
@@ -174,8 +176,9 @@ fun Route.friendshipRoutes(friendshipRepo: IFriendshipRepo) {
             val request = call.receive<UpdateFriendshipStatusRequest>()
             if (userId1 != null && userId2 != null) {
                 try {
-                    friendshipRepo.updateFriendshipStatus(userId1, userId2, request.status)
-                    call.respond(mapOf("status" to "success", "message" to "Friendship status updated successfully!"))
+                    if (dbQuery { friendshipRepo.updateFriendshipStatus(userId1, userId2, request.status) } > 0)
+                        call.respond(mapOf("status" to "success", "message" to "Friendship status updated successfully!"))
+                    else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Friendship not found"))
                 } catch (e: Exception) {
                     call.respond(mapOf("error" to e.message))
                 }
@@ -188,7 +191,7 @@ fun Route.friendshipRoutes(friendshipRepo: IFriendshipRepo) {
             val userId2 = call.parameters["userId2"]?.let(UUID::fromString)
             if (userId1 != null && userId2 != null) {
                 try {
-                    friendshipRepo.deleteFriendship(userId1, userId2)
+                    dbQuery { friendshipRepo.deleteFriendship(userId1, userId2) }
                     call.respond(mapOf("status" to "success", "message" to "Friendship deleted successfully!"))
                 } catch (e: Exception) {
                     call.respond(mapOf("error" to e.message))
@@ -18,8 +18,13 @@ package com.unrecorded.ktor.routes
 
 import com.unrecorded.database.repositories.IGroupMemberRepo
 import com.unrecorded.ktor.dto.AddGroupMemberRequest
+import com.unrecorded.ktor.dto.AddGroupMembersRequest
 import com.unrecorded.ktor.dto.GroupMemberResponse
+import com.unrecorded.ktor.dto.RemoveGroupMembersRequest
 import com.unrecorded.ktor.dto.UpdateGroupMemberRoleRequest
+import com.unrecorded.ktor.util.dbQuery
+import com.unrecorded.ktor.util.toBatchResponse
+import io.ktor.http.*
 import io.ktor.server.application.*
 import io.ktor.server.request.*
 import io.ktor.server.response.*
@@ -41,6 +46,8 @@ import java.util.*
  * - **Get Groups by User**: Retrieve all groups a user belongs to.
  * - **Update Member Role**: Change the role of a specific member within a group.
  * - **Remove Member from Group**: Remove a user's membership from a specific group.
+ * - **Get Membership**: Check whether a user belongs to a group, and with which role.
+ * - **Bulk Add/Remove Members**: Add or remove thousands of users in one statement, with one result per user.
  *
  * Extensibility:
  * - Add new group-member-related operations, such as admin-only permissions or detailed role-based access rules.
@@ -52,6 +59,9 @@ import java.util.*
  * 3. `GET /api/group-members/user/{userId}` - Get all groups a user belongs to.
  * 4. `PATCH /api/group-members/{groupId}/user/{userId}/role` - Update a member's role.
  * 5. `DELETE /api/group-members/{groupId}/user/{userId}` - Remove a member from a group.
+ * 6. `GET /api/group-members/{groupId}/user/{userId}` - Get the membership of a user in a group.
+ * 7. `POST /api/group-members/group/{groupId}/batch` - Add many users to a group.
+ * 8. `POST /api/group-members/group/{groupId}/batchRemove` - Remove many users from a group.
  *
  * Usage:
  * The `groupMemberRoutes` function is attached to a `Route` object in Ktor, enabling easy integration in the Ktor application's routing module.
@@ -77,6 +87,14 @@ import java.util.*
  *   Updates the role of a specific group member.
  * - **Remove Member from Group (DELETE /api/group-members/{groupId}/user/{userId})**:
  *   Removes a user from a group.
+ * - **Get Membership (GET /api/group-members/{groupId}/user/{userId})**:
+ *   Returns the role of a user in a group, or `404 Not Found` if the user is not a member. Served from the
+ *   membership index when it is enabled.
+ * - **Bulk Add Members (POST /api/group-members/group/{groupId}/batch)**:
+ *   Adds up to 10000 users with the same role in one statement. Users that are already members are skipped.
+ * - **Bulk Remove Members (POST /api/group-members/group/{groupId}/batchRemove)**:
+ *   Removes up to 10000 users in one statement. Both bulk endpoints answer with one result per user, and with
+ *   `400 Bad Request` before touching the database if the group ID or any user ID is malformed.
  *
  * ### Dependencies:
  * - The `IGroupMemberRepo` interface is used for interacting with the database, ensuring a clean separation
@@ -99,6 +117,9 @@ import java.util.*
  * | GET         | /api/group-members/user/{userId}        | Get all groups a user belongs to. |
  * | PATCH       | /api/group-members/{groupId}/user/{userId}/role | Update a member's role.   |
  * | DELETE      | /api/group-members/{groupId}/user/{userId} | Remove a member from a group.    |
+ * | GET         | /api/group-members/{groupId}/user/{userId} | Get a user's membership.         |
+ * | POST        | /api/group-members/group/{groupId}/batch | Add many members to a group.     |
+ * | POST        | /api/group-members/group/{groupId}/batchRemove | Remove many members.       |
  *
  * @param groupMemberRepo An implementation of the `IGroupMemberRepo` interface, used for group-member data access.
  * @receiver Route The Ktor route to which the group-member endpoints are registered.
@@ -112,11 +133,13 @@ fun Route.groupMemberRoutes(groupMemberRepo: IGroupMemberRepo) {
         // 1. Add a new member to a group (POST /api/group-members).
         post {
             val request = call.receive<AddGroupMemberRequest>()
-            groupMemberRepo.addMemberToGroup(
-                UUID.fromString(request.groupId),
-                UUID.fromString(request.userId),
-                request.role
-            )
+            dbQuery {
+                groupMemberRepo.addMemberToGroup(
+                    UUID.fromString(request.groupId),
+                    UUID.fromString(request.userId),
+                    request.role
+                )
+            }
             call.respond(mapOf("status" to "success", "message" to "Member added successfully!"))
         }
 
@@ -124,7 +147,7 @@ fun Route.groupMemberRoutes(groupMemberRepo: IGroupMemberRepo) {
         get("/group/{groupId}") {
             val groupId = call.parameters["groupId"]?.let(UUID::fromString)
             if (groupId != null) {
-                val members = groupMemberRepo.getMembersByGroupId(groupId)
+                val members = dbQuery { groupMemberRepo.getMembersByGroupId(groupId) }
                 if (members != null) {
                     call.respond(members.map {
                         GroupMemberResponse(
@@ -141,7 +164,7 @@ fun Route.groupMemberRoutes(groupMemberRepo: IGroupMemberRepo) {
         get("/user/{userId}") {
             val userId = call.parameters["userId"]?.let(UUID::fromString)
             if (userId != null) {
-                val memberships = groupMemberRepo.getGroupsByUserId(userId)
+                val memberships = dbQuery { groupMemberRepo.getGroupsByUserId(userId) }
                 if (memberships != null) {
                     call.respond(memberships.map {
                         GroupMemberResponse(
@@ -160,8 +183,9 @@ fun Route.groupMemberRoutes(groupMemberRepo: IGroupMemberRepo) {
             val userId = call.parameters["userId"]?.let(UUID::fromString)
             val request = call.receive<UpdateGroupMemberRoleRequest>()
             if (groupId != null && userId != null) {
-                groupMemberRepo.updateMemberRole(groupId, userId, request.newRole)
-                call.respond(mapOf("status" to "success", "message" to "Role updated successfully!"))
+                if (dbQuery { groupMemberRepo.updateMemberRole(groupId, userId, request.newRole) } > 0)
+                    call.respond(mapOf("status" to "success", "message" to "Role updated successfully!"))
+                else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Membership not found"))
             } else call.respond(mapOf("error" to "Invalid group ID or user ID"))
         }
 
@@ -170,9 +194,56 @@ fun Route.groupMemberRoutes(groupMemberRepo: IGroupMemberRepo) {
             val groupId = call.parameters["groupId"]?.let(UUID::fromString)
             val userId = call.parameters["userId"]?.let(UUID::fromString)
             if (groupId != null && userId != null) {
-                groupMemberRepo.removeMemberFromGroup(groupId, userId)
+                dbQuery { groupMemberRepo.removeMemberFromGroup(groupId, userId) }
                 call.respond(mapOf("status" to "success", "message" to "Member removed successfully!"))
             } else call.respond(mapOf("error" to "Invalid group ID or user ID"))
         }
+
+        // 6. Get the membership of a user in a group (GET /api/group-members/{groupId}/user/{userId}).
+        get("/{groupId}/user/{userId}") {
+            val groupId = call.parameters["groupId"]?.let(UUID::fromString)
+            val userId = call.parameters["userId"]?.let(UUID::fromString)
+            if (groupId != null && userId != null) {
+                val role = dbQuery { groupMemberRepo.getMemberRole(groupId, userId) }
+                if (role != null) call.respond(GroupMemberResponse(groupId.toString(), userId.toString(), role))
+                else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Membership not found"))
+            } else call.respond(mapOf("error" to "Invalid group ID or user ID"))
+        }
+
+        // 7. Add many users to a group (POST /api/group-members/group/{groupId}/batch).
+        post("/group/{groupId}/batch") {
+            val groupId = call.parameters["groupId"]?.toUuidOrNull()
+                ?: return@post call.respond(HttpStatusCode.BadRequest, mapOf("error" to "Invalid group ID"))
+            val request = call.receive<AddGroupMembersRequest>()
+            val userIds = request.userIds.map {
+                it.toUuidOrNull() ?: return@post call.respond(HttpStatusCode.BadRequest, mapOf("error" to "Invalid user ID: $it"))
+            }
+            val outcomes = dbQuery { groupMemberRepo.addMembersToGroup(groupId, userIds, request.role) }
+            call.respond(outcomes.toBatchResponse())
+        }
+
+        // 8. Remove many users from a group (POST /api/group-members/group/{groupId}/batchRemove).
+        post("/group/{groupId}/batchRemove") {
+            val groupId = call.parameters["groupId"]?.toUuidOrNull()
+                ?: return@post call.respond(HttpStatusCode.BadRequest, mapOf("error" to "Invalid group ID"))
+            val request = call.receive<RemoveGroupMembersRequest>()
+            val userIds = request.userIds.map {
+                it.toUuidOrNull() ?: return@post call.respond(HttpStatusCode.BadRequest, mapOf("error" to "Invalid user ID: $it"))
+            }
+            val outcomes = dbQuery { groupMemberRepo.removeMembersFromGroup(groupId, userIds) }
+            call.respond(outcomes.toBatchResponse())
+        }
     }
-}
\ No newline at end of file
+}
+
+/**
+ * Parses a UUID from a path parameter or request body, answering `null` instead of throwing when it is malformed.
+ *
+ * @receiver The string to parse.
+ * @return The parsed UUID, or `null` if the string is not a valid UUID.
+ */
+private fun String.toUuidOrNull(): UUID? = try {
+    UUID.fromString(this)
+} catch (e: IllegalArgumentException) {
+    null
+}
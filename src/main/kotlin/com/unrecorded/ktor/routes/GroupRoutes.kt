@@ -20,6 +20,8 @@ import com.unrecorded.database.repositories.IGroupRepo
 import com.unrecorded.ktor.dto.CreateGroupRequest
 import com.unrecorded.ktor.dto.GroupResponse
 import com.unrecorded.ktor.dto.UpdateGroupNameRequest
+import com.unrecorded.ktor.util.dbQuery
+import io.ktor.http.*
 import io.ktor.server.application.*
 import io.ktor.server.request.*
 import io.ktor.server.response.*
@@ -112,7 +114,7 @@ fun Route.groupRoutes(groupRepo: IGroupRepo) {
         // 1. Create a new group (POST /api/groups).
         post {
             val request = call.receive<CreateGroupRequest>()
-            groupRepo.createGroup(request.name, UUID.fromString(request.ownerId))
+            dbQuery { groupRepo.createGroup(request.name, UUID.fromString(request.ownerId)) }
             call.respond(mapOf("status" to "success", "message" to "Group created successfully!"))
         }
 
@@ -120,7 +122,7 @@ fun Route.groupRoutes(groupRepo: IGroupRepo) {
         get("/{id}") {
             val groupId = call.parameters["id"]?.let(UUID::fromString)
             if (groupId != null) {
-                val group = groupRepo.getGroupById(groupId)
+                val group = dbQuery { groupRepo.getGroupById(groupId) }
                 if (group != null) { call.respond(GroupResponse(
                             id = group.id?.toString(),
                             name = group.name,
@@ -135,7 +137,7 @@ fun Route.groupRoutes(groupRepo: IGroupRepo) {
         get("/owner/{ownerId}") {
             val ownerId = call.parameters["ownerId"]?.let(UUID::fromString)
             if (ownerId != null) {
-                val groups = groupRepo.getGroupsByOwner(ownerId) ?: emptyList()
+                val groups = dbQuery { groupRepo.getGroupsByOwner(ownerId) } ?: emptyList()
                 call.respond(groups.map {
                     GroupResponse(
                         id = it.id?.toString(),
@@ -152,8 +154,9 @@ fun Route.groupRoutes(groupRepo: IGroupRepo) {
             val groupId = call.parameters["id"]?.let(UUID::fromString)
             val request = call.receive<UpdateGroupNameRequest>()
             if (groupId != null) {
-                groupRepo.updateGroupName(groupId, request.newName)
-                call.respond(mapOf("status" to "success", "message" to "Group name updated successfully!"))
+                if (dbQuery { groupRepo.updateGroupName(groupId, request.newName) } > 0)
+                    call.respond(mapOf("status" to "success", "message" to "Group name updated successfully!"))
+                else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Group not found"))
             } else call.respond(mapOf("error" to "Invalid group ID"))
         }
 
@@ -162,7 +165,7 @@ fun Route.groupRoutes(groupRepo: IGroupRepo) {
             val groupId = call.parameters["id"]?.let(UUID::fromString)
             val newOwnerId = call.receive<Map<String, String>>()["newOwnerId"]?.let(UUID::fromString)
             if (groupId != null && newOwnerId != null) {
-                groupRepo.updateGroupOwner(groupId, newOwnerId)
+                dbQuery { groupRepo.updateGroupOwner(groupId, newOwnerId) }
                 call.respond(mapOf("status" to "success", "message" to "Group ownership transferred successfully!"))
             } else call.respond(mapOf("error" to "Invalid group ID or new owner ID"))
         }
@@ -171,7 +174,7 @@ fun Route.groupRoutes(groupRepo: IGroupRepo) {
         delete("/{id}") {
             val groupId = call.parameters["id"]?.let(UUID::fromString)
             if (groupId != null) {
-                groupRepo.deleteGroup(groupId)
+                dbQuery { groupRepo.deleteGroup(groupId) }
                 call.respond(mapOf("status" to "success", "message" to "Group deleted successfully!"))
             } else call.respond(mapOf("error" to "Invalid group ID"))
         }
@@ -16,15 +16,36 @@
 
 package com.unrecorded.ktor.routes
 
+import com.unrecorded.database.entities.EMessage
 import com.unrecorded.database.repositories.IMessageRepo
+import com.unrecorded.database.repositories.KeysetCursor
+import com.unrecorded.database.repositories.KeysetPage
+import com.unrecorded.database.repositories.MessageDraft
+import com.unrecorded.database.services.MessageIngestQueue
+import com.unrecorded.database.services.MessageNotificationListener
 import com.unrecorded.ktor.dto.CreateMessageRequest
+import com.unrecorded.ktor.dto.CreateMessagesBatchRequest
+import com.unrecorded.ktor.dto.MessagePageResponse
 import com.unrecorded.ktor.dto.MessageResponse
 import com.unrecorded.ktor.dto.UpdateMessageContentRequest
+import com.unrecorded.ktor.util.JsonConfig
+import com.unrecorded.ktor.util.dbQuery
+import com.unrecorded.ktor.util.dbStream
+import com.unrecorded.ktor.util.toBatchResponse
+import io.ktor.http.*
 import io.ktor.server.application.*
 import io.ktor.server.request.*
 import io.ktor.server.response.*
 import io.ktor.server.routing.*
+import io.ktor.server.websocket.*
+import io.ktor.websocket.*
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.consumeEach
+import kotlinx.coroutines.future.await
+import kotlinx.coroutines.launch
+import java.io.Writer
 import java.util.*
+import java.util.concurrent.atomic.AtomicBoolean
 
 /*
  * MessageRoutes.kt
@@ -37,20 +58,28 @@ import java.util.*
  * 
  * Features:
  * - **Create Message**: Allows the creation of both group and direct messages.
+ * - **Batch Create Messages**: Creates many messages in one transaction, reporting one outcome per message.
  * - **Retrieve Message by ID**: Fetches message details via its unique ID.
  * - **List Messages by Sender/Recipient**: Retrieves messages between two users.
  * - **List Messages by Group**: Fetches all messages associated with a group.
+ * - **Export History**: Streams a complete conversation or group history in constant memory.
  * - **Update Message Content**: Allows modification of an existing message's contents.
  * - **Delete Message**: Supports both hard and soft deletion of messages.
+ * - **Live Messages**: Pushes new messages over WebSocket instead of having clients poll the history.
  * 
  * Endpoint Summary:
  * 1. `POST /api/messages` - Create a new message.
+ *    - `POST /api/messages/batch` - Create up to 1000 messages at once, with one result per message.
  * 2. `GET /api/messages/{id}` - Retrieve a message by ID.
- * 3. `GET /api/messages/users/{senderId}/{recipientId}` - List direct messages between two users.
- * 4. `GET /api/messages/groups/{groupId}` - List group messages by group ID.
+ * 3. `GET /api/messages/users/{senderId}/{recipientId}` - List one page of direct messages between two users.
+ * 4. `GET /api/messages/groups/{groupId}` - List one page of group messages by group ID.
+ *    - `GET /api/messages/users/{senderId}/{recipientId}/export` - Stream a whole direct history as NDJSON.
+ *    - `GET /api/messages/groups/{groupId}/export` - Stream a whole group history as NDJSON.
  * 5. `PATCH /api/messages/{id}` - Update the content of a specified message.
  * 6. `DELETE /api/messages/{id}` - Permanently delete a message.
  * 7. `POST /api/messages/{id}/softDelete` - Mark a message as deleted.
+ * 8. `WS /api/messages/users/{senderId}/{recipientId}/live` - Receive new direct messages as they are committed.
+ * 9. `WS /api/messages/groups/{groupId}/live` - Receive new group messages as they are committed.
  *
  * Extensibility:
  * - Add features like message attachments, pinned messages, or reactions to messages.
@@ -74,29 +103,49 @@ import java.util.*
  * ### Features:
  * - **Create Message (POST /api/messages)**:
  *   Creates a new message, supporting both group and direct messaging scenarios.
+ *   When an ingest queue is configured, the message is group-committed with concurrent ones; the response is still
+ *   sent only after the commit, and a full queue answers `503 Service Unavailable`.
+ * - **Batch Create Messages (POST /api/messages/batch)**:
+ *   Creates up to 1000 messages using JDBC batching, answering with one result per message, keyed by its index.
  * - **Retrieve Message by ID (GET /api/messages/{id})**:
  *   Fetches message details by its unique identifier.
  * - **List User Messages (GET /api/messages/users/{senderId}/{recipientId})**:
- *   Retrieves all messages exchanged between two users.
+ *   Retrieves one page of the messages exchanged between two users.
  * - **List Group Messages (GET /api/messages/groups/{groupId})**:
- *   Fetches all messages sent to a specific group.
+ *   Fetches one page of the messages sent to a specific group.
+ * - **Export History (GET .../export)**:
+ *   Streams the complete history of a conversation or group as NDJSON, one message per line, oldest first.
+ *   Rows are read through a database cursor and written as they arrive, so memory use stays flat.
  * - **Update Message (PATCH /api/messages/{id})**:
  *   Allows modifying the content of a message.
  * - **Delete Message (DELETE /api/messages/{id})**:
  *   Permanently deletes a message from the database.
  * - **Soft Delete Message (POST /api/messages/{id}/softDelete)**:
  *   Marks a message as deleted without fully removing it from the database.
+ * - **Live Messages (WebSocket .../live)**:
+ *   Pushes every newly committed message of a conversation or group as a JSON text frame. Fed by PostgreSQL
+ *   `LISTEN/NOTIFY`, so messages written through any application node reach subscribers on every node.
+ *   Only available when a [MessageNotificationListener] is configured.
+ *
+ * ### Pagination:
+ * Both listing endpoints accept the optional query parameters `before` or `after` (an opaque cursor taken from a
+ * previous page) and `limit` (1-200, default 50). Without a cursor, the most recent messages are returned.
  *
  * ### Endpoint Details:
  * | HTTP Method | Endpoint                              | Description                               |
  * |-------------|---------------------------------------|-------------------------------------------|
  * | POST        | /api/messages                         | Create a new message.                    |
+ * | POST        | /api/messages/batch                   | Create a batch of messages.              |
  * | GET         | /api/messages/{id}                    | Retrieve a message by ID.                |
- * | GET         | /api/messages/users/{senderId}/{recipientId} | List messages exchanged between users.   |
- * | GET         | /api/messages/groups/{groupId}        | List messages in a group.                |
+ * | GET         | /api/messages/users/{senderId}/{recipientId} | List a page of messages between users.   |
+ * | GET         | /api/messages/groups/{groupId}        | List a page of messages in a group.      |
+ * | GET         | /api/messages/users/{senderId}/{recipientId}/export | Stream a direct history as NDJSON. |
+ * | GET         | /api/messages/groups/{groupId}/export | Stream a group history as NDJSON.        |
  * | PATCH       | /api/messages/{id}                    | Update an existing message's content.    |
  * | DELETE      | /api/messages/{id}                    | Delete a message from the database.      |
  * | POST        | /api/messages/{id}/softDelete         | Soft delete a message.                   |
+ * | WS          | /api/messages/users/{senderId}/{recipientId}/live | Push new direct messages.    |
+ * | WS          | /api/messages/groups/{groupId}/live   | Push new group messages.                 |
  *
  * ### Dependencies:
  * The function depends on an implementation of the `IMessageRepo` interface, which
@@ -121,31 +170,43 @@ import java.util.*
  * - Provides clear and consistent API contract for external clients.
  *
  * @param messageRepo An implementation of the `IMessageRepo` interface used to abstract all database operations.
+ * @param ingestQueue The write-behind queue used to create single messages, or `null` to commit each message directly.
+ * @param notificationListener The source of real-time message pushes, or `null` to disable the live endpoints.
  * @receiver Route The Ktor route to which the message-related endpoints are registered.
  * @author Sergiu Chirap
  * @since 0.4
  */
-fun Route.messageRoutes(messageRepo: IMessageRepo) {
+fun Route.messageRoutes(
+    messageRepo: IMessageRepo,
+    ingestQueue: MessageIngestQueue? = null,
+    notificationListener: MessageNotificationListener? = null
+) {
     route("/api/messages") {
 
         // 1. Create a new message (POST /api/messages).
         post {
             val request = call.receive<CreateMessageRequest>()
-            messageRepo.createMessage(
-                UUID.fromString(request.senderId),
-                request.recipientId?.let(UUID::fromString),
-                request.groupId?.let(UUID::fromString),
-                request.isGroup,
-                request.contentEncrypted
-            )
+            val draft = request.toDraft()
+            if (ingestQueue != null) ingestQueue.submit(draft).await()
+            else dbQuery {
+                messageRepo.createMessage(draft.senderId(), draft.recipientId(), draft.groupId(), draft.isGroup, draft.contentEncrypted())
+            }
             call.respond(mapOf("status" to "success", "message" to "Message created successfully!"))
         }
 
+        // 1a. Create a batch of messages (POST /api/messages/batch).
+        post("/batch") {
+            val request = call.receive<CreateMessagesBatchRequest>()
+            val drafts = request.messages.map { it.toDraft() }
+            val outcomes = dbQuery { messageRepo.createMessages(drafts) }
+            call.respond(outcomes.toBatchResponse())
+        }
+
         // 2. Retrieve a message by its ID (GET /api/messages/{id}).
         get("/{id}") {
             val messageId = call.parameters["id"]?.let(UUID::fromString)
             if (messageId != null) {
-                val message = messageRepo.getMessageById(messageId)
+                val message = dbQuery { messageRepo.getMessageById(messageId) }
                 if (message != null) {
                     call.respond(
                         MessageResponse(
@@ -163,58 +224,78 @@ fun Route.messageRoutes(messageRepo: IMessageRepo) {
             } else call.respond(mapOf("error" to "Invalid message ID"))
         }
 
-        // 3. List all messages between two users (GET /api/messages/users/{senderId}/{recipientId}).
+        // 3. List one page of messages between two users (GET /api/messages/users/{senderId}/{recipientId}?before=&after=&limit=).
         get("/users/{senderId}/{recipientId}") {
             val senderId = call.parameters["senderId"]?.let(UUID::fromString)
             val recipientId = call.parameters["recipientId"]?.let(UUID::fromString)
             if (senderId != null && recipientId != null) {
-                val messages = messageRepo.getAllMessagesBetweenUsers(senderId, recipientId)
-                if (messages != null && messages.isNotEmpty()) {
-                    call.respond(messages.map {
-                        MessageResponse(
-                            id = it.id.toString(),
-                            senderId = it.sender.toString(),
-                            recipientId = it.recipientId?.toString(),
-                            groupId = it.groupId?.toString(),
-                            isGroup = it.isGroup,
-                            contentEncrypted = it.contentEncrypted,
-                            timestamp = it.timestamp.toString(),
-                            isDeleted = it.isDeleted
-                        )
-                    })
-                } else call.respond(mapOf("status" to "success", "message" to "No messages found between the specified users"))
+                val before = call.request.queryParameters["before"]?.let(KeysetCursor::decode)
+                val after = call.request.queryParameters["after"]?.let(KeysetCursor::decode)
+                val limit = call.request.queryParameters["limit"]?.toInt() ?: DEFAULT_PAGE_SIZE
+                val page = dbQuery { messageRepo.getMessagesBetweenUsers(senderId, recipientId, before, after, limit) }
+                call.respond(page.toResponse())
             } else call.respond(mapOf("error" to "Invalid sender or recipient ID"))
         }
 
-        // 4. List all messages in a group (GET /api/messages/groups/{groupId}).
+        // 4. List one page of messages in a group (GET /api/messages/groups/{groupId}?before=&after=&limit=).
         get("/groups/{groupId}") {
             val groupId = call.parameters["groupId"]?.let(UUID::fromString)
             if (groupId != null) {
-                val messages = messageRepo.getAllMessagesForGroup(groupId)
-                if (messages != null && messages.isNotEmpty()) {
-                    call.respond(messages.map {
-                        MessageResponse(
-                            id = it.id.toString(),
-                            senderId = it.sender.toString(),
-                            recipientId = it.recipientId?.toString(),
-                            groupId = it.groupId?.toString(),
-                            isGroup = it.isGroup,
-                            contentEncrypted = it.contentEncrypted,
-                            timestamp = it.timestamp.toString(),
-                            isDeleted = it.isDeleted
-                        )
-                    })
-                } else call.respond(mapOf("status" to "success", "message" to "No messages found for this group"))
+                val before = call.request.queryParameters["before"]?.let(KeysetCursor::decode)
+                val after = call.request.queryParameters["after"]?.let(KeysetCursor::decode)
+                val limit = call.request.queryParameters["limit"]?.toInt() ?: DEFAULT_PAGE_SIZE
+                val page = dbQuery { messageRepo.getMessagesForGroup(groupId, before, after, limit) }
+                call.respond(page.toResponse())
             } else call.respond(mapOf("error" to "Invalid group ID"))
         }
 
+        // 4a. Export the whole history between two users as NDJSON (GET /api/messages/users/{senderId}/{recipientId}/export).
+        get("/users/{senderId}/{recipientId}/export") {
+            val senderId = call.parameters["senderId"]?.let(UUID::fromString)
+            val recipientId = call.parameters["recipientId"]?.let(UUID::fromString)
+            if (senderId != null && recipientId != null) {
+                call.respondTextWriter(NDJSON) {
+                    dbStream { messageRepo.streamMessagesBetweenUsers(senderId, recipientId) { writeLine(it) } }
+                }
+            } else call.respond(mapOf("error" to "Invalid sender or recipient ID"))
+        }
+
+        // 4b. Export the whole history of a group as NDJSON (GET /api/messages/groups/{groupId}/export).
+        get("/groups/{groupId}/export") {
+            val groupId = call.parameters["groupId"]?.let(UUID::fromString)
+            if (groupId != null) {
+                call.respondTextWriter(NDJSON) {
+                    dbStream { messageRepo.streamMessagesForGroup(groupId) { writeLine(it) } }
+                }
+            } else call.respond(mapOf("error" to "Invalid group ID"))
+        }
+
+        // 4c. Subscribe to new messages between two users (WebSocket /api/messages/users/{senderId}/{recipientId}/live).
+        // 4d. Subscribe to new messages in a group (WebSocket /api/messages/groups/{groupId}/live).
+        if (notificationListener != null) {
+            webSocket("/users/{senderId}/{recipientId}/live") {
+                val senderId = call.parameters["senderId"]?.let(UUID::fromString)
+                val recipientId = call.parameters["recipientId"]?.let(UUID::fromString)
+                if (senderId != null && recipientId != null && senderId != recipientId) {
+                    pushMessages(notificationListener, MessageNotificationListener.conversationTopic(senderId, recipientId))
+                } else close(CloseReason(CloseReason.Codes.CANNOT_ACCEPT, "Invalid sender or recipient ID"))
+            }
+
+            webSocket("/groups/{groupId}/live") {
+                val groupId = call.parameters["groupId"]?.let(UUID::fromString)
+                if (groupId != null) pushMessages(notificationListener, groupId)
+                else close(CloseReason(CloseReason.Codes.CANNOT_ACCEPT, "Invalid group ID"))
+            }
+        }
+
         // 5. Update message content (PATCH /api/messages/{id}).
         patch("/{id}") {
             val messageId = call.parameters["id"]?.let(UUID::fromString)
             val request = call.receive<UpdateMessageContentRequest>()
             if (messageId != null) {
-                messageRepo.updateMessageContent(messageId, request.newContentEncrypted)
-                call.respond(mapOf("status" to "success", "message" to "Message updated successfully!"))
+                if (dbQuery { messageRepo.updateMessageContent(messageId, request.newContentEncrypted) } > 0)
+                    call.respond(mapOf("status" to "success", "message" to "Message updated successfully!"))
+                else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Message not found"))
             } else call.respond(mapOf("error" to "Invalid message ID"))
         }
 
@@ -222,7 +303,7 @@ fun Route.messageRoutes(messageRepo: IMessageRepo) {
         delete("/{id}") {
             val messageId = call.parameters["id"]?.let(UUID::fromString)
             if (messageId != null) {
-                messageRepo.deleteMessage(messageId)
+                dbQuery { messageRepo.deleteMessage(messageId) }
                 call.respond(mapOf("status" to "success", "message" to "Message deleted successfully!"))
             } else call.respond(mapOf("error" to "Invalid message ID"))
         }
@@ -231,9 +312,98 @@ fun Route.messageRoutes(messageRepo: IMessageRepo) {
         post("/{id}/softDelete") {
             val messageId = call.parameters["id"]?.let(UUID::fromString)
             if (messageId != null) {
-                messageRepo.markAsDeleted(messageId)
-                call.respond(mapOf("status" to "success", "message" to "Message marked as deleted!"))
+                if (dbQuery { messageRepo.markAsDeleted(messageId) } > 0)
+                    call.respond(mapOf("status" to "success", "message" to "Message marked as deleted!"))
+                else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Message not found"))
             } else call.respond(mapOf("error" to "Invalid message ID"))
         }
     }
-}
\ No newline at end of file
+}
+
+/**
+ * The page size used by the paginated message endpoints when no `limit` is given.
+ */
+private const val DEFAULT_PAGE_SIZE = 50
+
+/**
+ * The content type of the history export endpoints: one JSON-encoded [MessageResponse] per line.
+ */
+private val NDJSON = ContentType("application", "x-ndjson")
+
+/**
+ * Writes a message as one NDJSON line. The writer blocks while the client is slower than the database,
+ * which throttles the underlying cursor instead of buffering rows in memory.
+ */
+private fun Writer.writeLine(message: EMessage) {
+    write(JsonConfig.ndjson.encodeToString(MessageResponse.serializer(), message.toResponse()))
+    write("\n")
+}
+
+/**
+ * The number of messages buffered per live subscriber. A subscriber falling further behind is disconnected,
+ * so one slow client can never hold up the notification listener or grow the heap.
+ */
+private const val LIVE_BUFFER_SIZE = 256
+
+/**
+ * Forwards every new message of [topic] to the WebSocket client until either side closes the connection.
+ *
+ * The listener hands messages over without blocking; they are buffered in a bounded channel and sent from the
+ * session coroutine. Clients should resume from their last known message with the `after` cursor whenever they
+ * (re)connect, since pushes are best effort.
+ */
+private suspend fun DefaultWebSocketServerSession.pushMessages(listener: MessageNotificationListener, topic: UUID) {
+    val outbox = Channel<EMessage>(LIVE_BUFFER_SIZE)
+    val overflowed = AtomicBoolean(false)
+    val subscription = listener.subscribe(topic) {
+        if (outbox.trySend(it).isFailure && overflowed.compareAndSet(false, true)) outbox.close()
+    }
+    launch {
+        incoming.consumeEach { }
+        outbox.close()
+    }
+    try {
+        for (message in outbox) {
+            send(Frame.Text(JsonConfig.ndjson.encodeToString(MessageResponse.serializer(), message.toResponse())))
+        }
+        if (overflowed.get()) close(CloseReason(CloseReason.Codes.TRY_AGAIN_LATER, "Subscriber fell behind"))
+    } finally {
+        subscription.close()
+        outbox.close()
+    }
+}
+
+/**
+ * Converts a creation request into a repository draft.
+ */
+private fun CreateMessageRequest.toDraft() = MessageDraft(
+    UUID.fromString(senderId),
+    recipientId?.let(UUID::fromString),
+    groupId?.let(UUID::fromString),
+    isGroup,
+    contentEncrypted
+)
+
+/**
+ * Maps a message entity to its API representation.
+ */
+private fun EMessage.toResponse() = MessageResponse(
+    id = id.toString(),
+    senderId = sender.toString(),
+    recipientId = recipientId?.toString(),
+    groupId = groupId?.toString(),
+    isGroup = isGroup,
+    contentEncrypted = contentEncrypted,
+    timestamp = timestamp.toString(),
+    isDeleted = isDeleted
+)
+
+/**
+ * Maps a page of message entities to its API representation, including the cursors of its first and last message.
+ */
+private fun KeysetPage<EMessage>.toResponse() = MessagePageResponse(
+    messages = items().map { it.toResponse() },
+    before = items().firstOrNull()?.let { KeysetCursor(it.timestamp, it.id!!).encode() },
+    after = items().lastOrNull()?.let { KeysetCursor(it.timestamp, it.id!!).encode() },
+    hasMore = hasMore()
+)
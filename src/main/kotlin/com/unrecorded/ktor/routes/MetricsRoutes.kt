@@ -0,0 +1,186 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.ktor.routes
+
+import com.unrecorded.database.services.CachedSessionRepo
+import com.unrecorded.database.services.GroupMembershipIndex
+import com.unrecorded.database.services.MessageIngestQueue
+import com.unrecorded.database.services.PasswordHashingService
+import com.unrecorded.database.services.SessionPurgeScheduler
+import com.unrecorded.ktor.dto.IngestMetricsResponse
+import com.unrecorded.ktor.dto.MembershipIndexMetricsResponse
+import com.unrecorded.ktor.dto.PasswordHashingMetricsResponse
+import com.unrecorded.ktor.dto.SessionCacheMetricsResponse
+import com.unrecorded.ktor.dto.SessionPurgeMetricsResponse
+import io.ktor.http.*
+import io.ktor.server.application.*
+import io.ktor.server.response.*
+import io.ktor.server.routing.*
+
+/*
+ * MetricsRoutes.kt
+ *
+ * This file defines the routing logic exposing runtime metrics of the database layer.
+ *
+ * General Purpose:
+ * - To let operators observe the optional services placed in front of the repositories (e.g., queues and pools)
+ *   while tuning their configuration under load.
+ *
+ * Endpoint Summary:
+ * 1. `GET /api/metrics/ingest` - Snapshot of the message ingest queue.
+ * 2. `GET /api/metrics/passwords` - Snapshot of the password hashing pool.
+ * 3. `GET /api/metrics/sessions` - Snapshot of the session cache.
+ * 4. `GET /api/metrics/session-purge` - Snapshot of the expired session purge.
+ * 5. `GET /api/metrics/memberships` - Snapshot of the group membership index.
+ *
+ * Usage:
+ * The `metricsRoutes` function is attached to a `Route` object in Ktor, like every other routing module.
+ *
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+/**
+ * Defines the routing logic for runtime metrics.
+ *
+ * ### Features:
+ * - **Ingest Queue Metrics (GET /api/metrics/ingest)**:
+ *   Returns throughput, batch size and latency figures of the message ingest queue,
+ *   or `404 Not Found` if the queue is disabled.
+ * - **Password Hashing Metrics (GET /api/metrics/passwords)**:
+ *   Returns queue depth, wait time and hash time of the password hashing pool.
+ * - **Session Cache Metrics (GET /api/metrics/sessions)**:
+ *   Returns hits, misses, evictions and size of the session cache, or `404 Not Found` if the cache is disabled.
+ * - **Session Purge Metrics (GET /api/metrics/session-purge)**:
+ *   Returns the rows purged and the time taken by the expired session purges.
+ * - **Membership Index Metrics (GET /api/metrics/memberships)**:
+ *   Returns hits, loads and size of the group membership index, or `404 Not Found` if the index is disabled.
+ *
+ * ### Endpoint Details:
+ * | HTTP Method | Endpoint                   | Description                                 |
+ * |-------------|----------------------------|---------------------------------------------|
+ * | GET         | /api/metrics/ingest        | Snapshot of the message ingest queue.       |
+ * | GET         | /api/metrics/passwords     | Snapshot of the password hashing pool.      |
+ * | GET         | /api/metrics/sessions      | Snapshot of the session cache.              |
+ * | GET         | /api/metrics/session-purge | Snapshot of the expired session purge.      |
+ * | GET         | /api/metrics/memberships   | Snapshot of the group membership index.     |
+ *
+ * @param ingestQueue The message ingest queue, or `null` if it is disabled.
+ * @param passwordHasher The password hashing pool.
+ * @param sessionCache The session cache, or `null` if it is disabled.
+ * @param sessionPurger The scheduler purging expired sessions.
+ * @param membershipIndex The group membership index, or `null` if it is disabled.
+ * @receiver Route The Ktor route to which the metrics endpoints are registered.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+fun Route.metricsRoutes(ingestQueue: MessageIngestQueue?, passwordHasher: PasswordHashingService, sessionCache: CachedSessionRepo?, sessionPurger: SessionPurgeScheduler, membershipIndex: GroupMembershipIndex?) {
+    route("/api/metrics") {
+
+        // 1. Snapshot of the message ingest queue (GET /api/metrics/ingest).
+        get("/ingest") {
+            if (ingestQueue != null) {
+                val metrics = ingestQueue.metrics()
+                call.respond(
+                    IngestMetricsResponse(
+                        submitted = metrics.submitted(),
+                        rejected = metrics.rejected(),
+                        committed = metrics.committed(),
+                        failed = metrics.failed(),
+                        batches = metrics.batches(),
+                        queueDepth = metrics.queueDepth(),
+                        averageBatchSize = metrics.averageBatchSize(),
+                        messagesPerSecond = metrics.messagesPerSecond(),
+                        averageLatencyMillis = metrics.averageLatencyMillis(),
+                        maxLatencyMillis = metrics.maxLatencyMillis(),
+                        averageCommitMillis = metrics.averageCommitMillis()
+                    )
+                )
+            } else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Message ingest queue is disabled"))
+        }
+
+        // 2. Snapshot of the password hashing pool (GET /api/metrics/passwords).
+        get("/passwords") {
+            val metrics = passwordHasher.metrics()
+            call.respond(
+                PasswordHashingMetricsResponse(
+                    submitted = metrics.submitted(),
+                    rejected = metrics.rejected(),
+                    completed = metrics.completed(),
+                    queueDepth = metrics.queueDepth(),
+                    activeWorkers = metrics.activeWorkers(),
+                    averageWaitMillis = metrics.averageWaitMillis(),
+                    maxWaitMillis = metrics.maxWaitMillis(),
+                    averageHashMillis = metrics.averageHashMillis()
+                )
+            )
+        }
+
+        // 3. Snapshot of the session cache (GET /api/metrics/sessions).
+        get("/sessions") {
+            if (sessionCache != null) {
+                val metrics = sessionCache.metrics()
+                call.respond(
+                    SessionCacheMetricsResponse(
+                        hits = metrics.hits(),
+                        negativeHits = metrics.negativeHits(),
+                        misses = metrics.misses(),
+                        evictions = metrics.evictions(),
+                        expirations = metrics.expirations(),
+                        invalidations = metrics.invalidations(),
+                        size = metrics.size(),
+                        hitRatio = metrics.hitRatio()
+                    )
+                )
+            } else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Session cache is disabled"))
+        }
+
+        // 4. Snapshot of the expired session purge (GET /api/metrics/session-purge).
+        get("/session-purge") {
+            val metrics = sessionPurger.metrics()
+            call.respond(
+                SessionPurgeMetricsResponse(
+                    runs = metrics.runs(),
+                    failures = metrics.failures(),
+                    purged = metrics.purged(),
+                    lastPurged = metrics.lastPurged(),
+                    lastDurationMillis = metrics.lastDurationMillis(),
+                    averageDurationMillis = metrics.averageDurationMillis(),
+                    maxDurationMillis = metrics.maxDurationMillis()
+                )
+            )
+        }
+
+        // 5. Snapshot of the group membership index (GET /api/metrics/memberships).
+        get("/memberships") {
+            if (membershipIndex != null) {
+                val metrics = membershipIndex.metrics()
+                call.respond(
+                    MembershipIndexMetricsResponse(
+                        hits = metrics.hits(),
+                        loads = metrics.loads(),
+                        evictions = metrics.evictions(),
+                        expirations = metrics.expirations(),
+                        groups = metrics.groups(),
+                        memberships = metrics.memberships(),
+                        hitRatio = metrics.hitRatio()
+                    )
+                )
+            } else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Membership index is disabled"))
+        }
+    }
+}
@@ -16,10 +16,20 @@
 
 package com.unrecorded.ktor.routes
 
+import com.unrecorded.database.entities.ENotification
 import com.unrecorded.database.repositories.INotificationRepo
+import com.unrecorded.database.repositories.KeysetCursor
+import com.unrecorded.database.repositories.KeysetPage
 import com.unrecorded.ktor.dto.CreateNotificationRequest
+import com.unrecorded.ktor.dto.FanOutNotificationRequest
+import com.unrecorded.ktor.dto.GroupNotificationRequest
+import com.unrecorded.ktor.dto.NotificationIdsRequest
+import com.unrecorded.ktor.dto.NotificationPageResponse
 import com.unrecorded.ktor.dto.NotificationResponse
+import com.unrecorded.ktor.dto.UnreadCountResponse
 import com.unrecorded.ktor.dto.UpdateNotificationReadStatusRequest
+import com.unrecorded.ktor.util.dbQuery
+import io.ktor.http.*
 import io.ktor.server.application.*
 import io.ktor.server.request.*
 import io.ktor.server.response.*
@@ -51,6 +61,13 @@ import java.util.*
  * 5. `PATCH /api/notifications/{id}/readStatus` - Update the read status of a notification.
  * 6. `DELETE /api/notifications/{id}` - Delete a notification by ID.
  * 7. `DELETE /api/notifications/user/{userId}` - Delete all notifications for a specific user.
+ * 8. `PATCH /api/notifications/user/{userId}/readAll` - Mark all notifications of a user as read.
+ * 9. `PATCH /api/notifications/read` - Mark a list of notifications as read.
+ * 10. `POST /api/notifications/delete` - Delete a list of notifications.
+ * 11. `GET /api/notifications/user/{userId}/unread/count` - Retrieve the number of unread notifications of a user.
+ * 12. `GET /api/notifications/user/{userId}/feed` - Retrieve one page of the notification feed of a user, newest first.
+ * 13. `POST /api/notifications/group/{groupId}` - Notify every member of a group.
+ * 14. `POST /api/notifications/fanout` - Notify a list of users.
  *
  * Extensibility:
  * - Additional functionality can be added, such as batch processing notifications or support for real-time notifications.
@@ -87,6 +104,17 @@ import java.util.*
  *   Deletes a notification using its identifier.
  * - **Delete All User Notifications** (DELETE /api/notifications/user/{userId}):
  *    Delete all notifications for a specific user.
+ * - **Bulk Operations** (PATCH /api/notifications/user/{userId}/readAll, PATCH /api/notifications/read,
+ *   POST /api/notifications/delete):
+ *   Mark all notifications of a user as read, or mark or delete a list of notifications. Each request runs as a
+ *   single statement and reports how many notifications it changed.
+ * - **Unread Count** (GET /api/notifications/user/{userId}/unread/count):
+ *   Returns the badge count of a user from a maintained counter, without reading any notification.
+ * - **Notification Feed** (GET /api/notifications/user/{userId}/feed?unread=&before=&limit=):
+ *   Returns one page of notifications, newest first. `unread=true` lists unread notifications only, `before` takes
+ *   the cursor of the oldest notification of the previous page, and `limit` ranges from 1 to 200 (default 50).
+ * - **Fan-Out** (POST /api/notifications/group/{groupId}, POST /api/notifications/fanout):
+ *   Creates the same notification for every member of a group, or for a list of users, in one statement.
  *
  * ### Dependencies:
  * - This function relies on `INotificationRepo` for all notification-related database operations.
@@ -115,6 +143,13 @@ import java.util.*
  * | PATCH       | /api/notifications/{id}/readStatus     | Update notification's read status.    |
  * | DELETE      | /api/notifications/{id}                | Delete a notification by ID.          |
  * | DELETE      | /api/notifications/user/{userId}       | Delete all notifications for a user.  |
+ * | PATCH       | /api/notifications/user/{userId}/readAll | Mark all notifications as read.      |
+ * | PATCH       | /api/notifications/read                | Mark a list of notifications as read. |
+ * | POST        | /api/notifications/delete              | Delete a list of notifications.       |
+ * | GET         | /api/notifications/user/{userId}/unread/count | Retrieve the unread count.     |
+ * | GET         | /api/notifications/user/{userId}/feed  | Retrieve one page of the feed.        |
+ * | POST        | /api/notifications/group/{groupId}     | Notify every member of a group.       |
+ * | POST        | /api/notifications/fanout              | Notify a list of users.               |
  *
  * ### Request/Response Examples:
  * - **Create Notification** (`POST /api/notifications`):
@@ -152,6 +187,21 @@ import java.util.*
  *   ]
  *   ```
  *
+ * - **Mark Notifications as Read** (`PATCH /api/notifications/read`):
+ *   Request Body:
+ *   ```json
+ *   {
+ *       "ids": ["64be46b3-2d8b-4205-9615-f438dbefc0a1", "0f8e8c1e-8a3b-4f7d-9d62-3b8f4e0a2c11"]
+ *   }
+ *   ```
+ *   Response:
+ *   ```json
+ *   {
+ *       "status": "success",
+ *       "message": "2 notifications marked as read."
+ *   }
+ *   ```
+ *
  * ### Benefits:
  * - Provides a structured and consistent API for notification management.
  * - Modular design allows for scalable addition of new features.
@@ -168,7 +218,7 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
         // 1. Create a new notification (POST /api/notifications).
         post {
             val request = call.receive<CreateNotificationRequest>()
-            notificationRepo.createNotification(UUID.fromString(request.userId), request.type, request.content, request.isRead, ZonedDateTime.parse(request.timestamp))
+            dbQuery { notificationRepo.createNotification(UUID.fromString(request.userId), request.type, request.content, request.isRead, ZonedDateTime.parse(request.timestamp)) }
             call.respond(mapOf("status" to "success", "message" to "Notification created successfully!"))
         }
 
@@ -176,7 +226,7 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
         get("/{id}") {
             val notificationId = call.parameters["id"]?.let(UUID::fromString)
             if (notificationId != null) {
-                val notification = notificationRepo.getNotificationById(notificationId)
+                val notification = dbQuery { notificationRepo.getNotificationById(notificationId) }
                 if (notification != null) call.respond(
                     NotificationResponse(
                         id = notification.id?.toString(),
@@ -184,7 +234,8 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
                         type = notification.type,
                         content = notification.content,
                         isRead = notification.isRead,
-                        timestamp = notification.timestamp.toString()
+                        timestamp = notification.timestamp.toString(),
+                        coalescedCount = notification.coalescedCount
                     )
                 )
                 else call.respond(mapOf("error" to "Notification not found"))
@@ -195,7 +246,7 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
         get("/user/{userId}") {
             val userId = call.parameters["userId"]?.let(UUID::fromString)
             if (userId != null) {
-                val notifications = notificationRepo.getNotificationsByUserId(userId)
+                val notifications = dbQuery { notificationRepo.getNotificationsByUserId(userId) }
                 if (notifications != null) call.respond(
                     notifications.map {
                         NotificationResponse(
@@ -204,7 +255,8 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
                             type = it.type,
                             content = it.content,
                             isRead = it.isRead,
-                            timestamp = it.timestamp.toString()
+                            timestamp = it.timestamp.toString(),
+                            coalescedCount = it.coalescedCount
                         )
                     }
                 )
@@ -216,7 +268,7 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
         get("/user/{userId}/unread") {
             val userId = call.parameters["userId"]?.let(UUID::fromString)
             if (userId != null) {
-                val unreadNotifications = notificationRepo.getUnreadNotificationsByUserId(userId)
+                val unreadNotifications = dbQuery { notificationRepo.getUnreadNotificationsByUserId(userId) }
                 if (unreadNotifications != null) call.respond(
                     unreadNotifications.map {
                         NotificationResponse(
@@ -225,7 +277,8 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
                             type = it.type,
                             content = it.content,
                             isRead = it.isRead,
-                            timestamp = it.timestamp.toString()
+                            timestamp = it.timestamp.toString(),
+                            coalescedCount = it.coalescedCount
                         )
                     }
                 )
@@ -238,10 +291,9 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
             val notificationId = call.parameters["id"]?.let(UUID::fromString)
             val updateRequest = call.receive<UpdateNotificationReadStatusRequest>()
             if (notificationId != null) {
-                notificationRepo.updateNotificationReadStatus(notificationId, updateRequest.isRead)
-                val updatedNotification = notificationRepo.getNotificationById(notificationId)
-                if (updatedNotification != null) call.respond(UpdateNotificationReadStatusRequest(isRead = updatedNotification.isRead))
-                else call.respond(mapOf("error" to "Failed to update notification"))
+                if (dbQuery { notificationRepo.updateNotificationReadStatus(notificationId, updateRequest.isRead) } > 0)
+                    call.respond(UpdateNotificationReadStatusRequest(isRead = updateRequest.isRead))
+                else call.respond(HttpStatusCode.NotFound, mapOf("error" to "Notification not found"))
             } else call.respond(mapOf("error" to "Invalid notification ID"))
         }
 
@@ -249,7 +301,7 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
         delete("/{id}") {
             val notificationId = call.parameters["id"]?.let(UUID::fromString)
             if (notificationId != null) {
-                notificationRepo.deleteNotification(notificationId)
+                dbQuery { notificationRepo.deleteNotification(notificationId) }
                 call.respond(mapOf("status" to "success", "message" to "Notification deleted successfully!"))
             } else call.respond(mapOf("error" to "Invalid notification ID"))
         }
@@ -258,9 +310,95 @@ fun Route.notificationRoutes(notificationRepo: INotificationRepo) {
         delete("/user/{userId}") {
             val userId = call.parameters["userId"]?.let(UUID::fromString)
             if (userId != null) {
-                notificationRepo.deleteNotificationsByUserId(userId)
-                call.respond(mapOf("status" to "success", "message" to "All user notifications deleted successfully!"))
+                val deleted = dbQuery { notificationRepo.deleteNotificationsByUserId(userId) }
+                call.respond(mapOf("status" to "success", "message" to "$deleted user notifications deleted successfully!"))
+            } else call.respond(mapOf("error" to "Invalid user ID"))
+        }
+
+        // 8. Mark all notifications of a user as read (PATCH /api/notifications/user/{userId}/readAll).
+        patch("/user/{userId}/readAll") {
+            val userId = call.parameters["userId"]?.let(UUID::fromString)
+            if (userId != null) {
+                val updated = dbQuery { notificationRepo.markAllAsRead(userId) }
+                call.respond(mapOf("status" to "success", "message" to "$updated notifications marked as read."))
             } else call.respond(mapOf("error" to "Invalid user ID"))
         }
+
+        // 9. Mark a list of notifications as read (PATCH /api/notifications/read).
+        patch("/read") {
+            val notificationIds = call.receive<NotificationIdsRequest>().ids.map(UUID::fromString)
+            val updated = dbQuery { notificationRepo.markAsRead(notificationIds) }
+            call.respond(mapOf("status" to "success", "message" to "$updated notifications marked as read."))
+        }
+
+        // 10. Delete a list of notifications (POST /api/notifications/delete).
+        post("/delete") {
+            val notificationIds = call.receive<NotificationIdsRequest>().ids.map(UUID::fromString)
+            val deleted = dbQuery { notificationRepo.deleteNotifications(notificationIds) }
+            call.respond(mapOf("status" to "success", "message" to "$deleted notifications deleted."))
+        }
+
+        // 11. Retrieve the number of unread notifications of a user (GET /api/notifications/user/{userId}/unread/count).
+        get("/user/{userId}/unread/count") {
+            val userId = call.parameters["userId"]?.let(UUID::fromString)
+            if (userId != null) {
+                val unreadCount = dbQuery { notificationRepo.getUnreadCount(userId) }
+                call.respond(UnreadCountResponse(userId = userId.toString(), unreadCount = unreadCount))
+            } else call.respond(mapOf("error" to "Invalid user ID"))
+        }
+
+        // 12. Retrieve one page of the notification feed of a user (GET /api/notifications/user/{userId}/feed?unread=&before=&limit=).
+        get("/user/{userId}/feed") {
+            val userId = call.parameters["userId"]?.let(UUID::fromString)
+            if (userId != null) {
+                val unreadOnly = call.request.queryParameters["unread"]?.toBooleanStrict() ?: false
+                val before = call.request.queryParameters["before"]?.let(KeysetCursor::decode)
+                val limit = call.request.queryParameters["limit"]?.toInt() ?: DEFAULT_PAGE_SIZE
+                val page = dbQuery { notificationRepo.getNotificationFeed(userId, unreadOnly, before, limit) }
+                call.respond(page.toResponse())
+            } else call.respond(mapOf("error" to "Invalid user ID"))
+        }
+
+        // 13. Notify every member of a group (POST /api/notifications/group/{groupId}).
+        post("/group/{groupId}") {
+            val groupId = call.parameters["groupId"]?.let(UUID::fromString)
+            if (groupId != null) {
+                val request = call.receive<GroupNotificationRequest>()
+                val created = dbQuery { notificationRepo.notifyGroupMembers(groupId, request.type, request.content, ZonedDateTime.parse(request.timestamp)) }
+                call.respond(mapOf("status" to "success", "message" to "$created notifications created."))
+            } else call.respond(mapOf("error" to "Invalid group ID"))
+        }
+
+        // 14. Notify a list of users (POST /api/notifications/fanout).
+        post("/fanout") {
+            val request = call.receive<FanOutNotificationRequest>()
+            val userIds = request.userIds.map(UUID::fromString)
+            val created = dbQuery { notificationRepo.notifyUsers(userIds, request.type, request.content, ZonedDateTime.parse(request.timestamp)) }
+            call.respond(mapOf("status" to "success", "message" to "$created notifications created."))
+        }
     }
-}
\ No newline at end of file
+}
+
+/**
+ * The page size used by the notification feed when no `limit` is given.
+ */
+private const val DEFAULT_PAGE_SIZE = 50
+
+/**
+ * Maps a page of notification entities to its API representation, including the cursor of its oldest notification.
+ */
+private fun KeysetPage<ENotification>.toResponse() = NotificationPageResponse(
+    notifications = items().map {
+        NotificationResponse(
+            id = it.id?.toString(),
+            userId = it.userId.toString(),
+            type = it.type,
+            content = it.content,
+            isRead = it.isRead,
+            timestamp = it.timestamp.toString(),
+            coalescedCount = it.coalescedCount
+        )
+    },
+    before = items().lastOrNull()?.let { KeysetCursor(it.timestamp, it.id!!).encode() },
+    hasMore = hasMore()
+)
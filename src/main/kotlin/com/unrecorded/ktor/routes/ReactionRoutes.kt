@@ -19,6 +19,7 @@ package com.unrecorded.ktor.routes
 import com.unrecorded.database.repositories.IReactionRepo
 import com.unrecorded.ktor.dto.ReactionRequest
 import com.unrecorded.ktor.dto.ReactionResponse
+import com.unrecorded.ktor.util.dbQuery
 import io.ktor.server.application.*
 import io.ktor.server.request.*
 import io.ktor.server.response.*
@@ -91,14 +92,14 @@ fun Route.reactionRoutes(reactionRepo: IReactionRepo) {
             val request = call.receive<ReactionRequest>()
             val userId = UUID.fromString(request.userId)
             val messageId = UUID.fromString(request.messageId)
-            reactionRepo.createReaction(userId, messageId, request.emoji)
+            dbQuery { reactionRepo.createReaction(userId, messageId, request.emoji) }
             call.respond(mapOf("status" to "success", "message" to "Reaction created successfully!"))
         }
 
         // 2. Retrieve all reactions for a message (GET /api/reactions/{messageId}).
         get("/{messageId}") {
             val messageId = call.parameters["messageId"]?.let(UUID::fromString) ?: throw IllegalArgumentException("Invalid message ID format.")
-            val reactions = reactionRepo.getReactionsForMessage(messageId)
+            val reactions = dbQuery { reactionRepo.getReactionsForMessage(messageId) }
             if (reactions.isNullOrEmpty()) call.respond(mapOf("status" to "error", "message" to "No reactions found for the provided message ID."))
             else call.respond(reactions.map {
                 ReactionResponse(
@@ -114,7 +115,7 @@ fun Route.reactionRoutes(reactionRepo: IReactionRepo) {
             val request = call.receive<ReactionRequest>()
             val userId = UUID.fromString(request.userId)
             val messageId = UUID.fromString(request.messageId)
-            reactionRepo.deleteReaction(userId, messageId, request.emoji)
+            dbQuery { reactionRepo.deleteReaction(userId, messageId, request.emoji) }
             call.respond(mapOf("status" to "success", "message" to "Reaction deleted successfully!"))
         }
     }
@@ -17,8 +17,10 @@
 package com.unrecorded.ktor.routes
 
 import com.unrecorded.database.repositories.ISessionRepo
+import com.unrecorded.database.services.SessionPurgeScheduler
 import com.unrecorded.ktor.dto.CreateSessionRequest
 import com.unrecorded.ktor.dto.SessionResponse
+import com.unrecorded.ktor.util.dbQuery
 import io.ktor.server.application.*
 import io.ktor.server.request.*
 import io.ktor.server.response.*
@@ -46,7 +48,7 @@ import java.util.*
  * 3. `GET /api/sessions/user/{userId}` - Retrieves all sessions for a specific user.
  * 4. `GET /api/sessions/token/{token}` - Retrieves a session by its token value.
  * 5. `DELETE /api/sessions/{id}` - Deletes a session by its ID.
- * 6. `DELETE /api/sessions/expired` - Deletes all expired sessions.
+ * 6. `DELETE /api/sessions/expired` - Deletes all expired sessions and reports how many were removed.
  *
  * Extensibility:
  * - New operations can be added, such as listing all active sessions or implementing session time extensions.
@@ -78,7 +80,8 @@ import java.util.*
  * - **Session Deletion by ID (DELETE /api/sessions/{id})**:
  *   Deletes a specific session using its unique identifier.
  * - **Expired Sessions Deletion (DELETE /api/sessions/expired)**:
- *   Deletes all expired sessions to maintain efficient system performance.
+ *   Deletes all expired sessions to maintain efficient system performance. The purge runs in bounded batches
+ *   through the [SessionPurgeScheduler], so it never overlaps a scheduled purge.
  *
  * ### Dependencies:
  * - The function interacts with the `ISessionRepo` interface for all session-related database operations,
@@ -92,7 +95,7 @@ import java.util.*
  * Integrate `sessionRoutes` into the application's routing module:
  * ```kotlin
  * routing {
- *     sessionRoutes(sessionRepo)
+ *     sessionRoutes(sessionRepo, sessionPurger)
  * }
  * ```
  * Replace `sessionRepo` with an instance of `ISessionRepo` (e.g., containing session-related database logic).
@@ -108,11 +111,12 @@ import java.util.*
  * | DELETE      | /api/sessions/expired             | Delete all expired sessions.    |
  *
  * @param sessionRepo Dependency injected repository interface for session operations.
+ * @param sessionPurger The scheduler purging expired sessions, also used for on-demand purges.
  * @receiver Route The Ktor routing object where session endpoints are registered.
  * @author Sergiu Chirap
  * @since 0.4
  */
-fun Route.sessionRoutes(sessionRepo: ISessionRepo) {
+fun Route.sessionRoutes(sessionRepo: ISessionRepo, sessionPurger: SessionPurgeScheduler) {
     route("/api/sessions") {
 
         // 1. Create a new session (POST /api/sessions).
@@ -120,7 +124,7 @@ fun Route.sessionRoutes(sessionRepo: ISessionRepo) {
             val request = call.receive<CreateSessionRequest>()
             val userId = UUID.fromString(request.userId)
             val expiresAt = ZonedDateTime.parse(request.expiresAt)
-            sessionRepo.createSession(userId, request.token, expiresAt)
+            dbQuery { sessionRepo.createSession(userId, request.token, expiresAt) }
             call.respond(mapOf("status" to "success", "message" to "Session created successfully!"))
         }
 
@@ -128,7 +132,7 @@ fun Route.sessionRoutes(sessionRepo: ISessionRepo) {
         get("/{id}") {
             val id = call.parameters["id"]?.let(UUID::fromString)
             if (id != null) {
-                val session = sessionRepo.getSessionById(id)
+                val session = dbQuery { sessionRepo.getSessionById(id) }
                 if (session != null) call.respond(
                     SessionResponse(
                         id = session.id.toString(),
@@ -145,7 +149,7 @@ fun Route.sessionRoutes(sessionRepo: ISessionRepo) {
         get("/user/{userId}") {
             val userId = call.parameters["userId"]?.let(UUID::fromString)
             if (userId != null) {
-                val sessions = sessionRepo.getSessionsByUserId(userId)
+                val sessions = dbQuery { sessionRepo.getSessionsByUserId(userId) }
                 if (sessions != null) {
                     call.respond(sessions.map {
                         SessionResponse(
@@ -163,7 +167,7 @@ fun Route.sessionRoutes(sessionRepo: ISessionRepo) {
         get("/token/{token}") {
             val token = call.parameters["token"]
             if (!token.isNullOrEmpty()) {
-                val session = sessionRepo.getSessionByToken(token)
+                val session = dbQuery { sessionRepo.getSessionByToken(token) }
                 if (session != null) call.respond(
                     SessionResponse(
                         id = session.id?.toString(),
@@ -179,15 +183,14 @@ fun Route.sessionRoutes(sessionRepo: ISessionRepo) {
         // 5. Delete a session by its ID (DELETE /api/sessions/{id}).
         delete("/{id}") {
             val sessionId = call.parameters["id"]?.let(UUID::fromString) ?: throw IllegalArgumentException("Invalid session ID format.")
-            sessionRepo.deleteSession(sessionId)
+            dbQuery { sessionRepo.deleteSession(sessionId) }
             call.respond(mapOf("status" to "success", "message" to "Session deleted successfully!"))
         }
 
         // 6. Delete all expired sessions (DELETE /api/sessions/expired).
         delete("/expired") {
-            val currentTime = ZonedDateTime.now()
-            val deleted = sessionRepo.deleteExpiredSessions(currentTime)
-            call.respond(mapOf("status" to "success", "message" to if (deleted) "Expired sessions deleted." else "No expired sessions to delete."))
+            val run = dbQuery { sessionPurger.purgeNow() }
+            call.respond(mapOf("status" to "success", "message" to "Deleted ${run.purged()} expired sessions in ${run.durationMillis()} ms."))
         }
     }
 }
\ No newline at end of file
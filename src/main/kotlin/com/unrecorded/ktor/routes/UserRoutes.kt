@@ -16,16 +16,25 @@
 
 package com.unrecorded.ktor.routes
 
+import com.unrecorded.database.exceptions.DataAccessException
 import com.unrecorded.database.repositories.IUserRepo
+import com.unrecorded.database.services.PasswordHashingService
+import com.unrecorded.database.util.FieldValidator
+import com.unrecorded.database.util.LoggerUtil
+import com.unrecorded.database.util.PasswordUtil
 import com.unrecorded.ktor.dto.CreateUserRequest
 import com.unrecorded.ktor.dto.UpdateEmailRequest
 import com.unrecorded.ktor.dto.UpdateUsernameRequest
 import com.unrecorded.ktor.dto.UserResponse
+import com.unrecorded.ktor.util.dbQuery
+import io.ktor.http.*
 import io.ktor.server.application.*
 import io.ktor.server.request.*
 import io.ktor.server.response.*
 import io.ktor.server.routing.*
+import kotlinx.coroutines.future.await
 import java.util.*
+import java.util.concurrent.RejectedExecutionException
 
 /*
  * UserRoutes.kt
@@ -99,11 +108,15 @@ import java.util.*
  * Attach the `userRoutes` function to a `Routing` object as follows:
  * ```kotlin
  * routing {
- *     userRoutes(userRepo)
+ *     userRoutes(userRepo, passwordHasher)
  * }
  * ```
  * Replace `userRepo` with an implementation of the `IUserRepo` interface.
  *
+ * ### Password Hashing:
+ * Passwords are hashed and verified on the [PasswordHashingService], awaited outside of `dbQuery`, so a login or
+ * signup holds a database permit only for its queries and not for the Argon2 computation.
+ *
  * ### Endpoint Details:
  * | HTTP Method | Endpoint                          | Description                    |
  * |-------------|-----------------------------------|--------------------------------|
@@ -140,18 +153,24 @@ import java.util.*
  * - Simplifies database interaction and promotes clean, modular code design.
  *
  * @param userRepo An implementation of the `IUserRepo` interface, used to access the user database.
+ * @param passwordHasher The bounded pool hashing and verifying passwords.
  * @receiver Route The Ktor route to which the user-related endpoints are registered.
  * @author Sergiu Chirap
  * @since 0.4
  * @see IUserRepo
  */
-fun Route.userRoutes(userRepo: IUserRepo) {
+fun Route.userRoutes(userRepo: IUserRepo, passwordHasher: PasswordHashingService) {
     route("/api/users") {
         
         // 1. Create a new user (POST /api/users).
         post {
             val request = call.receive<CreateUserRequest>()
-            userRepo.createUser(request.username, request.password, request.email, request.publicKey, request.privateKeyEncrypted)
+            FieldValidator.usernameConstraints(request.username)
+            FieldValidator.emailConstraints(request.email)
+            FieldValidator.passwordConstraints(request.password)
+            val salt = PasswordUtil.generateSalt()
+            val passwordHash = passwordHasher.hash(request.password, salt).await()
+            dbQuery { userRepo.createUser(request.username, passwordHash, salt, request.email, request.publicKey, request.privateKeyEncrypted) }
             call.respond(mapOf("status" to "success", "message" to "User created successfully!"))
         }
 
@@ -159,7 +178,7 @@ fun Route.userRoutes(userRepo: IUserRepo) {
         get("/{id}") {
             val userId = call.parameters["id"]?.let(UUID::fromString)
             if (userId != null) {
-                val user = userRepo.getUserById(userId)
+                val user = dbQuery { userRepo.getUserById(userId) }
                 if (user != null) {
                     call.respond(
                         UserResponse(
@@ -181,7 +200,7 @@ fun Route.userRoutes(userRepo: IUserRepo) {
         get("/username/{username}") {
             val username = call.parameters["username"]
             if (username != null) {
-                val user = userRepo.getUserByUsername(username)
+                val user = dbQuery { userRepo.getUserByUsername(username) }
                 if (user != null) {
                     call.respond(
                         UserResponse(
@@ -202,8 +221,9 @@ fun Route.userRoutes(userRepo: IUserRepo) {
             val userId = call.parameters["id"]?.let(UUID::fromString)
             val request = call.receive<UpdateUsernameRequest>()
             if (userId != null) {
-                userRepo.updateUsername(userId, request.username)
-                call.respond(mapOf("status" to "success", "message" to "Username updated successfully!"))
+                if (dbQuery { userRepo.updateUsername(userId, request.username) } > 0)
+                    call.respond(mapOf("status" to "success", "message" to "Username updated successfully!"))
+                else call.respond(HttpStatusCode.NotFound, mapOf("error" to "User not found"))
             } else call.respond(mapOf("error" to "Invalid ID"))
         }
 
@@ -212,8 +232,9 @@ fun Route.userRoutes(userRepo: IUserRepo) {
             val userId = call.parameters["id"]?.let(UUID::fromString)
             val request = call.receive<UpdateEmailRequest>()
             if (userId != null) {
-                userRepo.updateEmail(userId, request.email)
-                call.respond(mapOf("status" to "success", "message" to "Email address updated successfully!"))
+                if (dbQuery { userRepo.updateEmail(userId, request.email) } > 0)
+                    call.respond(mapOf("status" to "success", "message" to "Email address updated successfully!"))
+                else call.respond(HttpStatusCode.NotFound, mapOf("error" to "User not found"))
             } else call.respond(mapOf("error" to "Invalid ID"))
         }
 
@@ -221,7 +242,7 @@ fun Route.userRoutes(userRepo: IUserRepo) {
         delete("/{id}") {
             val userId = call.parameters["id"]?.let(UUID::fromString)
             if (userId != null) {
-                userRepo.deleteUser(userId)
+                dbQuery { userRepo.deleteUser(userId) }
                 call.respond(mapOf("status" to "success", "message" to "User deleted successfully!"))
             } else call.respond(mapOf("error" to "Invalid ID"))
         }
@@ -231,8 +252,34 @@ fun Route.userRoutes(userRepo: IUserRepo) {
             val request = call.receive<Map<String, String>>()
             val username = request["username"] ?: return@post call.respond(mapOf("error" to "Missing username"))
             val password = request["password"] ?: return@post call.respond(mapOf("error" to "Missing password"))
-            val isValid = userRepo.verifyPassword(username, password)
+            val isValid = verifyPassword(userRepo, passwordHasher, username, password)
             call.respond(mapOf("status" to "success", "valid" to isValid))
         }
     }
-}
\ No newline at end of file
+}
+
+/**
+ * Checks a password against the stored credentials of a user, upgrading hashes created with an outdated cost.
+ *
+ * Only the credential lookup and the conditional upgrade run in `dbQuery`; the verification and the rehash are
+ * awaited on the [PasswordHashingService] in between. A failed upgrade is logged and retried on the next login,
+ * since the old hash stays valid.
+ *
+ * @return `true` if the user exists and the password matches.
+ */
+private suspend fun verifyPassword(userRepo: IUserRepo, passwordHasher: PasswordHashingService, username: String, password: String): Boolean {
+    val credentials = dbQuery { userRepo.getCredentialsByUsername(username) } ?: return false
+    if (!passwordHasher.verify(credentials.passHash(), password, credentials.salt()).await()) return false
+    if (passwordHasher.needsRehash(credentials.passHash())) {
+        try {
+            val newSalt = PasswordUtil.generateSalt()
+            val newPasswordHash = passwordHasher.hash(password, newSalt).await()
+            dbQuery { userRepo.upgradePasswordHash(credentials, newPasswordHash, newSalt) }
+        } catch (e: RejectedExecutionException) {
+            LoggerUtil.logWarn("Could not upgrade the password hash of user $username: ${e.message}")
+        } catch (e: DataAccessException) {
+            LoggerUtil.logWarn("Could not upgrade the password hash of user $username: ${e.message}")
+        }
+    }
+    return true
+}
@@ -0,0 +1,240 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.ktor.settings
+
+import com.unrecorded.database.repositories.NotificationPSQL
+import com.unrecorded.database.repositories.SessionPSQL
+import com.unrecorded.database.services.CachedSessionRepo
+import com.unrecorded.database.services.GroupMembershipIndex
+import com.unrecorded.database.services.MessageIngestQueue
+import com.unrecorded.database.services.MessageNotificationListener
+import com.unrecorded.database.services.PasswordHashingService
+import com.unrecorded.database.services.SessionPurgeScheduler
+import com.unrecorded.database.util.Argon2Parameters
+import com.unrecorded.ktor.util.DatabaseExecution
+import com.unrecorded.ktor.util.UnitOfWork
+import io.ktor.server.application.*
+import io.ktor.server.config.*
+import org.koin.core.module.Module
+import org.koin.core.module.dsl.onClose
+import org.koin.dsl.module
+import java.time.Duration
+
+/*
+ * DatabaseSetup.kt
+ *
+ * This file wires the database access layer into the Ktor application lifecycle.
+ *
+ * General Purpose:
+ * - Reads the `database` section of `application.yaml` and applies it to the components sitting between
+ *   the routes and the repositories (e.g., the dispatcher used by `dbQuery`).
+ * - Releases those components when the application stops.
+ *
+ * Configuration Summary:
+ * - `database.execution.poolSize` - Maximum number of concurrent repository calls. Defaults to the c3p0 pool size.
+ * - `database.execution.virtualThreads` - Runs repository calls on virtual threads when the JVM supports them.
+ * - `database.execution.streamLimit` - Maximum number of concurrent streaming exports. Defaults to 2.
+ * - `database.unitOfWork.enabled` - Installs the `UnitOfWork` plugin, sharing one Hibernate session per HTTP call.
+ * - `database.ingest.*` - Enables and sizes the write-behind `MessageIngestQueue` (see `databaseModule`).
+ * - `database.notifications.enabled` - Starts the `MessageNotificationListener` feeding the live message endpoints.
+ * - `database.passwordHashing.*` - Sizes the `PasswordHashingService` running Argon2 for the user routes.
+ * - `database.sessionCache.*` - Enables and sizes the `CachedSessionRepo` serving token lookups from memory.
+ * - `database.sessionPurge.*` - Sets the cadence and batch size of the `SessionPurgeScheduler`.
+ * - `database.notificationCoalescing.windowSeconds` - Merges bursts of unread notifications of the same type.
+ * - `database.membershipIndex.*` - Enables and sizes the `GroupMembershipIndex` answering membership checks from memory.
+ *
+ * Usage:
+ * fun Application.module() {
+ *     configureDatabase()
+ *     configureKtorModules()
+ * }
+ *
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+/**
+ * Configures the database execution layer for the Ktor application.
+ *
+ * ### Features:
+ * - Sizes the [DatabaseExecution] dispatcher from `application.yaml`, falling back to the c3p0 pool size.
+ * - Optionally enables virtual threads for blocking repository calls.
+ * - Optionally installs the [UnitOfWork] plugin.
+ * - Shuts the dispatcher down when the application stops.
+ *
+ * ### Example:
+ * ```yaml
+ * database:
+ *   execution:
+ *     poolSize: 50
+ *     virtualThreads: false
+ *     streamLimit: 2
+ *   unitOfWork:
+ *     enabled: false
+ * ```
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ * @see DatabaseExecution
+ */
+fun Application.configureDatabase() {
+    val config = environment.config
+    DatabaseExecution.configure(
+        poolSize = config.intOrNull("database.execution.poolSize"),
+        virtualThreads = config.booleanOrDefault("database.execution.virtualThreads", false),
+        streamLimit = config.intOrNull("database.execution.streamLimit")
+    )
+
+    if (config.booleanOrDefault("database.unitOfWork.enabled", false)) install(UnitOfWork)
+
+    environment.monitor.subscribe(ApplicationStopped) {
+        DatabaseExecution.shutdown()
+    }
+}
+
+/**
+ * Builds the Koin module holding the services of the database layer.
+ *
+ * ### Features:
+ * - Always registers a [PasswordHashingService], the bounded pool on which `userRoutes` hashes and verifies passwords.
+ *   It defaults to one worker per four cores, since every Argon2 computation itself runs four lanes in parallel.
+ *   The Argon2 cost comes from `database.passwordHashing.iterations/memoryKiB/parallelism` (see `Argon2Calibrator`);
+ *   each missing value keeps the one of [Argon2Parameters.DEFAULT].
+ * - Registers a [MessageIngestQueue] when `database.ingest.enabled` is set. Message creation then goes through the
+ *   queue, which group-commits concurrent messages; otherwise the module is empty and messages are committed one by one.
+ * - The queue is started eagerly and closed together with Koin, committing whatever is still queued.
+ * - Registers a [MessageNotificationListener] when `database.notifications.enabled` is set, enabling the WebSocket
+ *   subscriptions of `messageRoutes`.
+ * - Registers a [CachedSessionRepo] around `SessionPSQL` when `database.sessionCache.enabled` is set; `appModule`
+ *   then hands it out as the `ISessionRepo`. Found sessions are cached until they expire, at most `maxTtlSeconds`,
+ *   and unknown tokens for `negativeTtlSeconds`.
+ * - Always registers a [SessionPurgeScheduler], which also serves `DELETE /api/sessions/expired`. Unless
+ *   `database.sessionPurge.enabled` is `false`, it deletes expired sessions every `intervalSeconds` in batches of
+ *   `batchSize`.
+ * - Registers a [NotificationPSQL] coalescing unread notifications when `database.notificationCoalescing.windowSeconds`
+ *   is positive; `appModule` then hands it out as the `INotificationRepo`.
+ * - Registers a [GroupMembershipIndex] unless `database.membershipIndex.enabled` is `false`; `appModule` shares it
+ *   between the group and group member repositories. At most `maxGroups` groups are kept, each for `ttlSeconds`.
+ *
+ * ### Example:
+ * ```yaml
+ * database:
+ *   ingest:
+ *     enabled: true
+ *     capacity: 10000
+ *     maxBatchSize: 200
+ *     maxDelayMs: 5
+ *   notifications:
+ *     enabled: true
+ *   passwordHashing:
+ *     threads: 2
+ *     queueCapacity: 64
+ *     iterations: 3
+ *     memoryKiB: 65536
+ *     parallelism: 4
+ *   sessionCache:
+ *     enabled: true
+ *     maxEntries: 100000
+ *     maxTtlSeconds: 300
+ *     negativeTtlSeconds: 5
+ *   sessionPurge:
+ *     enabled: true
+ *     intervalSeconds: 300
+ *     batchSize: 1000
+ *   notificationCoalescing:
+ *     windowSeconds: 30
+ *   membershipIndex:
+ *     enabled: true
+ *     maxGroups: 10000
+ *     ttlSeconds: 60
+ * ```
+ *
+ * @param config The application configuration.
+ * @return The module, to be loaded next to `appModule`.
+ * @author Sergiu Chirap
+ * @since 0.5
+ * @see MessageIngestQueue
+ */
+fun databaseModule(config: ApplicationConfig): Module = module {
+    single {
+        PasswordHashingService(
+            config.intOrNull("database.passwordHashing.threads") ?: (Runtime.getRuntime().availableProcessors() / 4).coerceAtLeast(1),
+            config.intOrNull("database.passwordHashing.queueCapacity") ?: 64,
+            Argon2Parameters(
+                config.intOrNull("database.passwordHashing.iterations") ?: Argon2Parameters.DEFAULT.iterations(),
+                config.intOrNull("database.passwordHashing.memoryKiB") ?: Argon2Parameters.DEFAULT.memoryKiB(),
+                config.intOrNull("database.passwordHashing.parallelism") ?: Argon2Parameters.DEFAULT.parallelism()
+            )
+        )
+    } onClose { it?.close() }
+    if (config.booleanOrDefault("database.ingest.enabled", false)) {
+        single(createdAtStart = true) {
+            MessageIngestQueue(
+                get(),
+                config.intOrNull("database.ingest.capacity") ?: 10_000,
+                config.intOrNull("database.ingest.maxBatchSize") ?: 200,
+                Duration.ofMillis((config.intOrNull("database.ingest.maxDelayMs") ?: 5).toLong())
+            ).apply { start() }
+        } onClose { it?.close() }
+    }
+    if (config.booleanOrDefault("database.notifications.enabled", false)) {
+        single(createdAtStart = true) {
+            MessageNotificationListener(get()).apply { start() }
+        } onClose { it?.close() }
+    }
+    if (config.booleanOrDefault("database.sessionCache.enabled", false)) {
+        single {
+            CachedSessionRepo(
+                SessionPSQL(),
+                config.intOrNull("database.sessionCache.maxEntries") ?: 100_000,
+                Duration.ofSeconds((config.intOrNull("database.sessionCache.maxTtlSeconds") ?: 300).toLong()),
+                Duration.ofSeconds((config.intOrNull("database.sessionCache.negativeTtlSeconds") ?: 5).toLong())
+            )
+        }
+    }
+    single(createdAtStart = true) {
+        SessionPurgeScheduler(
+            get(),
+            Duration.ofSeconds((config.intOrNull("database.sessionPurge.intervalSeconds") ?: 300).toLong()),
+            config.intOrNull("database.sessionPurge.batchSize") ?: 1000
+        ).apply { if (config.booleanOrDefault("database.sessionPurge.enabled", true)) start() }
+    } onClose { it?.close() }
+    val coalesceWindowSeconds = config.intOrNull("database.notificationCoalescing.windowSeconds") ?: 0
+    if (coalesceWindowSeconds > 0) {
+        single { NotificationPSQL(Duration.ofSeconds(coalesceWindowSeconds.toLong())) }
+    }
+    if (config.booleanOrDefault("database.membershipIndex.enabled", true)) {
+        single {
+            GroupMembershipIndex(
+                config.intOrNull("database.membershipIndex.maxGroups") ?: 10_000,
+                Duration.ofSeconds((config.intOrNull("database.membershipIndex.ttlSeconds") ?: 60).toLong())
+            )
+        }
+    }
+}
+
+/**
+ * Reads an optional integer property, returning `null` if it is absent or malformed.
+ */
+internal fun ApplicationConfig.intOrNull(path: String): Int? =
+    propertyOrNull(path)?.getString()?.trim()?.toIntOrNull()
+
+/**
+ * Reads an optional boolean property, returning [default] if it is absent or malformed.
+ */
+internal fun ApplicationConfig.booleanOrDefault(path: String, default: Boolean): Boolean =
+    propertyOrNull(path)?.getString()?.trim()?.toBooleanStrictOrNull() ?: default
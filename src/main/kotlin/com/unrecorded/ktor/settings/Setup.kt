@@ -18,6 +18,8 @@ package com.unrecorded.ktor.settings
 
 import com.unrecorded.database.exceptions.DataAccessException
 import com.unrecorded.database.repositories.*
+import com.unrecorded.database.services.CachedSessionRepo
+import com.unrecorded.database.services.GroupMembershipIndex
 import com.unrecorded.ktor.routes.*
 import com.unrecorded.ktor.util.JsonConfig
 import com.unrecorded.ktor.util.handleException
@@ -28,10 +30,13 @@ import io.ktor.server.application.*
 import io.ktor.server.plugins.contentnegotiation.*
 import io.ktor.server.plugins.statuspages.*
 import io.ktor.server.routing.*
+import io.ktor.server.websocket.*
 import org.koin.dsl.module
 import org.koin.ktor.ext.getKoin
 import org.koin.ktor.plugin.Koin
 import org.koin.logger.slf4jLogger
+import java.time.Duration
+import java.util.concurrent.RejectedExecutionException
 
 /*
  * Setup.kt
@@ -52,6 +57,7 @@ import org.koin.logger.slf4jLogger
  * Setup Summary:
  * 1. `configureKtorModules()` - Orchestrates the initialization of all core functionality.
  * 2. `configureContentNegotiation()` - Sets up JSON serialization using Kotlinx Serialization.
+ *    `configureWebSockets()` - Enables WebSocket endpoints for real-time message push.
  * 3. `configureStatusPages()` - Implements a global error-handling strategy for meaningful HTTP responses.
  * 4. `configureDI()` - Initializes the Koin dependency injection framework and binds interfaces to their implementations.
  * 5. `configureRouting()` - Declares application routes for features like users, friendships, groups, and notifications.
@@ -82,6 +88,7 @@ import org.koin.logger.slf4jLogger
  * ### Core Features
  * This function invokes a sequence of dedicated setup methods, each responsible for a specific feature:
  * - [configureContentNegotiation]: Enables automatic JSON serialization and deserialization for request and response bodies.
+ * - [configureWebSockets]: Enables WebSocket endpoints, used to push new messages to subscribed clients.
  * - [configureStatusPages]: Configures a global error-handling mechanism to standardize exception responses.
  * - [configureDI]: Integrates dependency injection using the Koin framework.
  * - [configureRouting]: Sets up the application's routing for API endpoints, such as health checks and user-related routes.
@@ -94,9 +101,10 @@ import org.koin.logger.slf4jLogger
  * ### How It Works
  * This function calls the following methods in the specified order:
  * 1. [configureContentNegotiation] – Sets up content handling with JSON serialization.
- * 2. [configureStatusPages] – Installs and configures uniform error handling behavior.
- * 3. [configureDI] – Initializes dependency injection for managing services and repositories.
- * 4. [configureRouting] – Defines all active routes and endpoints for the application.
+ * 2. [configureWebSockets] – Installs the WebSocket plugin.
+ * 3. [configureStatusPages] – Installs and configures uniform error handling behavior.
+ * 4. [configureDI] – Initializes dependency injection for managing services and repositories.
+ * 5. [configureRouting] – Defines all active routes and endpoints for the application.
  *
  * ### Example
  * To use this function, invoke it during the application module setup:
@@ -132,12 +140,14 @@ import org.koin.logger.slf4jLogger
  * @author Sergiu Chirap
  * @since 0.4
  * @see configureContentNegotiation
+ * @see configureWebSockets
  * @see configureStatusPages
  * @see configureDI
  * @see configureRouting
  */
 fun Application.configureKtorModules() {
     configureContentNegotiation()
+    configureWebSockets()
     configureStatusPages()
     configureDI()
     configureRouting()
@@ -191,6 +201,28 @@ fun Application.configureContentNegotiation() {
     }
 }
 
+/**
+ * Configures the `WebSockets` plugin for the Ktor application.
+ *
+ * WebSockets carry the real-time message subscriptions (see `messageRoutes`). Pings keep idle connections open
+ * through proxies and let the server detect clients that vanished without closing their socket.
+ *
+ * ### Features:
+ * - Sends a ping every 30 seconds and drops connections that do not answer within 15 seconds.
+ * - Rejects frames larger than 64 KiB; subscribers only receive data, so large inbound frames are never expected.
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ * @see io.ktor.server.websocket.WebSockets
+ */
+fun Application.configureWebSockets() {
+    install(WebSockets) {
+        pingPeriod = Duration.ofSeconds(30)
+        timeout = Duration.ofSeconds(15)
+        maxFrameSize = 64 * 1024
+    }
+}
+
 /**
  * Configures the `StatusPages` plugin for the Ktor application.
  *
@@ -199,6 +231,7 @@ fun Application.configureContentNegotiation() {
  *
  * ### Features:
  * - Handles common exceptions like `IllegalArgumentException`.
+ * - Answers `503 Service Unavailable` when a bounded queue (e.g., the message ingest queue) rejects work.
  * - Translates domain-specific exceptions, such as [DataAccessException], into standardized error responses.
  * - Logs exception details and returns meaningful error messages to the client.
  *
@@ -236,6 +269,7 @@ fun Application.configureContentNegotiation() {
 fun Application.configureStatusPages() {
     install(StatusPages) {
         handleException<IllegalArgumentException>(HttpStatusCode.BadRequest)
+        handleException<RejectedExecutionException>(HttpStatusCode.ServiceUnavailable) { "Server busy: ${it.message}" }
         handleException<DataAccessException>(HttpStatusCode.InternalServerError) { "Database error: ${it.message}" }
         handleException<Exception>(HttpStatusCode.InternalServerError) { "Unexpected error: ${it.message}" }
     }
@@ -286,7 +320,7 @@ fun Application.configureStatusPages() {
 fun Application.configureDI() {
     install(Koin) {
         slf4jLogger()
-        modules(appModule)
+        modules(appModule, databaseModule(environment.config))
     }
 }
 
@@ -295,6 +329,9 @@ fun Application.configureDI() {
  *
  * The `appModule` contains singleton registrations for repositories in the application. Each repository represents
  * a specific aspect of data management (users, groups, messages, notifications) and is injected where needed.
+ * Token lookups go through the [CachedSessionRepo] registered by `databaseModule` when the session cache is enabled,
+ * and notifications are coalesced when `databaseModule` registers a [NotificationPSQL] with a coalescing window.
+ * The group repositories share the [GroupMembershipIndex] registered by `databaseModule`, if any.
  *
  * @author Sergiu Chirap
  * @since 0.4
@@ -310,12 +347,12 @@ fun Application.configureDI() {
 val appModule = module {
     single<IUserRepo> { UserPSQL() as IUserRepo }
     single<IFriendshipRepo> { FriendshipPSQL() as IFriendshipRepo }
-    single<IGroupRepo> { GroupPSQL() as IGroupRepo }
-    single<IGroupMemberRepo> { GroupMemberPSQL() as IGroupMemberRepo }
+    single<IGroupRepo> { GroupPSQL(getOrNull()) as IGroupRepo }
+    single<IGroupMemberRepo> { GroupMemberPSQL(getOrNull()) as IGroupMemberRepo }
     single<IMessageRepo> { MessagePSQL() as IMessageRepo }
     single<IReactionRepo> { ReactionPSQL() as IReactionRepo }
-    single<ISessionRepo> { SessionPSQL() as ISessionRepo }
-    single<INotificationRepo> { NotificationPSQL() as INotificationRepo }
+    single<ISessionRepo> { getOrNull<CachedSessionRepo>() ?: SessionPSQL() }
+    single<INotificationRepo> { getOrNull<NotificationPSQL>() ?: NotificationPSQL() }
 }
 
 /**
@@ -345,6 +382,8 @@ val appModule = module {
  *   Manages session-related functionality such as authentication or token validation.
  * - **Notification Management Routes**:
  *   Handles operations for sending, updating, and retrieving notifications.
+ * - **Metrics Routes**:
+ *   Exposes runtime metrics of database-layer services, such as the message ingest queue and the password hasher.
  *
  * ### Dependencies:
  * - Dependency Injection (DI) is managed via the `getKoin().get()` calls, ensuring seamless integration
@@ -377,6 +416,7 @@ val appModule = module {
  * | Reaction Management        | `/api/reactions`                  | Endpoints for reactions to messages.     |
  * | Session Management         | `/api/sessions`                   | Session-related endpoints.               |
  * | Notification Management    | `/api/notifications`              | Notification-related endpoints.          |
+ * | Metrics                    | `/api/metrics`                    | Runtime metrics of the database layer.   |
  *
  * ### Benefits:
  * - Provides a single-entry point for declaring all application routing logic.
@@ -399,13 +439,14 @@ val appModule = module {
 fun Application.configureRouting() {
     routing {
         get("/health") { call.healthCheck() }
-        userRoutes(getKoin().get())
+        userRoutes(getKoin().get(), getKoin().get())
         friendshipRoutes(getKoin().get())
         groupRoutes(getKoin().get())
         groupMemberRoutes(getKoin().get())
-        messageRoutes(getKoin().get())
+        messageRoutes(getKoin().get(), getKoin().getOrNull(), getKoin().getOrNull())
         reactionRoutes(getKoin().get())
-        sessionRoutes(getKoin().get())
+        sessionRoutes(getKoin().get(), getKoin().get())
         notificationRoutes(getKoin().get())
+        metricsRoutes(getKoin().getOrNull(), getKoin().get(), getKoin().getOrNull(), getKoin().get(), getKoin().getOrNull())
     }
 }
\ No newline at end of file
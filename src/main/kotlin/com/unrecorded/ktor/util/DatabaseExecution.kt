@@ -0,0 +1,241 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.ktor.util
+
+import com.unrecorded.database.DBA
+import com.unrecorded.database.util.LoggerUtil
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import kotlinx.coroutines.withContext
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicInteger
+
+/*
+ * DatabaseExecution.kt
+ *
+ * This file provides the bridge between Ktor's coroutine-based request handling and the blocking repository layer.
+ *
+ * General Purpose:
+ * - Repository implementations (e.g., `UserPSQL`) run on top of `HibernateUtil.executeTransaction`, which performs
+ *   blocking JDBC work. Invoking them directly from a route handler parks a Netty event-loop/call thread for the
+ *   whole database round trip, which stalls every other request scheduled on that thread.
+ * - `dbQuery` moves such calls onto a dedicated, bounded dispatcher so the calling coroutine suspends instead of blocking.
+ *
+ * Features:
+ * - **Bounded Concurrency**: The number of in-flight repository calls never exceeds the size of the c3p0 connection pool,
+ *   so callers wait in a cheap coroutine queue instead of inside the pool's connection checkout.
+ * - **Long-running Streams**: Exports that hold a connection for the whole response go through `dbStream`, which caps
+ *   how many of them run at once so they can never occupy the entire pool.
+ * - **Platform or Virtual Threads**: Uses a fixed pool of platform threads by default. When enabled and supported by
+ *   the running JVM (Java 21+), blocking calls run on virtual threads, still bounded by the same permit count.
+ * - **Lifecycle**: The dispatcher is configured once at startup and shut down together with the application.
+ *
+ * Usage Example:
+ * get("/{id}") {
+ *     val user = dbQuery { repo.getUserById(id) }
+ * }
+ *
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+/**
+ * Holds the dispatcher used to execute blocking repository calls off the Ktor request threads.
+ *
+ * The dispatcher is sized to the c3p0 connection pool declared in `hibernate.cfg.xml`
+ * (see [DBA.getConnectionPoolSize]), unless a different size is configured explicitly. Concurrency is additionally
+ * guarded by a coroutine [Semaphore] with the same number of permits, which keeps the virtual-thread mode bounded
+ * as well.
+ *
+ * ### Features:
+ * - Lazily falls back to the default configuration if [configure] was never called.
+ * - Virtual threads are resolved reflectively, since the project targets Java 17. On older runtimes the platform
+ *   thread pool is used and a warning is logged.
+ *
+ * ### Thread Safety:
+ * [configure] and [shutdown] are synchronized; [execute] can be invoked concurrently from any coroutine.
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ * @see dbQuery
+ */
+object DatabaseExecution {
+    private const val DEFAULT_POOL_SIZE = 50
+    private const val DEFAULT_STREAM_LIMIT = 2
+
+    @Volatile
+    private var executor: ExecutorService? = null
+
+    @Volatile
+    private var dispatcher: CoroutineDispatcher? = null
+
+    @Volatile
+    private var permits: Semaphore = Semaphore(DEFAULT_POOL_SIZE)
+
+    @Volatile
+    private var streamPermits: Semaphore = Semaphore(DEFAULT_STREAM_LIMIT)
+
+    /**
+     * The number of repository calls allowed to run concurrently.
+     */
+    @Volatile
+    var poolSize: Int = DEFAULT_POOL_SIZE
+        private set
+
+    /**
+     * Whether blocking calls are currently executed on virtual threads.
+     */
+    @Volatile
+    var usesVirtualThreads: Boolean = false
+        private set
+
+    /**
+     * The number of streaming calls allowed to run concurrently, always lower than [poolSize].
+     */
+    @Volatile
+    var streamLimit: Int = DEFAULT_STREAM_LIMIT
+        private set
+
+    /**
+     * (Re)configures the dispatcher.
+     *
+     * @param poolSize The maximum number of concurrent repository calls, or `null` to use the c3p0 pool size.
+     * @param virtualThreads Whether to run blocking calls on virtual threads when the JVM supports them.
+     * @param streamLimit The maximum number of concurrent streaming calls, or `null` for the default.
+     */
+    @Synchronized
+    fun configure(poolSize: Int? = null, virtualThreads: Boolean = false, streamLimit: Int? = null) {
+        shutdown()
+        val size = poolSize?.takeIf { it > 0 } ?: DBA.getConnectionPoolSize(DEFAULT_POOL_SIZE)
+        val virtualExecutor = if (virtualThreads) newVirtualThreadExecutor() else null
+
+        if (virtualThreads && virtualExecutor == null) {
+            LoggerUtil.logWarn("Virtual threads are not supported by this JVM; falling back to a platform thread pool.")
+        }
+
+        val pool = virtualExecutor ?: Executors.newFixedThreadPool(size, DatabaseThreadFactory())
+        executor = pool
+        dispatcher = pool.asCoroutineDispatcher()
+        permits = Semaphore(size)
+        val streams = (streamLimit?.takeIf { it > 0 } ?: DEFAULT_STREAM_LIMIT).coerceAtMost(maxOf(size - 1, 1))
+        streamPermits = Semaphore(streams)
+        this.streamLimit = streams
+        this.poolSize = size
+        this.usesVirtualThreads = virtualExecutor != null
+        LoggerUtil.logInfo("Database dispatcher configured with {} permits (virtual threads: {}).", size.toString(), usesVirtualThreads.toString())
+    }
+
+    /**
+     * Runs [block] on the database dispatcher, suspending the caller until a permit is available and the block completes.
+     *
+     * @param block The blocking repository call.
+     * @return The value returned by [block].
+     */
+    suspend fun <T> execute(block: () -> T): T {
+        val target = dispatcher ?: synchronized(this) { dispatcher ?: run { configure(); dispatcher!! } }
+        return permits.withPermit { withContext(target) { block() } }
+    }
+
+    /**
+     * Runs a long-lived streaming [block] on the database dispatcher.
+     *
+     * The call first waits for one of the [streamLimit] stream permits and then for a regular permit, so concurrent
+     * exports queue up among themselves instead of draining the connection pool for short requests.
+     *
+     * @param block The blocking streaming call.
+     * @return The value returned by [block].
+     */
+    suspend fun <T> executeStream(block: () -> T): T = streamPermits.withPermit { execute(block) }
+
+    /**
+     * Stops accepting new work and releases the underlying threads.
+     */
+    @Synchronized
+    fun shutdown() {
+        executor?.shutdown()
+        executor = null
+        dispatcher = null
+    }
+
+    /**
+     * Resolves `Executors.newVirtualThreadPerTaskExecutor()` reflectively.
+     *
+     * @return The virtual-thread executor, or `null` if the running JVM does not provide virtual threads.
+     */
+    private fun newVirtualThreadExecutor(): ExecutorService? = try {
+        Executors::class.java.getMethod("newVirtualThreadPerTaskExecutor").invoke(null) as ExecutorService
+    } catch (e: ReflectiveOperationException) {
+        null
+    }
+
+    /**
+     * Creates named daemon threads so the pool never keeps the JVM alive and is easy to spot in thread dumps.
+     */
+    private class DatabaseThreadFactory : ThreadFactory {
+        private val counter = AtomicInteger()
+
+        override fun newThread(runnable: Runnable): Thread =
+            Thread(runnable, "db-exec-${counter.incrementAndGet()}").apply { isDaemon = true }
+    }
+}
+
+/**
+ * Executes a blocking repository call without blocking the calling coroutine.
+ *
+ * Every route handler should wrap repository invocations with this function. Request parsing (`call.receive`)
+ * and responding must stay outside the block, since the block itself is not a suspending context.
+ *
+ * ### Example:
+ * ```kotlin
+ * get("/{userId}") {
+ *     val user = dbQuery { repo.getUserById(userId) }
+ *     call.respond(user)
+ * }
+ * ```
+ *
+ * @param block The blocking call, typically a single repository method invocation.
+ * @return The value returned by [block].
+ * @author Sergiu Chirap
+ * @since 0.5
+ * @see DatabaseExecution
+ */
+suspend fun <T> dbQuery(block: () -> T): T = DatabaseExecution.execute(block)
+
+/**
+ * Executes a blocking, long-running streaming call (e.g., a full history export) without blocking the calling coroutine.
+ *
+ * Behaves like [dbQuery], but is additionally bounded by [DatabaseExecution.streamLimit], since a stream holds its
+ * database connection for as long as the client takes to download the response.
+ *
+ * ### Example:
+ * ```kotlin
+ * call.respondTextWriter(ContentType("application", "x-ndjson")) {
+ *     dbStream { repo.streamMessagesForGroup(groupId) { message -> write(encode(message)) } }
+ * }
+ * ```
+ *
+ * @param block The blocking streaming call.
+ * @return The value returned by [block].
+ * @author Sergiu Chirap
+ * @since 0.5
+ * @see DatabaseExecution.executeStream
+ */
+suspend fun <T> dbStream(block: () -> T): T = DatabaseExecution.executeStream(block)
@@ -16,6 +16,9 @@
 
 package com.unrecorded.ktor.util
 
+import com.unrecorded.database.repositories.BatchOutcome
+import com.unrecorded.ktor.dto.BatchItemResult
+import com.unrecorded.ktor.dto.BatchResultResponse
 import com.unrecorded.ktor.util.JsonConfig.json
 import io.ktor.http.*
 import io.ktor.server.application.*
@@ -36,6 +39,7 @@ import kotlinx.serialization.json.Json
  *   - Simplifies creating a basic health check endpoint returning a "UP" status.
  * - **JSON Configuration**: Offers a centralized configuration for JSON serialization/deserialization, ensuring consistent behavior across the application.
  *   - Includes advanced features like pretty printing, lenient parsing, and unknown key ignoring.
+ * - **Batch Results**: Maps repository batch outcomes to the shared batch response DTO.
  *
  * Extensibility:
  * - Additional utilities can be added to this file for functionalities that are reused across multiple files or modules.
@@ -131,6 +135,7 @@ suspend fun ApplicationCall.healthCheck() {
  * - Ensures predictable and consistent JSON handling across different parts of the application.
  *
  * @property json The [Json] instance configured with application-wide serialization/deserialization settings.
+ * @property ndjson A compact variant of [json] that writes each value on a single line, for NDJSON streams.
  * @author Sergiu Chirap
  * @since 0.4
  * @see kotlinx.serialization.json.Json
@@ -141,4 +146,28 @@ object JsonConfig {
         isLenient = true
         ignoreUnknownKeys = true
     }
-}
\ No newline at end of file
+
+    val ndjson = Json(json) {
+        prettyPrint = false
+    }
+}
+
+/**
+ * Maps the per-item outcomes of a repository batch operation to the response returned by batch endpoints.
+ *
+ * ### Example:
+ * ```kotlin
+ * val outcomes = dbQuery { messageRepo.createMessages(drafts) }
+ * call.respond(outcomes.toBatchResponse())
+ * ```
+ *
+ * @receiver The outcomes, in request order.
+ * @return The response DTO, including the number of applied items.
+ * @author Sergiu Chirap
+ * @since 0.5
+ * @see BatchOutcome
+ */
+fun List<BatchOutcome<*>>.toBatchResponse() = BatchResultResponse(
+    applied = count { it.status() == BatchOutcome.Status.APPLIED },
+    results = map { BatchItemResult(it.key().toString(), it.status().name, it.detail()) }
+)
@@ -0,0 +1,101 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.ktor.util
+
+import com.unrecorded.database.util.HibernateUtil
+import io.ktor.server.application.*
+import kotlinx.coroutines.ThreadContextElement
+import kotlinx.coroutines.withContext
+import org.hibernate.Session
+import kotlin.coroutines.AbstractCoroutineContextElement
+import kotlin.coroutines.CoroutineContext
+
+/*
+ * UnitOfWork.kt
+ *
+ * This file provides an optional Ktor plugin that scopes a single Hibernate session to each HTTP call.
+ *
+ * General Purpose:
+ * - Without the plugin, every repository call opens its own session (nested calls already join the outer one).
+ * - With the plugin, all repository calls made while handling one request share a session, and therefore its
+ *   first-level cache, no matter which `dbQuery` thread they end up running on.
+ *
+ * Features:
+ * - **Coroutine-aware Binding**: The session is bound to whichever thread resumes the request coroutine and
+ *   unbound again when it suspends, through a `ThreadContextElement`.
+ * - **Per-operation Transactions**: Write operations still begin and commit their own transaction on the shared
+ *   session, so the plugin never holds a transaction (or a pooled connection) open across suspension points.
+ * - **Lifecycle**: The session is closed once the call pipeline completes, even on failure.
+ *
+ * Limitations:
+ * - Hibernate sessions are not thread-safe. Handlers must not run repository calls concurrently (e.g., via `async`)
+ *   while the plugin is installed.
+ *
+ * Usage Example:
+ * install(UnitOfWork)
+ *
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+/**
+ * Ktor plugin opening one Hibernate session per HTTP call and binding it for every repository call made by the handler.
+ *
+ * ### Features:
+ * - Opens the session lazily from Hibernate's point of view: no connection is checked out until the first query.
+ * - Binds the session through [HibernateUtil.bindSession], so `HibernateUtil.executeTransaction` joins it.
+ * - Closes the session when the call completes.
+ *
+ * ### Example:
+ * ```kotlin
+ * fun Application.module() {
+ *     install(UnitOfWork)
+ * }
+ * ```
+ *
+ * Enabled from `application.yaml` through `database.unitOfWork.enabled`.
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ * @see HibernateUtil.bindSession
+ */
+val UnitOfWork = createApplicationPlugin(name = "UnitOfWork") {
+    application.intercept(ApplicationCallPipeline.Plugins) {
+        HibernateUtil.openSession().use { session ->
+            withContext(BoundSession(session)) { proceed() }
+        }
+    }
+}
+
+/**
+ * Coroutine context element keeping a Hibernate session bound to the thread currently running the coroutine.
+ *
+ * @property session The session shared by the HTTP call.
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+private class BoundSession(private val session: Session) :
+    AbstractCoroutineContextElement(Key), ThreadContextElement<Session?> {
+
+    companion object Key : CoroutineContext.Key<BoundSession>
+
+    override fun updateThreadContext(context: CoroutineContext): Session? = HibernateUtil.bindSession(session)
+
+    override fun restoreThreadContext(context: CoroutineContext, oldState: Session?) {
+        HibernateUtil.bindSession(oldState)
+    }
+}
@@ -0,0 +1,77 @@
+-- Migration: add the canonical conversation key to direct messages on an existing deployment.
+--
+-- setup.sql creates the column, function, trigger and index for fresh databases. This script brings an existing
+-- 'messages' table up to date without rewriting it or blocking writers for long:
+--   1. Add the nullable column (a catalog-only change).
+--   2. Install the key function and the insert trigger, so new rows are keyed from now on.
+--   3. Backfill existing direct messages in small batches, each committed on its own.
+--   4. Build the timeline index concurrently and drop the superseded one.
+--
+-- Run it with psql outside an explicit transaction block (CREATE INDEX CONCURRENTLY and COMMIT inside the
+-- procedure require it). The backfill can be interrupted and rerun safely.
+
+-- Step 1: Add the column.
+ALTER TABLE postgres.unrecorded.messages ADD COLUMN IF NOT EXISTS conversation_id UUID; -- Canonical key of the unordered DM pair.
+
+-- Step 2: Key function and insert trigger (same definitions as setup.sql).
+CREATE OR REPLACE FUNCTION postgres.unrecorded.conversation_key(a UUID, b UUID) RETURNS UUID AS
+$$
+SELECT md5(LEAST(a, b)::TEXT || GREATEST(a, b)::TEXT)::UUID;
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+CREATE OR REPLACE FUNCTION postgres.unrecorded.before_message_insert() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NEW.conversation_id IS NULL AND NEW.is_group = FALSE THEN
+        NEW.conversation_id := postgres.unrecorded.conversation_key(NEW.sender_id, NEW.recipient_id);
+    END IF;
+
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER before_message_insert
+    BEFORE INSERT
+    ON postgres.unrecorded.messages
+    FOR EACH ROW
+EXECUTE FUNCTION postgres.unrecorded.before_message_insert(); -- Keep conversation_id populated.
+
+-- Step 3: Backfill in batches, walking the primary key so each batch is an index range scan, and committing after
+-- each one to keep locks and WAL bursts short.
+CREATE OR REPLACE PROCEDURE postgres.unrecorded.backfill_conversation_key(batch_size INTEGER DEFAULT 10000) AS
+$$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    next_id UUID;
+BEGIN
+    LOOP
+        SELECT max(message_id)
+        INTO next_id
+        FROM (SELECT message_id
+              FROM postgres.unrecorded.messages
+              WHERE message_id > last_id
+              ORDER BY message_id
+              LIMIT batch_size) AS batch;
+        EXIT WHEN next_id IS NULL;
+
+        UPDATE postgres.unrecorded.messages
+        SET conversation_id = postgres.unrecorded.conversation_key(sender_id, recipient_id)
+        WHERE message_id > last_id
+          AND message_id <= next_id
+          AND conversation_id IS NULL
+          AND is_group = FALSE;
+
+        last_id := next_id;
+        COMMIT;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CALL postgres.unrecorded.backfill_conversation_key();
+DROP PROCEDURE postgres.unrecorded.backfill_conversation_key(INTEGER);
+
+-- Step 4: Index the new lookup path without blocking writes, then drop the index it replaces.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS messages_conversation_timeline_index
+    ON postgres.unrecorded.messages (conversation_id, timestamp, message_id)
+    WHERE conversation_id IS NOT NULL; -- For direct history lookups and keyset pagination.
+DROP INDEX CONCURRENTLY IF EXISTS postgres.unrecorded.messages_direct_timeline_index;
@@ -0,0 +1,10 @@
+-- Migration: index the group message timeline on an existing deployment.
+--
+-- setup.sql creates this index for fresh databases. The paginated group history seeks to its cursor through
+-- (group_id, timestamp, message_id); without the index every page scans and sorts the group's whole history.
+--
+-- Run it with psql outside an explicit transaction block (CREATE INDEX CONCURRENTLY requires it). If the build is
+-- interrupted, drop the invalid index and run the script again.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS messages_group_timeline_index
+    ON postgres.unrecorded.messages (group_id, timestamp, message_id) WHERE is_group = TRUE; -- For keyset pagination of group history.
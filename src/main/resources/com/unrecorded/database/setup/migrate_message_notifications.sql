@@ -0,0 +1,32 @@
+-- Migration: announce committed messages on the 'message_created' channel on an existing deployment.
+--
+-- setup.sql creates the same function and trigger for fresh databases. Requires migrate_conversation_key.sql.
+-- Re-running it on a database that has the former per-row trigger replaces it with the per-statement one.
+-- Without the listener (application.yaml: notifications.enabled = false), skip the announcements altogether:
+-- ALTER DATABASE postgres SET unrecorded.notify_messages = 'off';
+
+CREATE OR REPLACE FUNCTION postgres.unrecorded.after_message_insert() RETURNS TRIGGER AS
+$$
+BEGIN
+    -- Deployments without the listener turn announcements off, so their commits skip the global notify queue:
+    -- ALTER DATABASE postgres SET unrecorded.notify_messages = 'off';
+    IF current_setting('unrecorded.notify_messages', TRUE) = 'off' THEN
+        RETURN NULL;
+    END IF;
+
+    PERFORM pg_notify('message_created', concat_ws(',', topic, string_agg(message_id::TEXT, ',')))
+    FROM (SELECT COALESCE(conversation_id, group_id) AS topic,
+                 message_id,
+                 (row_number() OVER (PARTITION BY COALESCE(conversation_id, group_id)) - 1) / 200 AS chunk
+          FROM new_messages) AS announced
+    GROUP BY topic, chunk;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER after_message_insert
+    AFTER INSERT
+    ON postgres.unrecorded.messages
+    REFERENCING NEW TABLE AS new_messages
+    FOR EACH STATEMENT
+EXECUTE FUNCTION postgres.unrecorded.after_message_insert(); -- Feed real-time subscriptions.
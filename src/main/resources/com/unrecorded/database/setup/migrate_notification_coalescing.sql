@@ -0,0 +1,7 @@
+-- Migration: add the coalesced notification count on an existing deployment.
+--
+-- setup.sql creates the column for fresh databases. A constant default is stored in the catalog, so adding the
+-- column does not rewrite 'notifications'. Existing rows read as plain notifications (a count of 1).
+
+ALTER TABLE postgres.unrecorded.notifications
+    ADD COLUMN IF NOT EXISTS coalesced_count INTEGER DEFAULT 1 NOT NULL; -- Notifications merged into this row.
@@ -0,0 +1,104 @@
+-- Migration: add the unread notification counters on an existing deployment.
+--
+-- setup.sql creates the table, functions and triggers for fresh databases. This script installs them and seeds the
+-- counters from the existing notifications. It runs as one transaction holding a SHARE ROW EXCLUSIVE lock on
+-- 'notifications', so no write can slip between installing the triggers and seeding; reads continue meanwhile.
+
+BEGIN;
+
+-- Create 'Notification Counters' table holding each user's number of unread notifications, maintained by triggers.
+CREATE TABLE IF NOT EXISTS postgres.unrecorded.notification_counters (
+    user_id      UUID PRIMARY KEY REFERENCES users (user_id) ON UPDATE CASCADE ON DELETE CASCADE, -- Removed with the user.
+    unread_count INTEGER NOT NULL DEFAULT 0                                                         -- Unread notifications.
+);
+
+-- Functions to keep 'notification_counters' in step with 'notifications'. They run once per statement over its
+-- transition table, so a bulk insert, update or delete touches each user's counter once, in user order.
+CREATE OR REPLACE FUNCTION postgres.unrecorded.after_notification_insert() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO postgres.unrecorded.notification_counters (user_id, unread_count)
+    SELECT user_id, count(*)
+    FROM new_notifications
+    WHERE is_read = FALSE
+    GROUP BY user_id
+    ORDER BY user_id
+    ON CONFLICT (user_id) DO UPDATE SET unread_count = notification_counters.unread_count + EXCLUDED.unread_count;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION postgres.unrecorded.after_notification_update() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO postgres.unrecorded.notification_counters (user_id, unread_count)
+    SELECT user_id, sum(delta)
+    FROM (SELECT user_id, 1 AS delta FROM new_notifications WHERE is_read = FALSE
+          UNION ALL
+          SELECT user_id, -1 AS delta FROM old_notifications WHERE is_read = FALSE) AS changes
+    GROUP BY user_id
+    HAVING sum(delta) <> 0
+    ORDER BY user_id
+    ON CONFLICT (user_id) DO UPDATE SET unread_count = notification_counters.unread_count + EXCLUDED.unread_count;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION postgres.unrecorded.after_notification_delete() RETURNS TRIGGER AS
+$$
+BEGIN
+    -- An UPDATE ... FROM locks the counters in join order; lock them in user order first, like the other two
+    -- functions, so a delete cannot deadlock with a fan-out insert touching the same users.
+    PERFORM 1
+    FROM postgres.unrecorded.notification_counters
+    WHERE user_id IN (SELECT user_id FROM old_notifications WHERE is_read = FALSE)
+    ORDER BY user_id
+    FOR UPDATE;
+
+    UPDATE postgres.unrecorded.notification_counters AS counters
+    SET unread_count = counters.unread_count - removed.unread_count
+    FROM (SELECT user_id, count(*) AS unread_count
+          FROM old_notifications
+          WHERE is_read = FALSE
+          GROUP BY user_id) AS removed
+    WHERE counters.user_id = removed.user_id;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Triggers to maintain the unread notification counters (transition tables allow one event per trigger).
+CREATE OR REPLACE TRIGGER after_notification_insert
+    AFTER INSERT
+    ON postgres.unrecorded.notifications
+    REFERENCING NEW TABLE AS new_notifications
+    FOR EACH STATEMENT
+EXECUTE FUNCTION postgres.unrecorded.after_notification_insert(); -- Count new unread notifications.
+
+CREATE OR REPLACE TRIGGER after_notification_update
+    AFTER UPDATE
+    ON postgres.unrecorded.notifications
+    REFERENCING OLD TABLE AS old_notifications NEW TABLE AS new_notifications
+    FOR EACH STATEMENT
+EXECUTE FUNCTION postgres.unrecorded.after_notification_update(); -- Follow read status changes.
+
+CREATE OR REPLACE TRIGGER after_notification_delete
+    AFTER DELETE
+    ON postgres.unrecorded.notifications
+    REFERENCING OLD TABLE AS old_notifications
+    FOR EACH STATEMENT
+EXECUTE FUNCTION postgres.unrecorded.after_notification_delete(); -- Uncount removed unread notifications.
+
+-- Seed the counters with one aggregate over the unread notifications.
+LOCK TABLE postgres.unrecorded.notifications IN SHARE ROW EXCLUSIVE MODE;
+
+INSERT INTO postgres.unrecorded.notification_counters (user_id, unread_count)
+SELECT user_id, count(*)
+FROM postgres.unrecorded.notifications
+WHERE is_read = FALSE
+GROUP BY user_id
+ON CONFLICT (user_id) DO UPDATE SET unread_count = EXCLUDED.unread_count;
+
+COMMIT;
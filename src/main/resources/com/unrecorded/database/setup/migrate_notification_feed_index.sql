@@ -0,0 +1,15 @@
+-- Migration: index the notification feeds on an existing deployment.
+--
+-- setup.sql creates these indexes for fresh databases. The paginated feed reads each page backwards through one
+-- of them, so its cost no longer depends on how many notifications a user has:
+--   - (user_id, timestamp, notification_id) serves the full feed and every lookup by user.
+--   - (user_id, is_read, timestamp, notification_id) serves the unread feed.
+--
+-- Run it with psql outside an explicit transaction block (CREATE INDEX CONCURRENTLY requires it). If a build is
+-- interrupted, drop the invalid index and run the script again.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS notifications_feed_index
+    ON postgres.unrecorded.notifications (user_id, timestamp, notification_id); -- For keyset pagination of the full feed.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS notifications_read_feed_index
+    ON postgres.unrecorded.notifications (user_id, is_read, timestamp, notification_id); -- For keyset pagination of the unread feed.
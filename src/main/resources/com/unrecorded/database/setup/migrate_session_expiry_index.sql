@@ -0,0 +1,10 @@
+-- Migration: index session expiry on an existing deployment.
+--
+-- setup.sql creates this index for fresh databases. The expired session purge deletes in small batches, each one
+-- picking its rows by 'expires_at'; without the index every batch scans the whole 'sessions' table.
+--
+-- Run it with psql outside an explicit transaction block (CREATE INDEX CONCURRENTLY requires it). If the build is
+-- interrupted, drop the invalid index and run the script again.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS sessions_expires_at_index
+    ON postgres.unrecorded.sessions (expires_at); -- For batched purges of expired sessions.
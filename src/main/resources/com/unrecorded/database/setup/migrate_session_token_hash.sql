@@ -0,0 +1,83 @@
+-- Migration: look sessions up by a SHA-256 digest of their token on an existing deployment.
+--
+-- setup.sql creates the column, its unique constraint and the trigger for fresh databases. This script brings an
+-- existing 'sessions' table up to date without rewriting it or blocking logins for long:
+--   1. Add the nullable column (a catalog-only change).
+--   2. Update the session trigger, so new and updated rows carry the digest from now on.
+--   3. Backfill existing sessions in small batches, each committed on its own.
+--   4. Build the unique index concurrently, attach it as the constraint and make the column NOT NULL.
+--
+-- Run it with psql outside an explicit transaction block (CREATE INDEX CONCURRENTLY and COMMIT inside the
+-- procedure require it). The backfill can be interrupted and rerun safely. Step 4 fails if two sessions share a
+-- token; delete the duplicates, drop the invalid index and rerun the script.
+
+-- Step 1: Add the column.
+ALTER TABLE postgres.unrecorded.sessions ADD COLUMN IF NOT EXISTS token_hash BYTEA; -- SHA-256 of the token, the lookup key.
+
+-- Step 2: Session trigger (same definition as setup.sql). The expiry check only applies when expires_at is set,
+-- so the backfill below can touch sessions that have already expired.
+CREATE OR REPLACE FUNCTION manage_session() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF (TG_OP = 'INSERT' OR NEW.expires_at IS DISTINCT FROM OLD.expires_at) AND NEW.expires_at <= CURRENT_TIMESTAMP THEN
+        RAISE EXCEPTION 'Session is already expired!'; -- Ensure valid session timings.
+    END IF;
+
+    NEW.token_hash := sha256(convert_to(NEW.token, 'UTF8')); -- Keep the lookup key in sync with the token.
+
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 3: Backfill in batches, walking the primary key so each batch is an index range scan, and committing after
+-- each one to keep locks and WAL bursts short. The trigger computes the digest.
+CREATE OR REPLACE PROCEDURE postgres.unrecorded.backfill_session_token_hash(batch_size INTEGER DEFAULT 10000) AS
+$$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    next_id UUID;
+BEGIN
+    LOOP
+        SELECT max(session_id)
+        INTO next_id
+        FROM (SELECT session_id
+              FROM postgres.unrecorded.sessions
+              WHERE session_id > last_id
+              ORDER BY session_id
+              LIMIT batch_size) AS batch;
+        EXIT WHEN next_id IS NULL;
+
+        UPDATE postgres.unrecorded.sessions
+        SET token_hash = sha256(convert_to(token, 'UTF8'))
+        WHERE session_id > last_id
+          AND session_id <= next_id
+          AND token_hash IS NULL;
+
+        last_id := next_id;
+        COMMIT;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CALL postgres.unrecorded.backfill_session_token_hash();
+DROP PROCEDURE postgres.unrecorded.backfill_session_token_hash(INTEGER);
+
+-- Step 4: Index the new lookup path without blocking writes and promote it to the unique constraint. NOT NULL is
+-- proven by a validated CHECK first, so SET NOT NULL skips its own full-table scan under an exclusive lock.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS sessions_token_hash_key
+    ON postgres.unrecorded.sessions (token_hash); -- For index-backed token lookups.
+
+DO
+$$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'sessions_token_hash_key') THEN
+        ALTER TABLE postgres.unrecorded.sessions ADD CONSTRAINT sessions_token_hash_key UNIQUE USING INDEX sessions_token_hash_key;
+    END IF;
+END;
+$$;
+
+ALTER TABLE postgres.unrecorded.sessions DROP CONSTRAINT IF EXISTS sessions_token_hash_not_null;
+ALTER TABLE postgres.unrecorded.sessions ADD CONSTRAINT sessions_token_hash_not_null CHECK (token_hash IS NOT NULL) NOT VALID;
+ALTER TABLE postgres.unrecorded.sessions VALIDATE CONSTRAINT sessions_token_hash_not_null;
+ALTER TABLE postgres.unrecorded.sessions ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE postgres.unrecorded.sessions DROP CONSTRAINT sessions_token_hash_not_null;
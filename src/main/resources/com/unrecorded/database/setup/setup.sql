@@ -81,6 +81,7 @@ CREATE TABLE IF NOT EXISTS postgres.unrecorded.messages (
     content_encrypted TEXT,
     timestamp         TIMESTAMPTZ      DEFAULT now() NOT NULL,                                          -- Captures message time.
     is_deleted        BOOLEAN NOT NULL DEFAULT FALSE,                                                   -- Flag for deletion state.
+    conversation_id   UUID,                                                                             -- Canonical key of the unordered DM pair.
     CHECK ((recipient_id IS NOT NULL AND group_id IS NULL) OR
            (recipient_id IS NULL AND group_id IS NOT NULL))                                             -- Enforce either individual or group messaging.
 );
@@ -98,7 +99,9 @@ CREATE TABLE IF NOT EXISTS postgres.unrecorded.sessions (
     session_id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
     user_id    UUID        NOT NULL REFERENCES users (user_id) ON UPDATE CASCADE ON DELETE CASCADE, -- Cascade session removal with user.
     token      TEXT        NOT NULL,                                                                -- Store session token.
-    expires_at TIMESTAMPTZ NOT NULL                                                                 -- Define session expiration.
+    token_hash BYTEA       NOT NULL,                                                                -- SHA-256 of the token, the lookup key.
+    expires_at TIMESTAMPTZ NOT NULL,                                                                -- Define session expiration.
+    CONSTRAINT sessions_token_hash_key UNIQUE (token_hash)                                          -- Index-backed token lookups.
 );
 
 -- Create 'Notifications' table to manage system notifications for users.
@@ -108,7 +111,14 @@ CREATE TABLE IF NOT EXISTS postgres.unrecorded.notifications (
     type            VARCHAR(15)                    NOT NULL,                                                                -- Notification type info.
     content         TEXT                           NOT NULL,                                                                -- Content details.
     is_read         BOOLEAN                        NOT NULL,                                                                -- Read a state flag.
-    timestamp       TIMESTAMPTZ      DEFAULT now() NOT NULL                                                                 -- Noting when notification was generated.
+    timestamp       TIMESTAMPTZ      DEFAULT now() NOT NULL,                                                                -- Noting when notification was generated.
+    coalesced_count INTEGER          DEFAULT 1     NOT NULL                                                                 -- Notifications merged into this row.
+);
+
+-- Create 'Notification Counters' table holding each user's number of unread notifications, maintained by triggers.
+CREATE TABLE IF NOT EXISTS postgres.unrecorded.notification_counters (
+    user_id      UUID PRIMARY KEY REFERENCES users (user_id) ON UPDATE CASCADE ON DELETE CASCADE, -- Removed with the user.
+    unread_count INTEGER NOT NULL DEFAULT 0                                                         -- Unread notifications.
 );
 
 -- Create 'DAE' table for detailed logging of database application errors.
@@ -129,6 +139,11 @@ CREATE INDEX status_index ON postgres.unrecorded.friendships (status); -- For ef
 CREATE INDEX timestamp_index ON postgres.unrecorded.messages (timestamp); -- For retrieving messages by time.
 CREATE INDEX deleted_sender_index ON postgres.unrecorded.messages (deleted_sender); -- For sender soft delete tracking.
 CREATE INDEX deleted_recipient_index ON postgres.unrecorded.messages (deleted_recipient); -- For recipient soft delete tracking.
+CREATE INDEX messages_group_timeline_index ON postgres.unrecorded.messages (group_id, timestamp, message_id) WHERE is_group = TRUE; -- For keyset pagination of group history.
+CREATE INDEX messages_conversation_timeline_index ON postgres.unrecorded.messages (conversation_id, timestamp, message_id) WHERE conversation_id IS NOT NULL; -- For direct history lookups and keyset pagination.
+CREATE INDEX sessions_expires_at_index ON postgres.unrecorded.sessions (expires_at); -- For batched purges of expired sessions.
+CREATE INDEX notifications_feed_index ON postgres.unrecorded.notifications (user_id, timestamp, notification_id); -- For keyset pagination of the full feed.
+CREATE INDEX notifications_read_feed_index ON postgres.unrecorded.notifications (user_id, is_read, timestamp, notification_id); -- For keyset pagination of the unread feed.
 
 -- Function to handle user-related cleanup before user deletion.
 CREATE OR REPLACE FUNCTION postgres.unrecorded.before_user_deletion() RETURNS TRIGGER AS
@@ -182,6 +197,47 @@ BEGIN
 END;
 $$ LANGUAGE plpgsql;
 
+-- Function deriving the canonical key of a direct conversation; must match ConversationKey.of in the application.
+CREATE OR REPLACE FUNCTION postgres.unrecorded.conversation_key(a UUID, b UUID) RETURNS UUID AS
+$$
+SELECT md5(LEAST(a, b)::TEXT || GREATEST(a, b)::TEXT)::UUID;
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+-- Function filling in the conversation key of direct messages inserted without one.
+CREATE OR REPLACE FUNCTION postgres.unrecorded.before_message_insert() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NEW.conversation_id IS NULL AND NEW.is_group = FALSE THEN
+        NEW.conversation_id := postgres.unrecorded.conversation_key(NEW.sender_id, NEW.recipient_id);
+    END IF;
+
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Function announcing committed messages to every application node listening on 'message_created'.
+-- Notifications are delivered only when the inserting transaction commits. Each statement sends one payload per
+-- topic, '<topic>,<message_id>,...', the topic being the conversation or group key. Topics with more than 200 new
+-- messages are split over several payloads so each one fits the 8000-byte NOTIFY limit.
+CREATE OR REPLACE FUNCTION postgres.unrecorded.after_message_insert() RETURNS TRIGGER AS
+$$
+BEGIN
+    -- Deployments without the listener turn announcements off, so their commits skip the global notify queue:
+    -- ALTER DATABASE postgres SET unrecorded.notify_messages = 'off';
+    IF current_setting('unrecorded.notify_messages', TRUE) = 'off' THEN
+        RETURN NULL;
+    END IF;
+
+    PERFORM pg_notify('message_created', concat_ws(',', topic, string_agg(message_id::TEXT, ',')))
+    FROM (SELECT COALESCE(conversation_id, group_id) AS topic,
+                 message_id,
+                 (row_number() OVER (PARTITION BY COALESCE(conversation_id, group_id)) - 1) / 200 AS chunk
+          FROM new_messages) AS announced
+    GROUP BY topic, chunk;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
 -- Function to clean up when a message is marked as deleted.
 CREATE OR REPLACE FUNCTION after_message_marked_deletion() RETURNS TRIGGER AS
 $$
@@ -205,14 +261,73 @@ $$ LANGUAGE plpgsql;
 CREATE OR REPLACE FUNCTION manage_session() RETURNS TRIGGER AS
 $$
 BEGIN
-    IF (NEW.expires_at <= CURRENT_TIMESTAMP) THEN
+    IF (TG_OP = 'INSERT' OR NEW.expires_at IS DISTINCT FROM OLD.expires_at) AND NEW.expires_at <= CURRENT_TIMESTAMP THEN
         RAISE EXCEPTION 'Session is already expired!'; -- Ensure valid session timings.
     END IF;
 
+    NEW.token_hash := sha256(convert_to(NEW.token, 'UTF8')); -- Keep the lookup key in sync with the token.
+
     RETURN NEW;
 END;
 $$ LANGUAGE plpgsql;
 
+-- Functions to keep 'notification_counters' in step with 'notifications'. They run once per statement over its
+-- transition table, so a bulk insert, update or delete touches each user's counter once, in user order.
+CREATE OR REPLACE FUNCTION postgres.unrecorded.after_notification_insert() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO postgres.unrecorded.notification_counters (user_id, unread_count)
+    SELECT user_id, count(*)
+    FROM new_notifications
+    WHERE is_read = FALSE
+    GROUP BY user_id
+    ORDER BY user_id
+    ON CONFLICT (user_id) DO UPDATE SET unread_count = notification_counters.unread_count + EXCLUDED.unread_count;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION postgres.unrecorded.after_notification_update() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO postgres.unrecorded.notification_counters (user_id, unread_count)
+    SELECT user_id, sum(delta)
+    FROM (SELECT user_id, 1 AS delta FROM new_notifications WHERE is_read = FALSE
+          UNION ALL
+          SELECT user_id, -1 AS delta FROM old_notifications WHERE is_read = FALSE) AS changes
+    GROUP BY user_id
+    HAVING sum(delta) <> 0
+    ORDER BY user_id
+    ON CONFLICT (user_id) DO UPDATE SET unread_count = notification_counters.unread_count + EXCLUDED.unread_count;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION postgres.unrecorded.after_notification_delete() RETURNS TRIGGER AS
+$$
+BEGIN
+    -- An UPDATE ... FROM locks the counters in join order; lock them in user order first, like the other two
+    -- functions, so a delete cannot deadlock with a fan-out insert touching the same users.
+    PERFORM 1
+    FROM postgres.unrecorded.notification_counters
+    WHERE user_id IN (SELECT user_id FROM old_notifications WHERE is_read = FALSE)
+    ORDER BY user_id
+    FOR UPDATE;
+
+    UPDATE postgres.unrecorded.notification_counters AS counters
+    SET unread_count = counters.unread_count - removed.unread_count
+    FROM (SELECT user_id, count(*) AS unread_count
+          FROM old_notifications
+          WHERE is_read = FALSE
+          GROUP BY user_id) AS removed
+    WHERE counters.user_id = removed.user_id;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
 -- Trigger to call before_user_deletion function before deleting a user.
 CREATE OR REPLACE TRIGGER before_user_deletion
     BEFORE DELETE
@@ -227,6 +342,21 @@ CREATE OR REPLACE TRIGGER after_user_deletion
     FOR EACH ROW
 EXECUTE FUNCTION postgres.unrecorded.after_user_deletion(); -- Handle admin reassignments.
 
+-- Trigger to call before_message_insert so every direct message carries its conversation key.
+CREATE OR REPLACE TRIGGER before_message_insert
+    BEFORE INSERT
+    ON postgres.unrecorded.messages
+    FOR EACH ROW
+EXECUTE FUNCTION postgres.unrecorded.before_message_insert(); -- Keep conversation_id populated.
+
+-- Trigger to call after_message_insert so subscribers are pushed new messages.
+CREATE OR REPLACE TRIGGER after_message_insert
+    AFTER INSERT
+    ON postgres.unrecorded.messages
+    REFERENCING NEW TABLE AS new_messages
+    FOR EACH STATEMENT
+EXECUTE FUNCTION postgres.unrecorded.after_message_insert(); -- Feed real-time subscriptions.
+
 -- Trigger to call after_message_marked_deletion after updating deletion mark status.
 CREATE OR REPLACE TRIGGER after_message_marked_deletion
     AFTER UPDATE OF is_deleted
@@ -242,6 +372,28 @@ CREATE OR REPLACE TRIGGER before_session_insert_or_update
     FOR EACH ROW
 EXECUTE FUNCTION manage_session(); -- Validate sessions on creation/update.
 
+-- Triggers to maintain the unread notification counters (transition tables allow one event per trigger).
+CREATE OR REPLACE TRIGGER after_notification_insert
+    AFTER INSERT
+    ON postgres.unrecorded.notifications
+    REFERENCING NEW TABLE AS new_notifications
+    FOR EACH STATEMENT
+EXECUTE FUNCTION postgres.unrecorded.after_notification_insert(); -- Count new unread notifications.
+
+CREATE OR REPLACE TRIGGER after_notification_update
+    AFTER UPDATE
+    ON postgres.unrecorded.notifications
+    REFERENCING OLD TABLE AS old_notifications NEW TABLE AS new_notifications
+    FOR EACH STATEMENT
+EXECUTE FUNCTION postgres.unrecorded.after_notification_update(); -- Follow read status changes.
+
+CREATE OR REPLACE TRIGGER after_notification_delete
+    AFTER DELETE
+    ON postgres.unrecorded.notifications
+    REFERENCING OLD TABLE AS old_notifications
+    FOR EACH STATEMENT
+EXECUTE FUNCTION postgres.unrecorded.after_notification_delete(); -- Uncount removed unread notifications.
+
 -- Housekeeping: Delete notifications that are read or related to deleted entities.
 CREATE OR REPLACE FUNCTION postgres.unrecorded.notification_housekeeping() RETURNS VOID AS
 $$
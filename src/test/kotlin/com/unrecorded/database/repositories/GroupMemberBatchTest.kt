@@ -0,0 +1,121 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.repositories
+
+import com.unrecorded.database.util.FieldValidator
+import com.unrecorded.ktor.util.toBatchResponse
+import java.util.*
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+/**
+ * Unit tests of the per-user outcome mapping of [GroupMemberPSQL.addMembersToGroup] and
+ * [GroupMemberPSQL.removeMembersFromGroup].
+ *
+ * The database round trips ([GroupMemberPSQL.insertMembers] and [GroupMemberPSQL.deleteMembers]) are replaced, so
+ * only the mapping between user IDs and their outcomes is exercised.
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+class GroupMemberBatchTest {
+
+    private val group = UUID.randomUUID()
+    private val added = UUID.randomUUID()
+    private val member = UUID.randomUUID()
+    private val unknown = UUID.randomUUID()
+
+    @Test
+    fun addMapsEveryUserToItsOutcome() {
+        val repo = FakeRepo(members = mapOf(added to true, member to false))
+
+        val outcomes = repo.addMembersToGroup(group, listOf(added, member, unknown), "member")
+
+        assertEquals(listOf(added, member, unknown), outcomes.map { it.key() })
+        assertEquals(BatchOutcome.applied(added, "member"), outcomes[0])
+        assertEquals(BatchOutcome.skipped(member, "Already a member of the group."), outcomes[1])
+        assertEquals(BatchOutcome.failed(unknown, "User does not exist."), outcomes[2])
+    }
+
+    @Test
+    fun addSendsEachUserOnceAndSkipsDuplicates() {
+        val repo = FakeRepo(members = mapOf(added to true))
+
+        val outcomes = repo.addMembersToGroup(group, listOf(added, added), "member")
+
+        assertEquals(listOf(added), repo.sent.single())
+        assertEquals(BatchOutcome.Status.APPLIED, outcomes[0].status())
+        assertEquals(BatchOutcome.skipped(added, "Duplicate user ID."), outcomes[1])
+    }
+
+    @Test
+    fun removeMapsEveryUserToItsOutcome() {
+        val repo = FakeRepo(removed = setOf(member))
+
+        val outcomes = repo.removeMembersFromGroup(group, listOf(unknown, member, member))
+
+        assertEquals(listOf(unknown, member), repo.sent.single())
+        assertEquals(BatchOutcome.skipped(unknown, "Not a member of the group."), outcomes[0])
+        assertEquals(BatchOutcome.applied(member, null), outcomes[1])
+        assertEquals(BatchOutcome.skipped(member, "Duplicate user ID."), outcomes[2])
+    }
+
+    @Test
+    fun invalidRequestsNeverReachTheDatabase() {
+        val repo = FakeRepo()
+
+        assertFailsWith<IllegalArgumentException> { repo.addMembersToGroup(group, emptyList(), "member") }
+        assertFailsWith<IllegalArgumentException> { repo.addMembersToGroup(group, listOf(added), " ") }
+        assertFailsWith<IllegalArgumentException> {
+            repo.removeMembersFromGroup(group, List(FieldValidator.MAX_BULK_SIZE + 1) { UUID.randomUUID() })
+        }
+        assertTrue(repo.sent.isEmpty())
+    }
+
+    @Test
+    fun responseCountsOnlyAppliedUsers() {
+        val repo = FakeRepo(members = mapOf(added to true, member to false))
+
+        val response = repo.addMembersToGroup(group, listOf(added, member, unknown), "member").toBatchResponse()
+
+        assertEquals(1, response.applied)
+        assertEquals(listOf("APPLIED", "SKIPPED", "FAILED"), response.results.map { it.status })
+        assertEquals(added.toString(), response.results[0].key)
+    }
+
+    /**
+     * Answers the bulk round trips from fixed results and records the IDs sent to them.
+     */
+    private class FakeRepo(
+        private val members: Map<UUID, Boolean> = emptyMap(),
+        private val removed: Set<UUID> = emptySet()
+    ) : GroupMemberPSQL() {
+        val sent = mutableListOf<List<UUID>>()
+
+        override fun insertMembers(groupId: UUID, ids: Array<UUID>, role: String): Map<UUID, Boolean> {
+            sent += ids.toList()
+            return members.filterKeys { it in ids }
+        }
+
+        override fun deleteMembers(groupId: UUID, ids: Array<UUID>): Set<UUID> {
+            sent += ids.toList()
+            return removed.intersect(ids.toSet())
+        }
+    }
+}
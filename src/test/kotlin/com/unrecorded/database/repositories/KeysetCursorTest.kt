@@ -0,0 +1,80 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.repositories
+
+import java.nio.charset.StandardCharsets
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+import java.util.*
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+/**
+ * Unit tests of the opaque pagination token of [KeysetCursor].
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+class KeysetCursorTest {
+
+    @Test
+    fun roundTripKeepsTheInstantAndId() {
+        val timestamp = ZonedDateTime.of(2024, 3, 31, 2, 30, 15, 123_456_789, ZoneId.of("Europe/Copenhagen"))
+        val cursor = KeysetCursor(timestamp, UUID.randomUUID())
+
+        val decoded = KeysetCursor.decode(cursor.encode())
+
+        assertEquals(timestamp.toInstant(), decoded.timestamp.toInstant())
+        assertEquals(cursor.id, decoded.id)
+        assertEquals(ZoneOffset.UTC, decoded.timestamp.zone)
+    }
+
+    @Test
+    fun tokenIsUrlSafe() {
+        repeat(100) {
+            val token = KeysetCursor(ZonedDateTime.now(), UUID.randomUUID()).encode()
+            assertTrue(token.matches(Regex("[A-Za-z0-9_-]+")), "Not URL-safe: $token")
+        }
+    }
+
+    @Test
+    fun equalCursorsEncodeEqually() {
+        val id = UUID.randomUUID()
+        val instant = ZonedDateTime.now(ZoneOffset.UTC)
+        assertEquals(KeysetCursor(instant, id).encode(), KeysetCursor(instant.withZoneSameInstant(ZoneId.of("Asia/Tokyo")), id).encode())
+    }
+
+    @Test
+    fun malformedTokensAreRejected() {
+        val malformed = listOf(
+            "not a token!",
+            "",
+            encode("no separator"),
+            encode("yesterday|${UUID.randomUUID()}"),
+            encode("2024-01-01T00:00:00Z|not-a-uuid")
+        )
+        for (token in malformed) {
+            assertFailsWith<IllegalArgumentException>("Accepted: $token") { KeysetCursor.decode(token) }
+        }
+    }
+
+    private fun encode(raw: String): String =
+        Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toByteArray(StandardCharsets.UTF_8))
+}
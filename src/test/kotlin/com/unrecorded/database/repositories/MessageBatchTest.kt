@@ -0,0 +1,128 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.repositories
+
+import com.unrecorded.database.exceptions.DataAccessException
+import com.unrecorded.database.exceptions.TypeOfDAE
+import com.unrecorded.database.util.FieldValidator
+import com.unrecorded.ktor.util.toBatchResponse
+import java.util.*
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+/**
+ * Unit tests of the per-item outcome mapping of [MessagePSQL.createMessages].
+ *
+ * The database round trips ([MessagePSQL.insertBatch] and [MessagePSQL.createSingle]) are replaced, so only the
+ * mapping between drafts, their indices and their outcomes is exercised.
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+class MessageBatchTest {
+
+    private val sender = UUID.randomUUID()
+    private val recipient = UUID.randomUUID()
+    private val group = UUID.randomUUID()
+
+    private val direct = MessageDraft(sender, recipient, null, false, "direct")
+    private val toGroup = MessageDraft(sender, null, group, true, "group")
+    private val toSelf = MessageDraft(sender, sender, null, false, "self")
+    private val groupless = MessageDraft(sender, null, null, true, "groupless")
+
+    @Test
+    fun validDraftsAreAppliedAtTheirIndex() {
+        val ids = listOf(UUID.randomUUID(), UUID.randomUUID())
+        val repo = FakeRepo(batch = { ids })
+
+        val outcomes = repo.createMessages(listOf(direct, toSelf, toGroup, groupless))
+
+        assertEquals(listOf(direct, toGroup), repo.inserted.single())
+        assertEquals(listOf(0, 1, 2, 3), outcomes.map { it.key() })
+        assertEquals(BatchOutcome.applied(0, ids[0].toString()), outcomes[0])
+        assertEquals(BatchOutcome.Status.REJECTED, outcomes[1].status())
+        assertEquals(BatchOutcome.applied(2, ids[1].toString()), outcomes[2])
+        assertEquals(BatchOutcome.Status.REJECTED, outcomes[3].status())
+        assertEquals("Group messages must include a group ID.", outcomes[3].detail())
+    }
+
+    @Test
+    fun refusedBatchIsRetriedDraftByDraft() {
+        val repo = FakeRepo(
+            batch = { throw DataAccessException(TypeOfDAE.INS, "foreign key violation") },
+            single = { index, _ -> if (index == 2) BatchOutcome.failed(index, "missing group") else BatchOutcome.applied(index, "id-$index") }
+        )
+
+        val outcomes = repo.createMessages(listOf(direct, toSelf, toGroup))
+
+        assertEquals(listOf(0, 2), repo.retried)
+        assertEquals(BatchOutcome.applied(0, "id-0"), outcomes[0])
+        assertEquals(BatchOutcome.Status.REJECTED, outcomes[1].status())
+        assertEquals(BatchOutcome.failed(2, "missing group"), outcomes[2])
+    }
+
+    @Test
+    fun invalidBatchNeverReachesTheDatabase() {
+        val repo = FakeRepo(batch = { error("Unexpected insert") })
+
+        val outcomes = repo.createMessages(listOf(toSelf, groupless))
+
+        assertTrue(repo.inserted.isEmpty())
+        assertTrue(outcomes.all { it.status() == BatchOutcome.Status.REJECTED })
+    }
+
+    @Test
+    fun batchSizeIsBounded() {
+        val repo = FakeRepo(batch = { error("Unexpected insert") })
+        assertFailsWith<IllegalArgumentException> { repo.createMessages(emptyList()) }
+        assertFailsWith<IllegalArgumentException> { repo.createMessages(List(FieldValidator.MAX_BATCH_SIZE + 1) { direct }) }
+    }
+
+    @Test
+    fun responseCountsAppliedItemsAndKeepsOrder() {
+        val repo = FakeRepo(batch = { drafts -> drafts.map { UUID.randomUUID() } })
+
+        val response = repo.createMessages(listOf(direct, toSelf, toGroup)).toBatchResponse()
+
+        assertEquals(2, response.applied)
+        assertEquals(listOf("0", "1", "2"), response.results.map { it.key })
+        assertEquals(listOf("APPLIED", "REJECTED", "APPLIED"), response.results.map { it.status })
+    }
+
+    /**
+     * A [MessagePSQL] whose database round trips are replaced by the given functions.
+     */
+    private class FakeRepo(
+        private val batch: (List<MessageDraft>) -> List<UUID>,
+        private val single: (Int, MessageDraft) -> BatchOutcome<Int> = { index, _ -> BatchOutcome.applied(index, null) }
+    ) : MessagePSQL() {
+        val inserted = mutableListOf<List<MessageDraft>>()
+        val retried = mutableListOf<Int>()
+
+        override fun insertBatch(drafts: List<MessageDraft>): List<UUID> {
+            inserted += drafts
+            return batch(drafts)
+        }
+
+        override fun createSingle(index: Int, draft: MessageDraft): BatchOutcome<Int> {
+            retried += index
+            return single(index, draft)
+        }
+    }
+}
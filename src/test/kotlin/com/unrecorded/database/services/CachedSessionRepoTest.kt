@@ -0,0 +1,239 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.services
+
+import com.unrecorded.database.entities.ESession
+import com.unrecorded.database.repositories.ISessionRepo
+import java.time.Duration
+import java.time.ZonedDateTime
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.concurrent.thread
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+/**
+ * Unit tests of [CachedSessionRepo] against an in-memory [ISessionRepo].
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+class CachedSessionRepoTest {
+
+    private val userId = UUID.randomUUID()
+
+    @Test
+    fun repeatedLookupsAreServedFromMemory() {
+        val repo = FakeSessionRepo()
+        repo.createSession(userId, "token", ZonedDateTime.now().plusHours(1))
+        val cache = CachedSessionRepo(repo, 16, Duration.ofMinutes(5), Duration.ofMinutes(5))
+
+        val first = cache.getSessionByToken("token")
+        assertSame(first, cache.getSessionByToken("token"))
+        assertEquals(1, repo.lookups.get())
+        assertEquals(1, cache.metrics().hits())
+        assertEquals(1, cache.metrics().misses())
+    }
+
+    @Test
+    fun unknownTokensAreRememberedForTheNegativeTtl() {
+        val repo = FakeSessionRepo()
+        val cache = CachedSessionRepo(repo, 16, Duration.ofMinutes(5), Duration.ofMillis(50))
+
+        assertNull(cache.getSessionByToken("unknown"))
+        assertNull(cache.getSessionByToken("unknown"))
+        assertEquals(1, repo.lookups.get())
+
+        Thread.sleep(100)
+        assertNull(cache.getSessionByToken("unknown"))
+        assertEquals(2, repo.lookups.get())
+        assertEquals(1, cache.metrics().expirations())
+    }
+
+    @Test
+    fun foundSessionsAreReloadedAfterTheMaxTtl() {
+        val repo = FakeSessionRepo()
+        repo.createSession(userId, "token", ZonedDateTime.now().plusHours(1))
+        val cache = CachedSessionRepo(repo, 16, Duration.ofMillis(50), Duration.ofMinutes(5))
+
+        cache.getSessionByToken("token")
+        Thread.sleep(100)
+        cache.getSessionByToken("token")
+        assertEquals(2, repo.lookups.get())
+    }
+
+    @Test
+    fun expiredSessionsAreKeptForTheNegativeTtlOnly() {
+        val repo = FakeSessionRepo()
+        repo.createSession(userId, "token", ZonedDateTime.now().minusSeconds(1))
+        val cache = CachedSessionRepo(repo, 16, Duration.ofMinutes(5), Duration.ofMillis(50))
+
+        assertNotNull(cache.getSessionByToken("token"))
+        cache.getSessionByToken("token")
+        assertEquals(1, repo.lookups.get())
+
+        Thread.sleep(100)
+        cache.getSessionByToken("token")
+        assertEquals(2, repo.lookups.get())
+    }
+
+    @Test
+    fun writesInvalidateCachedLookups() {
+        val repo = FakeSessionRepo()
+        val cache = CachedSessionRepo(repo, 16, Duration.ofMinutes(5), Duration.ofMinutes(5))
+
+        assertNull(cache.getSessionByToken("token"))
+        cache.createSession(userId, "token", ZonedDateTime.now().plusHours(1))
+        val session = assertNotNull(cache.getSessionByToken("token"))
+
+        cache.deleteSession(session.id!!)
+        assertNull(cache.getSessionByToken("token"))
+        assertEquals(3, repo.lookups.get())
+        assertEquals(2, cache.metrics().invalidations())
+    }
+
+    @Test
+    fun leastRecentlyUsedEntriesAreEvicted() {
+        val repo = FakeSessionRepo()
+        val cache = CachedSessionRepo(repo, 2, Duration.ofMinutes(5), Duration.ofMinutes(5))
+
+        cache.getSessionByToken("a")
+        cache.getSessionByToken("b")
+        cache.getSessionByToken("a")
+        cache.getSessionByToken("c")
+        cache.getSessionByToken("a")
+        cache.getSessionByToken("b")
+        assertEquals(4, repo.lookups.get())
+        assertEquals(2, cache.metrics().evictions())
+    }
+
+    @Test
+    fun sessionDeletedDuringALookupIsNotCached() {
+        val repo = FakeSessionRepo()
+        repo.createSession(userId, "token", ZonedDateTime.now().plusHours(1))
+        val sessionId = repo.sessions.getValue("token").id!!
+        val cache = CachedSessionRepo(repo, 16, Duration.ofMinutes(5), Duration.ofMinutes(5))
+
+        val found = AtomicReference<ESession?>()
+        val lookup = repo.pauseNextLookup { thread { found.set(cache.getSessionByToken("token")) } }
+        cache.deleteSession(sessionId)
+        lookup.resume()
+
+        assertNotNull(found.get(), "The lookup returns what it read before the delete.")
+        assertNull(cache.getSessionByToken("token"))
+        assertEquals(2, repo.lookups.get())
+    }
+
+    @Test
+    fun sessionCreatedDuringALookupIsNotHiddenByACachedMiss() {
+        val repo = FakeSessionRepo()
+        val cache = CachedSessionRepo(repo, 16, Duration.ofMinutes(5), Duration.ofMinutes(5))
+
+        val lookup = repo.pauseNextLookup { thread { cache.getSessionByToken("token") } }
+        cache.createSession(userId, "token", ZonedDateTime.now().plusHours(1))
+        lookup.resume()
+
+        assertNotNull(cache.getSessionByToken("token"))
+    }
+
+    @Test
+    fun unrelatedWritesDoNotPreventCaching() {
+        val repo = FakeSessionRepo()
+        repo.createSession(userId, "token", ZonedDateTime.now().plusHours(1))
+        val cache = CachedSessionRepo(repo, 16, Duration.ofMinutes(5), Duration.ofMinutes(5))
+
+        val lookup = repo.pauseNextLookup { thread { cache.getSessionByToken("token") } }
+        cache.createSession(userId, "other", ZonedDateTime.now().plusHours(1))
+        lookup.resume()
+
+        cache.getSessionByToken("token")
+        assertEquals(1, repo.lookups.get())
+    }
+
+    /**
+     * A lookup held between its read and its return.
+     */
+    private class PausedLookup(private val proceed: CountDownLatch, private val caller: Thread) {
+        fun resume() {
+            proceed.countDown()
+            caller.join(TimeUnit.SECONDS.toMillis(5))
+            assertTrue(!caller.isAlive, "The paused lookup did not finish.")
+        }
+    }
+
+    /**
+     * An in-memory session repository counting token lookups.
+     */
+    private class FakeSessionRepo : ISessionRepo {
+        val sessions = ConcurrentHashMap<String, ESession>()
+        val lookups = AtomicInteger()
+
+        @Volatile
+        private var pause: Pair<CountDownLatch, CountDownLatch>? = null
+
+        /**
+         * Starts a lookup with [start] and returns once it has read from this repository, before it returns.
+         */
+        fun pauseNextLookup(start: () -> Thread): PausedLookup {
+            val read = CountDownLatch(1)
+            val proceed = CountDownLatch(1)
+            pause = read to proceed
+            val caller = start()
+            assertTrue(read.await(5, TimeUnit.SECONDS), "The lookup did not reach the repository.")
+            return PausedLookup(proceed, caller)
+        }
+
+        override fun createSession(userId: UUID, token: String, expiresAt: ZonedDateTime) {
+            val session = ESession(userId, token, expiresAt)
+            ESession::class.java.getDeclaredField("id").apply { isAccessible = true }.set(session, UUID.randomUUID())
+            sessions[token] = session
+        }
+
+        override fun getSessionById(sessionId: UUID) = sessions.values.firstOrNull { it.id == sessionId }
+
+        override fun getSessionsByUserId(userId: UUID) = sessions.values.filter { it.userId == userId }
+
+        override fun getSessionByToken(token: String): ESession? {
+            lookups.incrementAndGet()
+            val session = sessions[token]
+            pause?.let { (read, proceed) ->
+                pause = null
+                read.countDown()
+                proceed.await(5, TimeUnit.SECONDS)
+            }
+            return session
+        }
+
+        override fun deleteSession(sessionId: UUID) {
+            sessions.values.removeIf { it.id == sessionId }
+        }
+
+        override fun deleteExpiredSessions(currentTime: ZonedDateTime, batchSize: Int): Long {
+            val expired = sessions.values.filter { !it.expiresAt.isAfter(currentTime) }
+            sessions.values.removeAll(expired.toSet())
+            return expired.size.toLong()
+        }
+    }
+}
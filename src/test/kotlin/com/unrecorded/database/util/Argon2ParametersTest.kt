@@ -0,0 +1,66 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util
+
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+/**
+ * Unit tests of [Argon2Parameters.fromHash], which decides whether a stored hash is upgraded at login.
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+class Argon2ParametersTest {
+
+    @Test
+    fun readsTheSettingsOfAnEncodedHash() {
+        assertEquals(Argon2Parameters(3, 65536, 4), Argon2Parameters.fromHash("\$argon2id\$v=19\$m=65536,t=3,p=4\$c2FsdA\$aGFzaA"))
+        assertEquals(Argon2Parameters(2, 19456, 1), Argon2Parameters.fromHash("\$argon2id\$v=19\$m=19456,t=2,p=1\$c2FsdA\$aGFzaA"))
+    }
+
+    @Test
+    fun rejectsOtherFormats() {
+        assertNull(Argon2Parameters.fromHash(""))
+        assertNull(Argon2Parameters.fromHash("\$argon2i\$v=19\$m=65536,t=3,p=4\$c2FsdA\$aGFzaA"))
+        assertNull(Argon2Parameters.fromHash("\$argon2id\$v=19\$t=3,m=65536,p=4\$c2FsdA\$aGFzaA"))
+        assertNull(Argon2Parameters.fromHash("\$2a\$10\$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"))
+        assertNull(Argon2Parameters.fromHash("prefix\$argon2id\$v=19\$m=65536,t=3,p=4\$c2FsdA\$aGFzaA"))
+    }
+
+    @Test
+    fun rejectsSettingsArgon2DoesNotAllow() {
+        assertNull(Argon2Parameters.fromHash("\$argon2id\$v=19\$m=65536,t=0,p=4\$c2FsdA\$aGFzaA"))
+        assertNull(Argon2Parameters.fromHash("\$argon2id\$v=19\$m=16,t=3,p=4\$c2FsdA\$aGFzaA"))
+        assertNull(Argon2Parameters.fromHash("\$argon2id\$v=19\$m=99999999999,t=3,p=4\$c2FsdA\$aGFzaA"))
+        assertFailsWith<IllegalArgumentException> { Argon2Parameters(1, 31, 4) }
+    }
+
+    @Test
+    fun roundTripsThroughPasswordUtil() {
+        val parameters = Argon2Parameters(1, 1024, 1)
+        val hash = PasswordUtil.hashPassword("correct horse battery staple", PasswordUtil.generateSalt(), parameters)
+
+        assertEquals(parameters, Argon2Parameters.fromHash(hash))
+        assertFalse(PasswordUtil.needsRehash(hash, parameters))
+        assertTrue(PasswordUtil.needsRehash(hash, Argon2Parameters.DEFAULT))
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util
+
+import java.util.*
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNotEquals
+
+/**
+ * Unit tests of [ConversationKey], checked against the `conversation_key(a, b)` SQL function of `setup.sql`.
+ *
+ * The expected keys are the values of `SELECT unrecorded.conversation_key(a, b)`, i.e.
+ * `md5(LEAST(a, b)::TEXT || GREATEST(a, b)::TEXT)::UUID`. A mismatch would silently split a conversation between
+ * rows keyed by the application and rows keyed by the trigger, so any change to either side must keep these vectors.
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+class ConversationKeyTest {
+
+    private val vectors = listOf(
+        Triple("00000000-0000-0000-0000-000000000001", "ffffffff-ffff-ffff-ffff-ffffffffffff", "d20cb213-ffe3-022d-3444-60a553cda4d2"),
+        Triple("7fffffff-ffff-ffff-ffff-ffffffffffff", "80000000-0000-0000-0000-000000000000", "4cdb1c10-086f-ab9e-b8f3-507de1b2b9d0"),
+        Triple("123e4567-e89b-12d3-a456-426614174000", "9b2d3a1c-5f0e-4c7a-8d21-3e6f1b0c9a77", "6c4b0d94-4b71-13d7-0f16-caae3e37fde5"),
+        Triple("00000000-0000-0000-8000-000000000000", "00000000-0000-0000-7fff-ffffffffffff", "2a419082-93ce-bbea-7206-cc9a2f404c50")
+    )
+
+    @Test
+    fun matchesTheSqlFunction() {
+        for ((first, second, expected) in vectors) {
+            assertEquals(UUID.fromString(expected), ConversationKey.of(UUID.fromString(first), UUID.fromString(second)), "$first, $second")
+        }
+    }
+
+    @Test
+    fun isSymmetric() {
+        repeat(1000) {
+            val first = UUID.randomUUID()
+            val second = UUID.randomUUID()
+            assertEquals(ConversationKey.of(first, second), ConversationKey.of(second, first))
+        }
+    }
+
+    /**
+     * The second and fourth vectors differ in the sign bit of one half, where [UUID.compareTo] and PostgreSQL disagree
+     * on which UUID is the least. Their keys still match the SQL function (see [matchesTheSqlFunction]).
+     */
+    @Test
+    fun signedOrderingDisagreesWithPostgresqlOnSignBitVectors() {
+        for (index in listOf(1, 3)) {
+            val (first, second, _) = vectors[index]
+            val javaLess = UUID.fromString(first) < UUID.fromString(second)
+            val postgresLess = first < second // PostgreSQL compares the bytes unsigned, like the lowercase text form.
+            assertNotEquals(postgresLess, javaLess, "Vector $index no longer exercises the sign bit")
+        }
+    }
+
+    @Test
+    fun differentPairsGetDifferentKeys() {
+        val user = UUID.randomUUID()
+        assertNotEquals(ConversationKey.of(user, UUID.randomUUID()), ConversationKey.of(user, UUID.randomUUID()))
+    }
+}
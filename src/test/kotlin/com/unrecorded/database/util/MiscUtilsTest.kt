@@ -0,0 +1,68 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util
+
+import com.unrecorded.database.entities.EGroupMember
+import java.util.*
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNotEquals
+import kotlin.test.assertTrue
+
+/**
+ * Unit tests of the allocation-free hash helpers in [MiscUtils].
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+class MiscUtilsTest {
+
+    @Test
+    fun nullHashesLikeZero() {
+        assertEquals(0, MiscUtils.hash(null))
+        assertEquals(MiscUtils.hash(0, 0), MiscUtils.hash(null, null))
+    }
+
+    @Test
+    fun equalValuesHashEqually() {
+        val id = UUID.randomUUID()
+        assertEquals(MiscUtils.hash(id), MiscUtils.hash(UUID(id.mostSignificantBits, id.leastSignificantBits)))
+        assertEquals(MiscUtils.hash(id, "a", 1), MiscUtils.hash(UUID.fromString(id.toString()), "a", 1))
+    }
+
+    @Test
+    fun compositeHashDependsOnOrder() {
+        assertNotEquals(MiscUtils.hash(1, 2), MiscUtils.hash(2, 1))
+        assertNotEquals(MiscUtils.hash(1, 2, 3), MiscUtils.hash(3, 2, 1))
+    }
+
+    @Test
+    fun sequentialKeysSpreadOverBuckets() {
+        val buckets = IntArray(64)
+        for (i in 1..4096) buckets[MiscUtils.hash(i) and 63]++
+        assertTrue(buckets.all { it in 32..128 }, "Uneven buckets: ${buckets.contentToString()}")
+    }
+
+    @Test
+    fun entityHashIsStableAcrossFieldChanges() {
+        val member = EGroupMember(UUID.randomUUID(), UUID.randomUUID(), "MEMBER")
+        val before = member.hashCode()
+        member.role = "ADMIN"
+        assertEquals(before, member.hashCode())
+        assertEquals(EGroupMember.GroupMemberId(member.id.groupId, member.id.userId).hashCode(), member.id.hashCode())
+    }
+}
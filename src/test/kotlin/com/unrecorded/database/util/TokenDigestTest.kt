@@ -0,0 +1,58 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.database.util
+
+import java.util.*
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+
+/**
+ * Unit tests of [TokenDigest], checked against the `manage_session()` trigger function of `setup.sql`.
+ *
+ * The expected digests are the values of `SELECT sha256(convert_to(token, 'UTF8'))`. Sessions are looked up by
+ * the digest the application computes and stored with the digest the trigger computes, so a mismatch (e.g., a
+ * different charset) would make every session of the affected tokens unreachable.
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+class TokenDigestTest {
+
+    private val vectors = listOf(
+        "" to "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+        "abc" to "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+        "sesión-🔑" to "686ad787a76ae72809a6c8c4c60790a44b5310ca7e0fa4b907fab6aa00f25ce0",
+        "a".repeat(64) to "ffe054fe7ae0cb6dc65c3af9b61d5209f439851db43d0ba5997337df154668eb"
+    )
+
+    @Test
+    fun matchesTheSqlDigest() {
+        for ((token, expected) in vectors) {
+            assertEquals(expected, HexFormat.of().formatHex(TokenDigest.of(token)), token)
+        }
+    }
+
+    @Test
+    fun isStableAcrossThreads() {
+        val token = UUID.randomUUID().toString()
+        val digests = arrayOfNulls<ByteArray>(8)
+        val threads = digests.indices.map { i -> Thread { digests[i] = TokenDigest.of(token) }.also(Thread::start) }
+        threads.forEach(Thread::join)
+        for (digest in digests) assertContentEquals(TokenDigest.of(token), digest)
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * VIA University College - School of Technology and Business
+ * Software Engineering Program - 3rd Semester Project
+ *
+ * This work is a part of the academic curriculum for the Software Engineering program at VIA University College.
+ * It is intended only for educational and academic purposes.
+ *
+ * No part of this project may be reproduced or transmitted in any form or by any means,
+ * except as permitted by VIA University and the course instructor.
+ * All rights reserved by the contributors and VIA University College.
+ *
+ * Project Name: Unrecorded
+ * Author: Sergiu Chirap
+ * Year: 2024
+ */
+
+package com.unrecorded.ktor.util
+
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.newSingleThreadContext
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withContext
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.AfterTest
+import kotlin.test.BeforeTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Load test of [DatabaseExecution], with blocking sleeps standing in for JDBC round trips.
+ *
+ * A burst far larger than the pool must complete, never run more blocks at once than there are permits, and leave
+ * the calling thread free to serve other coroutines while it waits.
+ *
+ * @author Sergiu Chirap
+ * @since 0.5
+ */
+class DatabaseExecutionTest {
+
+    @BeforeTest
+    fun setUp() {
+        DatabaseExecution.configure(poolSize = POOL_SIZE)
+    }
+
+    @AfterTest
+    fun tearDown() {
+        DatabaseExecution.shutdown()
+    }
+
+    @Test
+    fun burstNeverExceedsThePoolSize() = runBlocking {
+        val running = AtomicInteger()
+        val peak = AtomicInteger()
+        val results = (1..CALLS).map { i ->
+            async {
+                dbQuery {
+                    peak.accumulateAndGet(running.incrementAndGet(), ::maxOf)
+                    Thread.sleep(5)
+                    running.decrementAndGet()
+                    i
+                }
+            }
+        }.awaitAll()
+
+        assertEquals((1..CALLS).toList(), results)
+        assertTrue(peak.get() <= POOL_SIZE, "Peak concurrency ${peak.get()} exceeded $POOL_SIZE permits")
+        assertEquals(POOL_SIZE, peak.get(), "The burst should saturate the pool")
+    }
+
+    @Test
+    fun waitingCallsDoNotBlockTheCallerThread() = newSingleThreadContext("event-loop").use { eventLoop ->
+        runBlocking {
+            withContext(eventLoop) {
+                val ticks = AtomicInteger()
+                val ticker = launch {
+                    repeat(10) {
+                        delay(10)
+                        ticks.incrementAndGet()
+                    }
+                }
+                (1..CALLS).map { async { dbQuery { Thread.sleep(5) } } }.awaitAll()
+                assertEquals(10, ticks.get(), "The ticker should have run to completion while the burst was queued")
+                ticker.join()
+            }
+        }
+    }
+
+    private companion object {
+        const val POOL_SIZE = 4
+        const val CALLS = 200
+    }
+}